@@ -8,6 +8,9 @@
 plugins {
     // Apply the application plugin to add support for building a CLI application in Java.
     application
+
+    // Microbenchmarks in src/jmh/java; run with ./gradlew :app:jmh
+    alias(libs.plugins.jmh)
 }
 
 repositories {
@@ -32,7 +35,48 @@ java {
     }
 }
 
+jmh {
+    jmhVersion = libs.versions.jmh
+    // Machine-readable results so runs can be compared, e.g. with jmh.morethan.io
+    resultFormat = "JSON"
+    resultsFile = layout.buildDirectory.file("results/jmh/results.json")
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // Narrow a run from the command line: ./gradlew :app:jmh -Pjmh.includes=DailyLog
+    providers.gradleProperty("jmh.includes").orNull?.let { includes.add(it) }
+}
+
 application {
     // Define the main class for the application.
     mainClass = "org.example.App"
 }
+
+// Synthetic profiles for scale testing, e.g. ./gradlew :app:generateData -Pargs="data 10000 1825 5"
+tasks.register<JavaExec>("generateData") {
+    group = "application"
+    description = "Writes seeded synthetic user profiles in the CSVHandler format."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "GragasApp.model.SyntheticDataGenerator"
+    args = providers.gradleProperty("args").orNull?.split(" ") ?: listOf("data", "100", "365", "5")
+}
+
+// Scripted sessions against headless controllers, e.g. ./gradlew :app:loadTest -Pargs="--sessions 5000 --clients 8"
+tasks.register<JavaExec>("loadTest") {
+    group = "verification"
+    description = "Replays scripted sessions against headless controllers and a stub nutrition server."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "GragasApp.loadtest.LoadTestDriver"
+    jvmArgs("-Djava.awt.headless=true")
+    args = providers.gradleProperty("args").orNull?.split(" ") ?: emptyList()
+}
+
+// Local stand-in for the nutrition service; run the app against it with -Dgragas.api.baseUrl=http://127.0.0.1:8089/v1/
+// e.g. ./gradlew :app:nutritionStandIn -Pargs="--latency lognormal:80:0.6 --error-rate 0.05 --rate-limit 10"
+tasks.register<JavaExec>("nutritionStandIn") {
+    group = "application"
+    description = "Serves the nutrition endpoint from fixtures, with optional latency and fault injection."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainClass = "GragasApp.loadtest.StubNutritionServer"
+    args = providers.gradleProperty("args").orNull?.split(" ") ?: emptyList()
+}
@@ -0,0 +1,43 @@
+package GragasApp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Decoding nutrition responses, using canned payloads shaped like the API's.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class APICallerBenchmark {
+
+  /** Items in the response; a query such as "2 eggs and toast" returns several. */
+  @Param({"1", "4", "20"})
+  public int items;
+
+  private String body;
+
+  @Setup
+  public void createPayload() {
+    body = SyntheticDataGenerator.nutritionResponse(items);
+  }
+
+  @Benchmark
+  public double decodeCaloriesOnly() {
+    return APICaller.decodeNutrition(body, null);
+  }
+
+  @Benchmark
+  public double[] decodeWithNutrients() {
+    double[] nutrients = new double[Nutrient.COUNT];
+    APICaller.decodeNutrition(body, nutrients);
+    return nutrients;
+  }
+}
@@ -0,0 +1,25 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+
+/**
+ * Deterministic profiles with a given amount of history, shared by the benchmarks.
+ */
+final class BenchmarkProfiles {
+
+  /** The most recent day of every generated history. */
+  static final LocalDate LAST_DAY = SyntheticDataGenerator.DEFAULT_LAST_DAY;
+
+  private BenchmarkProfiles() {}
+
+  /**
+   * Creates a profile with {days} consecutive logs ending on {#LAST_DAY}.
+   *
+   * @param days          the number of logged days
+   * @param entriesPerDay the number of entries in each log
+   * @return the profile
+   */
+  static UserProfile withHistory(int days, int entriesPerDay) {
+    return new SyntheticDataGenerator(SyntheticDataGenerator.DEFAULT_SEED, days, entriesPerDay).generateUser(0);
+  }
+}
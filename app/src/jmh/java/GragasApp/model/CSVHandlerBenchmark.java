@@ -0,0 +1,96 @@
+package GragasApp.model;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Saving, updating and loading one profile CSV, at several history sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CSVHandlerBenchmark {
+
+  /** Logged days in the profile: a month, a year, five years. */
+  @Param({"30", "365", "1825"})
+  public int days;
+
+  @Param({"5"})
+  public int entriesPerDay;
+
+  private Path directory;
+  private Path file;
+  private CSVHandler handler;
+  private UserProfile user;
+  private DailyLog today;
+
+  @Setup(Level.Trial)
+  public void createProfile() throws IOException {
+    directory = Files.createTempDirectory("csv-bench");
+    handler = new CSVHandler(directory);
+    user = BenchmarkProfiles.withHistory(days, entriesPerDay);
+    today = user.getLog(BenchmarkProfiles.LAST_DAY);
+    file = directory.resolve(user.getName() + ".csv");
+    handler.saveUserProfileToCsv(user);
+  }
+
+  // Day updates append a journal block, so start every iteration from a freshly written file
+  @Setup(Level.Iteration)
+  public void rewriteFile() throws IOException {
+    handler.updateUserProfileToCsv(user);
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteFiles() throws IOException {
+    try (Stream<Path> files = Files.walk(directory)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> {
+        try {
+          Files.delete(p);
+        } catch (IOException e) {
+          throw new UncheckedIOException(e);
+        }
+      });
+    }
+  }
+
+  /** Full rewrite of the profile, as on "Save Changes". */
+  @Benchmark
+  public void saveProfile() throws IOException {
+    handler.updateUserProfileToCsv(user);
+  }
+
+  /** Append of one day, as done by autosave after an edit, including the rewrite that compacts the file every few appends. */
+  @Benchmark
+  public void updateOneDay() throws IOException {
+    handler.updateDailyLogToCsv(user, today);
+  }
+
+  /** Startup load through a fresh handler, including the directory scan. */
+  @Benchmark
+  public CSVHandler loadAll() throws IOException {
+    CSVHandler fresh = new CSVHandler(directory);
+    fresh.loadUserProfilesFromCsvs();
+    return fresh;
+  }
+
+  /** Row parsing alone. */
+  @Benchmark
+  public UserProfile readProfileRows() throws IOException {
+    return handler.readUserProfileFromCsv(file);
+  }
+}
@@ -0,0 +1,53 @@
+package GragasApp.model;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Daily totals, which the dashboard reads after every change. The totals are kept up to date by
+ * each edit, so reading them is O(1); the day size shows up only in the cost of the edit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DailyLogBenchmark {
+
+  @Param({"5", "50", "1000"})
+  public int entries;
+
+  private DailyLog log;
+
+  @Setup
+  public void fillLog() {
+    log = BenchmarkProfiles.withHistory(1, entries).getLog(BenchmarkProfiles.LAST_DAY);
+  }
+
+  /** Logging a food and reading the new totals, as the dashboard does; the food is removed again to keep the day size fixed. */
+  @Benchmark
+  public int addEntryThenTotals() {
+    FoodEntry entry = new FoodEntry("apple", 52);
+    log.addEntry(entry);
+    int calories = log.getTotalCalories() + (int) log.getTotal(Nutrient.PROTEIN);
+    log.removeEntryById(entry.getId());
+    return calories;
+  }
+
+  /** A cached field read; expected to be flat across day sizes. */
+  @Benchmark
+  public int totalCalories() {
+    return log.getTotalCalories();
+  }
+
+  /** A cached field read; expected to be flat across day sizes. */
+  @Benchmark
+  public double totalProtein() {
+    return log.getTotal(Nutrient.PROTEIN);
+  }
+}
@@ -0,0 +1,49 @@
+package GragasApp.model;
+
+import GragasApp.loadtest.Latency;
+import GragasApp.loadtest.NutritionFixtures;
+import GragasApp.loadtest.StubNutritionServer;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Full nutrition lookups over HTTP, against a local stand-in of the service, so the client's
+ * own cost (connection, request, decoding) is measured without the real network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NutritionLookupBenchmark {
+
+  /** A single food, and a query the service splits into several items. */
+  @Param({"banana", "2 eggs and toast with butter"})
+  public String query;
+
+  private StubNutritionServer server;
+  private APICaller api;
+
+  @Setup
+  public void startServer() throws IOException {
+    server = new StubNutritionServer(0, NutritionFixtures.defaults(), Latency.none());
+    api = APICaller.forService(server.getBaseUrl(), "benchmark");
+  }
+
+  @TearDown
+  public void stopServer() {
+    server.close();
+  }
+
+  @Benchmark
+  public FoodEntry lookupFood() throws Exception {
+    return api.lookupFood(query);
+  }
+}
@@ -0,0 +1,51 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Looking up a day's log by date, as the history view and the dashboard do.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserProfileBenchmark {
+
+  @Param({"30", "365", "3650"})
+  public int days;
+
+  private UserProfile user;
+  private LocalDate[] lookups;
+  private int next;
+
+  @Setup
+  public void createProfile() {
+    user = BenchmarkProfiles.withHistory(days, 1);
+    // Dates spread over the history plus some misses, visited in a fixed shuffled order
+    Random random = new Random(7);
+    lookups = new LocalDate[1024];
+    for (int i = 0; i < lookups.length; i++) {
+      lookups[i] = BenchmarkProfiles.LAST_DAY.minusDays(random.nextInt(days + days / 10 + 1));
+    }
+  }
+
+  @Benchmark
+  public DailyLog getLog() {
+    LocalDate date = lookups[next++ & (lookups.length - 1)];
+    return user.getLog(date);
+  }
+
+  @Benchmark
+  public DailyLog getOrCreateLogOfExistingDay() {
+    return user.getOrCreateLog(BenchmarkProfiles.LAST_DAY);
+  }
+}
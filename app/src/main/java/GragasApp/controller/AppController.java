@@ -1,16 +1,32 @@
 package GragasApp.controller;
 
+import GragasApp.diagnostics.Counter;
+import GragasApp.diagnostics.DashboardRefreshEvent;
+import GragasApp.diagnostics.EdtWatchdog;
+import GragasApp.diagnostics.Metrics;
+import GragasApp.diagnostics.NutritionLookupEvent;
+import GragasApp.diagnostics.StartupMetrics;
+import GragasApp.diagnostics.Timer;
 import GragasApp.model.*;
-import GragasApp.view.MainView;
+import GragasApp.view.AppView;
+import GragasApp.view.FoodLogTableModel;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import javax.swing.event.ListSelectionEvent;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TreeSelectionEvent;
 import java.awt.event.ActionEvent;
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
 import java.io.IOException;
 import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
 
 /**
  * The main controller for the application, adhering to the MVC pattern.
@@ -19,40 +35,193 @@ import java.util.Optional;
  */
 public class AppController {
 
-    private final MainView view;
+    private final AppView view;
     private final CSVHandler csvHandler;
     private final CalorieCalculator calorieCalculator;
+    private final FoodLookup foodLookup;
+    private final Executor lookupExecutor;
+    private final AutoSaver autoSaver;
+    private final FoodSearchIndex searchIndex = new FoodSearchIndex();
+    private final FoodSuggestions foodSuggestions = new FoodSuggestions();
+    private final FrequentFoods frequentFoods = new FrequentFoods();
+    // Keeps the search index, suggestions and frequent foods in step with every loaded profile
+    private final LogEntryWatcher logWatcher = new LogEntryWatcher(searchIndex, foodSuggestions, frequentFoods);
+
+    // Quiet period after the last edit before dirty profiles are written
+    private static final long AUTOSAVE_DELAY_MILLIS = 2000;
 
     private UserProfile currentUser;
 
+    // Dashboard and history components refreshed by model events, at most once per EDT turn
+    private static final int PROFILE_INFO = 1;
+    private static final int FOOD_TABLE = 2;
+    private static final int CALORIE_SUMMARY = 4;
+    private static final int HISTORY_TABLE = 8;
+    private static final int FOOD_SUGGESTIONS = 16;
+    private static final int QUICK_ADD = 32;
+    private final EdtCoalescer uiUpdates = new EdtCoalescer(this::applyUiUpdates);
+
+    // Model objects this controller listens to; only changed on the EDT
+    private final PropertyChangeListener userListener = this::userChanged;
+    private final PropertyChangeListener todayLogListener = e -> uiUpdates.request(FOOD_TABLE | CALORIE_SUMMARY | QUICK_ADD);
+    private final PropertyChangeListener historyLogListener = e -> uiUpdates.request(HISTORY_TABLE | QUICK_ADD);
+    private DailyLog watchedTodayLog;
+    private DailyLog watchedHistoryLog;
+
+    // Results of the last food search, in the order shown; only touched on the EDT
+    private static final int SEARCH_RESULT_LIMIT = 200;
+    private List<FoodSearchIndex.Hit> searchHits = new ArrayList<>();
+
+    // Suggestions shown for the text in the food input, in display order; only touched on the EDT
+    private static final int SUGGESTION_LIMIT = 8;
+    private List<FoodSuggestions.Suggestion> shownSuggestions = new ArrayList<>();
+
+    // Foods on the quick-add buttons, in display order; only touched on the EDT
+    private static final int QUICK_ADD_COUNT = 6;
+    private List<FoodSuggestions.Suggestion> quickAddFoods = new ArrayList<>();
+    private List<String> quickAddLabels;
+
+    // Profiles listed by size in the memory footprint report
+    private static final int MEMORY_REPORT_PROFILES = 20;
+
+    // Food descriptions still being resolved, shown as placeholder rows; only touched on the EDT
+    private final List<PendingLookup> pendingLookups = new ArrayList<>();
+
+    // From the "Add Food" click until the entry is in the log or the lookup has failed
+    private static final Timer ADD_FOOD_TIMER = Metrics.timer("addFood.latency");
+    private static final Counter ADD_FOOD_FAILURES = Metrics.counter("addFood.failures");
+
+    /**
+     * A food description submitted for a user whose nutrition lookup has not completed yet.
+     */
+    private static final class PendingLookup {
+        private final UserProfile user;
+        private final String description;
+        private final long start = ADD_FOOD_TIMER.start();
+
+        PendingLookup(UserProfile user, String description) {
+            this.user = user;
+            this.description = description;
+        }
+    }
+
     /**
      * Constructs the AppController.
      * It initializes the application by linking the main view with the data handler,
      * loading initial data, and attaching event listeners to the UI components.
-     * @param view The main JFrame of the application.
+     * @param view The application window, or a headless stand-in for it.
      * @param csvHandler The handler responsible for reading/writing user data to CSV files.
      */
-    public AppController(MainView view, CSVHandler csvHandler) {
+    public AppController(AppView view, CSVHandler csvHandler) {
+        this(view, csvHandler, FoodEntry::new, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    /**
+     * Constructs the AppController with an explicit food lookup and the executor it runs on.
+     * Lookups never run on the Event Dispatch Thread; their results are applied back on it.
+     * @param view The application window, or a headless stand-in for it.
+     * @param csvHandler The handler responsible for reading/writing user data to CSV files.
+     * @param foodLookup Resolves food descriptions into entries, usually via the nutrition API.
+     * @param lookupExecutor The executor that runs food lookups.
+     */
+    public AppController(AppView view, CSVHandler csvHandler, FoodLookup foodLookup, Executor lookupExecutor) {
         this.view = view;
         this.csvHandler = csvHandler;
         this.calorieCalculator = new MifflinStJeorCalculator();
+        this.foodLookup = foodLookup;
+        this.lookupExecutor = lookupExecutor;
+        this.autoSaver = new AutoSaver(csvHandler, AUTOSAVE_DELAY_MILLIS,
+                ex -> SwingUtilities.invokeLater(() -> view.showError("Autosave failed: " + ex.getMessage())));
 
         loadInitialData();
         attachListeners();
     }
+
+    /**
+     * Writes anything still pending and stops autosaving. Call once, when the controller is
+     * no longer used, e.g. from a shutdown hook.
+     */
+    public void close() {
+        autoSaver.close();
+    }
     
     /**
-     * Loads existing user profiles from CSV files at startup and populates the
-     * user selection dropdown in the view.
+     * Starts loading existing user profiles from CSV files in the background. The window is
+     * usable right away: names are added to the user selection dropdown as their files are
+     * parsed, and a progress indicator is shown until the load finishes.
      */
     private void loadInitialData() {
-        try {
-            csvHandler.loadUserProfilesFromCsvs();
-            List<UserProfile> profiles = csvHandler.getUserProfiles();
-            view.getDashboardView().setVisible(false);
-            view.getUserSelectionView().populateUserList(profiles);
-        } catch (IOException e) {
-            view.showError("Failed to load user profiles from CSV files: " + e.getMessage());
+        view.getDashboardView().setVisible(false);
+        view.getUserSelectionView().populateUserList(csvHandler.getUserProfiles());
+        for (UserProfile profile : csvHandler.getUserProfiles()) {
+            logWatcher.addProfile(profile);
+        }
+        view.getUserSelectionView().showLoadingStarted();
+        new ProfileLoader().execute();
+    }
+
+    /**
+     * One file read by the background profile load.
+     */
+    private static final class LoadProgress {
+        private final UserProfile profile;
+        private final int filesRead;
+        private final int fileCount;
+
+        LoadProgress(UserProfile profile, int filesRead, int fileCount) {
+            this.profile = profile;
+            this.filesRead = filesRead;
+            this.fileCount = fileCount;
+        }
+    }
+
+    /**
+     * Reads the profile CSVs on a worker thread and indexes their foods for search and
+     * suggestions there too.
+     * Progress is published back to the Event Dispatch Thread, where SwingWorker batches it, so a
+     * burst of small files costs one UI update.
+     */
+    private class ProfileLoader extends SwingWorker<Void, LoadProgress> {
+        @Override
+        protected Void doInBackground() throws IOException {
+            ProfileLoadListener listener = (profile, filesRead, fileCount) -> {
+                if (profile != null) {
+                    logWatcher.addProfile(profile);
+                }
+                publish(new LoadProgress(profile, filesRead, fileCount));
+            };
+            csvHandler.addProfileLoadListener(listener);
+            try {
+                csvHandler.loadUserProfilesFromCsvs();
+            } finally {
+                // The handler may be shared and outlive this controller
+                csvHandler.removeProfileLoadListener(listener);
+            }
+            return null;
+        }
+
+        @Override
+        protected void process(List<LoadProgress> chunks) {
+            for (LoadProgress progress : chunks) {
+                if (progress.profile != null) {
+                    view.getUserSelectionView().addUserToList(progress.profile);
+                }
+            }
+            LoadProgress latest = chunks.get(chunks.size() - 1);
+            view.getUserSelectionView().showLoadingProgress(latest.filesRead, latest.fileCount);
+        }
+
+        @Override
+        protected void done() {
+            view.getUserSelectionView().hideLoadingProgress();
+            try {
+                get();
+            } catch (ExecutionException e) {
+                view.showError("Failed to load user profiles from CSV files: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            StartupMetrics.markInteractive();
         }
     }
 
@@ -72,15 +241,35 @@ public class AppController {
         view.getDashboardView().addEditWeightListener(this::handleEditWeight); 
         view.getDashboardView().addEditTargetWeightListener(this::handleEditTargetWeight); 
         view.getDashboardView().addViewAllLogsListener(this::handleViewAllLogs); 
+        view.getDashboardView().addEditEntryListener(this::handleEditDashboardEntry);
+        view.getDashboardView().addDeleteEntryListener(this::handleDeleteDashboardEntry);
+        view.getDashboardView().addSuggestionChosenListener(this::handleSuggestionChosen);
+        view.getDashboardView().addQuickAddListener(this::handleQuickAdd);
+        view.getDashboardView().addFoodInputListener(new DocumentListener() {
+            // Several edits in one EDT turn, e.g. a paste, are looked up once
+            @Override public void insertUpdate(DocumentEvent e) { uiUpdates.request(FOOD_SUGGESTIONS); }
+            @Override public void removeUpdate(DocumentEvent e) { uiUpdates.request(FOOD_SUGGESTIONS); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
 
         // All Logs View Listeners
         view.getAllLogsView().addBackToDashboardListener(_ -> view.showDashboard());
         view.getAllLogsView().addDateSelectionListener(this::handleDateSelectionChange);
+        view.getAllLogsView().addEditEntryListener(this::handleEditHistoryEntry);
+        view.getAllLogsView().addDeleteEntryListener(this::handleDeleteHistoryEntry);
+        view.getAllLogsView().addSearchListener(this::handleSearch);
+        view.getAllLogsView().addSearchResultSelectionListener(this::handleSearchResultSelection);
+
+        // Main window listeners
+        view.addDiagnosticsReportListener(this::handleDiagnosticsReport);
+        view.addMemoryReportListener(this::handleMemoryReport);
     }
 
     /**
      * Handles the "Load Profile" button event. It retrieves the selected user from the view,
-     * finds the corresponding UserProfile object, and updates the dashboard.
+     * finds the corresponding UserProfile object, and updates the dashboard. If the profile's
+     * logs were evicted from memory they are read back on a worker thread first, so the EDT
+     * never waits for the file.
      * @param e The ActionEvent triggered by the button click.
      */
     private void handleLoadProfile(ActionEvent e) {
@@ -89,16 +278,47 @@ public class AppController {
             view.showError("Please select a profile to load.");
             return;
         }
-        Optional<UserProfile> userOpt = csvHandler.getUserProfiles().stream()
-                .filter(p -> p.getName().equals(selectedUserName))
-                .findFirst();
-        if (userOpt.isPresent()) {
-            currentUser = userOpt.get();
-            updateDashboard();
-            view.showDashboard();
-        } else {
+        UserProfile user = csvHandler.getUserProfile(selectedUserName);
+        if (user == null) {
             view.showError("Could not find the selected profile.");
+            return;
         }
+        if (user.areLogsLoaded()) {
+            showProfile(user);
+            return;
+        }
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                // Pinned so the logs are not evicted again before the dashboard shows them
+                csvHandler.pin(user);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    showProfile(user);
+                } catch (ExecutionException ex) {
+                    view.showError("Could not load the profile: " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    csvHandler.unpin(user);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Makes a profile whose logs are in memory the current user and shows its dashboard.
+     * @param user The profile to show.
+     */
+    private void showProfile(UserProfile user) {
+        setCurrentUser(user);
+        updateDashboard();
+        view.showDashboard();
     }
 
     /**
@@ -121,12 +341,16 @@ public class AppController {
                 view.showError("User name cannot be empty.");
                 return;
             }
+            UserProfile newUser;
             if (useImperial) {
-                currentUser = UserProfile.fromImperial(name, age, (int) height, activityLevel, sex, weight, targetWeight);
+                newUser = UserProfile.fromImperial(name, age, (int) height, activityLevel, sex, weight, targetWeight);
             } else {
-                currentUser = new UserProfile(name, age, (int) height, activityLevel, sex, weight, targetWeight);
+                newUser = new UserProfile(name, age, (int) height, activityLevel, sex, weight, targetWeight);
             }
-            csvHandler.saveUserProfileToCsv(currentUser);
+            // Save first: a rejected name must not leave the profile pinned, watched or indexed
+            csvHandler.saveUserProfileToCsv(newUser);
+            setCurrentUser(newUser);
+            logWatcher.addProfile(newUser);
             updateDashboard();
             view.getUserSelectionView().addUserToList(currentUser);
             view.getUserSelectionView().clearCreationFields();
@@ -142,8 +366,8 @@ public class AppController {
 
     /**
      * Handles the "Add Food" button event. It takes the food description from the input field,
-     * retrieves its calorie information, creates a new FoodEntry, adds it to today's log,
-     * and updates the view to reflect the change.
+     * shows it as a "resolving" row right away, and looks up its calorie information on the
+     * lookup executor. Clicking again for a food that is still resolving does nothing.
      * @param e The ActionEvent triggered by the button click.
      */
     private void handleAddFood(ActionEvent e) {
@@ -152,38 +376,220 @@ public class AppController {
             view.showError("Please enter a food name.");
             return;
         }
-        try {
-            FoodEntry newFood = new FoodEntry(foodDescription);
-            DailyLog todayLog = getTodaysLog();
-            todayLog.addEntry(newFood);
-            updateFoodLogTable(todayLog);
-            updateCalorieSummary();
-        } catch (Exception ex) {
-            view.showError("Could not add food: " + ex.getMessage());
+        if (currentUser == null) return;
+        String description = foodDescription.trim();
+        for (PendingLookup pending : pendingLookups) {
+            if (pending.user == currentUser && pending.description.equalsIgnoreCase(description)) {
+                return; // the same food is already being resolved; ignore the repeated click
+            }
+        }
+        PendingLookup pending = new PendingLookup(currentUser, description);
+        pendingLookups.add(pending);
+        uiUpdates.request(FOOD_TABLE);
+        lookupExecutor.execute(() -> {
+            NutritionLookupEvent event = new NutritionLookupEvent();
+            event.begin();
+            try {
+                FoodEntry newFood = foodLookup.lookup(description);
+                commitLookup(event, description, NutritionLookupEvent.TIER_NONE, null);
+                SwingUtilities.invokeLater(() -> completeLookup(pending, newFood, null));
+            } catch (Exception ex) {
+                commitLookup(event, description, NutritionLookupEvent.TIER_NONE, ex);
+                SwingUtilities.invokeLater(() -> completeLookup(pending, null, ex));
+            }
+        });
+    }
+
+    /**
+     * Handles a chosen food suggestion by logging that food again with the calories and nutrients
+     * it was last logged with. No nutrition lookup is needed, so the entry is added immediately.
+     * @param e The ActionEvent triggered by the suggestion popup.
+     */
+    private void handleSuggestionChosen(ActionEvent e) {
+        if (currentUser == null) return;
+        int index = view.getDashboardView().getChosenSuggestion();
+        if (index < 0 || index >= shownSuggestions.size()) return;
+        NutritionLookupEvent event = new NutritionLookupEvent();
+        event.begin();
+        FoodEntry entry = shownSuggestions.get(index).newEntry();
+        commitLookup(event, entry.getName(), NutritionLookupEvent.TIER_SUGGESTIONS, null);
+        view.getDashboardView().getFoodInput(); // clears the field, which hides the suggestions
+        view.getDashboardView().hideFoodSuggestions();
+        currentUser.getOrCreateLog(LocalDate.now()).addEntry(entry);
+        autoSaver.requestSave();
+    }
+
+    /**
+     * Handles a click on a quick-add button by logging that frequent food again, without a
+     * nutrition lookup.
+     * @param e The ActionEvent whose command is the index of the food.
+     */
+    private void handleQuickAdd(ActionEvent e) {
+        if (currentUser == null) return;
+        int index = Integer.parseInt(e.getActionCommand());
+        if (index < 0 || index >= quickAddFoods.size()) return;
+        NutritionLookupEvent event = new NutritionLookupEvent();
+        event.begin();
+        FoodEntry entry = quickAddFoods.get(index).newEntry();
+        commitLookup(event, entry.getName(), NutritionLookupEvent.TIER_FREQUENT, null);
+        currentUser.getOrCreateLog(LocalDate.now()).addEntry(entry);
+        autoSaver.requestSave();
+    }
+
+    /**
+     * Refreshes the quick-add buttons with the current user's most frequent foods. A user with
+     * little history gets the most frequent foods of all users to fill the row.
+     */
+    private void updateQuickAdd() {
+        List<FoodSuggestions.Suggestion> foods = frequentFoods.top(currentUser, QUICK_ADD_COUNT);
+        if (foods.size() < QUICK_ADD_COUNT) {
+            for (FoodSuggestions.Suggestion common : frequentFoods.topOverall(QUICK_ADD_COUNT)) {
+                if (foods.size() == QUICK_ADD_COUNT) break;
+                boolean shown = false;
+                for (FoodSuggestions.Suggestion food : foods) {
+                    shown |= food.getName().equalsIgnoreCase(common.getName());
+                }
+                if (!shown) foods.add(common);
+            }
+        }
+        List<String> labels = new ArrayList<>();
+        for (FoodSuggestions.Suggestion food : foods) {
+            labels.add(food.getName());
+        }
+        quickAddFoods = foods;
+        if (!labels.equals(quickAddLabels)) { // most adds do not change the ranking
+            quickAddLabels = labels;
+            view.getDashboardView().setQuickAddFoods(labels);
+        }
+    }
+
+    /**
+     * Offers previously logged foods that start with the text typed so far. The dictionary is
+     * in memory and returns the best few directly, so this runs on the EDT as the user types.
+     */
+    private void updateFoodSuggestions() {
+        String typed = view.getDashboardView().getFoodInputText();
+        shownSuggestions = foodSuggestions.suggest(typed, LocalDate.now(), SUGGESTION_LIMIT);
+        List<String> lines = new ArrayList<>();
+        for (FoodSuggestions.Suggestion suggestion : shownSuggestions) {
+            lines.add(suggestion.getName() + " (" + FixedPoint.formatHundredths(suggestion.getCalorieHundredths()) + " kcal)");
+        }
+        view.getDashboardView().showFoodSuggestions(lines);
+    }
+
+    /**
+     * Records a finished nutrition lookup for Flight Recorder. Foods taken from the suggestions or
+     * the quick-add row are answered from memory and report that tier; typed foods go to the
+     * lookup service and report "none".
+     * @param event The event begun before the lookup.
+     * @param description The food description that was looked up.
+     * @param cacheTier The tier that answered the lookup.
+     * @param failure The reason the lookup failed, or null if it succeeded.
+     */
+    private static void commitLookup(NutritionLookupEvent event, String description, String cacheTier, Exception failure) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.query = description;
+            event.cacheTier = cacheTier;
+            event.status = failure == null ? NutritionLookupEvent.STATUS_OK : NutritionLookupEvent.STATUS_ERROR;
+            event.error = failure == null ? null : failure.getMessage();
+            event.commit();
+        }
+    }
+
+    /**
+     * Applies the result of a background food lookup on the Event Dispatch Thread. The entry goes
+     * into the log of the user who requested it, even if another profile has been loaded since.
+     * @param pending The lookup that finished.
+     * @param newFood The resolved entry, or null if the lookup failed.
+     * @param failure The reason the lookup failed, or null if it succeeded.
+     */
+    private void completeLookup(PendingLookup pending, FoodEntry newFood, Exception failure) {
+        pendingLookups.remove(pending);
+        if (newFood != null) {
+            // The model events from this update the table, the summary and the history tree
+            pending.user.getOrCreateLog(LocalDate.now()).addEntry(newFood);
+            autoSaver.requestSave();
+        }
+        if (pending.user == currentUser) {
+            uiUpdates.request(FOOD_TABLE); // drop the placeholder row
+        }
+        ADD_FOOD_TIMER.stop(pending.start);
+        if (failure != null) {
+            ADD_FOOD_FAILURES.increment();
+            view.showError("Could not add food '" + pending.description + "': " + failure.getMessage());
         }
     }
     
     /**
-     * Handles the "Save Changes" action, persisting the current user's state to a CSV file.
+     * Handles the "Save Changes" action, persisting the current user's unsaved changes to a CSV
+     * file. A clean profile is not written again.
      * @param e The ActionEvent triggered by the button click.
      */
     private void handleSaveChanges(ActionEvent e) {
         if (currentUser == null) return;
         try {
-            csvHandler.updateUserProfileToCsv(currentUser);
+            // A clean profile is already on disk as shown, so only the message is needed
+            csvHandler.saveIfDirty(currentUser);
             view.showMessage("Profile saved successfully!");
         } catch (IOException ex) {
             view.showError("Error saving profile: " + ex.getMessage());
         }
     }
     
+    /**
+     * Handles the "Responsiveness Report" menu item by showing what the EDT watchdog has seen,
+     * the startup times, and the runtime metrics when they are enabled.
+     * @param e The ActionEvent triggered by the menu item.
+     */
+    private void handleDiagnosticsReport(ActionEvent e) {
+        StringBuilder report = new StringBuilder();
+        EdtWatchdog watchdog = EdtWatchdog.getInstalled();
+        report.append(watchdog == null ? "The EDT watchdog is not running.\n" : watchdog.report());
+        report.append("\nStartup: first frame after ").append(StartupMetrics.getTimeToFirstFrameMillis())
+                .append(" ms, interactive after ").append(StartupMetrics.getTimeToInteractiveMillis())
+                .append(" ms (-1 if not reached)\n");
+        if (Metrics.ENABLED) {
+            report.append("\nMetrics:\n").append(Metrics.summary());
+        } else {
+            report.append("\nMetrics are off; start with -Dgragas.metrics=true to collect them.\n");
+        }
+        view.showDiagnosticReport(report.toString());
+    }
+
+    /**
+     * Handles the "Memory Footprint" menu item by estimating the heap held by every loaded
+     * profile in the background, which for a large user directory takes a while, then showing
+     * the report.
+     * @param e The ActionEvent triggered by the menu item.
+     */
+    private void handleMemoryReport(ActionEvent e) {
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                return MemoryFootprint.report(csvHandler.getUserProfiles(), MEMORY_REPORT_PROFILES);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    view.showDiagnosticReport(get());
+                } catch (ExecutionException ex) {
+                    view.showError("Could not estimate memory footprint: " + ex.getCause().getMessage());
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }.execute();
+    }
+
     /**
      * Handles the "Switch User" button event, returning the user to the initial
      * profile selection screen.
      * @param e The ActionEvent triggered by the button click.
      */
     private void handleSwitchUser(ActionEvent e) {
-        currentUser = null;
+        setCurrentUser(null);
         view.showUserSelection();
     }
 
@@ -195,11 +601,14 @@ public class AppController {
     private void handleViewAllLogs(ActionEvent e) {
         if (currentUser == null) return;
 
-        // Populate the date list in the AllLogsView
-        view.getAllLogsView().populateLogDates(currentUser.getLogs());
+        // Populate the date tree in the AllLogsView from the user's sorted dates
+        view.getAllLogsView().populateLogDates(currentUser.getLogDates());
 
-        // Clear any previously displayed log entries
+        // Clear any previously displayed log entries and search results
+        watchHistoryLog(null);
         view.getAllLogsView().updateLogEntries(null);
+        searchHits = new ArrayList<>();
+        view.getAllLogsView().clearSearchResults();
         
         // Switch to the AllLogsView
         view.showAllLogs();
@@ -209,22 +618,166 @@ public class AppController {
      * Handles a change in the selected date in the AllLogsView.
      * It finds the log corresponding to the newly selected date and updates the
      * food entry table with its contents.
-     * @param e The ListSelectionEvent triggered by the list selection.
+     * @param e The TreeSelectionEvent triggered by the tree selection.
+     */
+    private void handleDateSelectionChange(TreeSelectionEvent e) {
+        // Year and month groups are not days; selecting one leaves the table as it is
+        LocalDate selectedDate = view.getAllLogsView().getSelectedDate();
+        if (selectedDate == null) return;
+
+        // Find the log for the selected date and update the table
+        DailyLog log = currentUser.getLog(selectedDate);
+        if (log != null) {
+            watchHistoryLog(log);
+            view.getAllLogsView().updateLogEntries(log);
+        }
+    }
+
+    /**
+     * Handles a search in the AllLogsView. The current user's foods whose names match the query
+     * are listed, most recent first. The index answers from memory, so this runs on the EDT.
+     * @param e The ActionEvent triggered by the search box or button.
+     */
+    private void handleSearch(ActionEvent e) {
+        if (currentUser == null) return;
+        String query = view.getAllLogsView().getSearchQuery();
+        if (query.trim().isEmpty()) return;
+        DateTimeFormatter dayFormat = DateTimeFormatter.ofPattern("EEE, MMM d, yyyy");
+        List<FoodSearchIndex.Hit> shown = new ArrayList<>();
+        List<String> lines = new ArrayList<>();
+        for (FoodSearchIndex.Hit hit : searchIndex.search(query, currentUser, SEARCH_RESULT_LIMIT)) {
+            DailyLog log = currentUser.getLog(hit.getDate());
+            Loggable entry = log == null ? null : log.getEntry(hit.getEntryId());
+            if (entry == null) continue;
+            shown.add(hit);
+            lines.add(hit.getDate().format(dayFormat) + " - " + entry.getName()
+                    + " (" + FixedPoint.formatHundredths(entry.getCalorieHundredths()) + " kcal)");
+        }
+        searchHits = shown;
+        view.getAllLogsView().showSearchResults(lines);
+    }
+
+    /**
+     * Handles a click on a search result by showing its day and selecting the entry.
+     * @param e The ListSelectionEvent triggered by the results list.
+     */
+    private void handleSearchResultSelection(ListSelectionEvent e) {
+        if (e.getValueIsAdjusting() || currentUser == null) return;
+        int index = view.getAllLogsView().getSelectedSearchResult();
+        if (index < 0 || index >= searchHits.size()) return;
+        FoodSearchIndex.Hit hit = searchHits.get(index);
+        view.getAllLogsView().selectDate(hit.getDate()); // shows the day through the tree listener
+        DailyLog.Snapshot rows = view.getAllLogsView().getLogEntriesTableModel().getRows();
+        if (rows == null || !rows.getDate().equals(hit.getDate())) return;
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row).getId() == hit.getEntryId()) {
+                view.getAllLogsView().selectEntryRow(row);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Handles the "Edit Entry" button on the dashboard, editing the selected food of today's log.
+     * @param e The ActionEvent triggered by the button click.
+     */
+    private void handleEditDashboardEntry(ActionEvent e) {
+        if (currentUser == null) return;
+        FoodLogTableModel rows = view.getDashboardView().getFoodLogTableModel();
+        Loggable entry = rows.getEntryAt(view.getDashboardView().getSelectedFoodRow());
+        if (entry == null) {
+            view.showError("Please select an entry to edit.");
+            return;
+        }
+        DailyLog log = currentUser.getLog(rows.getRows().getDate());
+        editEntry(log, entry);
+    }
+
+    /**
+     * Handles the "Delete Entry" button on the dashboard, removing the selected food of today's log.
+     * @param e The ActionEvent triggered by the button click.
      */
-    private void handleDateSelectionChange(ListSelectionEvent e) {
-        // Ensure the event is processed only once
-        if (!e.getValueIsAdjusting()) {
-            LocalDate selectedDate = view.getAllLogsView().getSelectedDate();
-            if (selectedDate == null) return;
+    private void handleDeleteDashboardEntry(ActionEvent e) {
+        if (currentUser == null) return;
+        FoodLogTableModel rows = view.getDashboardView().getFoodLogTableModel();
+        Loggable entry = rows.getEntryAt(view.getDashboardView().getSelectedFoodRow());
+        if (entry == null) {
+            view.showError("Please select an entry to delete.");
+            return;
+        }
+        DailyLog log = currentUser.getLog(rows.getRows().getDate());
+        deleteEntry(log, entry);
+    }
 
-            // Find the log for the selected date and update the table
-            currentUser.getLogs().stream()
-                    .filter(log -> log.getDate().equals(selectedDate))
-                    .findFirst()
-                    .ifPresent(log -> view.getAllLogsView().updateLogEntries(log));
+    /**
+     * Handles the "Edit Entry" button in the AllLogsView, editing the selected food of the selected day.
+     * @param e The ActionEvent triggered by the button click.
+     */
+    private void handleEditHistoryEntry(ActionEvent e) {
+        if (currentUser == null) return;
+        FoodLogTableModel rows = view.getAllLogsView().getLogEntriesTableModel();
+        Loggable entry = rows.getEntryAt(view.getAllLogsView().getSelectedEntryRow());
+        if (entry == null) {
+            view.showError("Please select an entry to edit.");
+            return;
         }
+        DailyLog log = currentUser.getLog(rows.getRows().getDate());
+        editEntry(log, entry);
     }
 
+    /**
+     * Handles the "Delete Entry" button in the AllLogsView, removing the selected food of the selected day.
+     * @param e The ActionEvent triggered by the button click.
+     */
+    private void handleDeleteHistoryEntry(ActionEvent e) {
+        if (currentUser == null) return;
+        FoodLogTableModel rows = view.getAllLogsView().getLogEntriesTableModel();
+        Loggable entry = rows.getEntryAt(view.getAllLogsView().getSelectedEntryRow());
+        if (entry == null) {
+            view.showError("Please select an entry to delete.");
+            return;
+        }
+        DailyLog log = currentUser.getLog(rows.getRows().getDate());
+        deleteEntry(log, entry);
+    }
+
+    /**
+     * Prompts for a new name and calorie value for an entry and replaces it in its log by id,
+     * then schedules an autosave, which appends just that day.
+     * @param log The log holding the entry.
+     * @param entry The entry to edit.
+     * @return true if the entry was changed.
+     */
+    private boolean editEntry(DailyLog log, Loggable entry) {
+        if (!(entry instanceof FoodEntry)) return false;
+        String[] values = view.promptForEntryEdit(entry.getName(), FixedPoint.formatHundredths(entry.getCalorieHundredths()));
+        if (values == null) return false;
+        try {
+            FoodEntry edited = ((FoodEntry) entry).withValues(values[0], Double.parseDouble(values[1]));
+            log.replaceEntry(entry.getId(), edited);
+        } catch (NumberFormatException nfe) {
+            view.showError("Invalid input. Please enter a valid number for calories.");
+            return false;
+        } catch (IllegalArgumentException iae) {
+            view.showError("Could not edit entry: " + iae.getMessage());
+            return false;
+        }
+        autoSaver.requestSave();
+        return true;
+    }
+
+    /**
+     * Asks for confirmation and removes an entry from its log by id, then schedules an autosave.
+     * @param log The log holding the entry.
+     * @param entry The entry to delete.
+     * @return true if the entry was removed.
+     */
+    private boolean deleteEntry(DailyLog log, Loggable entry) {
+        if (!view.confirm("Delete '" + entry.getName() + "'?", "Delete Entry")) return false;
+        if (log.removeEntryById(entry.getId()) == null) return false;
+        autoSaver.requestSave();
+        return true;
+    }
 
     /**
      * Handles editing the current user's weight. It prompts the user for a new
@@ -234,7 +787,7 @@ public class AppController {
     private void handleEditWeight(ActionEvent e) {
         if (currentUser == null) return;
         String currentWeightStr = String.format("%.1f", currentUser.getWeightKg());
-        String newWeightStr = JOptionPane.showInputDialog(view, "Enter new weight (kg):", currentWeightStr);
+        String newWeightStr = view.promptForInput("Enter new weight (kg):", currentWeightStr);
         
         if (newWeightStr != null && !newWeightStr.trim().isEmpty()) {
             try {
@@ -243,8 +796,8 @@ public class AppController {
                     view.showError("Weight must be a positive number.");
                     return;
                 }
-                currentUser.setWeightKg(newWeight);
-                updateDashboard(); // Refresh the view with new data and TDEE
+                currentUser.setWeightKg(newWeight); // the change event refreshes the profile and TDEE
+                autoSaver.requestSave();
             } catch (NumberFormatException nfe) {
                 view.showError("Invalid input. Please enter a valid number for weight.");
             }
@@ -259,7 +812,7 @@ public class AppController {
     private void handleEditTargetWeight(ActionEvent e) {
         if (currentUser == null) return;
         String currentTargetStr = String.format("%.1f", currentUser.getTargetWeightKg());
-        String newTargetStr = JOptionPane.showInputDialog(view, "Enter new target weight (kg):", currentTargetStr);
+        String newTargetStr = view.promptForInput("Enter new target weight (kg):", currentTargetStr);
 
         if (newTargetStr != null && !newTargetStr.trim().isEmpty()) {
             try {
@@ -268,8 +821,8 @@ public class AppController {
                     view.showError("Target weight must be a positive number.");
                     return;
                 }
-                currentUser.setTargetWeightKg(newTargetWeight);
-                updateDashboard(); // Refresh the view
+                currentUser.setTargetWeightKg(newTargetWeight); // the change event refreshes the profile
+                autoSaver.requestSave();
             } catch (NumberFormatException nfe) {
                 view.showError("Invalid input. Please enter a valid number for target weight.");
             }
@@ -278,11 +831,140 @@ public class AppController {
 
     /**
      * Populates the dashboard view with the current user's data. This method is called
-     * whenever the dashboard needs to be refreshed with the latest model data.
+     * when a profile is loaded; after that, model events refresh only the affected parts.
      */
     private void updateDashboard() {
         if (currentUser == null) return;
+        DashboardRefreshEvent event = new DashboardRefreshEvent();
+        event.begin();
+        watchTodaysLog();
+        updateProfileInfo();
+        updateFoodLogTable();
+        updateCalorieSummary();
+        updateQuickAdd();
+        commitRefresh(event, PROFILE_INFO | FOOD_TABLE | CALORIE_SUMMARY | QUICK_ADD);
+    }
+
+    /**
+     * Makes a profile the current user and moves the model listeners over to it. The current
+     * user is pinned in the profile cache, since its logs are held by the dashboard.
+     * @param user The profile to show, or null when no profile is loaded.
+     */
+    private void setCurrentUser(UserProfile user) {
+        if (currentUser != null) {
+            currentUser.removePropertyChangeListener(userListener);
+            csvHandler.unpin(currentUser);
+        }
+        watchHistoryLog(null);
+        currentUser = user;
+        if (currentUser != null) {
+            csvHandler.pin(currentUser);
+            currentUser.addPropertyChangeListener(userListener);
+        }
+        watchTodaysLog();
+        if (!csvHandler.getCacheBudget().isUnlimited()) {
+            // The previous user may now be evicted; trimming runs with the next save, off the EDT
+            autoSaver.requestSave();
+        }
+    }
+
+    /**
+     * Translates a change to the current user into the components it affects. May run on any
+     * thread, so it only records what to refresh.
+     * @param e The change event fired by the UserProfile.
+     */
+    private void userChanged(PropertyChangeEvent e) {
+        if (UserProfile.LOG_ADDED.equals(e.getPropertyName())) {
+            DailyLog log = (DailyLog) e.getNewValue();
+            UserProfile user = (UserProfile) e.getSource();
+            SwingUtilities.invokeLater(() -> {
+                if (user == currentUser) {
+                    view.getAllLogsView().logDateAdded(log.getDate());
+                }
+            });
+            uiUpdates.request(FOOD_TABLE | CALORIE_SUMMARY | QUICK_ADD); // it may be today's log
+        } else if (UserProfile.NAME.equals(e.getPropertyName())) {
+            uiUpdates.request(PROFILE_INFO);
+        } else if (UserProfile.LOGS_EVICTED.equals(e.getPropertyName())
+                || UserProfile.LOGS_RELOADED.equals(e.getPropertyName())) {
+            // The log objects were replaced; the days themselves are unchanged
+            uiUpdates.request(FOOD_TABLE | CALORIE_SUMMARY | QUICK_ADD);
+        } else {
+            // Every other field feeds the TDEE as well as the profile panel
+            uiUpdates.request(PROFILE_INFO | CALORIE_SUMMARY);
+        }
+    }
+
+    /**
+     * Refreshes the components whose flags were requested since the last EDT turn.
+     * @param flags The components to refresh.
+     */
+    private void applyUiUpdates(int flags) {
+        if (currentUser == null) return;
+        DashboardRefreshEvent event = new DashboardRefreshEvent();
+        event.begin();
+        watchTodaysLog();
+        if ((flags & PROFILE_INFO) != 0) updateProfileInfo();
+        if ((flags & FOOD_TABLE) != 0) updateFoodLogTable();
+        if ((flags & CALORIE_SUMMARY) != 0) updateCalorieSummary();
+        if ((flags & HISTORY_TABLE) != 0 && watchedHistoryLog != null) {
+            view.getAllLogsView().updateLogEntries(watchedHistoryLog);
+        }
+        if ((flags & FOOD_SUGGESTIONS) != 0) updateFoodSuggestions();
+        if ((flags & QUICK_ADD) != 0) updateQuickAdd();
+        commitRefresh(event, flags);
+    }
 
+    /**
+     * Records a finished dashboard refresh for Flight Recorder.
+     * @param event The event begun before the refresh.
+     * @param flags The components that were refreshed.
+     */
+    private void commitRefresh(DashboardRefreshEvent event, int flags) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.components = flags;
+            event.rowsRendered = (flags & FOOD_TABLE) == 0 ? 0
+                    : view.getDashboardView().getFoodLogTableModel().getRowCount();
+            event.commit();
+        }
+    }
+
+    /**
+     * Listens to today's log of the current user, if it exists yet. Also moves the listener
+     * to the new day after midnight.
+     */
+    private void watchTodaysLog() {
+        DailyLog today = currentUser == null ? null : currentUser.getLog(LocalDate.now());
+        if (today == watchedTodayLog) return;
+        if (watchedTodayLog != null) {
+            watchedTodayLog.removePropertyChangeListener(todayLogListener);
+        }
+        watchedTodayLog = today;
+        if (today != null) {
+            today.addPropertyChangeListener(todayLogListener);
+        }
+    }
+
+    /**
+     * Listens to the log shown in the AllLogsView table.
+     * @param log The log now shown, or null if none.
+     */
+    private void watchHistoryLog(DailyLog log) {
+        if (log == watchedHistoryLog) return;
+        if (watchedHistoryLog != null) {
+            watchedHistoryLog.removePropertyChangeListener(historyLogListener);
+        }
+        watchedHistoryLog = log;
+        if (log != null) {
+            log.addPropertyChangeListener(historyLogListener);
+        }
+    }
+
+    /**
+     * Refreshes the profile labels on the dashboard.
+     */
+    private void updateProfileInfo() {
         view.getDashboardView().setProfileInfo(
                 currentUser.getName(),
                 String.valueOf(currentUser.getAge()),
@@ -290,22 +972,21 @@ public class AppController {
                 String.format("%.0f cm (%.1f in)", (double)currentUser.getHeightCm(), currentUser.getHeightInches()),
                 String.format("%.1f kg (%.1f lbs)", currentUser.getTargetWeightKg(), currentUser.getTargetWeightLbs()) // ADDED
         );
-
-        DailyLog todayLog = getTodaysLog();
-        updateFoodLogTable(todayLog);
-        updateCalorieSummary();
     }
 
     /**
-     * Refreshes the food log table in the dashboard view with entries from a given log.
-     * @param log The DailyLog whose entries should be displayed.
+     * Refreshes the food log table in the dashboard view with today's entries, followed by
+     * any foods still being resolved.
      */
-    private void updateFoodLogTable(DailyLog log) {
-        DefaultTableModel model = (DefaultTableModel) view.getDashboardView().getFoodLogTableModel();
-        model.setRowCount(0);
-        for (Loggable entry : log.getEntries()) {
-            model.addRow(new Object[]{entry.getName(), String.format("%.1f", entry.getCalories())});
+    private void updateFoodLogTable() {
+        List<String> resolving = new ArrayList<>();
+        for (PendingLookup pending : pendingLookups) {
+            if (pending.user == currentUser) {
+                resolving.add(pending.description);
+            }
         }
+        view.getDashboardView().getFoodLogTableModel().setRows(
+                watchedTodayLog == null ? null : watchedTodayLog.snapshot(), resolving);
     }
 
     /**
@@ -314,7 +995,8 @@ public class AppController {
      */
     private void updateCalorieSummary() {
         double tdee = calorieCalculator.calculateTdee(currentUser);
-        double consumed = getTodaysLog().getTotalCalories();
+        double consumed = watchedTodayLog == null ? 0
+                : FixedPoint.fromHundredths(watchedTodayLog.getTotalCalorieHundredths());
         double remaining = tdee - consumed;
         view.getDashboardView().setCalorieSummary(
                 String.format("%.0f", tdee),
@@ -322,23 +1004,4 @@ public class AppController {
                 String.format("%.0f", remaining)
         );
     }
-    
-    /**
-     * Retrieves the DailyLog for the current date. If one does not exist, it creates a new
-     * log, adds it to the current user's profile, and returns it.
-     * @return The DailyLog for today.
-     */
-    private DailyLog getTodaysLog() {
-        LocalDate today = LocalDate.now();
-        Optional<DailyLog> logOpt = currentUser.getLogs().stream()
-                .filter(log -> log.getDate().equals(today))
-                .findFirst();
-        if (logOpt.isPresent()) {
-            return logOpt.get();
-        } else {
-            DailyLog newLog = new DailyLog(today);
-            currentUser.addLog(newLog);
-            return newLog;
-        }
-    }
 }
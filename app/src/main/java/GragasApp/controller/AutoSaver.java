@@ -0,0 +1,113 @@
+package GragasApp.controller;
+
+import GragasApp.model.CSVHandler;
+
+import java.io.IOException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Debounced background autosave for all registered user profiles.
+ *
+ * Each {@link #requestSave()} pushes the pending save back by the quiet period, so a burst of
+ * edits is written once after the user pauses. To bound how much can be lost, a save that has
+ * been pending for longer than {@code maxDelayMillis} is not pushed back any further. The save
+ * itself is {@link CSVHandler#saveDirtyProfiles()}, which does no I/O for clean profiles.
+ */
+public class AutoSaver {
+
+    private final CSVHandler csvHandler;
+    private final ScheduledExecutorService scheduler;
+    private final long delayMillis;
+    private final long maxDelayMillis;
+    private final Consumer<IOException> onError;
+
+    // Guarded by this
+    private ScheduledFuture<?> pending;
+    private boolean pendingStarted; // the pending save is running and may have read its days already
+    private long firstRequestNanos;
+
+    /**
+     * Creates an autosaver with its own daemon scheduler thread.
+     * @param csvHandler The handler whose registered profiles are saved.
+     * @param delayMillis The quiet period after the last request before saving.
+     * @param onError Called on the scheduler thread when a save fails.
+     */
+    public AutoSaver(CSVHandler csvHandler, long delayMillis, Consumer<IOException> onError) {
+        this(csvHandler, Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "autosave");
+            t.setDaemon(true);
+            return t;
+        }), delayMillis, delayMillis * 5, onError);
+    }
+
+    /**
+     * Creates an autosaver on the given scheduler.
+     * @param csvHandler The handler whose registered profiles are saved.
+     * @param scheduler The scheduler that runs saves.
+     * @param delayMillis The quiet period after the last request before saving.
+     * @param maxDelayMillis The longest a requested save may be postponed by further requests.
+     * @param onError Called on the scheduler thread when a save fails.
+     */
+    public AutoSaver(CSVHandler csvHandler, ScheduledExecutorService scheduler,
+                     long delayMillis, long maxDelayMillis, Consumer<IOException> onError) {
+        this.csvHandler = csvHandler;
+        this.scheduler = scheduler;
+        this.delayMillis = delayMillis;
+        this.maxDelayMillis = maxDelayMillis;
+        this.onError = onError;
+    }
+
+    /**
+     * Schedules a save after the quiet period, replacing any save that is still waiting. If
+     * the pending save is already running it may miss the edit behind this request, so a
+     * follow-up save is scheduled after it.
+     */
+    public synchronized void requestSave() {
+        long now = System.nanoTime();
+        if (pending != null && !pending.isDone() && !pendingStarted) {
+            if (TimeUnit.NANOSECONDS.toMillis(now - firstRequestNanos) >= maxDelayMillis) {
+                return; // already postponed long enough; it will still see this edit
+            }
+            pending.cancel(false);
+        } else {
+            firstRequestNanos = now;
+        }
+        pendingStarted = false;
+        pending = scheduler.schedule(this::scheduledFlush, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void scheduledFlush() {
+        synchronized (this) {
+            pendingStarted = true;
+        }
+        flush();
+    }
+
+    /**
+     * Writes all dirty profiles now, on the calling thread.
+     * @return The number of profiles written.
+     */
+    public int flush() {
+        try {
+            return csvHandler.saveDirtyProfiles();
+        } catch (IOException e) {
+            onError.accept(e);
+            return 0;
+        }
+    }
+
+    /**
+     * Cancels any pending save, writes whatever is still dirty, and stops the scheduler.
+     */
+    public void close() {
+        synchronized (this) {
+            if (pending != null) pending.cancel(false);
+        }
+        scheduler.shutdown();
+        flush();
+    }
+}
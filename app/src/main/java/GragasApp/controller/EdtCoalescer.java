@@ -0,0 +1,44 @@
+package GragasApp.controller;
+
+import javax.swing.SwingUtilities;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects UI update requests from any thread and applies them once per Event Dispatch Thread
+ * turn.
+ *
+ * Each request ORs a set of flags into a pending mask. Only the request that makes the mask
+ * non-empty posts a task to the EDT, and that task applies the whole mask. A burst of model
+ * events therefore costs a single refresh of each affected component.
+ */
+final class EdtCoalescer {
+
+    private final AtomicInteger pending = new AtomicInteger();
+    private final IntConsumer apply;
+
+    /**
+     * Creates a coalescer.
+     * @param apply Called on the EDT with the union of the flags requested since the last call.
+     */
+    EdtCoalescer(IntConsumer apply) {
+        this.apply = apply;
+    }
+
+    /**
+     * Requests an update; safe to call from any thread.
+     * @param flags The components to update, as a bit mask.
+     */
+    void request(int flags) {
+        if (pending.getAndUpdate(p -> p | flags) == 0) {
+            SwingUtilities.invokeLater(this::run);
+        }
+    }
+
+    private void run() {
+        int flags = pending.getAndSet(0);
+        if (flags != 0) {
+            apply.accept(flags);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package GragasApp.diagnostics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A monotonically increasing count, such as errors or bytes written.
+ *
+ * Increments from many threads do not contend. A disabled counter ignores every call.
+ */
+public final class Counter implements CounterMXBean {
+
+    /** Shared counter handed out while metrics are disabled. */
+    static final Counter DISABLED = new Counter(false);
+
+    private final boolean enabled;
+    private final LongAdder count = new LongAdder();
+
+    Counter() {
+        this(true);
+    }
+
+    private Counter(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Adds one.
+     */
+    public void increment() {
+        if (enabled) count.increment();
+    }
+
+    /**
+     * Adds an amount.
+     * @param amount The amount to add.
+     */
+    public void add(long amount) {
+        if (enabled) count.add(amount);
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+}
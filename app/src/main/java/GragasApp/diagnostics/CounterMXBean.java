@@ -0,0 +1,13 @@
+package GragasApp.diagnostics;
+
+/**
+ * The management view of a {@link Counter}.
+ */
+public interface CounterMXBean {
+
+    /**
+     * Gets the current count.
+     * @return The sum of all increments.
+     */
+    long getCount();
+}
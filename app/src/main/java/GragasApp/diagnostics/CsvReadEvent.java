@@ -0,0 +1,33 @@
+package GragasApp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for one profile CSV file being read. Its duration is the time spent
+ * reading and parsing the file.
+ */
+@Name("GragasApp.CsvRead")
+@Label("CSV Read")
+@Category({"GragasApp", "Persistence"})
+@Description("A user profile CSV file was read and parsed")
+public class CsvReadEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Rows")
+    @Description("DailyLog rows parsed")
+    public int rows;
+
+    @Label("Bytes")
+    @DataAmount
+    public long bytes;
+
+    @Label("Succeeded")
+    public boolean succeeded;
+}
@@ -0,0 +1,35 @@
+package GragasApp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for one profile CSV file being written, either rewritten in full or
+ * appended to with one day. Its duration is the time spent writing.
+ */
+@Name("GragasApp.CsvWrite")
+@Label("CSV Write")
+@Category({"GragasApp", "Persistence"})
+@Description("A user profile CSV file was rewritten or appended to")
+public class CsvWriteEvent extends Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Rows")
+    @Description("DailyLog rows written")
+    public int rows;
+
+    @Label("Bytes")
+    @Description("Bytes written; the whole file for a rewrite, the appended block for an append")
+    @DataAmount
+    public long bytes;
+
+    @Label("Append")
+    @Description("Whether one day was appended instead of rewriting the file")
+    public boolean append;
+}
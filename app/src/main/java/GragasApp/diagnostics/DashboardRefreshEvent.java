@@ -0,0 +1,26 @@
+package GragasApp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for one refresh of the dashboard on the Event Dispatch Thread. Its
+ * duration is the time the refresh held the EDT.
+ */
+@Name("GragasApp.DashboardRefresh")
+@Label("Dashboard Refresh")
+@Category({"GragasApp", "UI"})
+@Description("Dashboard components were refreshed from the model")
+public class DashboardRefreshEvent extends Event {
+
+    @Label("Components")
+    @Description("Bit flags of the refreshed components, as used by the controller's update coalescer")
+    public int components;
+
+    @Label("Rows Rendered")
+    @Description("Rows in the food log table after the refresh, or 0 if it was not refreshed")
+    public int rowsRendered;
+}
@@ -0,0 +1,286 @@
+package GragasApp.diagnostics;
+
+import java.awt.EventQueue;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures how quickly the Event Dispatch Thread responds, and records when it stalls.
+ *
+ * A background thread posts a probe to the EDT every probe interval, with at most one probe
+ * waiting at a time. The probe's latency, from posting until the EDT runs it, is how long any
+ * user input would have waited. While a probe has waited longer than the stall threshold, the
+ * watchdog captures the EDT's stack once, showing what is blocking it. When the probe finally
+ * runs, its latency goes into a histogram of stall durations, whose buckets double from the
+ * threshold, and the stall is kept with its stack among the most recent ones.
+ *
+ * The application installs one watchdog at startup; {@link #report()} describes everything it
+ * has seen.
+ */
+public final class EdtWatchdog {
+
+    /** How often a probe is posted when none is waiting, in milliseconds. */
+    public static final long DEFAULT_PROBE_INTERVAL_MILLIS = 100;
+
+    /** The probe latency that counts as a stall, in milliseconds. */
+    public static final long DEFAULT_STALL_THRESHOLD_MILLIS = 250;
+
+    private static final int STALL_BUCKETS = 6;
+    private static final int RECENT_STALLS = 10;
+    private static final int STACK_DEPTH = 25;
+
+    private static EdtWatchdog installed;
+
+    /**
+     * One stall: when it started, how long it lasted and what the EDT was doing.
+     */
+    public static final class Stall {
+        private final Instant start;
+        private final long durationMillis;
+        private final StackTraceElement[] stack;
+
+        Stall(Instant start, long durationMillis, StackTraceElement[] stack) {
+            this.start = start;
+            this.durationMillis = durationMillis;
+            this.stack = stack;
+        }
+
+        /** @return When the stalled probe was posted. */
+        public Instant getStart() {
+            return start;
+        }
+
+        /** @return How long the probe waited, in milliseconds. */
+        public long getDurationMillis() {
+            return durationMillis;
+        }
+
+        /** @return The EDT's stack while stalled; empty if the stall ended before it was captured. */
+        public StackTraceElement[] getStack() {
+            return stack.clone();
+        }
+    }
+
+    /**
+     * A probe waiting for the EDT.
+     */
+    private final class Probe implements Runnable {
+        final long postedNanos = System.nanoTime();
+        final Instant postedAt = Instant.now();
+        volatile StackTraceElement[] stack;
+
+        @Override
+        public void run() {
+            edt = Thread.currentThread();
+            long latency = System.nanoTime() - postedNanos;
+            latencies.record(latency);
+            if (latency >= thresholdNanos) {
+                recordStall(this, TimeUnit.NANOSECONDS.toMillis(latency));
+            }
+            waiting = null;
+        }
+    }
+
+    private final long intervalMillis;
+    private final long thresholdMillis;
+    private final long thresholdNanos;
+
+    private final Timer latencies = new Timer();
+    private final AtomicLongArray stallCounts = new AtomicLongArray(STALL_BUCKETS);
+    // Newest first; guarded by itself
+    private final Deque<Stall> recentStalls = new ArrayDeque<>();
+
+    private volatile Thread edt;
+    private volatile Probe waiting;
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Creates a watchdog with the default interval and threshold.
+     */
+    public EdtWatchdog() {
+        this(DEFAULT_PROBE_INTERVAL_MILLIS, DEFAULT_STALL_THRESHOLD_MILLIS);
+    }
+
+    /**
+     * Creates a watchdog.
+     * @param probeIntervalMillis How often to post a probe when none is waiting.
+     * @param stallThresholdMillis The probe latency that counts as a stall.
+     */
+    public EdtWatchdog(long probeIntervalMillis, long stallThresholdMillis) {
+        if (probeIntervalMillis <= 0 || stallThresholdMillis <= 0) {
+            throw new IllegalArgumentException("Interval and threshold must be positive");
+        }
+        this.intervalMillis = probeIntervalMillis;
+        this.thresholdMillis = stallThresholdMillis;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(stallThresholdMillis);
+    }
+
+    /**
+     * Starts the application's watchdog with the default settings, once.
+     * @return The installed watchdog.
+     */
+    public static synchronized EdtWatchdog install() {
+        if (installed == null) {
+            installed = new EdtWatchdog();
+            installed.start();
+        }
+        return installed;
+    }
+
+    /**
+     * Gets the application's watchdog.
+     * @return The watchdog started by {@link #install()}, or null if none was.
+     */
+    public static synchronized EdtWatchdog getInstalled() {
+        return installed;
+    }
+
+    /**
+     * Starts posting probes on a daemon thread. Does nothing if already started.
+     */
+    public synchronized void start() {
+        if (scheduler != null) return;
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "edt-watchdog");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, 0, intervalMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops posting probes. The figures collected so far are kept.
+     */
+    public synchronized void stop() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+    }
+
+    /**
+     * Gets the latencies of every probe that has run.
+     * @return The latency timer.
+     */
+    public Timer getLatencies() {
+        return latencies;
+    }
+
+    /**
+     * Gets the number of stalls so far.
+     * @return The number of probes that waited at least the threshold.
+     */
+    public long getStallCount() {
+        long n = 0;
+        for (int i = 0; i < STALL_BUCKETS; i++) n += stallCounts.get(i);
+        return n;
+    }
+
+    /**
+     * Gets the most recent stalls.
+     * @return Up to ten stalls, newest first.
+     */
+    public List<Stall> getRecentStalls() {
+        synchronized (recentStalls) {
+            return new ArrayList<>(recentStalls);
+        }
+    }
+
+    /**
+     * Describes the EDT's responsiveness: probe latencies, the stall histogram, any stall in
+     * progress, and the recent stalls with their stacks.
+     * @return A multi-line report.
+     */
+    public String report() {
+        StringBuilder sb = new StringBuilder();
+        String nl = System.lineSeparator();
+        sb.append(String.format("EDT responsiveness (probe every %d ms, stall threshold %d ms)%n",
+                intervalMillis, thresholdMillis));
+        sb.append(String.format("Probes: %d, latency mean %.2f ms, p50 %.2f ms, p99 %.2f ms, max %.2f ms%n",
+                latencies.getCount(), latencies.getMeanMillis(), latencies.getP50Millis(),
+                latencies.getP99Millis(), latencies.getMaxMillis()));
+        sb.append("Stalls: ").append(getStallCount()).append(nl);
+        for (int i = 0; i < STALL_BUCKETS; i++) {
+            long low = thresholdMillis << i;
+            String range = i == STALL_BUCKETS - 1 ? ">= " + low : low + "-" + ((thresholdMillis << (i + 1)) - 1);
+            sb.append(String.format("  %s ms: %d%n", range, stallCounts.get(i)));
+        }
+        Probe current = waiting;
+        if (current != null) {
+            long waited = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - current.postedNanos);
+            if (waited >= thresholdMillis) {
+                sb.append("Stall in progress for ").append(waited).append(" ms").append(nl);
+                appendStack(sb, current.stack);
+            }
+        }
+        List<Stall> stalls = getRecentStalls();
+        if (!stalls.isEmpty()) {
+            sb.append("Recent stalls, newest first:").append(nl);
+            for (Stall stall : stalls) {
+                sb.append("  ").append(stall.getStart()).append(": ")
+                        .append(stall.getDurationMillis()).append(" ms").append(nl);
+                appendStack(sb, stall.stack);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Posts a probe if none is waiting, or captures the EDT's stack once a probe has waited too long.
+     */
+    private void tick() {
+        Probe probe = waiting;
+        if (probe == null) {
+            probe = new Probe();
+            waiting = probe;
+            EventQueue.invokeLater(probe);
+        } else if (probe.stack == null && System.nanoTime() - probe.postedNanos >= thresholdNanos) {
+            Thread thread = edt != null ? edt : findEdt();
+            probe.stack = thread == null ? new StackTraceElement[0] : thread.getStackTrace();
+        }
+    }
+
+    /**
+     * Finds the EDT by name, for a stall before any probe has run on it.
+     */
+    private static Thread findEdt() {
+        for (Thread t : Thread.getAllStackTraces().keySet()) {
+            if (t.getName().startsWith("AWT-EventQueue")) return t;
+        }
+        return null;
+    }
+
+    private void recordStall(Probe probe, long durationMillis) {
+        int bucket = 0;
+        while (bucket < STALL_BUCKETS - 1 && durationMillis >= thresholdMillis << (bucket + 1)) {
+            bucket++;
+        }
+        stallCounts.incrementAndGet(bucket);
+        StackTraceElement[] stack = probe.stack == null ? new StackTraceElement[0] : probe.stack;
+        synchronized (recentStalls) {
+            recentStalls.addFirst(new Stall(probe.postedAt, durationMillis, stack));
+            if (recentStalls.size() > RECENT_STALLS) recentStalls.removeLast();
+        }
+    }
+
+    private static void appendStack(StringBuilder sb, StackTraceElement[] stack) {
+        String nl = System.lineSeparator();
+        if (stack == null || stack.length == 0) {
+            sb.append("    (stack not captured)").append(nl);
+            return;
+        }
+        for (int i = 0; i < Math.min(stack.length, STACK_DEPTH); i++) {
+            sb.append("    at ").append(stack[i]).append(nl);
+        }
+        if (stack.length > STACK_DEPTH) {
+            sb.append("    ... ").append(stack.length - STACK_DEPTH).append(" more").append(nl);
+        }
+    }
+}
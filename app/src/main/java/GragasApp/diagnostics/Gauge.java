@@ -0,0 +1,26 @@
+package GragasApp.diagnostics;
+
+import java.util.function.LongSupplier;
+
+/**
+ * A value read when it is reported, such as the estimated heap of the loaded profiles.
+ *
+ * The supplier is called on whatever thread reads the gauge, JMX included, so it should be
+ * thread-safe and cheap or cached. A disabled gauge reads 0 without calling anything.
+ */
+public final class Gauge implements GaugeMXBean {
+
+    /** Shared gauge handed out while metrics are disabled. */
+    static final Gauge DISABLED = new Gauge(() -> 0);
+
+    private final LongSupplier value;
+
+    Gauge(LongSupplier value) {
+        this.value = value;
+    }
+
+    @Override
+    public long getValue() {
+        return value.getAsLong();
+    }
+}
@@ -0,0 +1,13 @@
+package GragasApp.diagnostics;
+
+/**
+ * The management view of a {@link Gauge}.
+ */
+public interface GaugeMXBean {
+
+    /**
+     * Gets the current value.
+     * @return What the gauge's supplier returns now.
+     */
+    long getValue();
+}
@@ -0,0 +1,104 @@
+package GragasApp.diagnostics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A distribution of non-negative long values, such as sizes or durations.
+ *
+ * Values are counted in power-of-two buckets, so recording is a few atomic adds with no
+ * allocation, memory is fixed, and percentiles are reported as the upper bound of their bucket:
+ * at most twice the true value. The count, sum and maximum are exact. A disabled histogram
+ * ignores every call.
+ */
+public class Histogram implements HistogramMXBean {
+
+    /** Shared histogram handed out while metrics are disabled. */
+    static final Histogram DISABLED = new Histogram(false);
+
+    private static final int BUCKETS = 64;
+
+    private final boolean enabled;
+    // Bucket i holds values v with 64 - numberOfLeadingZeros(v) == i, i.e. 2^(i-1) <= v < 2^i
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    Histogram() {
+        this(true);
+    }
+
+    Histogram(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Records one value; negative values are recorded as 0.
+     * @param value The value.
+     */
+    public void record(long value) {
+        if (!enabled) return;
+        long v = Math.max(0, value);
+        buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(v)));
+        count.increment();
+        sum.add(v);
+        if (v > max.get()) max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Tells whether values are being recorded.
+     * @return false for the shared disabled instance.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Override
+    public long getCount() {
+        return count.sum();
+    }
+
+    @Override
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    @Override
+    public long getMax() {
+        return max.get();
+    }
+
+    @Override
+    public long getP50() {
+        return percentile(0.50);
+    }
+
+    @Override
+    public long getP99() {
+        return percentile(0.99);
+    }
+
+    /**
+     * Gets an upper bound of a percentile, never above the maximum.
+     * @param fraction The percentile as a fraction, e.g. 0.99.
+     * @return The bound, or 0 if nothing was recorded.
+     */
+    public long percentile(double fraction) {
+        long n = 0;
+        for (int i = 0; i < BUCKETS; i++) n += buckets.get(i);
+        if (n == 0) return 0;
+        long rank = (long) Math.ceil(fraction * n);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += buckets.get(i);
+            if (seen >= rank) {
+                long upper = i == 0 ? 0 : (i >= 63 ? Long.MAX_VALUE : (1L << i) - 1);
+                return Math.min(upper, max.get());
+            }
+        }
+        return max.get();
+    }
+}
@@ -0,0 +1,22 @@
+package GragasApp.diagnostics;
+
+/**
+ * The management view of a {@link Histogram}.
+ */
+public interface HistogramMXBean {
+
+    /** @return The number of recorded values. */
+    long getCount();
+
+    /** @return The mean of the recorded values, or 0 if there are none. */
+    double getMean();
+
+    /** @return The largest recorded value, or 0 if there are none. */
+    long getMax();
+
+    /** @return An upper bound of the median, within a factor of two. */
+    long getP50();
+
+    /** @return An upper bound of the 99th percentile, within a factor of two. */
+    long getP99();
+}
@@ -0,0 +1,96 @@
+package GragasApp.diagnostics;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * The application's metrics: latency, error and volume figures for the hot paths.
+ *
+ * Metrics are off unless the JVM is started with {@code -Dgragas.metrics=true}. When off,
+ * every lookup returns a shared disabled metric whose methods return at once without reading
+ * the clock, so instrumented code costs a field read and a branch. When on, metrics are
+ * published as platform MBeans under {@value MetricsRegistry#JMX_DOMAIN}, and a summary goes to
+ * {@code System.out} every {@code gragas.metrics.reportSeconds} seconds (60 by default; 0 turns
+ * the summary off).
+ *
+ * Instrumented code looks its metrics up once, into static final fields.
+ */
+public final class Metrics {
+
+    /** Whether metrics are collected; fixed at startup. */
+    public static final boolean ENABLED = Boolean.getBoolean("gragas.metrics");
+
+    private static final long DEFAULT_REPORT_SECONDS = 60;
+
+    private static final MetricsRegistry REGISTRY = new MetricsRegistry();
+
+    static {
+        if (ENABLED) {
+            REGISTRY.bindTo(ManagementFactory.getPlatformMBeanServer());
+            long period = Long.getLong("gragas.metrics.reportSeconds", DEFAULT_REPORT_SECONDS);
+            if (period > 0) startReporter(period);
+        }
+    }
+
+    private Metrics() {}
+
+    /**
+     * Gets or creates a counter.
+     * @param name The metric name.
+     * @return The counter, or a disabled one if metrics are off.
+     */
+    public static Counter counter(String name) {
+        return ENABLED ? REGISTRY.counter(name) : Counter.DISABLED;
+    }
+
+    /**
+     * Gets or creates a timer.
+     * @param name The metric name.
+     * @return The timer, or a disabled one if metrics are off.
+     */
+    public static Timer timer(String name) {
+        return ENABLED ? REGISTRY.timer(name) : Timer.DISABLED;
+    }
+
+    /**
+     * Gets or creates a histogram.
+     * @param name The metric name.
+     * @return The histogram, or a disabled one if metrics are off.
+     */
+    public static Histogram histogram(String name) {
+        return ENABLED ? REGISTRY.histogram(name) : Histogram.DISABLED;
+    }
+
+    /**
+     * Gets or creates a gauge.
+     * @param name The metric name.
+     * @param value Reads the gauge's value; not called if metrics are off.
+     * @return The gauge, or a disabled one if metrics are off.
+     */
+    public static Gauge gauge(String name, LongSupplier value) {
+        return ENABLED ? REGISTRY.gauge(name, value) : Gauge.DISABLED;
+    }
+
+    /**
+     * Describes every metric collected so far.
+     * @return One line per metric; empty if metrics are off.
+     */
+    public static String summary() {
+        return REGISTRY.summary();
+    }
+
+    private static void startReporter(long periodSeconds) {
+        ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "metrics-reporter");
+            t.setDaemon(true);
+            return t;
+        });
+        reporter.scheduleAtFixedRate(() -> {
+            String summary = REGISTRY.summary();
+            if (!summary.isEmpty()) System.out.print("Metrics:" + System.lineSeparator() + summary);
+        }, periodSeconds, periodSeconds, TimeUnit.SECONDS);
+    }
+}
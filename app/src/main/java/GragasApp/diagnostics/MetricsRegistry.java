@@ -0,0 +1,143 @@
+package GragasApp.diagnostics;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Named counters, timers, histograms and gauges, created on first use.
+ *
+ * A registry may be bound to an {@link MBeanServer}; every metric, existing or created later,
+ * is then registered as {@code GragasApp:type=<Counter|Timer|Histogram|Gauge>,name=<name>} so it can
+ * be watched in JConsole or Java Mission Control. The application uses one registry through
+ * {@link Metrics}; tests may create their own.
+ */
+public final class MetricsRegistry {
+
+    /** The JMX domain of every metric. */
+    public static final String JMX_DOMAIN = "GragasApp";
+
+    private final Map<String, Object> metrics = new ConcurrentHashMap<>();
+    private volatile MBeanServer server;
+
+    /**
+     * Gets or creates a counter.
+     * @param name The metric name, e.g. {@code api.errors}.
+     * @return The counter.
+     * @throws IllegalArgumentException If the name is used by another kind of metric.
+     */
+    public Counter counter(String name) {
+        return get(name, Counter.class, Counter::new);
+    }
+
+    /**
+     * Gets or creates a timer.
+     * @param name The metric name, e.g. {@code api.request}.
+     * @return The timer.
+     * @throws IllegalArgumentException If the name is used by another kind of metric.
+     */
+    public Timer timer(String name) {
+        return get(name, Timer.class, Timer::new);
+    }
+
+    /**
+     * Gets or creates a histogram.
+     * @param name The metric name.
+     * @return The histogram.
+     * @throws IllegalArgumentException If the name is used by another kind of metric.
+     */
+    public Histogram histogram(String name) {
+        return get(name, Histogram.class, Histogram::new);
+    }
+
+    /**
+     * Gets or creates a gauge. The first supplier given for a name is the one that is read.
+     * @param name The metric name, e.g. {@code memory.estimatedBytes}.
+     * @param value Reads the gauge's value.
+     * @return The gauge.
+     * @throws IllegalArgumentException If the name is used by another kind of metric.
+     */
+    public Gauge gauge(String name, LongSupplier value) {
+        return get(name, Gauge.class, () -> new Gauge(value));
+    }
+
+    /**
+     * Registers every metric with an MBean server, now and as they are created.
+     * @param server The server, usually the platform MBean server.
+     */
+    public synchronized void bindTo(MBeanServer server) {
+        this.server = server;
+        metrics.forEach(this::register);
+    }
+
+    /**
+     * Describes every metric on one line each, sorted by name.
+     * @return The summary; empty if there are no metrics.
+     */
+    public String summary() {
+        StringBuilder sb = new StringBuilder();
+        new TreeMap<>(metrics).forEach((name, metric) -> {
+            if (metric instanceof Counter c) {
+                sb.append(String.format("%s count=%d%n", name, c.getCount()));
+            } else if (metric instanceof Timer t) {
+                sb.append(String.format("%s count=%d mean=%.2fms p50=%.2fms p99=%.2fms max=%.2fms%n",
+                        name, t.getCount(), t.getMeanMillis(), t.getP50Millis(),
+                        t.getP99Millis(), t.getMaxMillis()));
+            } else if (metric instanceof Histogram h) {
+                sb.append(String.format("%s count=%d mean=%.1f p50=%d p99=%d max=%d%n",
+                        name, h.getCount(), h.getMean(), h.getP50(), h.getP99(), h.getMax()));
+            } else if (metric instanceof Gauge g) {
+                sb.append(String.format("%s value=%d%n", name, g.getValue()));
+            }
+        });
+        return sb.toString();
+    }
+
+    private <T> T get(String name, Class<T> type, Supplier<T> factory) {
+        Object metric = metrics.get(name);
+        if (metric == null) {
+            synchronized (this) {
+                metric = metrics.get(name);
+                if (metric == null) {
+                    metric = factory.get();
+                    metrics.put(name, metric);
+                    register(name, metric);
+                }
+            }
+        }
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException("Metric " + name + " is a "
+                    + metric.getClass().getSimpleName() + ", not a " + type.getSimpleName());
+        }
+        return type.cast(metric);
+    }
+
+    private void register(String name, Object metric) {
+        MBeanServer s = server;
+        if (s == null) return;
+        try {
+            s.registerMBean(metric, objectName(metric.getClass().getSimpleName(), name));
+        } catch (InstanceAlreadyExistsException e) {
+            // Another registry already owns this name on the server; keep the first
+        } catch (JMException e) {
+            System.err.println("Could not register metric " + name + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Builds the JMX name of a metric.
+     * @param type The metric class name, e.g. {@code Timer}.
+     * @param name The metric name.
+     * @return The object name.
+     * @throws JMException If the name cannot be quoted into a valid object name.
+     */
+    public static ObjectName objectName(String type, String name) throws JMException {
+        return new ObjectName(JMX_DOMAIN + ":type=" + type + ",name=" + ObjectName.quote(name));
+    }
+}
@@ -0,0 +1,47 @@
+package GragasApp.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * A Flight Recorder event for one food description being resolved into calories and nutrients.
+ * Its duration is the lookup latency as seen by the caller.
+ */
+@Name("GragasApp.NutritionLookup")
+@Label("Nutrition Lookup")
+@Category({"GragasApp", "Network"})
+@Description("A food description was resolved through the nutrition lookup")
+public class NutritionLookupEvent extends Event {
+
+    /** The cache tier of a lookup that went to the lookup service. */
+    public static final String TIER_NONE = "none";
+
+    /** The cache tier of a food chosen from the suggestions of previously logged foods. */
+    public static final String TIER_SUGGESTIONS = "suggestions";
+
+    /** The cache tier of a food added with a quick-add button. */
+    public static final String TIER_FREQUENT = "frequent";
+
+    /** The status of a lookup that returned an entry. */
+    public static final String STATUS_OK = "ok";
+
+    /** The status of a lookup that threw. */
+    public static final String STATUS_ERROR = "error";
+
+    @Label("Query")
+    public String query;
+
+    @Label("Cache Tier")
+    @Description("The cache that answered the lookup, or \"none\" if it was not cached")
+    public String cacheTier;
+
+    @Label("Status")
+    public String status;
+
+    @Label("Error")
+    @Description("The failure message of a lookup that threw")
+    public String error;
+}
@@ -0,0 +1,68 @@
+package GragasApp.diagnostics;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Records how long the application takes to start, measured from JVM start.
+ *
+ * Time-to-first-frame is when the main window is first shown. Time-to-interactive is when
+ * the profile list has finished loading and every control is usable. Each milestone is
+ * recorded once; later calls are ignored. A summary line goes to {@code System.out} once
+ * both milestones are known.
+ */
+public final class StartupMetrics {
+
+    private static final long NOT_RECORDED = -1;
+
+    private static volatile long firstFrameMillis = NOT_RECORDED;
+    private static volatile long interactiveMillis = NOT_RECORDED;
+
+    private StartupMetrics() {}
+
+    /**
+     * Records that the main window has been shown.
+     */
+    public static synchronized void markFirstFrame() {
+        if (firstFrameMillis == NOT_RECORDED) {
+            firstFrameMillis = uptimeMillis();
+            reportIfComplete();
+        }
+    }
+
+    /**
+     * Records that startup loading has finished and the UI is fully usable.
+     */
+    public static synchronized void markInteractive() {
+        if (interactiveMillis == NOT_RECORDED) {
+            interactiveMillis = uptimeMillis();
+            reportIfComplete();
+        }
+    }
+
+    /**
+     * Gets the time from JVM start to the first frame.
+     * @return Milliseconds, or -1 if not recorded yet.
+     */
+    public static long getTimeToFirstFrameMillis() {
+        return firstFrameMillis;
+    }
+
+    /**
+     * Gets the time from JVM start until the UI became interactive.
+     * @return Milliseconds, or -1 if not recorded yet.
+     */
+    public static long getTimeToInteractiveMillis() {
+        return interactiveMillis;
+    }
+
+    private static long uptimeMillis() {
+        return ManagementFactory.getRuntimeMXBean().getUptime();
+    }
+
+    private static void reportIfComplete() {
+        if (firstFrameMillis != NOT_RECORDED && interactiveMillis != NOT_RECORDED) {
+            System.out.println("Startup: first frame after " + firstFrameMillis
+                    + " ms, interactive after " + interactiveMillis + " ms");
+        }
+    }
+}
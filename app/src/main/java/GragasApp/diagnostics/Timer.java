@@ -0,0 +1,90 @@
+package GragasApp.diagnostics;
+
+/**
+ * Durations of an operation, kept as a {@link Histogram} of nanoseconds.
+ *
+ * Typical use:
+ * <pre>
+ * long start = TIMER.start();
+ * try { ... } finally { TIMER.stop(start); }
+ * </pre>
+ * A disabled timer does not even read the clock.
+ */
+public final class Timer implements TimerMXBean {
+
+    /** Shared timer handed out while metrics are disabled. */
+    static final Timer DISABLED = new Timer(Histogram.DISABLED);
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final Histogram nanos;
+
+    Timer() {
+        this(new Histogram());
+    }
+
+    private Timer(Histogram nanos) {
+        this.nanos = nanos;
+    }
+
+    /**
+     * Starts timing one operation.
+     * @return The start time to pass to {@link #stop(long)}.
+     */
+    public long start() {
+        return nanos.isEnabled() ? System.nanoTime() : 0;
+    }
+
+    /**
+     * Records the time since {@link #start()}.
+     * @param start The value returned by {@link #start()}.
+     * @return The elapsed nanoseconds, or 0 if disabled.
+     */
+    public long stop(long start) {
+        if (!nanos.isEnabled()) return 0;
+        long elapsed = System.nanoTime() - start;
+        nanos.record(elapsed);
+        return elapsed;
+    }
+
+    /**
+     * Records a duration measured elsewhere.
+     * @param elapsedNanos The duration in nanoseconds.
+     */
+    public void record(long elapsedNanos) {
+        nanos.record(elapsedNanos);
+    }
+
+    /**
+     * Gets the underlying histogram of nanoseconds.
+     * @return The histogram.
+     */
+    public Histogram getNanos() {
+        return nanos;
+    }
+
+    @Override
+    public long getCount() {
+        return nanos.getCount();
+    }
+
+    @Override
+    public double getMeanMillis() {
+        return nanos.getMean() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getMaxMillis() {
+        return nanos.getMax() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP50Millis() {
+        return nanos.getP50() / NANOS_PER_MILLI;
+    }
+
+    @Override
+    public double getP99Millis() {
+        return nanos.getP99() / NANOS_PER_MILLI;
+    }
+}
@@ -0,0 +1,22 @@
+package GragasApp.diagnostics;
+
+/**
+ * The management view of a {@link Timer}; durations are in milliseconds.
+ */
+public interface TimerMXBean {
+
+    /** @return The number of timed operations. */
+    long getCount();
+
+    /** @return The mean duration. */
+    double getMeanMillis();
+
+    /** @return The longest duration. */
+    double getMaxMillis();
+
+    /** @return An upper bound of the median duration, within a factor of two. */
+    double getP50Millis();
+
+    /** @return An upper bound of the 99th percentile duration, within a factor of two. */
+    double getP99Millis();
+}
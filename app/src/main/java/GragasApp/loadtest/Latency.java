@@ -0,0 +1,131 @@
+package GragasApp.loadtest;
+
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A distribution of response delays for the {@link StubNutritionServer}.
+ *
+ * Real network latency is rarely constant: most responses arrive near a typical time and a
+ * few take much longer. {@link #logNormal(double, double)} models that long tail;
+ * {@link #fixed(long)} and {@link #uniform(long, long)} are for runs that should not depend on
+ * the draw. A distribution can also be written as a spec, as taken by {@link #parse(String)}.
+ */
+public final class Latency {
+
+    private enum Kind { NONE, FIXED, UNIFORM, LOGNORMAL }
+
+    private static final Latency NONE = new Latency(Kind.NONE, 0, 0);
+
+    private final Kind kind;
+    private final double a;
+    private final double b;
+
+    private Latency(Kind kind, double a, double b) {
+        this.kind = kind;
+        this.a = a;
+        this.b = b;
+    }
+
+    /**
+     * @return A distribution that never delays.
+     */
+    public static Latency none() {
+        return NONE;
+    }
+
+    /**
+     * @param millis The delay of every response.
+     * @return A distribution that always delays by the same amount.
+     */
+    public static Latency fixed(long millis) {
+        if (millis < 0) throw new IllegalArgumentException("Delay must not be negative");
+        return millis == 0 ? NONE : new Latency(Kind.FIXED, millis, millis);
+    }
+
+    /**
+     * @param minMillis The shortest delay.
+     * @param maxMillis The longest delay.
+     * @return A distribution that delays uniformly between the two, inclusive.
+     */
+    public static Latency uniform(long minMillis, long maxMillis) {
+        if (minMillis < 0 || maxMillis < minMillis) {
+            throw new IllegalArgumentException("Need 0 <= min <= max, got " + minMillis + " and " + maxMillis);
+        }
+        return new Latency(Kind.UNIFORM, minMillis, maxMillis);
+    }
+
+    /**
+     * @param medianMillis The median delay.
+     * @param sigma The standard deviation of the delay's logarithm; around 0.5 gives a p99 of
+     *              about three times the median.
+     * @return A log-normal distribution.
+     */
+    public static Latency logNormal(double medianMillis, double sigma) {
+        if (medianMillis <= 0 || sigma < 0) {
+            throw new IllegalArgumentException("Need a positive median and a non-negative sigma");
+        }
+        return new Latency(Kind.LOGNORMAL, medianMillis, sigma);
+    }
+
+    /**
+     * Parses a spec: {@code none}, {@code fixed:MS} (or just {@code MS}), {@code uniform:MIN:MAX}
+     * or {@code lognormal:MEDIAN:SIGMA}, with times in milliseconds.
+     * @param spec The spec.
+     * @return The distribution.
+     * @throws IllegalArgumentException If the spec is malformed.
+     */
+    public static Latency parse(String spec) {
+        String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+        try {
+            switch (parts[0]) {
+                case "none" -> {
+                    if (parts.length == 1) return NONE;
+                }
+                case "fixed" -> {
+                    if (parts.length == 2) return fixed(Long.parseLong(parts[1]));
+                }
+                case "uniform" -> {
+                    if (parts.length == 3) return uniform(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+                }
+                case "lognormal" -> {
+                    if (parts.length == 3) return logNormal(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                }
+                default -> {
+                    if (parts.length == 1) return fixed(Long.parseLong(parts[0]));
+                }
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new IllegalArgumentException("Bad latency spec '" + spec
+                + "'; expected none, fixed:MS, uniform:MIN:MAX or lognormal:MEDIAN:SIGMA");
+    }
+
+    /**
+     * Draws a delay.
+     * @param random The source of randomness.
+     * @return The delay in milliseconds, never negative.
+     */
+    public long sampleMillis(Random random) {
+        return switch (kind) {
+            case NONE -> 0;
+            case FIXED -> (long) a;
+            case UNIFORM -> (long) a + (long) (random.nextDouble() * (b - a + 1));
+            case LOGNORMAL -> Math.round(a * Math.exp(b * random.nextGaussian()));
+        };
+    }
+
+    /**
+     * @return The spec that {@link #parse(String)} turns back into this distribution.
+     */
+    @Override
+    public String toString() {
+        return switch (kind) {
+            case NONE -> "none";
+            case FIXED -> "fixed:" + (long) a;
+            case UNIFORM -> "uniform:" + (long) a + ":" + (long) b;
+            case LOGNORMAL -> "lognormal:" + a + ":" + b;
+        };
+    }
+}
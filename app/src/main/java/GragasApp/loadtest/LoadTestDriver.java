@@ -0,0 +1,438 @@
+package GragasApp.loadtest;
+
+import GragasApp.controller.AppController;
+import GragasApp.model.APICaller;
+import GragasApp.model.ActivityLevel;
+import GragasApp.model.CSVHandler;
+import GragasApp.model.Sex;
+import GragasApp.view.FoodLogTableModel;
+import GragasApp.view.HeadlessView;
+
+import javax.swing.event.TableModelListener;
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Replays scripted user sessions against real {@link AppController}s with headless views, and
+ * reports throughput and latency percentiles per action.
+ *
+ * Each client is one controller with its own {@link HeadlessView}; all clients share one
+ * {@link CSVHandler} over a scratch directory and one {@link StubNutritionServer}, which the
+ * controllers reach through the real {@link APICaller} HTTP client. Clients run their sessions
+ * one after another on their own threads, performing each action on the Event Dispatch Thread
+ * as a click would. Adding a food is timed until the entry shows in the dashboard table, so
+ * its latency covers the lookup and the UI refresh; other actions are timed until their
+ * listeners return.
+ *
+ * Usage: {@code LoadTestDriver [--sessions N] [--clients N] [--script FILE] [--delay-ms N]
+ * [--latency SPEC] [--error-rate F] [--rate-limit N] [--fixtures FILE]}
+ */
+public final class LoadTestDriver {
+
+    /** How long one food may take to appear before its session is failed. */
+    private static final long ADD_TIMEOUT_SECONDS = 30;
+
+    private static final String[] FOODS = {
+        "oatmeal", "banana", "greek yogurt", "2 eggs", "toast", "apple", "chicken breast",
+        "brown rice", "broccoli", "salmon", "almonds", "coffee with milk", "turkey sandwich",
+        "caesar salad", "pasta with tomato sauce", "orange juice", "protein bar", "cheddar cheese",
+        "blueberries", "peanut butter",
+    };
+
+    private final SessionScript script;
+    private final int sessions;
+    private final int clients;
+    private final CSVHandler csvHandler;
+    private final String baseUrl;
+
+    private final Map<SessionScript.Action, LatencyStats> latencies = new EnumMap<>(SessionScript.Action.class);
+    private final AtomicInteger nextSession = new AtomicInteger();
+    private final AtomicInteger failedSessions = new AtomicInteger();
+
+    /**
+     * Creates a driver.
+     * @param script The session every client replays.
+     * @param sessions The total number of sessions, spread over the clients.
+     * @param clients The number of controllers running sessions at once.
+     * @param csvHandler Where the sessions' profiles are saved.
+     * @param baseUrl The nutrition service the controllers call, e.g. a {@link StubNutritionServer}.
+     */
+    public LoadTestDriver(SessionScript script, int sessions, int clients, CSVHandler csvHandler, String baseUrl) {
+        if (sessions < 0 || clients <= 0) {
+            throw new IllegalArgumentException("Need a non-negative session count and at least one client");
+        }
+        this.script = script;
+        this.sessions = sessions;
+        this.clients = clients;
+        this.csvHandler = csvHandler;
+        this.baseUrl = baseUrl;
+        for (SessionScript.Action action : SessionScript.Action.values()) {
+            latencies.put(action, new LatencyStats());
+        }
+    }
+
+    /**
+     * Runs every session and waits for them to finish.
+     * @return The results.
+     * @throws Exception If a client could not be set up.
+     */
+    public Report run() throws Exception {
+        Client[] running = new Client[clients];
+        try {
+            for (int i = 0; i < clients; i++) {
+                running[i] = new Client();
+            }
+            long start = System.nanoTime();
+            Thread[] threads = new Thread[clients];
+            for (int i = 0; i < clients; i++) {
+                Client client = running[i];
+                threads[i] = new Thread(client::runSessions, "load-client-" + i);
+                threads[i].start();
+            }
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            long elapsed = System.nanoTime() - start;
+            return new Report(sessions, failedSessions.get(), clients, elapsed, latencies);
+        } finally {
+            // Flush each controller's autosave while the data directory still exists
+            for (Client client : running) {
+                if (client != null) client.close();
+            }
+        }
+    }
+
+    /**
+     * One controller and its headless view, running sessions one at a time.
+     */
+    private final class Client {
+        private final HeadlessView view = new HeadlessView();
+        private final ExecutorService lookupExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        private AppController controller; // set on the EDT by the constructor
+        // Only touched on the EDT
+        private CompletableFuture<Void> pendingRows;
+        private int expectedRows;
+
+        Client() throws Exception {
+            APICaller api = APICaller.forService(baseUrl, "load-test");
+            onEdt(() -> {
+                controller = new AppController(view, csvHandler, api::lookupFood, lookupExecutor);
+                FoodLogTableModel table = view.getDashboardView().getFoodLogTableModel();
+                TableModelListener rowsListener = e -> {
+                    if (pendingRows != null && table.getRows() != null && table.getRows().size() >= expectedRows) {
+                        pendingRows.complete(null);
+                        pendingRows = null;
+                    }
+                };
+                table.addTableModelListener(rowsListener);
+                view.setErrorListener(message -> {
+                    if (pendingRows != null) {
+                        pendingRows.completeExceptionally(new IllegalStateException(message));
+                        pendingRows = null;
+                    }
+                });
+            });
+            // Wait for the initial profile load, so it does not overlap the first session
+            boolean[] loading = {true};
+            while (loading[0]) {
+                onEdt(() -> loading[0] = view.getUserSelectionView().isLoading());
+                if (loading[0]) Thread.sleep(10);
+            }
+        }
+
+        void runSessions() {
+            int session;
+            while ((session = nextSession.getAndIncrement()) < sessions) {
+                try {
+                    runSession(session);
+                } catch (Exception e) {
+                    failedSessions.incrementAndGet();
+                    System.err.println("Session " + session + " failed: " + e.getMessage());
+                    try {
+                        onEdt(() -> view.getDashboardView().clickSwitchUser());
+                    } catch (Exception ignored) {
+                        // The next session starts from wherever this one stopped
+                    }
+                }
+            }
+        }
+
+        private void runSession(int session) throws Exception {
+            String name = String.format("Load%06d", session);
+            int step = 0;
+            for (SessionScript.Step s : script.getSteps()) {
+                long start = System.nanoTime();
+                perform(s, name, session, step++);
+                latencies.get(s.getAction()).record(System.nanoTime() - start);
+            }
+        }
+
+        private void perform(SessionScript.Step step, String name, int session, int index) throws Exception {
+            HeadlessView.Dashboard dashboard = view.getDashboardView();
+            switch (step.getAction()) {
+                case CREATE -> checked(() -> {
+                    view.getUserSelectionView().fillNewProfile(name, 20 + session % 50, 160 + session % 40,
+                            60 + session % 40, 55 + session % 30,
+                            Sex.values()[session % Sex.values().length],
+                            ActivityLevel.values()[session % ActivityLevel.values().length]);
+                    view.getUserSelectionView().clickCreateProfile();
+                });
+                case LOAD -> {
+                    int[] errorsBefore = new int[1];
+                    onEdt(() -> errorsBefore[0] = view.getErrorCount());
+                    checked(() -> {
+                        view.getUserSelectionView().selectUser(name);
+                        view.getUserSelectionView().clickLoadProfile();
+                    });
+                    // A profile whose logs were evicted is read back in the background first
+                    awaitDashboard(errorsBefore[0]);
+                }
+                case ADD_FOOD -> awaitNewRow(() -> {
+                    dashboard.typeFood(FOODS[(session * 7 + index) % FOODS.length]);
+                    dashboard.clickAddFood();
+                });
+                case QUICK_ADD -> {
+                    boolean[] offered = {false};
+                    onEdt(() -> offered[0] = !dashboard.getQuickAddFoods().isEmpty());
+                    if (offered[0]) awaitNewRow(() -> dashboard.clickQuickAdd(0));
+                }
+                case EDIT_WEIGHT -> checked(() -> {
+                    view.answerInputs(String.valueOf(60 + (session + index) % 40));
+                    dashboard.clickEditWeight();
+                });
+                case EDIT_TARGET -> checked(() -> {
+                    view.answerInputs(String.valueOf(55 + (session + index) % 30));
+                    dashboard.clickEditTargetWeight();
+                });
+                case VIEW_LOGS -> checked(dashboard::clickViewAllLogs);
+                case SEARCH -> checked(() -> view.getAllLogsView().search(
+                        step.getArgument() == null || step.getArgument().isEmpty() ? "a" : step.getArgument()));
+                case BACK -> checked(() -> view.getAllLogsView().clickBackToDashboard());
+                case SAVE -> checked(dashboard::clickSaveChanges);
+                case SWITCH_USER -> checked(dashboard::clickSwitchUser);
+            }
+        }
+
+        /**
+         * Performs an action on the EDT and fails if it showed an error.
+         */
+        private void checked(Runnable action) throws Exception {
+            String[] error = {null};
+            onEdt(() -> {
+                int errorsBefore = view.getErrorCount();
+                action.run();
+                if (view.getErrorCount() != errorsBefore) error[0] = view.getLastError();
+            });
+            if (error[0] != null) throw new IllegalStateException(error[0]);
+        }
+
+        /**
+         * Waits until the dashboard is shown, and fails if an error is shown first.
+         */
+        private void awaitDashboard(int errorsBefore) throws Exception {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(ADD_TIMEOUT_SECONDS);
+            boolean[] shown = {false};
+            String[] error = {null};
+            while (true) {
+                onEdt(() -> {
+                    shown[0] = view.getScreen() == HeadlessView.Screen.DASHBOARD;
+                    if (view.getErrorCount() != errorsBefore) error[0] = view.getLastError();
+                });
+                if (error[0] != null) throw new IllegalStateException(error[0]);
+                if (shown[0]) return;
+                if (System.nanoTime() - deadline > 0) throw new IllegalStateException("The profile did not load");
+                Thread.sleep(1);
+            }
+        }
+
+        /**
+         * Performs an action that adds a food, and waits until today's table shows one more entry.
+         */
+        private void awaitNewRow(Runnable action) throws Exception {
+            CompletableFuture<Void> added = new CompletableFuture<>();
+            onEdt(() -> {
+                FoodLogTableModel table = view.getDashboardView().getFoodLogTableModel();
+                expectedRows = (table.getRows() == null ? 0 : table.getRows().size()) + 1;
+                pendingRows = added;
+                action.run();
+            });
+            added.get(ADD_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        }
+
+        void close() {
+            if (controller != null) controller.close();
+            lookupExecutor.shutdownNow();
+        }
+    }
+
+    private static void onEdt(Runnable action) throws InterruptedException {
+        try {
+            EventQueue.invokeAndWait(action);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        }
+    }
+
+    /**
+     * Latencies of one action, kept in full so percentiles are exact.
+     */
+    static final class LatencyStats {
+        private long[] nanos = new long[1024];
+        private int count;
+
+        synchronized void record(long elapsedNanos) {
+            if (count == nanos.length) nanos = Arrays.copyOf(nanos, count * 2);
+            nanos[count++] = elapsedNanos;
+        }
+
+        synchronized long[] sorted() {
+            long[] copy = Arrays.copyOf(nanos, count);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * The results of a run.
+     */
+    public static final class Report {
+        private final int sessions;
+        private final int failedSessions;
+        private final int clients;
+        private final long elapsedNanos;
+        private final Map<SessionScript.Action, long[]> latencies = new EnumMap<>(SessionScript.Action.class);
+
+        Report(int sessions, int failedSessions, int clients, long elapsedNanos,
+               Map<SessionScript.Action, LatencyStats> stats) {
+            this.sessions = sessions;
+            this.failedSessions = failedSessions;
+            this.clients = clients;
+            this.elapsedNanos = elapsedNanos;
+            stats.forEach((action, s) -> latencies.put(action, s.sorted()));
+        }
+
+        /** @return The number of sessions run. */
+        public int getSessions() {
+            return sessions;
+        }
+
+        /** @return The number of sessions that failed. */
+        public int getFailedSessions() {
+            return failedSessions;
+        }
+
+        /**
+         * Gets how many times an action completed.
+         * @param action The action.
+         * @return The count.
+         */
+        public int getCount(SessionScript.Action action) {
+            return latencies.get(action).length;
+        }
+
+        /**
+         * Gets a latency percentile of an action.
+         * @param action The action.
+         * @param fraction The percentile as a fraction, e.g. 0.99.
+         * @return The latency in milliseconds, or 0 if the action never completed.
+         */
+        public double percentileMillis(SessionScript.Action action, double fraction) {
+            long[] sorted = latencies.get(action);
+            if (sorted.length == 0) return 0;
+            int index = (int) Math.ceil(fraction * sorted.length) - 1;
+            return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Sessions: %d (%d failed) with %d clients in %.1f s, %.1f sessions/s%n",
+                    sessions, failedSessions, clients, seconds, sessions / seconds));
+            sb.append(String.format("%-12s %8s %9s %9s %9s %9s %9s%n",
+                    "Action", "Count", "Ops/s", "p50 ms", "p90 ms", "p99 ms", "Max ms"));
+            for (SessionScript.Action action : SessionScript.Action.values()) {
+                int count = getCount(action);
+                if (count == 0) continue;
+                sb.append(String.format("%-12s %8d %9.1f %9.2f %9.2f %9.2f %9.2f%n",
+                        action.getKeyword(), count, count / seconds,
+                        percentileMillis(action, 0.50), percentileMillis(action, 0.90),
+                        percentileMillis(action, 0.99), percentileMillis(action, 1.0)));
+            }
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Runs a load test against a stub nutrition server and prints the report.
+     * @param args Options: {@code --sessions N} (default 1000), {@code --clients N} (default 4),
+     *             {@code --script FILE} (default: {@link SessionScript#DEFAULT_SCRIPT}) and
+     *             {@code --delay-ms N}, the stub server's response delay (default 20), or
+     *             {@code --latency SPEC} for a distribution of delays. {@code --error-rate F},
+     *             {@code --rate-limit N} and {@code --fixtures FILE} set up the stub server as
+     *             {@link StubNutritionServer#main(String[])} does; sessions that hit an injected
+     *             fault count as failed.
+     * @throws Exception If the run cannot be set up.
+     */
+    public static void main(String[] args) throws Exception {
+        System.setProperty("java.awt.headless", "true");
+        int sessions = 1000;
+        int clients = 4;
+        Latency latency = Latency.fixed(20);
+        double errorRate = 0;
+        int rateLimit = 0;
+        NutritionFixtures fixtures = NutritionFixtures.defaults();
+        SessionScript script = SessionScript.parse(SessionScript.DEFAULT_SCRIPT);
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--sessions" -> sessions = Integer.parseInt(args[i + 1]);
+                case "--clients" -> clients = Integer.parseInt(args[i + 1]);
+                case "--delay-ms" -> latency = Latency.fixed(Long.parseLong(args[i + 1]));
+                case "--latency" -> latency = Latency.parse(args[i + 1]);
+                case "--error-rate" -> errorRate = Double.parseDouble(args[i + 1]);
+                case "--rate-limit" -> rateLimit = Integer.parseInt(args[i + 1]);
+                case "--fixtures" -> fixtures = NutritionFixtures.load(Paths.get(args[i + 1]));
+                case "--script" -> script = SessionScript.load(Paths.get(args[i + 1]));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        Path dataDir = Files.createTempDirectory("gragas-load");
+        try (StubNutritionServer server = new StubNutritionServer(0, fixtures, latency)) {
+            server.setErrorRate(errorRate);
+            server.setRateLimit(rateLimit);
+            Report report = new LoadTestDriver(script, sessions, clients, new CSVHandler(dataDir),
+                    server.getBaseUrl()).run();
+            System.out.print(report);
+            System.out.printf("Stub server: %d requests, %d injected errors, %d rate-limited%n",
+                    server.getRequestCount(), server.getInjectedErrorCount(), server.getRateLimitedCount());
+        } finally {
+            deleteRecursively(dataDir);
+        }
+        // Controllers leave Swing threads behind
+        System.exit(0);
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package GragasApp.loadtest;
+
+import GragasApp.model.Nutrient;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The foods the {@link StubNutritionServer} knows, and how it answers a query from them.
+ *
+ * A query is split into items the way the real service does: on commas, "and" and "with", so
+ * "2 eggs and toast" is two items. An item may start with a count ("2 eggs"), which multiplies
+ * one serving, or a weight in grams ("150g salmon"), which scales it. Names match a fixture
+ * exactly or after dropping a plural "s" or "es". Items that match nothing are left out of the
+ * response, as the real service leaves out words it does not recognise.
+ *
+ * {@link #defaults()} covers the foods the load test adds; {@link #load(Path)} reads a table
+ * from a CSV file whose header is {@code name,calories,serving_size_g} followed by any of the
+ * response's nutrient fields, e.g. {@code protein_g}.
+ */
+public final class NutritionFixtures {
+
+    private static final Pattern ITEM_SEPARATOR = Pattern.compile(",|\\band\\b|\\bwith\\b");
+    private static final Pattern GRAMS = Pattern.compile("^(\\d+(?:\\.\\d+)?)\\s*g\\s+(.+)$");
+    private static final Pattern COUNT = Pattern.compile("^(\\d+(?:\\.\\d+)?)\\s+(.+)$");
+
+    /**
+     * One serving of a food.
+     */
+    private static final class Fixture {
+        final String name;
+        final double calories;
+        final double servingGrams;
+        // Indexed by Nutrient ordinal
+        final double[] nutrients;
+
+        Fixture(String name, double calories, double servingGrams, double[] nutrients) {
+            this.name = name;
+            this.calories = calories;
+            this.servingGrams = servingGrams;
+            this.nutrients = nutrients;
+        }
+    }
+
+    /** Name, kcal, grams, then protein, fat, carbohydrates and sugar in g and sodium in mg, per serving. */
+    private static final Object[][] DEFAULT_TABLE = {
+        {"oatmeal", 158, 234, 5.9, 3.2, 27.3, 1.1, 115},
+        {"banana", 105, 118, 1.3, 0.4, 27.0, 14.4, 1},
+        {"greek yogurt", 146, 200, 19.9, 3.8, 7.8, 7.0, 72},
+        {"yogurt", 149, 245, 8.5, 8.0, 11.4, 11.4, 113},
+        {"egg", 72, 50, 6.3, 4.8, 0.4, 0.2, 71},
+        {"toast", 87, 30, 2.7, 1.2, 16.1, 1.6, 152},
+        {"bread", 77, 29, 2.6, 1.0, 14.3, 1.6, 142},
+        {"apple", 95, 182, 0.5, 0.3, 25.1, 18.9, 2},
+        {"chicken breast", 284, 172, 53.4, 6.2, 0.0, 0.0, 128},
+        {"brown rice", 216, 195, 5.0, 1.8, 44.8, 0.7, 10},
+        {"rice", 206, 158, 4.3, 0.4, 44.5, 0.1, 2},
+        {"broccoli", 31, 91, 2.5, 0.3, 6.0, 1.5, 30},
+        {"salmon", 412, 198, 39.6, 26.9, 0.0, 0.0, 117},
+        {"almonds", 164, 28, 6.0, 14.2, 6.1, 1.2, 0},
+        {"coffee", 2, 237, 0.3, 0.0, 0.0, 0.0, 5},
+        {"milk", 122, 244, 8.1, 4.8, 11.7, 12.3, 115},
+        {"turkey sandwich", 324, 170, 21.4, 9.5, 36.9, 4.9, 1249},
+        {"caesar salad", 391, 200, 10.5, 31.5, 17.6, 3.8, 898},
+        {"pasta", 221, 140, 8.1, 1.3, 43.2, 0.8, 1},
+        {"tomato sauce", 59, 245, 3.2, 0.5, 13.0, 8.6, 1071},
+        {"orange juice", 112, 248, 1.7, 0.5, 25.8, 20.8, 2},
+        {"protein bar", 200, 60, 20.0, 7.0, 22.0, 2.0, 190},
+        {"cheddar cheese", 113, 28, 7.0, 9.3, 0.4, 0.1, 174},
+        {"cheese", 113, 28, 7.0, 9.3, 0.4, 0.1, 174},
+        {"blueberries", 84, 148, 1.1, 0.5, 21.4, 14.7, 1},
+        {"peanut butter", 188, 32, 8.0, 16.1, 6.3, 3.0, 147},
+        {"butter", 102, 14, 0.1, 11.5, 0.0, 0.0, 91},
+        {"potato", 161, 173, 4.3, 0.2, 36.6, 2.0, 17},
+        {"pizza", 285, 107, 12.2, 10.4, 35.7, 3.8, 640},
+        {"hamburger", 540, 226, 34.0, 27.0, 40.0, 9.0, 791},
+    };
+
+    private final Map<String, Fixture> fixtures;
+
+    private NutritionFixtures(Map<String, Fixture> fixtures) {
+        this.fixtures = fixtures;
+    }
+
+    /**
+     * @return The built-in table of common foods.
+     */
+    public static NutritionFixtures defaults() {
+        Map<String, Fixture> table = new LinkedHashMap<>();
+        for (Object[] row : DEFAULT_TABLE) {
+            double[] nutrients = new double[Nutrient.COUNT];
+            nutrients[Nutrient.PROTEIN.ordinal()] = ((Number) row[3]).doubleValue();
+            nutrients[Nutrient.FAT.ordinal()] = ((Number) row[4]).doubleValue();
+            nutrients[Nutrient.CARBOHYDRATES.ordinal()] = ((Number) row[5]).doubleValue();
+            nutrients[Nutrient.SUGAR.ordinal()] = ((Number) row[6]).doubleValue();
+            nutrients[Nutrient.SODIUM.ordinal()] = ((Number) row[7]).doubleValue();
+            String name = (String) row[0];
+            table.put(name, new Fixture(name, ((Number) row[1]).doubleValue(), ((Number) row[2]).doubleValue(), nutrients));
+        }
+        return new NutritionFixtures(table);
+    }
+
+    /**
+     * Reads a table from a CSV file. Blank lines and lines starting with {@code #} are skipped.
+     * @param file The file.
+     * @return The table.
+     * @throws IOException If the file cannot be read.
+     * @throws IllegalArgumentException If the header or a row is malformed.
+     */
+    public static NutritionFixtures load(Path file) throws IOException {
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        int first = 0;
+        while (first < lines.size() && isSkipped(lines.get(first))) first++;
+        if (first == lines.size()) throw new IllegalArgumentException(file + " has no header");
+
+        String[] header = lines.get(first).trim().split("\\s*,\\s*");
+        if (header.length < 3 || !header[0].equals("name") || !header[1].equals("calories")
+                || !header[2].equals("serving_size_g")) {
+            throw new IllegalArgumentException(file + ": header must start with name,calories,serving_size_g");
+        }
+        Nutrient[] columns = new Nutrient[header.length];
+        for (int c = 3; c < header.length; c++) {
+            for (Nutrient n : Nutrient.values()) {
+                if (n.getApiField().equals(header[c])) columns[c] = n;
+            }
+            if (columns[c] == null) throw new IllegalArgumentException(file + ": unknown column " + header[c]);
+        }
+
+        Map<String, Fixture> table = new LinkedHashMap<>();
+        for (int i = first + 1; i < lines.size(); i++) {
+            String line = lines.get(i);
+            if (isSkipped(line)) continue;
+            String[] cells = line.trim().split("\\s*,\\s*");
+            if (cells.length != header.length) {
+                throw new IllegalArgumentException(file + ": line " + (i + 1) + " has " + cells.length
+                        + " cells, expected " + header.length);
+            }
+            try {
+                double[] nutrients = new double[Nutrient.COUNT];
+                for (int c = 3; c < cells.length; c++) {
+                    nutrients[columns[c].ordinal()] = Double.parseDouble(cells[c]);
+                }
+                String name = cells[0].toLowerCase(Locale.ROOT);
+                table.put(name, new Fixture(name, Double.parseDouble(cells[1]), Double.parseDouble(cells[2]), nutrients));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException(file + ": line " + (i + 1) + " has a bad number", e);
+            }
+        }
+        return new NutritionFixtures(table);
+    }
+
+    private static boolean isSkipped(String line) {
+        String trimmed = line.trim();
+        return trimmed.isEmpty() || trimmed.startsWith("#");
+    }
+
+    /**
+     * @return The number of foods in the table.
+     */
+    public int size() {
+        return fixtures.size();
+    }
+
+    /**
+     * Builds the response body for a query.
+     * @param query The food description, e.g. "2 eggs and toast".
+     * @return A JSON array with one object per recognised item, possibly empty.
+     */
+    public String respond(String query) {
+        StringBuilder json = new StringBuilder("[");
+        for (String part : ITEM_SEPARATOR.split(query.toLowerCase(Locale.ROOT))) {
+            String item = part.trim();
+            if (item.isEmpty()) continue;
+            double scale = 1;
+            Matcher grams = GRAMS.matcher(item);
+            Matcher count = COUNT.matcher(item);
+            Fixture fixture;
+            if (grams.matches() && (fixture = find(grams.group(2))) != null) {
+                scale = Double.parseDouble(grams.group(1)) / fixture.servingGrams;
+            } else if (count.matches() && (fixture = find(count.group(2))) != null) {
+                scale = Double.parseDouble(count.group(1));
+            } else if ((fixture = find(item)) == null) {
+                continue;
+            }
+            if (json.length() > 1) json.append(", ");
+            appendItem(json, fixture, scale);
+        }
+        return json.append(']').toString();
+    }
+
+    /**
+     * Finds a fixture by name, then by its singular.
+     */
+    private Fixture find(String name) {
+        Fixture fixture = fixtures.get(name);
+        if (fixture == null && name.endsWith("s")) fixture = fixtures.get(name.substring(0, name.length() - 1));
+        if (fixture == null && name.endsWith("es")) fixture = fixtures.get(name.substring(0, name.length() - 2));
+        return fixture;
+    }
+
+    private static void appendItem(StringBuilder json, Fixture fixture, double scale) {
+        json.append("{\"name\": \"").append(fixture.name.replace("\\", "\\\\").replace("\"", "\\\""))
+                .append("\", \"calories\": ").append(round(fixture.calories * scale))
+                .append(", \"serving_size_g\": ").append(round(fixture.servingGrams * scale));
+        for (Nutrient n : Nutrient.values()) {
+            json.append(", \"").append(n.getApiField()).append("\": ").append(round(fixture.nutrients[n.ordinal()] * scale));
+        }
+        json.append('}');
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 10) / 10.0;
+    }
+}
@@ -0,0 +1,161 @@
+package GragasApp.loadtest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The actions of one scripted user session, replayed by {@link LoadTestDriver}.
+ *
+ * A script has one action per line; blank lines and lines starting with {@code #} are ignored.
+ * An action may be followed by {@code xN} to repeat it N times, and {@code search} takes the
+ * query as the rest of the line:
+ * <pre>
+ * create
+ * add-food x50
+ * edit-weight
+ * save
+ * switch-user
+ * </pre>
+ */
+public final class SessionScript {
+
+    /**
+     * What a session can do, each as a user would through the UI.
+     */
+    public enum Action {
+        /** Fill in and create a new profile for the session, which opens its dashboard. */
+        CREATE("create"),
+        /** Select the session's profile and load it. */
+        LOAD("load"),
+        /** Type a food and add it, waiting until the lookup has logged it. */
+        ADD_FOOD("add-food"),
+        /** Click the first quick-add food, if any. */
+        QUICK_ADD("quick-add"),
+        /** Enter a new weight. */
+        EDIT_WEIGHT("edit-weight"),
+        /** Enter a new target weight. */
+        EDIT_TARGET("edit-target"),
+        /** Open the log history. */
+        VIEW_LOGS("view-logs"),
+        /** Search the log history. */
+        SEARCH("search"),
+        /** Go back to the dashboard. */
+        BACK("back"),
+        /** Save the profile. */
+        SAVE("save"),
+        /** Return to the profile selection. */
+        SWITCH_USER("switch-user");
+
+        private final String keyword;
+
+        Action(String keyword) {
+            this.keyword = keyword;
+        }
+
+        /** @return The script keyword. */
+        public String getKeyword() {
+            return keyword;
+        }
+
+        static Action forKeyword(String keyword) {
+            for (Action action : values()) {
+                if (action.keyword.equals(keyword)) return action;
+            }
+            throw new IllegalArgumentException("Unknown action '" + keyword + "'");
+        }
+    }
+
+    /**
+     * One action and its argument.
+     */
+    public static final class Step {
+        private final Action action;
+        private final String argument;
+
+        Step(Action action, String argument) {
+            this.action = action;
+            this.argument = argument;
+        }
+
+        /** @return The action. */
+        public Action getAction() {
+            return action;
+        }
+
+        /** @return The argument, such as a search query, or null. */
+        public String getArgument() {
+            return argument;
+        }
+    }
+
+    /** The example session: create a profile, add 50 foods, edit the weight, save and switch user. */
+    public static final String DEFAULT_SCRIPT = String.join("\n",
+            "create", "add-food x50", "edit-weight", "save", "switch-user");
+
+    private final List<Step> steps;
+
+    private SessionScript(List<Step> steps) {
+        this.steps = Collections.unmodifiableList(steps);
+    }
+
+    /**
+     * Parses a script.
+     * @param text The script text.
+     * @return The script.
+     * @throws IllegalArgumentException If a line names an unknown action or a bad repeat count.
+     */
+    public static SessionScript parse(String text) {
+        List<Step> steps = new ArrayList<>();
+        String[] lines = text.split("\\R");
+        for (int i = 0; i < lines.length; i++) {
+            String line = lines[i].trim();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] words = line.split("\\s+", 2);
+            Action action;
+            try {
+                action = Action.forKeyword(words[0].toLowerCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Line " + (i + 1) + ": " + e.getMessage());
+            }
+            String rest = words.length > 1 ? words[1].trim() : "";
+            if (action == Action.SEARCH) {
+                steps.add(new Step(action, rest));
+                continue;
+            }
+            int repeat = 1;
+            if (!rest.isEmpty()) {
+                if (!rest.matches("x\\d+")) {
+                    throw new IllegalArgumentException("Line " + (i + 1) + ": expected a repeat such as x50, got '" + rest + "'");
+                }
+                repeat = Integer.parseInt(rest.substring(1));
+            }
+            for (int r = 0; r < repeat; r++) {
+                steps.add(new Step(action, null));
+            }
+        }
+        return new SessionScript(steps);
+    }
+
+    /**
+     * Reads a script from a file.
+     * @param file The file.
+     * @return The script.
+     * @throws IOException If the file cannot be read.
+     */
+    public static SessionScript load(Path file) throws IOException {
+        return parse(Files.readString(file));
+    }
+
+    /**
+     * Gets the steps in order, with repeats expanded.
+     * @return The steps.
+     */
+    public List<Step> getSteps() {
+        return steps;
+    }
+}
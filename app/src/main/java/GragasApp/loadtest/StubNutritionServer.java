@@ -0,0 +1,250 @@
+package GragasApp.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A local stand-in for the nutrition service, for tests, benchmarks and load tests.
+ *
+ * {@code GET /v1/nutrition?query=...} is answered from a {@link NutritionFixtures} table with
+ * the same JSON array the real service returns, so the real {@link GragasApp.model.APICaller}
+ * can be pointed at it, either with {@link GragasApp.model.APICaller#forService(String, String)}
+ * or, for the whole application, with {@code -Dgragas.api.baseUrl=}{@link #getBaseUrl()}.
+ * Requests without an {@code X-Api-Key} header or a query get a 400, as from the real service.
+ *
+ * Faults can be injected and changed while the server runs:
+ * <ul>
+ *   <li>{@link #setLatency(Latency)}: each response is held back by a delay drawn from a
+ *       distribution.</li>
+ *   <li>{@link #setErrorRate(double)}: that share of requests gets a 500 after its delay.</li>
+ *   <li>{@link #setRateLimit(int)}: requests beyond that many per second get a 429 with a
+ *       {@code Retry-After} header, straight away.</li>
+ * </ul>
+ * Draws come from one seeded generator, so a single-threaded run sees the same faults every
+ * time. The server listens on the loopback address only.
+ */
+public class StubNutritionServer implements AutoCloseable {
+
+    static {
+        // Headers and body go out in separate writes; without TCP_NODELAY the body waits for the
+        // client's delayed ACK, adding about 40 ms to every response. Read once, by the first server.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+    }
+
+    /** Seed of the generator behind latency and error draws, unless {@link #setSeed(long)} changes it. */
+    public static final long DEFAULT_SEED = 42;
+
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final NutritionFixtures fixtures;
+    private final Random random = new Random(DEFAULT_SEED);
+
+    private volatile Latency latency;
+    private volatile double errorRate;
+    private volatile int rateLimit;
+
+    // Rate-limit window, guarded by this
+    private long windowStart;
+    private int windowRequests;
+
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong rateLimited = new AtomicLong();
+
+    /**
+     * Starts a server on a free loopback port, with the default fixtures and a fixed delay.
+     * @param delayMillis How long each response is held back, in milliseconds.
+     * @throws IOException If the server cannot be started.
+     */
+    public StubNutritionServer(long delayMillis) throws IOException {
+        this(0, NutritionFixtures.defaults(), Latency.fixed(delayMillis));
+    }
+
+    /**
+     * Starts a server on a loopback port.
+     * @param port The port, or 0 for a free one.
+     * @param fixtures The foods to answer from.
+     * @param latency The distribution of response delays.
+     * @throws IOException If the server cannot be started.
+     */
+    public StubNutritionServer(int port, NutritionFixtures fixtures, Latency latency) throws IOException {
+        this.fixtures = fixtures;
+        this.latency = latency;
+        this.server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        server.setExecutor(executor);
+        server.createContext("/v1/nutrition", this::handleNutrition);
+        server.start();
+    }
+
+    /**
+     * Gets the URL to give the client, e.g. to {@link GragasApp.model.APICaller#forService(String, String)}.
+     * @return The base URL, ending in a slash.
+     */
+    public String getBaseUrl() {
+        return "http://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort() + "/v1/";
+    }
+
+    /**
+     * @param latency The distribution that later responses' delays are drawn from.
+     */
+    public void setLatency(Latency latency) {
+        this.latency = latency;
+    }
+
+    /**
+     * @param errorRate The share of later requests, from 0 to 1, that get a 500.
+     */
+    public void setErrorRate(double errorRate) {
+        if (errorRate < 0 || errorRate > 1) throw new IllegalArgumentException("Error rate must be between 0 and 1");
+        this.errorRate = errorRate;
+    }
+
+    /**
+     * @param requestsPerSecond How many requests each second are served before the rest get a
+     *                          429, or 0 for no limit.
+     */
+    public void setRateLimit(int requestsPerSecond) {
+        if (requestsPerSecond < 0) throw new IllegalArgumentException("Rate limit must not be negative");
+        this.rateLimit = requestsPerSecond;
+    }
+
+    /**
+     * @param seed The new seed of the generator behind latency and error draws.
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
+    }
+
+    /**
+     * @return The number of requests received, whatever their answer.
+     */
+    public long getRequestCount() {
+        return requests.get();
+    }
+
+    /**
+     * @return The number of 500s injected by the error rate.
+     */
+    public long getInjectedErrorCount() {
+        return injectedErrors.get();
+    }
+
+    /**
+     * @return The number of 429s sent by the rate limit.
+     */
+    public long getRateLimitedCount() {
+        return rateLimited.get();
+    }
+
+    private void handleNutrition(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            requests.incrementAndGet();
+            if (!admit()) {
+                rateLimited.incrementAndGet();
+                exchange.getResponseHeaders().set("Retry-After", "1");
+                respond(exchange, 429, "{\"error\": \"Too many requests.\"}");
+                return;
+            }
+            long delay = latency.sampleMillis(random);
+            if (delay > 0) {
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            String apiKey = exchange.getRequestHeaders().getFirst("X-Api-Key");
+            String rawQuery = exchange.getRequestURI().getRawQuery();
+            if (apiKey == null || apiKey.isBlank()) {
+                respond(exchange, 400, "{\"error\": \"Missing API Key.\"}");
+            } else if (rawQuery == null || !rawQuery.startsWith("query=")) {
+                respond(exchange, 400, "{\"error\": \"Missing query parameter.\"}");
+            } else if (errorRate > 0 && random.nextDouble() < errorRate) {
+                injectedErrors.incrementAndGet();
+                respond(exchange, 500, "{\"error\": \"Internal server error.\"}");
+            } else {
+                String query = URLDecoder.decode(rawQuery.substring("query=".length()), StandardCharsets.UTF_8);
+                respond(exchange, 200, fixtures.respond(query));
+            }
+        }
+    }
+
+    /**
+     * Counts a request against the current one-second window.
+     * @return Whether the request is within the rate limit.
+     */
+    private synchronized boolean admit() {
+        int limit = rateLimit;
+        if (limit == 0) return true;
+        long now = System.nanoTime();
+        if (now - windowStart >= TimeUnit.SECONDS.toNanos(1)) {
+            windowStart = now;
+            windowRequests = 0;
+        }
+        return ++windowRequests <= limit;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    /**
+     * Stops the server.
+     */
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs a stand-in until the process is stopped, so the application can be pointed at it.
+     * @param args Options: {@code --port N} (default 8089), {@code --latency SPEC} (see
+     *             {@link Latency#parse(String)}, default none), {@code --error-rate F},
+     *             {@code --rate-limit N} and {@code --fixtures FILE} (see {@link NutritionFixtures}).
+     * @throws IOException If the server cannot be started or the fixtures read.
+     */
+    public static void main(String[] args) throws IOException {
+        int port = 8089;
+        Latency latency = Latency.none();
+        double errorRate = 0;
+        int rateLimit = 0;
+        NutritionFixtures fixtures = NutritionFixtures.defaults();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[i + 1]);
+                case "--latency" -> latency = Latency.parse(args[i + 1]);
+                case "--error-rate" -> errorRate = Double.parseDouble(args[i + 1]);
+                case "--rate-limit" -> rateLimit = Integer.parseInt(args[i + 1]);
+                case "--fixtures" -> fixtures = NutritionFixtures.load(Paths.get(args[i + 1]));
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        StubNutritionServer server = new StubNutritionServer(port, fixtures, latency);
+        server.setErrorRate(errorRate);
+        server.setRateLimit(rateLimit);
+        System.out.println("Serving " + fixtures.size() + " foods at " + server.getBaseUrl()
+                + "nutrition; run the app with -Dgragas.api.baseUrl=" + server.getBaseUrl());
+    }
+}
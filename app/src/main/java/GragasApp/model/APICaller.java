@@ -9,6 +9,10 @@ import java.net.URI;
 import java.net.URL;
 import java.util.Properties;
 
+import GragasApp.diagnostics.Counter;
+import GragasApp.diagnostics.Metrics;
+import GragasApp.diagnostics.Timer;
+
 import org.json.JSONArray;
 import org.json.JSONObject;
 
@@ -16,26 +20,96 @@ import org.json.JSONObject;
  *
  *  Minimal HTTP client for the API Ninjas service.
  *
+ *  Requests go to {@link #baseUrl()} with the key from {@link #apiKey()}. The defaults come from
+ *  the {@code gragas.api.baseUrl} and {@code gragas.api.key} system properties, then from
+ *  {@code API_BASE_URL} and {@code API_KEY} in {@code config.properties}, and otherwise are the
+ *  public service and no key; {@link #forService(String, String)} makes a client for another
+ *  server, such as a local stand-in.
+ *
  */
 public class APICaller {
-    private static final String APIKey = loadAPIKey();
-    private static final String baseURL = "https://api.api-ninjas.com/v1/";
+    /** The public service, used unless another base URL is configured. */
+    public static final String DEFAULT_BASE_URL = "https://api.api-ninjas.com/v1/";
+
+    private static final Properties config = loadConfig();
+    private static final String APIKey = System.getProperty("gragas.api.key", config.getProperty("API_KEY", ""));
+    private static final String baseURL = withTrailingSlash(
+            System.getProperty("gragas.api.baseUrl", config.getProperty("API_BASE_URL", DEFAULT_BASE_URL)));
+    private static final Timer REQUEST_TIMER = Metrics.timer("api.request");
+    private static final Counter REQUEST_ERRORS = Metrics.counter("api.errors");
 
     /**
-     * Loads the API key from a local {@code config.properties} file.
-     * @return the API key, or an empty string if the file cannot be read or the key is missing
+     * Loads the settings from a local {@code config.properties} file, unless both are given as
+     * system properties.
+     * @return the settings, empty if the file cannot be read
      */
-    private static String loadAPIKey() {
+    private static Properties loadConfig() {
+    Properties prop = new Properties();
+    if (System.getProperty("gragas.api.key") != null && System.getProperty("gragas.api.baseUrl") != null) {
+        return prop;
+    }
     try (FileInputStream input = new FileInputStream("config.properties")) {
-        Properties prop = new Properties();
         prop.load(input);
-        return prop.getProperty("API_KEY");
     } catch (IOException e) {
         e.printStackTrace();
-        return "";
     }
+    return prop;
 }
 
+    private static String withTrailingSlash(String url) {
+        return url.endsWith("/") ? url : url + "/";
+    }
+
+    /**
+     * Creates a client for a given server.
+     * @param baseUrl the URL that endpoint paths are appended to, ending in a slash
+     * @param apiKey the key sent with every request
+     * @return the client
+     */
+    public static APICaller forService(String baseUrl, String apiKey) {
+        return new APICaller() {
+            @Override
+            protected String baseUrl() {
+                return baseUrl;
+            }
+
+            @Override
+            protected String apiKey() {
+                return apiKey;
+            }
+        };
+    }
+
+    /**
+     * Returns the URL that endpoint paths are appended to. Overridden rather than stored, so
+     * that subclasses such as {@link FoodEntry} carry no per-instance configuration.
+     * @return the base URL, ending in a slash
+     */
+    protected String baseUrl() {
+        return baseURL;
+    }
+
+    /**
+     * Returns the key sent with every request.
+     * @return the API key
+     */
+    protected String apiKey() {
+        return APIKey;
+    }
+
+    /**
+     * Resolves a food description into an entry through the nutrition endpoint of this client's
+     * server. A method reference to this is a {@link FoodLookup}.
+     * @param description the food description (e.g., "2 eggs and toast")
+     * @return a new entry named after the description, with the summed calories and nutrients
+     * @throws Exception if the HTTP response code is not 200 OK or if an I/O/JSON error occurs
+     */
+    public FoodEntry lookupFood(String description) throws Exception {
+        double[] nutrients = new double[Nutrient.COUNT];
+        double calories = decodeNutrition(request("nutrition", description), nutrients);
+        return FoodEntry.ofHundredths(description, FixedPoint.toHundredths(calories), nutrients);
+    }
+
     /**
      * Calls an API Ninjas endpoint with a single {@code query} parameter and returns the
      * @param endpoint the endpoint path
@@ -44,13 +118,39 @@ public class APICaller {
      * @throws Exception if the HTTP response code is not 200 OK or if an I/O/JSON error occurs
      */
     public double APICall(String endpoint, String query) throws Exception {
-        String fullURL = baseURL + endpoint + "?query=" + 
+        return decodeNutrition(request(endpoint, query), null);
+    }
+
+    /**
+     * Performs the GET request for an endpoint and returns the raw response body.
+     * @param endpoint the endpoint path
+     * @param query the value sent as the {@code query} parameter
+     * @return the response body of a 200 OK response
+     * @throws Exception if the HTTP response code is not 200 OK or if an I/O error occurs
+     */
+    protected String request(String endpoint, String query) throws Exception {
+        long start = REQUEST_TIMER.start();
+        try {
+            return send(endpoint, query);
+        } catch (Exception e) {
+            REQUEST_ERRORS.increment();
+            throw e;
+        } finally {
+            REQUEST_TIMER.stop(start);
+        }
+    }
+
+    /**
+     * Sends the GET request for {@link #request(String, String)}, which times it.
+     */
+    private String send(String endpoint, String query) throws Exception {
+        String fullURL = baseUrl() + endpoint + "?query=" + 
                          java.net.URLEncoder.encode(query, "UTF-8");
 
         URL url = URI.create(fullURL).toURL();
         HttpURLConnection con = (HttpURLConnection) url.openConnection();
         con.setRequestMethod("GET");
-        con.setRequestProperty("X-Api-Key", APIKey);
+        con.setRequestProperty("X-Api-Key", apiKey());
 
         int status = con.getResponseCode();
         if (status == HttpURLConnection.HTTP_OK) {
@@ -64,18 +164,7 @@ public class APICaller {
             }
             in.close();
             con.disconnect();
-
-            JSONArray arr = new JSONArray(content.toString());
-            double totalCalories = 0.0;
-
-            for (int i = 0; i < arr.length(); i++) {
-                JSONObject foodItem = arr.getJSONObject(i);
-                if (foodItem.has("calories")) {
-                    totalCalories += foodItem.getDouble("calories");
-                }
-            }
-
-            return totalCalories;
+            return content.toString();
         } else {
             BufferedReader err = new BufferedReader(
                 new InputStreamReader(con.getErrorStream())
@@ -90,5 +179,34 @@ public class APICaller {
             throw new Exception("Error: " + status + " - " + errorContent);
         }
     }
-}
 
+    /**
+     * Decodes a nutrition response, summing every item in the returned array.
+     *
+     * Calories are summed across elements that contain a "calories" field. When
+     * {@code nutrientsOut} is given, each {@link Nutrient} is summed into the slot at its
+     * ordinal; fields that are missing or not numeric (e.g. premium-only values) count as zero.
+     *
+     * @param body the JSON array returned by the nutrition endpoint
+     * @param nutrientsOut vector of length {@link Nutrient#COUNT} to fill, or {@code null}
+     * @return the total calories
+     */
+    public static double decodeNutrition(String body, double[] nutrientsOut) {
+        JSONArray arr = new JSONArray(body);
+        double totalCalories = 0.0;
+
+        for (int i = 0; i < arr.length(); i++) {
+            JSONObject foodItem = arr.getJSONObject(i);
+            if (foodItem.has("calories")) {
+                totalCalories += foodItem.getDouble("calories");
+            }
+            if (nutrientsOut != null) {
+                for (Nutrient n : Nutrient.ALL) {
+                    nutrientsOut[n.ordinal()] += foodItem.optDouble(n.getApiField(), 0.0);
+                }
+            }
+        }
+
+        return totalCalories;
+    }
+}
@@ -1,31 +1,230 @@
 package GragasApp.model;
+import GragasApp.diagnostics.Counter;
+import GragasApp.diagnostics.CsvReadEvent;
+import GragasApp.diagnostics.CsvWriteEvent;
+import GragasApp.diagnostics.Metrics;
+import GragasApp.diagnostics.Timer;
+
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.SeekableByteChannel;
 import java.nio.file.*;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
 
 /**
  * CSV persistence utility for {@link UserProfile} objects and their daily logs.
  *
  * This class can:
  * Save a single UserProfile and its DailyLog entries to a CSV file
- * named <userName>.csv in the current working directory,
+ * named <userName>.csv in its data directory (the current working directory by default),
  * Update an already-saved @link UserProfile by overwriting its CSV file,
- * Load all user profiles from CSV files found in the current directory.
+ * Persist a single edited day by appending it to the user's CSV file,
+ * Load all user profiles from CSV files found in the data directory.
+ *
+ * A handler is safe to share between threads. The user registry is a concurrent map keyed
+ * by name, and every operation that writes a user's file holds one of a fixed set of striped
+ * locks chosen by that name, so writes to the same file are serialized while different users
+ * proceed in parallel. Full writes go to a temporary sibling and are moved into place.
+ * Saving a single day appends a journal block to the file instead, which is not atomic: a
+ * concurrent load, or a crash or full disk part-way through, can leave an incomplete block at
+ * the end. The reader ignores such a block, so a load sees the last complete save of every
+ * day. The journal is compacted by a full rewrite once it outgrows the live rows, and when a
+ * load finds one.
+ *
+ * Memory can be bounded with a {@link CacheBudget}. When the registered profiles hold more
+ * log data than the budget allows, {@link #trimToBudget()} saves and evicts the logs of the
+ * profiles used least recently, until they fit in 90% of it; the profiles themselves stay
+ * registered, and their logs are read back from their files on next access. Profiles in use
+ * are {@link #pin(UserProfile) pinned} so their logs stay in memory.
  *
  */
 
 public class CSVHandler {
     /**
-     * In-memory collection of loaded/saved users
+     * In-memory registry of loaded/saved users, keyed and ordered by name
+     */
+    private final ConcurrentMap<String, UserProfile> userProfiles = new ConcurrentSkipListMap<>();
+
+    /**
+     * Number of lock stripes guarding per-user file writes; a power of two.
+     */
+    private static final int LOCK_STRIPES = 16;
+
+    /**
+     * Striped locks; a user's writes hold {@code stripes[hash(name) & (LOCK_STRIPES - 1)]}.
      */
-    private List<UserProfile> userProfiles = new ArrayList<>();
+    private final Object[] stripes = new Object[LOCK_STRIPES];
+
+    /**
+     * Listeners told about load progress; safe to add while a load is running.
+     */
+    private final List<ProfileLoadListener> loadListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * Directory that holds the profile CSV files.
+     */
+    private final Path directory;
 
     /**
      * File extension appended to usernames to form CSV filenames.
      */
     private static final String FILE_EXTENSION = ".csv";
 
+    /**
+     * Header line of the UserProfile section.
+     */
+    private static final String PROFILE_HEADER = "UserProfile,Name,Age,HeightCm,ActivityLevel,Sex,WeightKg,TargetWeightKg";
+
+    /**
+     * Header line of the DailyLog section: the original four columns, one column per
+     * {@link Nutrient}, then the entry id and creation time. Older files may stop after the
+     * first four columns or after the nutrients; their entries are given fresh ids on load.
+     */
+    private static final String DAILY_LOG_HEADER = buildDailyLogHeader();
+
+    /**
+     * Tag of a journal row, {@code DailyLogReset,<date>}, appended by
+     * {@link #updateDailyLogToCsv(UserProfile, DailyLog)}. On load it discards the rows read
+     * so far for that date; the DailyLog rows that follow it are the day's new contents.
+     */
+    private static final String DAILY_LOG_RESET = "DailyLogReset";
+
+    /**
+     * Lines of a fully written file besides its entry rows: two headers, the profile row and
+     * the blank line between them.
+     */
+    private static final int FILE_HEADER_ROWS = 4;
+
+    /**
+     * Journal size recorded for a file whose last append failed part-way, so that the next
+     * save rewrites it instead of appending after a torn row.
+     */
+    private static final long JOURNAL_DAMAGED = Long.MAX_VALUE;
+
+    /**
+     * Rows appended to each user's file since it was last written in full, counting the
+     * {@link #DAILY_LOG_RESET} rows, keyed by user name. Absent for a compact file.
+     */
+    private final ConcurrentMap<String, Long> journalRows = new ConcurrentHashMap<>();
+
+    /**
+     * Names of users whose file has rows written before entries had ids. Such rows get new ids
+     * each time they are read, so the file is rewritten before its logs are evicted; otherwise
+     * the reloaded entries would not match the ids already reported to listeners.
+     */
+    private final Set<String> rowsWithoutIds = ConcurrentHashMap.newKeySet();
+
+    private static final Timer WRITE_TIMER = Metrics.timer("csv.write");
+    private static final Timer APPEND_TIMER = Metrics.timer("csv.append");
+    private static final Timer READ_TIMER = Metrics.timer("csv.read");
+    private static final Counter BYTES_WRITTEN = Metrics.counter("csv.bytesWritten");
+    private static final Counter BYTES_READ = Metrics.counter("csv.bytesRead");
+    private static final Counter PROFILES_LOADED = Metrics.counter("profiles.loaded");
+    private static final Counter PROFILES_SKIPPED = Metrics.counter("profiles.skipped");
+    private static final Counter CACHE_EVICTIONS = Metrics.counter("cache.evictions");
+    private static final Counter CACHE_RELOADS = Metrics.counter("cache.reloads");
+
+    /**
+     * Share of the budget, in percent, that {@link #trimToBudget()} evicts down to, so that
+     * one more loaded profile does not immediately trigger another eviction.
+     */
+    private static final int LOW_WATER_PERCENT = 90;
+
+    /**
+     * How much log data may stay in memory.
+     */
+    private final CacheBudget budget;
+
+    /**
+     * Last measured cost of each registered profile against the budget, zero while its logs
+     * are evicted. Guards itself, {@link #residentTotal}, {@link #pins} and {@link #lastTrimNanos}.
+     */
+    private final Map<UserProfile, Long> residentCosts = new IdentityHashMap<>();
+
+    /**
+     * Sum of {@link #residentCosts}; edits since the last trim are not included.
+     */
+    private long residentTotal;
+
+    /**
+     * Profiles that must not be evicted, with the number of times each was pinned.
+     */
+    private final Map<UserProfile, Integer> pins = new IdentityHashMap<>();
+
+    /**
+     * When the costs were last measured; profiles used since then are measured again.
+     */
+    private long lastTrimNanos = System.nanoTime();
+
+    /**
+     * How long the memory gauges reuse a footprint estimate, in nanoseconds.
+     */
+    private static final long FOOTPRINT_MAX_AGE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    /**
+     * Latest estimate over all profiles and when it was made, for the memory gauges.
+     */
+    private volatile MemoryFootprint footprint;
+    private volatile long footprintNanos;
+
+    /**
+     * Creates a handler that reads and writes profiles in the current working directory.
+     */
+    public CSVHandler() {
+        this(Paths.get("."));
+    }
+
+    /**
+     * Creates a handler that reads and writes profiles in the given directory, with the cache
+     * budget given by system properties ({@link CacheBudget#fromSystemProperties()}).
+     *
+     * @param directory the directory holding the profile CSV files
+     */
+    public CSVHandler(Path directory) {
+        this(directory, CacheBudget.fromSystemProperties());
+    }
+
+    /**
+     * Creates a handler that reads and writes profiles in the given directory.
+     *
+     * @param directory the directory holding the profile CSV files
+     * @param budget    how much log data to keep in memory
+     */
+    public CSVHandler(Path directory, CacheBudget budget) {
+        this.directory = directory;
+        this.budget = budget;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            stripes[i] = new Object();
+        }
+        if (Metrics.ENABLED) registerFootprintGauges();
+    }
+
+    /**
+     * Publishes the estimated heap of the loaded profiles as gauges. Only the application's
+     * first handler is published; gauges keep the first supplier given for a name.
+     */
+    private void registerFootprintGauges() {
+        Metrics.gauge("memory.profiles", () -> recentFootprint().getProfiles());
+        Metrics.gauge("memory.entries", () -> recentFootprint().getEntries());
+        Metrics.gauge("memory.stringBytes", () -> recentFootprint().getStringBytes());
+        Metrics.gauge("memory.duplicateStringBytes", () -> recentFootprint().getDuplicateStringBytes());
+        Metrics.gauge("memory.estimatedBytes", () -> recentFootprint().getTotalBytes());
+    }
+
+    private static String buildDailyLogHeader() {
+        StringBuilder header = new StringBuilder("DailyLog,Date,LoggableName,Calories");
+        for (Nutrient n : Nutrient.ALL) {
+            header.append(',').append(n.name());
+        }
+        return header.append(",Id,CreatedAt").toString();
+    }
+
     /**
      * Saves a UserProfile to a CSV file named <userName>.csv and adds the
      * user to the in-memory list.
@@ -39,104 +238,482 @@ public class CSVHandler {
      *         present in the in-memory list
      */
     public void saveUserProfileToCsv(UserProfile user) throws IOException {
-        // Check if a user with the same name already exists in the list
-        for (UserProfile existingUser : userProfiles) {
-            if (existingUser.getName().equals(user.getName())) {
-                throw new IllegalArgumentException("A user with the name '" + user.getName() + "' already exists.");
-            }
-        }
-        
-        String fileName = user.getName() + FILE_EXTENSION;
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            // Write UserProfile header and data
-            writer.write("UserProfile,Name,Age,HeightCm,ActivityLevel,Sex,WeightKg,TargetWeightKg\n");
-            writer.write(String.format("UserProfile,%s,%d,%d,%s,%s,%.2f,%.2f\n",
-                    user.getName(), user.getAge(), user.getHeightCm(),
-                    user.getActivityLevel(), user.getSex(),
-                    user.getWeightKg(), user.getTargetWeightKg()));
+        String name = user.getName();
+        synchronized (lockFor(name)) {
+            // The stripe lock makes the existence check and the insert atomic per name
+            if (userProfiles.containsKey(name)) {
+                throw new IllegalArgumentException("A user with the name '" + name + "' already exists.");
+            }
+            writeUserProfile(user);
+            userProfiles.put(name, user);
+        }
+        admit(user);
+    }
+
+    /**
+     * Overwrites the CSV file for an existing UserProfile and keeps the in-memory list unchanged.
+     *
+     * @param user the updated profile to persist
+     * @throws IOException if an I/O error occurs while writing the file
+     * @throws IllegalArgumentException if no user with the same name is present in the in-memory list
+     */
+    public void updateUserProfileToCsv(UserProfile user) throws IOException {
+        String name = user.getName();
+        synchronized (lockFor(name)) {
+            if (!userProfiles.containsKey(name)) {
+                throw new IllegalArgumentException("A user with the name '" + name + "' does not already exists.");
+            }
+            writeUserProfile(user);
+        }
+    }
+
+    /**
+     * Returns the lock stripe guarding writes for a user name.
+     *
+     * @param name the user name
+     * @return the monitor to synchronize on
+     */
+    private Object lockFor(String name) {
+        int h = name.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Writes the profile section followed by one DailyLog row per entry to <userName>.csv,
+     * replacing any existing file. Each DailyLog row carries the calories followed by one
+     * column per {@link Nutrient}, in ordinal order. Calories are written straight from their
+     * fixed-point value and nutrients are rounded to two decimals, independent of locale.
+     *
+     * The file is written to a temporary sibling and then moved over the target, so readers
+     * see either the old or the new contents. Callers must hold the user's stripe lock.
+     * Once the file is in place, the profile and every log are marked saved as of the
+     * versions that were written.
+     *
+     * @param user the profile to persist
+     * @throws IOException if an I/O error occurs while writing the file
+     */
+    private void writeUserProfile(UserProfile user) throws IOException {
+        long start = WRITE_TIMER.start();
+        CsvWriteEvent event = new CsvWriteEvent();
+        event.begin();
+        Path target = directory.resolve(user.getName() + FILE_EXTENSION);
+        Path temp = directory.resolve(user.getName() + FILE_EXTENSION + ".tmp");
+        List<DailyLog> logs = user.loadedLogs();
+        List<DailyLog.Snapshot> written = new ArrayList<>(logs.size());
+        long profileVersion;
+        try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+            // Write UserProfile header and data, read under the profile's monitor so the
+            // row is consistent even if the EDT is editing the profile
+            writer.write(PROFILE_HEADER + "\n");
+            synchronized (user) {
+                profileVersion = user.getVersion();
+                writer.write(String.format("UserProfile,%s,%d,%d,%s,%s,%.2f,%.2f\n",
+                        user.getName(), user.getAge(), user.getHeightCm(),
+                        user.getActivityLevel(), user.getSex(),
+                        user.getWeightKg(), user.getTargetWeightKg()));
+            }
 
             // Write DailyLog entries header
-            writer.write("\nDailyLog,Date,LoggableName,Calories\n");
+            writer.write("\n" + DAILY_LOG_HEADER + "\n");
 
             // Write each Loggable entry on a new line
-            for (DailyLog log : user.getLogs()) {
-                for (Loggable entry : log.getEntries()) {
-                    writer.write(String.format("DailyLog,%s,%s,%.2f\n",
-                            log.getDate().toString(),
-                            entry.getName(),
-                            entry.getCalories()));
+            StringBuilder row = new StringBuilder();
+            for (DailyLog log : logs) {
+                written.add(writeDailyLogRows(writer, log, row));
+            }
+        }
+        event.end();
+        boolean recorded = event.shouldCommit();
+        if (Metrics.ENABLED || recorded) {
+            long bytes = Files.size(temp);
+            BYTES_WRITTEN.add(bytes);
+            if (recorded) {
+                event.path = target.toString();
+                event.bytes = bytes;
+                for (DailyLog.Snapshot snapshot : written) {
+                    event.rows += snapshot.getEntries().size();
                 }
+                event.commit();
             }
         }
-        userProfiles.add(user);
+        try {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        journalRows.remove(user.getName());
+        rowsWithoutIds.remove(user.getName());
+        user.markSaved(profileVersion);
+        for (int i = 0; i < logs.size(); i++) {
+            logs.get(i).markSaved(written.get(i));
+        }
+        WRITE_TIMER.stop(start);
     }
 
     /**
-     * Overwrites the CSV file for an existing UserProfile and keeps the in-memory list unchanged.
+     * Writes one DailyLog row per entry of a log, from a single snapshot so entries added
+     * meanwhile cannot tear the day.
      *
-     * @param user the updated profile to persist
+     * @param writer the destination
+     * @param log    the log to write
+     * @param row    scratch buffer reused between rows
+     * @return the snapshot that was written
+     * @throws IOException if an I/O error occurs while writing
+     */
+    private static DailyLog.Snapshot writeDailyLogRows(Writer writer, DailyLog log, StringBuilder row) throws IOException {
+        return writeDailyLogRows(writer, log.snapshot(), row);
+    }
+
+    /**
+     * Writes one DailyLog row per entry of a snapshot.
+     */
+    private static DailyLog.Snapshot writeDailyLogRows(Writer writer, DailyLog.Snapshot snapshot, StringBuilder row)
+            throws IOException {
+        String date = snapshot.getDate().toString();
+        for (Loggable entry : snapshot.getEntries()) {
+            row.setLength(0);
+            row.append("DailyLog,").append(date).append(',')
+               .append(entry.getName()).append(',');
+            FixedPoint.appendHundredths(row, entry.getCalorieHundredths());
+            for (Nutrient n : Nutrient.ALL) {
+                FixedPoint.appendHundredths(row.append(','), FixedPoint.toHundredths(entry.getNutrient(n)));
+            }
+            row.append(',').append(entry.getId()).append(',').append(entry.getCreatedAt());
+            writer.write(row.append('\n').toString());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Persists one day of an existing user without rewriting the rest of the file.
+     *
+     * A {@code DailyLogReset,<date>,<rows>} row is appended to <userName>.csv, followed by the
+     * day's current entries. Loading replays these in order, so a complete appended block
+     * supersedes any earlier rows for that date, and an incomplete one is ignored. Once the
+     * appended rows outnumber the rows of a fully written file, or if an earlier append failed,
+     * the file is rewritten in full instead, which drops the superseded rows.
+     *
+     * @param user the profile that owns the log
+     * @param log  the edited day
      * @throws IOException if an I/O error occurs while writing the file
      * @throws IllegalArgumentException if no user with the same name is present in the in-memory list
      */
-    public void updateUserProfileToCsv(UserProfile user) throws IOException {
-        boolean here = false;
-        for (UserProfile existingUser : userProfiles) {
-            if (existingUser.getName().equals(user.getName())) {
-                here = true;
-                break;
+    public void updateDailyLogToCsv(UserProfile user, DailyLog log) throws IOException {
+        String name = user.getName();
+        synchronized (lockFor(name)) {
+            if (!userProfiles.containsKey(name)) {
+                throw new IllegalArgumentException("A user with the name '" + name + "' does not already exists.");
+            }
+            if (journalRows.getOrDefault(name, 0L) == JOURNAL_DAMAGED) {
+                writeUserProfile(user);
+                return;
+            }
+            long start = APPEND_TIMER.start();
+            CsvWriteEvent event = new CsvWriteEvent();
+            event.begin();
+            Path target = directory.resolve(name + FILE_EXTENSION);
+            boolean sized = Metrics.ENABLED || event.isEnabled();
+            long sizeBefore = sized ? Files.size(target) : 0;
+            DailyLog.Snapshot written = log.snapshot();
+            try (BufferedWriter writer = Files.newBufferedWriter(target, StandardOpenOption.APPEND)) {
+                writer.write(DAILY_LOG_RESET + "," + log.getDate() + "," + written.size() + "\n");
+                writeDailyLogRows(writer, written, new StringBuilder());
+            } catch (IOException e) {
+                journalRows.put(name, JOURNAL_DAMAGED);
+                throw e;
+            }
+            event.end();
+            long bytes = sized ? Files.size(target) - sizeBefore : 0;
+            BYTES_WRITTEN.add(bytes);
+            if (event.shouldCommit()) {
+                event.path = target.toString();
+                event.rows = written.getEntries().size();
+                event.bytes = bytes;
+                event.append = true;
+                event.commit();
+            }
+            log.markSaved(written);
+            APPEND_TIMER.stop(start);
+            long journal = journalRows.merge(name, 1L + written.size(), Long::sum);
+            if (journal > FILE_HEADER_ROWS + liveRows(user)) {
+                writeUserProfile(user);
             }
         }
-        if (!here) {
-            throw new IllegalArgumentException("A user with the name '" + user.getName() + "' does not already exists.");
+    }
+
+    /**
+     * Returns the number of entry rows a full write of the profile's resident logs holds.
+     */
+    private static long liveRows(UserProfile user) {
+        long rows = 0;
+        for (DailyLog log : user.residentLogs()) {
+            rows += log.snapshot().size();
         }
+        return rows;
+    }
 
-        String fileName = user.getName() + FILE_EXTENSION;
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(fileName))) {
-            // Write UserProfile header and data
-            writer.write("UserProfile,Name,Age,HeightCm,ActivityLevel,Sex,WeightKg,TargetWeightKg\n");
-            writer.write(String.format("UserProfile,%s,%d,%d,%s,%s,%.2f,%.2f\n",
-                    user.getName(), user.getAge(), user.getHeightCm(),
-                    user.getActivityLevel(), user.getSex(),
-                    user.getWeightKg(), user.getTargetWeightKg()));
+    /**
+     * Rewrites a registered profile's file in full if it holds journal rows.
+     */
+    private void compact(UserProfile user) throws IOException {
+        String name = user.getName();
+        synchronized (lockFor(name)) {
+            if (userProfiles.get(name) == user && journalRows.containsKey(name)) {
+                writeUserProfile(user);
+            }
+        }
+    }
 
-            // Write DailyLog entries header
-            writer.write("\nDailyLog,Date,LoggableName,Calories\n");
+    /**
+     * Writes every registered profile that has unsaved changes and skips the rest, then
+     * trims memory to the budget ({@link #trimToBudget()}).
+     *
+     * A profile whose own fields changed is rewritten in full, which also saves all of its
+     * days. Otherwise only its dirty days are appended with
+     * {@link #updateDailyLogToCsv(UserProfile, DailyLog)}. Clean profiles cause no I/O, and
+     * evicted logs are not read back.
+     *
+     * @return the number of profiles that were written
+     * @throws IOException if an I/O error occurs while writing; profiles not yet reached
+     *         stay dirty and are retried on the next call
+     */
+    public int saveDirtyProfiles() throws IOException {
+        int saved = 0;
+        for (UserProfile user : getUserProfiles()) {
+            if (saveIfDirty(user)) saved++;
+        }
+        trimToBudget();
+        return saved;
+    }
 
-            // Write each Loggable entry on a new line
-            for (DailyLog log : user.getLogs()) {
-                for (Loggable entry : log.getEntries()) {
-                    writer.write(String.format("DailyLog,%s,%s,%.2f\n",
-                            log.getDate().toString(),
-                            entry.getName(),
-                            entry.getCalories()));
+    /**
+     * Writes a profile if it has unsaved changes, as described for {@link #saveDirtyProfiles()};
+     * a clean profile causes no I/O.
+     *
+     * @param user a registered profile
+     * @return whether anything was written
+     * @throws IOException if an I/O error occurs while writing
+     */
+    public boolean saveIfDirty(UserProfile user) throws IOException {
+        if (user.isDirty()) {
+            updateUserProfileToCsv(user);
+            return true;
+        }
+        boolean wrote = false;
+        for (DailyLog log : user.residentLogs()) {
+            if (log.isDirty()) {
+                updateDailyLogToCsv(user, log);
+                wrote = true;
+            }
+        }
+        return wrote;
+    }
+
+    /**
+     * Evicts the logs of the least recently used profiles while the registered profiles hold
+     * more than the budget allows, until they fit in {@value #LOW_WATER_PERCENT}% of it.
+     * Pinned profiles are skipped. Unsaved changes of a profile are written before its logs
+     * are evicted; a profile used or edited while it is being evicted is kept.
+     *
+     * Only profiles used since the last call are measured again; the others keep their last
+     * measured cost.
+     *
+     * @return the number of profiles whose logs were evicted
+     * @throws IOException if an I/O error occurs while saving a profile before eviction;
+     *         that profile and the ones after it keep their logs
+     */
+    public int trimToBudget() throws IOException {
+        if (budget.isUnlimited()) return 0;
+        List<UserProfile> coldestFirst;
+        long[] accessed;
+        long excess;
+        synchronized (residentCosts) {
+            long measuredSince = lastTrimNanos;
+            lastTrimNanos = System.nanoTime();
+            long total = 0;
+            for (Map.Entry<UserProfile, Long> e : residentCosts.entrySet()) {
+                UserProfile user = e.getKey();
+                if (!user.areLogsLoaded()) {
+                    e.setValue(0L);
+                } else if (e.getValue() == 0 || user.getLastAccessNanos() - measuredSince >= 0) {
+                    e.setValue(budget.cost(user));
                 }
+                total += e.getValue();
+            }
+            residentTotal = total;
+            if (total <= budget.getLimit()) return 0;
+            excess = total - (long) (budget.getLimit() * (LOW_WATER_PERCENT / 100.0));
+            coldestFirst = new ArrayList<>();
+            for (UserProfile user : residentCosts.keySet()) {
+                if (!pins.containsKey(user) && user.areLogsLoaded()) coldestFirst.add(user);
+            }
+            accessed = new long[coldestFirst.size()];
+            coldestFirst.sort(Comparator.comparingLong(UserProfile::getLastAccessNanos));
+            for (int i = 0; i < accessed.length; i++) {
+                accessed[i] = coldestFirst.get(i).getLastAccessNanos();
+            }
+        }
+        int evicted = 0;
+        for (int i = 0; i < coldestFirst.size() && excess > 0; i++) {
+            UserProfile user = coldestFirst.get(i);
+            long cost;
+            synchronized (residentCosts) {
+                if (pins.containsKey(user)) continue;
+                cost = residentCosts.getOrDefault(user, 0L);
+            }
+            if (cost == 0 || !evict(user, accessed[i])) continue;
+            synchronized (residentCosts) {
+                // A reload since is measured again by the next trim
+                if (residentCosts.replace(user, cost, 0L)) residentTotal -= cost;
+            }
+            excess -= cost;
+            evicted++;
+            CACHE_EVICTIONS.increment();
+        }
+        return evicted;
+    }
+
+    /**
+     * Saves a profile if needed and evicts its logs, unless it was used after {@code seenAccess}.
+     */
+    private boolean evict(UserProfile user, long seenAccess) throws IOException {
+        String name = user.getName();
+        if (userProfiles.get(name) != user) return false;
+        Path file = directory.resolve(name + FILE_EXTENSION);
+        synchronized (lockFor(name)) {
+            saveIfDirty(user);
+            // Leave a compact file behind, so the reload parses only live rows, all with the ids
+            // they have now
+            if (journalRows.containsKey(name) || rowsWithoutIds.contains(name)) writeUserProfile(user);
+            return user.evictLogs(seenAccess, u -> reloadLogs(u, file));
+        }
+    }
+
+    /**
+     * Reads back the logs of an evicted profile from the file it was saved to. Runs on the
+     * thread that touched the profile, holding the profile's log lock, so it takes no stripe
+     * lock. Full writes replace the file atomically and the reader ignores an incomplete
+     * journal block, so the read sees the last complete save of every day.
+     */
+    private List<DailyLog> reloadLogs(UserProfile user, Path file) throws IOException {
+        UserProfile copy = readUserProfileFromCsv(file);
+        if (copy == null) throw new IOException("Could not read " + file);
+        CACHE_RELOADS.increment();
+        return copy.residentLogs();
+    }
+
+    /**
+     * Starts tracking the cost of a newly registered profile's logs against the budget.
+     *
+     * @return whether the profiles are now estimated to hold more than the budget allows
+     */
+    private boolean admit(UserProfile user) {
+        if (budget.isUnlimited()) return false;
+        synchronized (residentCosts) {
+            if (!residentCosts.containsKey(user)) {
+                long cost = budget.cost(user);
+                residentCosts.put(user, cost);
+                residentTotal += cost;
             }
+            return residentTotal > budget.getLimit();
+        }
+    }
+
+    /**
+     * Keeps a profile's logs in memory until {@link #unpin(UserProfile)} is called as many
+     * times, reading them back first if they were evicted. Pin profiles whose logs are held
+     * elsewhere, such as the one being edited: edits to an evicted log fail.
+     *
+     * @param user the profile to keep
+     */
+    public void pin(UserProfile user) {
+        synchronized (residentCosts) {
+            pins.merge(user, 1, Integer::sum);
         }
+        user.getLogDates();
     }
 
     /**
-     * Loads all UserProfile instances from *.csv files in the current
-     * working directory and appends them to the in-memory list.
+     * Undoes one {@link #pin(UserProfile)}, letting the profile's logs be evicted again once
+     * they go cold.
+     *
+     * @param user the profile to release
+     */
+    public void unpin(UserProfile user) {
+        synchronized (residentCosts) {
+            pins.computeIfPresent(user, (u, n) -> n == 1 ? null : n - 1);
+        }
+    }
+
+    /**
+     * @return how much log data this handler keeps in memory
+     */
+    public CacheBudget getCacheBudget() {
+        return budget;
+    }
+
+    /**
+     * Loads all UserProfile instances from *.csv files in the data directory
+     * and adds them to the in-memory registry.
      *
      * Only files whose first header line starts with {"UserProfile,Name,Age"}
-     * are considered user profile CSVs
+     * are considered user profile CSVs. A profile whose name is already registered
+     * is skipped, so the in-memory instance (which may have unsaved edits) wins.
+     *
+     * Each profile is registered as soon as its file is parsed, so other threads can see
+     * profiles while the load is still running. Registered {@link ProfileLoadListener}s are
+     * told after every file. A file holding journal rows is compacted by a full rewrite as
+     * its profile is registered. Once the profiles read exceed the cache budget, memory is trimmed
+     * ({@link #trimToBudget()}), so a load larger than the budget evicts the logs of profiles
+     * loaded earlier that nobody has used since.
      *
      * @throws IOException if an I/O error occurs while enumerating or reading files
      */
     public void loadUserProfilesFromCsvs() throws IOException {
-        Path currentDir = Paths.get(".");
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(currentDir, "*" + FILE_EXTENSION)) {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_EXTENSION)) {
             for (Path filePath : stream) {
-                if (isUserProfileCsv(filePath)) {
-                    UserProfile user = readUserProfileFromCsv(filePath);
-                    if (user != null) {
-                        userProfiles.add(user);
-                    }
+                files.add(filePath);
+            }
+        }
+        for (int i = 0; i < files.size(); i++) {
+            Path filePath = files.get(i);
+            UserProfile registered = null;
+            boolean overBudget = false;
+            if (isUserProfileCsv(filePath)) {
+                UserProfile user = readUserProfileFromCsv(filePath);
+                if (user != null && userProfiles.putIfAbsent(user.getName(), user) == null) {
+                    registered = user;
+                    compact(user);
+                    overBudget = admit(user);
                 }
             }
+            (registered != null ? PROFILES_LOADED : PROFILES_SKIPPED).increment();
+            for (ProfileLoadListener listener : loadListeners) {
+                listener.fileRead(registered, i + 1, files.size());
+            }
+            if (overBudget) trimToBudget();
         }
     }
 
+    /**
+     * Registers a listener that is told about each file read by {@link #loadUserProfilesFromCsvs()}.
+     *
+     * @param listener the listener to add
+     */
+    public void addProfileLoadListener(ProfileLoadListener listener) {
+        loadListeners.add(listener);
+    }
+
+    /**
+     * Removes a listener added with {@link #addProfileLoadListener(ProfileLoadListener)}.
+     *
+     * @param listener the listener to remove
+     */
+    public void removeProfileLoadListener(ProfileLoadListener listener) {
+        loadListeners.remove(listener);
+    }
+
     /**
      * checks whether a file appears to be a user profile CSV by
      * inspecting the first line for the expected header.
@@ -147,7 +724,7 @@ public class CSVHandler {
      * @throws IOException if an I/O error occurs while reading the file
      */
     private boolean isUserProfileCsv(Path filePath) throws IOException {
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
             String header = reader.readLine();
             return header != null && header.startsWith("UserProfile,Name,Age");
         }
@@ -157,15 +734,27 @@ public class CSVHandler {
      * Parses a single CSV file into a {UserProfile}, including its {DailyLog} entries.
      *
      * Assumes the file uses the format documented at the class level. Lines that cannot be parsed
-     * will cause the method to log a message to {System.err} and return {null}.
+     * will cause the method to log a message to {System.err} and return {null}, except within
+     * journal blocks: a block that is cut short, by the end of the file, a line without its
+     * newline or a row that cannot be parsed, is ignored, and the day keeps its earlier rows.
+     * Outside a block, a last line without a newline is a complete row and is read as usual.
+     * Either way the file is rewritten before the next append.
+     * The number of journal rows found is recorded, so the file is compacted when the profile
+     * is next registered or saved.
+     *
+     * Package-private so that the row-parsing benchmark can call it without the directory scan.
      *
      * @param filePath path to the CSV file to read
      * @return the reconstructed {UserProfile}, or {null} if a parsing error occurs
      * @throws IOException if an I/O error occurs while reading the file
      */
-    private UserProfile readUserProfileFromCsv(Path filePath) throws IOException {
+    UserProfile readUserProfileFromCsv(Path filePath) throws IOException {
+        long start = READ_TIMER.start();
+        CsvReadEvent event = new CsvReadEvent();
+        event.begin();
         UserProfile user = null;
-        try (BufferedReader reader = new BufferedReader(new FileReader(filePath.toFile()))) {
+        int rows = 0;
+        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
             String line;
             Map<LocalDate, DailyLog> dailyLogs = new HashMap<>();
 
@@ -189,39 +778,230 @@ public class CSVHandler {
             reader.readLine();
             reader.readLine(); // Empty line
 
-            // Read DailyLog entries
-            while ((line = reader.readLine()) != null) {
-                if (line.startsWith("DailyLog,")) {
+            // Read DailyLog entries. A counted journal block is collected apart and only
+            // replaces its day once complete; a reset row without a count applies at once.
+            boolean tornTail = !endsWithNewline(filePath);
+            boolean withoutIds = false;
+            long journal = 0;
+            JournalBlock block = null; // counted block still being read
+            boolean skipping = false;  // inside a block that was cut short
+            String next = reader.readLine();
+            while ((line = next) != null) {
+                next = reader.readLine();
+                if (next == null && tornTail
+                        && (block != null || skipping || line.startsWith(DAILY_LOG_RESET + ","))) {
+                    // The last append stopped mid-line, so its block is incomplete. A plain row
+                    // without a line break, as in a hand-edited file, is read as usual.
+                    break;
+                }
+                if (line.startsWith(DAILY_LOG_RESET + ",")) {
+                    journal++;
+                    block = JournalBlock.parse(line.substring(DAILY_LOG_RESET.length() + 1));
+                    skipping = block == null;
+                    if (block != null && block.isComplete()) {
+                        dailyLogs.put(block.log.getDate(), block.log);
+                        block = null;
+                    }
+                } else if (line.startsWith("DailyLog,")) {
+                    rows++;
+                    if (journal > 0) journal++;
+                    if (skipping) continue;
+                    if (block != null) {
+                        if (!block.add(line)) {
+                            block = null;
+                            skipping = true;
+                        } else if (block.isComplete()) {
+                            dailyLogs.put(block.log.getDate(), block.log);
+                            block = null;
+                        }
+                        continue;
+                    }
                     String[] parts = line.split(",");
+                    withoutIds |= parts.length < 6 + Nutrient.COUNT;
                     LocalDate date = LocalDate.parse(parts[1]);
-                    String foodName = parts[2];
-                    double calories = Double.parseDouble(parts[3]);
-
                     DailyLog log = dailyLogs.getOrDefault(date, new DailyLog(date));
-                    log.addEntry(new FoodEntry(foodName, calories));
+                    log.addEntry(parseEntry(parts));
                     dailyLogs.put(date, log);
                 }
             }
+            if (tornTail) {
+                // Rewritten before anything is appended, so new rows start on a line of their own
+                journal = JOURNAL_DAMAGED;
+            }
             if (user != null) {
                 for (DailyLog log : dailyLogs.values()) {
+                    log.markSaved(log.snapshot());
                     user.addLog(log);
                 }
+                if (journal > 0) {
+                    journalRows.put(user.getName(), journal);
+                } else {
+                    journalRows.remove(user.getName());
+                }
+                if (withoutIds) {
+                    rowsWithoutIds.add(user.getName());
+                } else {
+                    rowsWithoutIds.remove(user.getName());
+                }
             }
 
         } catch (Exception e) {
             System.err.println("Error reading file: " + filePath + " - " + e.getMessage());
+            commitRead(event, filePath, rows, false);
             return null; // Return null if there's an error
         }
+        if (Metrics.ENABLED) BYTES_READ.add(Files.size(filePath));
+        READ_TIMER.stop(start);
+        commitRead(event, filePath, rows, true);
         return user;
     }
 
     /**
-     * Returns an unmodifiable view of the in-memory user profiles that have been
-     * saved or loaded during this process lifetime.
+     * Parses the entry of a DailyLog row split on commas, in any of the formats the header
+     * describes.
+     */
+    private static FoodEntry parseEntry(String[] parts) {
+        String foodName = parts[2];
+        long calorieHundredths = FixedPoint.parseHundredths(parts[3]);
+        double[] nutrients = null;
+        if (parts.length >= 4 + Nutrient.COUNT) {
+            nutrients = new double[Nutrient.COUNT];
+            for (int i = 0; i < Nutrient.COUNT; i++) {
+                nutrients[i] = Double.parseDouble(parts[4 + i]);
+            }
+        }
+        if (parts.length >= 6 + Nutrient.COUNT) {
+            long id = Long.parseLong(parts[4 + Nutrient.COUNT]);
+            long createdAt = Long.parseLong(parts[5 + Nutrient.COUNT]);
+            return FoodEntry.restore(id, createdAt, foodName, calorieHundredths, nutrients);
+        }
+        return FoodEntry.ofHundredths(foodName, calorieHundredths, nutrients);
+    }
+
+    /**
+     * Returns whether a file is empty or ends with a line break; an append cut short does not.
+     */
+    private static boolean endsWithNewline(Path filePath) throws IOException {
+        try (SeekableByteChannel channel = Files.newByteChannel(filePath)) {
+            long size = channel.size();
+            if (size == 0) return true;
+            ByteBuffer last = ByteBuffer.allocate(1);
+            channel.position(size - 1).read(last);
+            return last.get(0) == '\n';
+        }
+    }
+
+    /**
+     * A journal block being read: a day's entries as of one append, kept apart until all the
+     * rows announced by its reset row have been read.
+     */
+    private static final class JournalBlock {
+        final DailyLog log;
+        final int expected; // -1 for reset rows written before blocks were counted
+
+        private JournalBlock(DailyLog log, int expected) {
+            this.log = log;
+            this.expected = expected;
+        }
+
+        /**
+         * Parses the rest of a reset row, {@code <date>} or {@code <date>,<rows>}.
+         *
+         * @return the empty block, or {@code null} if the row is damaged
+         */
+        static JournalBlock parse(String rest) {
+            try {
+                int comma = rest.indexOf(',');
+                if (comma < 0) return new JournalBlock(new DailyLog(LocalDate.parse(rest)), -1);
+                int expected = Integer.parseInt(rest.substring(comma + 1));
+                return expected < 0 ? null
+                        : new JournalBlock(new DailyLog(LocalDate.parse(rest.substring(0, comma))), expected);
+            } catch (RuntimeException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Adds the entry of a DailyLog row, which must be a complete row for the block's day.
+         *
+         * @return {@code false} if the row is damaged, in which case the block is incomplete
+         */
+        boolean add(String line) {
+            String[] parts = line.split(",");
+            if (parts.length < 6 + Nutrient.COUNT || !parts[1].equals(log.getDate().toString())) return false;
+            try {
+                log.addEntry(parseEntry(parts));
+                return true;
+            } catch (RuntimeException e) {
+                return false;
+            }
+        }
+
+        boolean isComplete() {
+            return expected < 0 || log.size() >= expected;
+        }
+    }
+
+    /**
+     * Ends a read event and records it if Flight Recorder wants it; the file is only sized then.
+     */
+    private static void commitRead(CsvReadEvent event, Path filePath, int rows, boolean succeeded) throws IOException {
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = filePath.toString();
+            event.rows = rows;
+            event.bytes = Files.size(filePath);
+            event.succeeded = succeeded;
+            event.commit();
+        }
+    }
+
+    /**
+     * Estimates the heap held by every loaded profile; see {@link MemoryFootprint}.
+     *
+     * @return the total over all profiles
+     */
+    public MemoryFootprint estimateFootprint() {
+        List<MemoryFootprint> each = new ArrayList<>();
+        for (UserProfile user : getUserProfiles()) {
+            each.add(MemoryFootprint.of(user));
+        }
+        MemoryFootprint total = MemoryFootprint.total("All profiles", each);
+        footprintNanos = System.nanoTime();
+        footprint = total;
+        return total;
+    }
+
+    /**
+     * Returns the latest estimate, making a new one if it is missing or older than
+     * {@link #FOOTPRINT_MAX_AGE_NANOS}, so that frequent gauge reads do not walk every profile.
+     */
+    private MemoryFootprint recentFootprint() {
+        MemoryFootprint latest = footprint;
+        if (latest == null || System.nanoTime() - footprintNanos > FOOTPRINT_MAX_AGE_NANOS) {
+            latest = estimateFootprint();
+        }
+        return latest;
+    }
+
+    /**
+     * Returns the in-memory user profiles that have been saved or loaded during this
+     * process lifetime, ordered by name. The list is a read-only copy taken at the time
+     * of the call.
      *
      * @return read-only list of users
      */
     public List<UserProfile> getUserProfiles() {
-        return Collections.unmodifiableList(userProfiles);
+        return List.copyOf(userProfiles.values());
+    }
+
+    /**
+     * Returns the in-memory user profile with the given name, without copying the list.
+     *
+     * @param name the name of the user
+     * @return the user, or {@code null} if no user with that name has been saved or loaded
+     */
+    public UserProfile getUserProfile(String name) {
+        return userProfiles.get(name);
     }
 }
@@ -0,0 +1,148 @@
+package GragasApp.model;
+
+/**
+ * How much log data {CSVHandler} keeps in memory before it evicts the logs of the profiles
+ * used least recently.
+ *
+ * A budget counts either log entries or estimated heap bytes ({MemoryFootprint}). Counting
+ * entries is cheap and predictable; counting bytes follows the actual cost of long names and
+ * many small days. An unlimited budget never evicts, which is the default.
+ *
+ * Instances are immutable.
+ */
+public final class CacheBudget {
+
+  /** What a budget counts. */
+  public enum Unit {
+    ENTRIES,
+    BYTES
+  }
+
+  /** System property giving a budget in entries, e.g. {-Dgragas.cache.maxEntries=200k}. */
+  public static final String MAX_ENTRIES_PROPERTY = "gragas.cache.maxEntries";
+  /** System property giving a budget in bytes, e.g. {-Dgragas.cache.maxBytes=64m}. */
+  public static final String MAX_BYTES_PROPERTY = "gragas.cache.maxBytes";
+
+  private static final CacheBudget UNLIMITED = new CacheBudget(Unit.ENTRIES, Long.MAX_VALUE);
+
+  private final Unit unit;
+  private final long limit;
+
+  private CacheBudget(Unit unit, long limit) {
+    if (limit <= 0) throw new IllegalArgumentException("Cache budget must be positive: " + limit);
+    this.unit = unit;
+    this.limit = limit;
+  }
+
+  /**
+   * Returns a budget that keeps every profile in memory.
+   *
+   * @return the unlimited budget
+   */
+  public static CacheBudget unlimited() {
+    return UNLIMITED;
+  }
+
+  /**
+   * Returns a budget on the number of log entries in memory.
+   *
+   * @param maxEntries the most entries to keep
+   * @return the budget
+   */
+  public static CacheBudget entries(long maxEntries) {
+    return new CacheBudget(Unit.ENTRIES, maxEntries);
+  }
+
+  /**
+   * Returns a budget on the estimated heap held by the profiles.
+   *
+   * @param maxBytes the most bytes to keep
+   * @return the budget
+   */
+  public static CacheBudget bytes(long maxBytes) {
+    return new CacheBudget(Unit.BYTES, maxBytes);
+  }
+
+  /**
+   * Returns the budget given by {MAX_ENTRIES_PROPERTY} or {MAX_BYTES_PROPERTY}, or an unlimited
+   * one if neither is set. Values may end in {k}, {m} or {g} (powers of 1024).
+   *
+   * @return the configured budget
+   * @throws IllegalArgumentException if a value cannot be parsed, or both are set
+   */
+  public static CacheBudget fromSystemProperties() {
+    String entries = System.getProperty(MAX_ENTRIES_PROPERTY);
+    String bytes = System.getProperty(MAX_BYTES_PROPERTY);
+    if (entries != null && bytes != null) {
+      throw new IllegalArgumentException("Set only one of " + MAX_ENTRIES_PROPERTY + " and " + MAX_BYTES_PROPERTY);
+    }
+    if (entries != null) return entries(parseSize(entries));
+    if (bytes != null) return bytes(parseSize(bytes));
+    return UNLIMITED;
+  }
+
+  /**
+   * Parses a size such as {5000}, {200k} or {64M}.
+   *
+   * @param text the size
+   * @return the size as a number
+   * @throws IllegalArgumentException if the text is not a size
+   */
+  public static long parseSize(String text) {
+    String s = text.trim().toLowerCase();
+    long multiplier = 1;
+    if (s.endsWith("k")) {
+      multiplier = 1L << 10;
+    } else if (s.endsWith("m")) {
+      multiplier = 1L << 20;
+    } else if (s.endsWith("g")) {
+      multiplier = 1L << 30;
+    }
+    if (multiplier != 1) s = s.substring(0, s.length() - 1);
+    try {
+      return Math.multiplyExact(Long.parseLong(s), multiplier);
+    } catch (NumberFormatException | ArithmeticException e) {
+      throw new IllegalArgumentException("Not a size: " + text, e);
+    }
+  }
+
+  /**
+   * Returns whether this budget never evicts.
+   *
+   * @return {true} for {#unlimited()}
+   */
+  public boolean isUnlimited() {
+    return this == UNLIMITED;
+  }
+
+  /** @return the most entries or bytes to keep */
+  public long getLimit() {
+    return limit;
+  }
+
+  /** @return what the limit counts */
+  public Unit getUnit() {
+    return unit;
+  }
+
+  /**
+   * Measures what a profile's resident logs cost against this budget, without reading
+   * evicted logs back.
+   *
+   * @param user the profile
+   * @return its entries or estimated bytes
+   */
+  long cost(UserProfile user) {
+    if (unit == Unit.BYTES) return MemoryFootprint.of(user).getTotalBytes();
+    long entries = 0;
+    for (DailyLog log : user.residentLogs()) {
+      entries += log.snapshot().size();
+    }
+    return entries;
+  }
+
+  @Override
+  public String toString() {
+    return isUnlimited() ? "unlimited" : limit + " " + unit.name().toLowerCase();
+  }
+}
@@ -1,25 +1,68 @@
 package GragasApp.model;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
 import java.time.LocalDate;
-import java.util.ArrayList;
-import java.util.Collections;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A per-day container of {Loggable} entries (e.g., foods, activities).
  *
- * The log is identified by an immutable {LocalDate} and maintains an
- * internal, mutable list of entries. The list returned by {#getEntries()}
- * is read-only; modify the log via {#addEntry(Loggable)},
- * {#removeEntry(Loggable)}, or {#clear()}.
- *   {#getTotalCalories()} sums {getCalories()} across all entries
- *       using {int}. If your {Loggable} values are large or fractional,
- *       consider an alternative total method.
+ * The log is identified by an immutable {LocalDate}. Its contents are held in an immutable
+ * {Snapshot}; every modification via {#addEntry(Loggable)},
+ * {#removeEntry(Loggable)}, {#removeEntryById(long)}, {#replaceEntry(long, Loggable)},
+ * or {#clear()} builds the next snapshot and publishes it atomically. Readers on any thread
+ * can take {#snapshot()} and iterate it without locking while the EDT keeps writing.
+ *   {#getTotalCalorieHundredths()} returns the exact running total of
+ *       {getCalorieHundredths()} across all entries; {#getTotalCalories()}
+ *       is the same total truncated to whole kcal.
+ *   {#getTotal(Nutrient)} returns a per-nutrient running total that is
+ *       maintained as entries are added and removed, so it costs no more
+ *       than a field read.
+ *
+ * Entries are also indexed by {Loggable#getId()}, so {#getEntry(long)},
+ * {#removeEntryById(long)} and {#replaceEntry(long, Loggable)} find their target without
+ * scanning, and two otherwise identical entries (two coffees) can be told apart.
+ *
+ * Because every change publishes a new snapshot, the log is dirty exactly when its current
+ * snapshot is not the one last written to storage ({#isDirty()}, {#markSaved(Snapshot)}).
+ * Each change is also published as an {#ENTRIES} property change, fired on the writing
+ * thread after the log's monitor is released.
+ *
+ * When its profile evicts its logs from memory, the log is retired: further edits throw
+ * {IllegalStateException}, and the day must be fetched again from the profile, which reads
+ * it back from storage.
  * @see Loggable
  */
 public class DailyLog {
+
+  /**
+   * Property fired after every change to the entries. The old and new values are the
+   * {Snapshot}s before and after the change; {Snapshot#isAppendOf(Snapshot)} tells
+   * whether entries were only added.
+   */
+  public static final String ENTRIES = "entries";
+
   private final LocalDate date;
-  private final List<Loggable> entries = new ArrayList<>();
+  private final PropertyChangeSupport changes = new PropertyChangeSupport(this);
+  private volatile Snapshot current;
+  private volatile Snapshot saved;
+
+  /**
+   * Slot of each entry in {current}, keyed by entry id. Guarded by {this}.
+   */
+  private final Map<Long, Integer> slotsById = new HashMap<>();
+
+  /**
+   * Set once the owning profile evicted this log from memory; guarded by {this}. A retired
+   * log refuses edits, which would otherwise be lost when the profile reloads its logs.
+   */
+  private boolean retired;
 
   /**
    * Creates a log for the given calendar date.
@@ -30,6 +73,8 @@ public class DailyLog {
   public DailyLog(LocalDate date) {
     if (date == null) throw new IllegalArgumentException("date cannot be null");
     this.date = date;
+    this.current = Snapshot.empty(date);
+    this.saved = current;
   }
 
   /**
@@ -42,44 +87,232 @@ public class DailyLog {
   }
 
   /**
-   * Returns an unmodifiable view of the entries in insertion order.
+   * Returns the current immutable version of this log. The snapshot never changes, even
+   * if entries are added or removed afterwards.
+   *
+   * @return the latest published snapshot
+   */
+  public Snapshot snapshot() {
+    return current;
+  }
+
+  /**
+   * Returns whether entries changed since the snapshot last passed to {#markSaved(Snapshot)}.
+   * A new log with no entries starts out clean.
+   *
+   * @return {true} if the log has unsaved changes
+   */
+  public boolean isDirty() {
+    return current != saved;
+  }
+
+  /**
+   * Records that the given snapshot of this log was written to storage. The log stays dirty
+   * if it changed after that snapshot was taken.
+   *
+   * @param written the snapshot that was persisted
+   */
+  public void markSaved(Snapshot written) {
+    saved = written;
+  }
+
+  /**
+   * Returns the snapshot last passed to {#markSaved(Snapshot)}; for a log just read from
+   * storage, what the file holds.
+   *
+   * @return the last saved snapshot
+   */
+  Snapshot savedSnapshot() {
+    return saved;
+  }
+
+  /**
+   * Returns the entries in insertion order as of this call. The list is an immutable
+   * snapshot; later modifications to the log are not reflected in it.
    *
    * @return read-only list of log entries
    */
   public List<Loggable> getEntries() {
-    return Collections.unmodifiableList(entries);
+    return current.getEntries();
   }
 
   /**
    * Adds a new {Loggable} item to the end of the log.
    *
    * @param item the entry to add (must not be {null})
-   * @throws IllegalArgumentException if {item} is {null}
+   * @throws IllegalArgumentException if {item} is {null} or an entry with the same id is
+   *         already in this log
    */
   public void addEntry(Loggable item) {
     if (item == null) throw new IllegalArgumentException("item cannot be null");
-    entries.add(item);
+    Snapshot before, after;
+    synchronized (this) {
+      checkNotRetired();
+      if (slotsById.containsKey(item.getId())) {
+        throw new IllegalArgumentException("Entry " + item.getId() + " is already in this log");
+      }
+      before = current;
+      slotsById.put(item.getId(), current.slots());
+      after = current = current.append(item);
+    }
+    changes.firePropertyChange(ENTRIES, before, after);
   }
 
   /**
-   * Removes the first occurrence of the given {Loggable} from the log.
+   * Returns the entry with the given id.
+   *
+   * @param id the entry id
+   * @return the entry, or {null} if this log has no entry with that id
+   */
+  public synchronized Loggable getEntry(long id) {
+    Integer slot = slotsById.get(id);
+    return slot == null ? null : current.slot(slot);
+  }
+
+  /**
+   * Removes the first occurrence of the given {Loggable} from the log, compared with
+   * {equals}. Use {#removeEntryById(long)} to remove one specific entry.
    *
    * @param item the entry to remove
    * @return {true} if an element was removed; {false} otherwise
    */
   public boolean removeEntry(Loggable item) {
-    return entries.remove(item);
+    Snapshot snapshot = current;
+    int index = snapshot.getEntries().indexOf(item);
+    if (index < 0) return false;
+    return removeEntryById(snapshot.get(index).getId()) != null;
+  }
+
+  /**
+   * Removes the entry with the given id. Only the chunk holding the entry is copied, so
+   * the cost does not grow with the size of the day.
+   *
+   * @param id the entry id
+   * @return the removed entry, or {null} if this log has no entry with that id
+   */
+  public Loggable removeEntryById(long id) {
+    Snapshot before, after;
+    Loggable removed;
+    synchronized (this) {
+      checkNotRetired();
+      Integer slot = slotsById.remove(id);
+      if (slot == null) return null;
+      before = current;
+      removed = current.slot(slot);
+      current = current.withSlot(slot, null);
+      if (current.isFragmented()) {
+        compact();
+      }
+      after = current;
+    }
+    changes.firePropertyChange(ENTRIES, before, after);
+    return removed;
+  }
+
+  /**
+   * Replaces the entry with the given id, keeping its position in the log.
+   *
+   * @param id          the id of the entry to replace
+   * @param replacement the new entry; usually an edited copy with the same id
+   * @return the replaced entry, or {null} if this log has no entry with that id
+   * @throws IllegalArgumentException if {replacement} is {null} or its id belongs to
+   *         another entry in this log
+   */
+  public Loggable replaceEntry(long id, Loggable replacement) {
+    if (replacement == null) throw new IllegalArgumentException("replacement cannot be null");
+    Snapshot before, after;
+    Loggable replaced;
+    synchronized (this) {
+      checkNotRetired();
+      Integer slot = slotsById.get(id);
+      if (slot == null) return null;
+      if (replacement.getId() != id) {
+        if (slotsById.containsKey(replacement.getId())) {
+          throw new IllegalArgumentException("Entry " + replacement.getId() + " is already in this log");
+        }
+        slotsById.remove(id);
+        slotsById.put(replacement.getId(), slot);
+      }
+      before = current;
+      replaced = current.slot(slot);
+      after = current = current.withSlot(slot, replacement);
+    }
+    changes.firePropertyChange(ENTRIES, before, after);
+    return replaced;
   }
 
   /**
    * Removes all entries from this log.
    */
   public void clear() {
-    entries.clear();
+    Snapshot before, after;
+    synchronized (this) {
+      checkNotRetired();
+      slotsById.clear();
+      before = current;
+      after = current = Snapshot.empty(date);
+    }
+    changes.firePropertyChange(ENTRIES, before, after);
+  }
+
+  /**
+   * Registers a listener for {#ENTRIES} changes.
+   *
+   * @param listener the listener to add
+   */
+  public void addPropertyChangeListener(PropertyChangeListener listener) {
+    changes.addPropertyChangeListener(listener);
+  }
+
+  /**
+   * Removes a listener added with {#addPropertyChangeListener(PropertyChangeListener)}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removePropertyChangeListener(PropertyChangeListener listener) {
+    changes.removePropertyChangeListener(listener);
   }
 
   /**
-   * Computes the sum of calories across all entries.
+   * Retires this log if it has no unsaved changes. Called by {UserProfile} while evicting its
+   * logs; an edit made before this call keeps the log dirty, and one made after it fails.
+   *
+   * @return {true} if the log was clean and is now retired
+   */
+  synchronized boolean retireIfClean() {
+    if (current != saved) return false;
+    retired = true;
+    return true;
+  }
+
+  /**
+   * Undoes {#retireIfClean()} when the eviction it was part of is abandoned.
+   */
+  synchronized void unretire() {
+    retired = false;
+  }
+
+  private void checkNotRetired() {
+    if (retired) {
+      throw new IllegalStateException("The log for " + date + " was evicted from memory; get it again from its profile");
+    }
+  }
+
+  /**
+   * Rewrites the current snapshot without removed slots and rebuilds the id index.
+   */
+  private void compact() {
+    Snapshot dense = Snapshot.empty(date);
+    slotsById.clear();
+    for (Loggable entry : current.getEntries()) {
+      slotsById.put(entry.getId(), dense.slots());
+      dense = dense.append(entry);
+    }
+    current = dense;
+  }
+
+  /**
+   * Returns the sum of calories across all entries, truncated to whole kcal.
    *
    * The meaning of the sign (e.g., intake vs. expenditure) depends on the
    * {Loggable} implementation.
@@ -87,11 +320,26 @@ public class DailyLog {
    * @return total calories as an {int}
    */
   public int getTotalCalories() {
-    int sum = 0;
-    for (Loggable item : entries) {
-      sum += item.getCalories();
-    }
-    return sum;
+    return current.getTotalCalories();
+  }
+
+  /**
+   * Returns the exact sum of calories across all entries, in hundredths of a kcal.
+   *
+   * @return total calories in hundredths
+   */
+  public long getTotalCalorieHundredths() {
+    return current.getTotalCalorieHundredths();
+  }
+
+  /**
+   * Returns the running total of a nutrient across all entries.
+   *
+   * @param nutrient the nutrient to total
+   * @return the total amount in the nutrient's unit
+   */
+  public double getTotal(Nutrient nutrient) {
+    return current.getTotal(nutrient);
   }
 
   /**
@@ -100,7 +348,7 @@ public class DailyLog {
    * @return entry count
    */
   public int size() {
-    return entries.size();
+    return current.size();
   }
 
   /**
@@ -109,6 +357,232 @@ public class DailyLog {
    * @return {true} if there are no entries; {false} otherwise
    */
   public boolean isEmpty() {
-    return entries.isEmpty();
+    return current.isEmpty();
+  }
+
+  /**
+   * An immutable version of a {DailyLog}.
+   *
+   * Entries live in slots grouped into fixed-size chunks referenced from a top-level array.
+   * Successive snapshots share those arrays: appending writes only into slots past the
+   * previous snapshot's last slot, which older snapshots never read, so an append copies
+   * nothing but the small totals vector. Removing or replacing an entry copies just the
+   * chunk that holds it (and the top-level array of chunk references); a removed entry
+   * leaves an empty slot behind until the owning log compacts. Only the owning {DailyLog}
+   * creates snapshots, always from its latest one and under its lock, which is what makes
+   * writing into the shared tail safe.
+   */
+  public static final class Snapshot {
+    private static final int CHUNK_SHIFT = 5;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    /**
+     * Source of lineage ids; a new lineage starts whenever existing positions may change.
+     */
+    private static final AtomicLong LINEAGES = new AtomicLong();
+
+    private final LocalDate date;
+    private final long lineage;
+    private final Loggable[][] chunks;
+    private final int slots;
+    private final int size;
+    private final long calorieHundredths;
+    private final double[] nutrientTotals;
+
+    /**
+     * Slot of each live entry, built on first positional access when slots are empty.
+     */
+    private volatile int[] liveSlots;
+
+    private Snapshot(LocalDate date, long lineage, Loggable[][] chunks, int slots, int size,
+        long calorieHundredths, double[] nutrientTotals) {
+      this.date = date;
+      this.lineage = lineage;
+      this.chunks = chunks;
+      this.slots = slots;
+      this.size = size;
+      this.calorieHundredths = calorieHundredths;
+      this.nutrientTotals = nutrientTotals;
+    }
+
+    static Snapshot empty(LocalDate date) {
+      return new Snapshot(date, LINEAGES.incrementAndGet(), new Loggable[1][], 0, 0, 0L, new double[Nutrient.COUNT]);
+    }
+
+    /**
+     * Returns a snapshot with {item} appended, sharing this snapshot's storage.
+     */
+    Snapshot append(Loggable item) {
+      Loggable[][] top = chunks;
+      int chunk = slots >>> CHUNK_SHIFT;
+      if (chunk == top.length) {
+        top = Arrays.copyOf(top, top.length * 2);
+      }
+      if (top[chunk] == null) {
+        top[chunk] = new Loggable[CHUNK_SIZE];
+      }
+      top[chunk][slots & CHUNK_MASK] = item;
+      return new Snapshot(date, lineage, top, slots + 1, size + 1, calorieHundredths + item.getCalorieHundredths(),
+          accumulate(nutrientTotals.clone(), item, 1));
+    }
+
+    /**
+     * Returns a snapshot whose occupied {slot} holds {item}, or is emptied if {item} is
+     * {null}. Copies only the affected chunk.
+     */
+    Snapshot withSlot(int slot, Loggable item) {
+      Loggable old = slot(slot);
+      Loggable[][] top = chunks.clone();
+      Loggable[] chunk = top[slot >>> CHUNK_SHIFT].clone();
+      chunk[slot & CHUNK_MASK] = item;
+      top[slot >>> CHUNK_SHIFT] = chunk;
+      double[] totals = accumulate(nutrientTotals.clone(), old, -1);
+      long calories = calorieHundredths - old.getCalorieHundredths();
+      if (item != null) {
+        accumulate(totals, item, 1);
+        calories += item.getCalorieHundredths();
+      }
+      return new Snapshot(date, LINEAGES.incrementAndGet(), top, slots, item == null ? size - 1 : size, calories, totals);
+    }
+
+    /**
+     * Returns the entry in a slot, or {null} if the slot was emptied.
+     */
+    Loggable slot(int slot) {
+      return chunks[slot >>> CHUNK_SHIFT][slot & CHUNK_MASK];
+    }
+
+    /**
+     * Returns the number of slots, including emptied ones.
+     */
+    int slots() {
+      return slots;
+    }
+
+    /**
+     * Indicates whether more than half of a non-trivial number of slots are empty.
+     */
+    boolean isFragmented() {
+      int empty = slots - size;
+      return empty > CHUNK_SIZE && empty > size;
+    }
+
+    private static double[] accumulate(double[] totals, Loggable item, int sign) {
+      for (Nutrient n : Nutrient.ALL) {
+        totals[n.ordinal()] += sign * item.getNutrient(n);
+      }
+      return totals;
+    }
+
+    /**
+     * Returns the date of the log this snapshot was taken from.
+     *
+     * @return the log date
+     */
+    public LocalDate getDate() {
+      return date;
+    }
+
+    /**
+     * Returns the entry at a position in insertion order.
+     *
+     * @param index the position, from {0} to {size() - 1}
+     * @return the entry
+     * @throws IndexOutOfBoundsException if {index} is out of range
+     */
+    public Loggable get(int index) {
+      if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+      if (size == slots) {
+        return slot(index);
+      }
+      int[] live = liveSlots;
+      if (live == null) {
+        // Benign race: every thread computes the same array before publishing it
+        live = new int[size];
+        for (int s = 0, i = 0; s < slots; s++) {
+          if (slot(s) != null) live[i++] = s;
+        }
+        liveSlots = live;
+      }
+      return slot(live[index]);
+    }
+
+    /**
+     * Indicates whether this snapshot was reached from {older} by appends only, so the first
+     * {older.size()} entries of both are the same entries at the same positions. Runs in
+     * constant time; {false} means the positions may differ, not that they do.
+     *
+     * @param older an earlier snapshot, possibly {null}
+     * @return {true} if this snapshot only added entries after those of {older}
+     */
+    public boolean isAppendOf(Snapshot older) {
+      return older != null && older.lineage == lineage && older.slots <= slots;
+    }
+
+    /**
+     * Returns the entries as an immutable list backed by this snapshot.
+     *
+     * @return read-only list of entries in insertion order
+     */
+    public List<Loggable> getEntries() {
+      return new AbstractList<Loggable>() {
+        @Override
+        public Loggable get(int index) {
+          return Snapshot.this.get(index);
+        }
+
+        @Override
+        public int size() {
+          return size;
+        }
+      };
+    }
+
+    /**
+     * Returns the calorie total truncated to whole kcal, as {DailyLog#getTotalCalories()} does.
+     *
+     * @return total calories as an {int}
+     */
+    public int getTotalCalories() {
+      return (int) (calorieHundredths / FixedPoint.SCALE);
+    }
+
+    /**
+     * Returns the exact calorie total in hundredths of a kcal.
+     *
+     * @return total calories in hundredths
+     */
+    public long getTotalCalorieHundredths() {
+      return calorieHundredths;
+    }
+
+    /**
+     * Returns the total of a nutrient across the entries.
+     *
+     * @param nutrient the nutrient to total
+     * @return the total amount in the nutrient's unit
+     */
+    public double getTotal(Nutrient nutrient) {
+      return nutrientTotals[nutrient.ordinal()];
+    }
+
+    /**
+     * Returns the number of entries in this snapshot.
+     *
+     * @return entry count
+     */
+    public int size() {
+      return size;
+    }
+
+    /**
+     * Indicates whether this snapshot has no entries.
+     *
+     * @return {true} if there are no entries; {false} otherwise
+     */
+    public boolean isEmpty() {
+      return size == 0;
+    }
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,124 @@
+package GragasApp.model;
+
+/**
+ * Utility class for the fixed-point representation used for calories.
+ *
+ * Calories are stored as a {long} count of hundredths of a kcal, so 69.6 kcal is 6960.
+ * Sums are exact, equality is a plain comparison, and values are written to and read from
+ * storage as decimal text without going through {double} formatting (which also makes the
+ * CSV independent of the default locale).
+ *
+ */
+public final class FixedPoint {
+
+    private FixedPoint() {}
+
+    /**
+     * Number of stored units per whole unit.
+     */
+    public static final int SCALE = 100;
+
+    // returns hundredths given a value, rounded to the nearest hundredth
+    public static long toHundredths(double value) {
+        return Math.round(value * SCALE);
+    }
+
+    // returns the value given hundredths
+    public static double fromHundredths(long hundredths) {
+        return hundredths / (double) SCALE;
+    }
+
+    /**
+     * Appends hundredths as a decimal with exactly two fraction digits, e.g. 6960 as "69.60".
+     *
+     * @param out        the builder to append to
+     * @param hundredths the value in hundredths
+     * @return {out}
+     */
+    public static StringBuilder appendHundredths(StringBuilder out, long hundredths) {
+        if (hundredths < 0) {
+            out.append('-');
+            hundredths = -hundredths;
+        }
+        long fraction = hundredths % SCALE;
+        out.append(hundredths / SCALE).append('.');
+        if (fraction < 10) out.append('0');
+        return out.append(fraction);
+    }
+
+    /**
+     * Formats hundredths as a decimal with two fraction digits.
+     *
+     * @param hundredths the value in hundredths
+     * @return the formatted value
+     */
+    public static String formatHundredths(long hundredths) {
+        return appendHundredths(new StringBuilder(12), hundredths).toString();
+    }
+
+    /**
+     * Parses a plain decimal such as "69.6", "1", or "-3.125" into hundredths without
+     * an intermediate {double}. Digits past the second decimal place are rounded half up.
+     *
+     * @param text the decimal text
+     * @return the value in hundredths
+     * @throws NumberFormatException if {text} is not a plain decimal number
+     */
+    public static long parseHundredths(CharSequence text) {
+        return parseHundredths(text, 0, text.length());
+    }
+
+    /**
+     * Parses the decimal in {text[start, end)} into hundredths, as {#parseHundredths(CharSequence)}.
+     *
+     * @param text  the text containing the number
+     * @param start index of the first character
+     * @param end   index after the last character
+     * @return the value in hundredths
+     * @throws NumberFormatException if the range is not a plain decimal number
+     */
+    public static long parseHundredths(CharSequence text, int start, int end) {
+        int i = start;
+        boolean negative = false;
+        if (i < end && (text.charAt(i) == '-' || text.charAt(i) == '+')) {
+            negative = text.charAt(i) == '-';
+            i++;
+        }
+        long whole = 0;
+        int digits = 0;
+        while (i < end && text.charAt(i) != '.') {
+            whole = whole * 10 + digit(text, i++);
+            digits++;
+        }
+        long fraction = 0;
+        int places = 0;
+        if (i < end) {
+            i++; // skip '.'
+            while (i < end) {
+                int d = digit(text, i++);
+                digits++;
+                if (places < 2) {
+                    fraction = fraction * 10 + d;
+                    places++;
+                } else if (places == 2) {
+                    if (d >= 5) fraction++;
+                    places++;
+                }
+            }
+        }
+        if (digits == 0) {
+            throw new NumberFormatException("Not a decimal number: \"" + text.subSequence(start, end) + "\"");
+        }
+        if (places == 1) fraction *= 10;
+        long value = whole * SCALE + fraction;
+        return negative ? -value : value;
+    }
+
+    private static int digit(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (c < '0' || c > '9') {
+            throw new NumberFormatException("Unexpected '" + c + "' in decimal number");
+        }
+        return c - '0';
+    }
+}
@@ -1,11 +1,15 @@
 package GragasApp.model;
 
-import java.util.Objects;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Represents a single food entry that can be logged in a {DailyLog}.
  *
- * A {FoodEntry} has a display {name} and a {calories} value (kcal).
+ * A {FoodEntry} has a display {name}, a {calories} value (kcal), and a fixed
+ * vector of {Nutrient} amounts stored as a primitive array indexed by ordinal.
+ * Calories are held in fixed point as hundredths of a kcal (see {FixedPoint}); the
+ * {double} accessors convert at the {Loggable} boundary.
  * It can be created either with an explicit calorie value or by looking up an
  * estimated calorie value via {APICaller#APICall(String, String)} using the
  * {"nutrition"} endpoint.
@@ -13,37 +17,125 @@ import java.util.Objects;
  * Construction modes:
  *   Direct: {#FoodEntry(String, double)} — uses the provided calorie value.
  *       This constructor normalizes the name by trimming and lowercasing.
+ *       {#FoodEntry(String, double, double[])} additionally takes nutrient amounts, and
+ *       {#ofHundredths(String, long, double[])} takes calories already in fixed point.
  *   Lookup: {#FoodEntry(String)} — queries a remote API for an
  *       estimated calorie value based on the text name.
+ *   Restore: {#restore(long, long, String, long, double[])} — rebuilds a persisted
+ *       entry with its original id and creation time.
+ *
+ * Every entry also has a {long} id, unique within the process and across restarts, and a
+ * creation timestamp. Ids are what {DailyLog} uses to find, edit, and remove one specific
+ * entry; {#equals(Object)} still compares by value.
  *
  */
 
 public class FoodEntry extends APICaller implements Loggable {
+  /**
+   * Last id handed out. Seeded from the clock so ids keep increasing across restarts, and
+   * raised past any id restored from storage.
+   */
+  private static final AtomicLong LAST_ID = new AtomicLong(System.currentTimeMillis() * 1000);
+
+  private final long id;
+  private final long createdAt;
   private final String name;
-  private double calories;
+  private final long calorieHundredths;
+  private final double[] nutrients;
 
   /**
-   * Creates a food entry with an explicit calorie value.
+   * Creates a food entry with an explicit calorie value and no nutrient data.
    * @param name     the food name
    * @param calories the calories in kilocalories (kcal);
    * @throws IllegalArgumentException if {name} is blank or {calories} is negative
    */
   public FoodEntry(String name, double calories){
+    this(name, calories, null);
+  }
+
+  /**
+   * Creates a food entry with explicit calorie and nutrient values.
+   * @param name      the food name
+   * @param calories  the calories in kilocalories (kcal);
+   * @param nutrients amounts indexed by {Nutrient#ordinal()}, or {null} for none;
+   *                  the array is copied
+   * @throws IllegalArgumentException if {name} is blank, {calories} is negative, or
+   *         {nutrients} is not of length {Nutrient#COUNT}
+   */
+  public FoodEntry(String name, double calories, double[] nutrients){
+    this(name, calories < 0 ? -1 : FixedPoint.toHundredths(calories), nutrients);
+  }
+
+  /**
+   * Creates a food entry whose calories are given in hundredths of a kcal.
+   * @param name              the food name
+   * @param calorieHundredths the calories in hundredths of a kcal (e.g., 6960 for 69.6 kcal)
+   * @param nutrients         amounts indexed by {Nutrient#ordinal()}, or {null} for none;
+   *                          the array is copied
+   * @return the new entry
+   * @throws IllegalArgumentException if {name} is blank, {calorieHundredths} is negative, or
+   *         {nutrients} is not of length {Nutrient#COUNT}
+   */
+  public static FoodEntry ofHundredths(String name, long calorieHundredths, double[] nutrients) {
+    return new FoodEntry(name, calorieHundredths, nutrients);
+  }
+
+  /**
+   * Rebuilds a previously persisted entry, keeping its id and creation time.
+   * @param id                the entry's original id
+   * @param createdAt         the entry's creation time, in epoch milliseconds
+   * @param name              the food name
+   * @param calorieHundredths the calories in hundredths of a kcal
+   * @param nutrients         amounts indexed by {Nutrient#ordinal()}, or {null} for none
+   * @return the restored entry
+   * @throws IllegalArgumentException if {name} is blank, {calorieHundredths} is negative, or
+   *         {nutrients} is not of length {Nutrient#COUNT}
+   */
+  public static FoodEntry restore(long id, long createdAt, String name, long calorieHundredths, double[] nutrients) {
+    LAST_ID.accumulateAndGet(id, Math::max);
+    return new FoodEntry(id, createdAt, name, calorieHundredths, nutrients);
+  }
+
+  /**
+   * Returns an edited copy of this entry with a new name and calorie value. The copy keeps
+   * this entry's id, creation time, and nutrient amounts.
+   * @param newName     the new food name
+   * @param newCalories the new calories in kilocalories (kcal)
+   * @return the edited entry
+   * @throws IllegalArgumentException if {newName} is blank or {newCalories} is negative
+   */
+  public FoodEntry withValues(String newName, double newCalories) {
+    return new FoodEntry(id, createdAt, newName,
+        newCalories < 0 ? -1 : FixedPoint.toHundredths(newCalories), nutrients);
+  }
+
+  // private so that callers passing an int literal always resolve to the kcal constructors
+  private FoodEntry(String name, long calorieHundredths, double[] nutrients){
+    this(LAST_ID.incrementAndGet(), System.currentTimeMillis(), name, calorieHundredths, nutrients);
+  }
+
+  private FoodEntry(long id, long createdAt, String name, long calorieHundredths, double[] nutrients){
     if (name == null || name.isBlank()) {
       throw new IllegalArgumentException("Food name cannot be blank");
     }
-    if (calories < 0) {
+    if (calorieHundredths < 0) {
       throw new IllegalArgumentException("Calories cannot be negative");
     }
+    if (nutrients != null && nutrients.length != Nutrient.COUNT) {
+      throw new IllegalArgumentException("Expected " + Nutrient.COUNT + " nutrient values");
+    }
+    this.id = id;
+    this.createdAt = createdAt;
     this.name = name.trim().toLowerCase();
-    this.calories = calories;
+    this.calorieHundredths = calorieHundredths;
+    this.nutrients = nutrients == null ? new double[Nutrient.COUNT] : nutrients.clone();
   }
 
   /**
    * Creates a food entry by querying a remote nutrition API to estimate calories.
    *
-   * This constructor calls {#APICall(String, String)} with the {"nutrition"}
-   * endpoint and the provided {name}. The resulting value is stored in {calories}.
+   * This constructor requests the {"nutrition"} endpoint with the provided {name} and
+   * decodes both the calorie total and the {Nutrient} amounts from the single response.
    *
    * @param name the food name used for the API query;
    * @throws IllegalArgumentException if {name} is blank
@@ -53,8 +145,31 @@ public class FoodEntry extends APICaller implements Loggable {
     if (name == null || name.isBlank()) {
       throw new IllegalArgumentException("Food name cannot be blank");
     }
+    this.id = LAST_ID.incrementAndGet();
+    this.createdAt = System.currentTimeMillis();
     this.name = name;
-    this.calories = APICall("nutrition", name);
+    this.nutrients = new double[Nutrient.COUNT];
+    this.calorieHundredths = FixedPoint.toHundredths(decodeNutrition(request("nutrition", name), nutrients));
+  }
+
+  /**
+   * Returns the unique id of this entry.
+   *
+   * @return the entry id
+   */
+  @Override
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Returns when this entry was first created, in epoch milliseconds.
+   *
+   * @return the creation time
+   */
+  @Override
+  public long getCreatedAt() {
+    return createdAt;
   }
 
   /**
@@ -74,7 +189,28 @@ public class FoodEntry extends APICaller implements Loggable {
    */
   @Override
   public double getCalories() {
-    return calories;
+    return FixedPoint.fromHundredths(calorieHundredths);
+  }
+
+  /**
+   * Returns the exact calorie value in hundredths of a kcal.
+   *
+   * @return calories for this entry, in hundredths
+   */
+  @Override
+  public long getCalorieHundredths() {
+    return calorieHundredths;
+  }
+
+  /**
+   * Returns the amount of a nutrient for this entry.
+   *
+   * @param nutrient the nutrient to read
+   * @return the amount in the nutrient's unit
+   */
+  @Override
+  public double getNutrient(Nutrient nutrient) {
+    return nutrients[nutrient.ordinal()];
   }
 
   /**
@@ -85,8 +221,10 @@ public class FoodEntry extends APICaller implements Loggable {
     @Override
     public String toString() {
         return "FoodEntry{" +
-               "Name='" + name + '\'' +
-               ", Calorie=" + calories +
+               "Id=" + id +
+               ", Name='" + name + '\'' +
+               ", Calorie=" + FixedPoint.formatHundredths(calorieHundredths) +
+               ", Nutrients=" + Arrays.toString(nutrients) +
                '}';
     }
 
@@ -94,7 +232,8 @@ public class FoodEntry extends APICaller implements Loggable {
    * Compares this entry to another for equality.
    *
    * <p>Two {@code FoodEntry} instances are equal if both their {@code name} and
-   * {@code calories} are equal.
+   * {@code calories} are equal. Nutrient amounts are derived from the same lookup and are
+   * not compared.
    *
    * @param o the object to compare with
    * @return {@code true} if equal; {@code false} otherwise
@@ -104,7 +243,7 @@ public class FoodEntry extends APICaller implements Loggable {
     if (this == o) return true;
     if (!(o instanceof FoodEntry)) return false;
     FoodEntry that = (FoodEntry) o;
-    return calories == that.calories && name.equals(that.name);
+    return calorieHundredths == that.calorieHundredths && name.equals(that.name);
   }
 
   /**
@@ -115,7 +254,7 @@ public class FoodEntry extends APICaller implements Loggable {
   @Override
   // prevent equality bugs if switching from list to a hash based collection
   public int hashCode() {
-    return Objects.hash(name, calories);
+    return 31 * name.hashCode() + Long.hashCode(calorieHundredths);
   }
 
 }
@@ -0,0 +1,22 @@
+package GragasApp.model;
+
+/**
+ * interface for resolving a free-text food description into a {FoodEntry}.
+ *
+ * Lookups may block on the network, so callers on the Swing event thread should run them on
+ * a background executor. The default implementation is {FoodEntry#FoodEntry(String)}, which
+ * queries the nutrition API.
+ */
+@FunctionalInterface
+public interface FoodLookup {
+
+  /**
+   * Resolves a food description into an entry with calories and nutrients filled in.
+   *
+   * @param description the food description entered by the user (e.g., "2 eggs and toast")
+   * @return the resolved entry
+   * @throws Exception if the description cannot be resolved
+   */
+  FoodEntry lookup(String description) throws Exception;
+
+}
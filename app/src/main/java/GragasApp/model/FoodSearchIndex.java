@@ -0,0 +1,230 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An inverted index from food-name tokens to the entries whose names contain them, across all
+ * indexed users.
+ *
+ * Names are split into lowercase tokens of letters and digits. Each token maps to a posting
+ * list held in primitive arrays (user number, epoch day, entry id), so millions of postings
+ * cost a few dozen bytes each and no per-posting objects. Tokens are kept sorted, so every
+ * word of a query matches by prefix with one range scan: "las" finds "lasagna". A query with
+ * several words returns entries that match all of them.
+ *
+ * The index is fed by a {LogEntryWatcher}, which reports the entries of each profile at load
+ * and every entry added or removed afterwards.
+ *
+ * All methods are thread-safe.
+ */
+public class FoodSearchIndex implements LogEntryListener {
+
+  /**
+   * One search result: an entry identified by its owner, day, and id.
+   */
+  public static final class Hit {
+    private final UserProfile user;
+    private final LocalDate date;
+    private final long entryId;
+
+    Hit(UserProfile user, LocalDate date, long entryId) {
+      this.user = user;
+      this.date = date;
+      this.entryId = entryId;
+    }
+
+    public UserProfile getUser() {
+      return user;
+    }
+
+    public LocalDate getDate() {
+      return date;
+    }
+
+    public long getEntryId() {
+      return entryId;
+    }
+  }
+
+  /**
+   * Growable parallel arrays of postings for one token. Order is not meaningful; removal
+   * moves the last posting into the hole.
+   */
+  private static final class Postings {
+    int size;
+    int[] users = new int[2];
+    int[] days = new int[2];
+    long[] ids = new long[2];
+
+    void add(int user, int day, long id) {
+      if (size == ids.length) {
+        int capacity = size * 2;
+        users = Arrays.copyOf(users, capacity);
+        days = Arrays.copyOf(days, capacity);
+        ids = Arrays.copyOf(ids, capacity);
+      }
+      users[size] = user;
+      days[size] = day;
+      ids[size] = id;
+      size++;
+    }
+
+    void remove(long id) {
+      for (int i = 0; i < size; i++) {
+        if (ids[i] == id) {
+          size--;
+          users[i] = users[size];
+          days[i] = days[size];
+          ids[i] = ids[size];
+          return;
+        }
+      }
+    }
+  }
+
+  // Guarded by this
+  private final NavigableMap<String, Postings> tokens = new TreeMap<>();
+  private final Map<UserProfile, Integer> userNumbers = new IdentityHashMap<>();
+  private final List<UserProfile> users = new ArrayList<>();
+  private long postingCount;
+
+  /**
+   * Finds entries whose names contain a token starting with each word of the query.
+   *
+   * @param query one or more words, e.g. "lasag" or "chicken sal"
+   * @param owner only return entries of this user, or {null} for all users
+   * @param limit the maximum number of results
+   * @return matching entries, most recent day first
+   */
+  public synchronized List<Hit> search(String query, UserProfile owner, int limit) {
+    Set<String> words = tokenize(query);
+    if (words.isEmpty() || limit <= 0) return Collections.emptyList();
+    int user = -1;
+    if (owner != null) {
+      Integer number = userNumbers.get(owner);
+      if (number == null) return Collections.emptyList();
+      user = number;
+    }
+
+    // Every word after the first narrows the set of entry ids that may match
+    Set<Long> required = null;
+    String[] rest = words.toArray(new String[0]);
+    for (int w = 1; w < rest.length; w++) {
+      Set<Long> ids = new HashSet<>();
+      for (Postings p : prefixRange(rest[w])) {
+        for (int i = 0; i < p.size; i++) {
+          if (user < 0 || p.users[i] == user) ids.add(p.ids[i]);
+        }
+      }
+      if (required != null) ids.retainAll(required);
+      required = ids;
+      if (required.isEmpty()) return Collections.emptyList();
+    }
+
+    // Keep the newest 'limit' matches of the first word in a min-heap ordered by (day, id)
+    PriorityQueue<long[]> newest = new PriorityQueue<>((a, b) ->
+        a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[2], b[2]));
+    Set<Long> seen = new HashSet<>();
+    for (Postings p : prefixRange(rest[0])) {
+      for (int i = 0; i < p.size; i++) {
+        if (user >= 0 && p.users[i] != user) continue;
+        long id = p.ids[i];
+        if (required != null && !required.contains(id)) continue;
+        if (!seen.add(id)) continue; // e.g. "pasta pasta salad" matches twice
+        newest.add(new long[]{p.users[i], p.days[i], id});
+        if (newest.size() > limit) newest.poll();
+      }
+    }
+    Hit[] hits = new Hit[newest.size()];
+    for (int i = hits.length - 1; i >= 0; i--) {
+      long[] h = newest.poll();
+      hits[i] = new Hit(users.get((int) h[0]), LocalDate.ofEpochDay(h[1]), h[2]);
+    }
+    return Arrays.asList(hits);
+  }
+
+  /**
+   * Returns the number of (token, entry) postings in the index.
+   *
+   * @return posting count
+   */
+  public synchronized long size() {
+    return postingCount;
+  }
+
+  /**
+   * Splits a name into its distinct lowercase tokens of letters and digits.
+   *
+   * @param text the text to split
+   * @return the tokens in order of first appearance
+   */
+  static Set<String> tokenize(String text) {
+    Set<String> result = new LinkedHashSet<>();
+    if (text == null) return result;
+    int start = -1;
+    for (int i = 0; i <= text.length(); i++) {
+      boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+      if (wordChar && start < 0) {
+        start = i;
+      } else if (!wordChar && start >= 0) {
+        result.add(text.substring(start, i).toLowerCase());
+        start = -1;
+      }
+    }
+    return result;
+  }
+
+  private Iterable<Postings> prefixRange(String prefix) {
+    return tokens.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values();
+  }
+
+  @Override
+  public synchronized void entryAdded(UserProfile user, LocalDate date, Loggable entry) {
+    index(entry, userNumber(user), (int) date.toEpochDay());
+  }
+
+  @Override
+  public synchronized void entryRemoved(UserProfile user, LocalDate date, Loggable entry) {
+    unindex(entry);
+  }
+
+  private int userNumber(UserProfile user) {
+    Integer number = userNumbers.get(user);
+    if (number == null) {
+      number = users.size();
+      users.add(user);
+      userNumbers.put(user, number);
+    }
+    return number;
+  }
+
+  private void index(Loggable entry, int user, int day) {
+    for (String token : tokenize(entry.getName())) {
+      tokens.computeIfAbsent(token, t -> new Postings()).add(user, day, entry.getId());
+      postingCount++;
+    }
+  }
+
+  private void unindex(Loggable entry) {
+    for (String token : tokenize(entry.getName())) {
+      Postings p = tokens.get(token);
+      if (p == null) continue;
+      int before = p.size;
+      p.remove(entry.getId());
+      postingCount -= before - p.size;
+      if (p.size == 0) tokens.remove(token);
+    }
+  }
+}
@@ -0,0 +1,164 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Type-ahead suggestions drawn from the names of previously logged foods.
+ *
+ * Every distinct name is kept in a sorted map, so the names starting with what the user has
+ * typed are one range scan. Matches are ranked by frecency: how often the food was logged,
+ * halved for every {#HALF_LIFE_DAYS} days since it was last logged. Only the best few are
+ * kept while scanning, so a suggestion query over hundreds of thousands of names takes a few
+ * milliseconds and allocates little.
+ *
+ * Each name remembers the calories and nutrients it was most recently logged with, so a chosen
+ * suggestion becomes a new entry without another nutrition lookup.
+ *
+ * The dictionary is fed by a {LogEntryWatcher}. All methods are thread-safe.
+ */
+public class FoodSuggestions implements LogEntryListener {
+
+  /** Days after which a food's weight in the ranking is halved. */
+  public static final int HALF_LIFE_DAYS = 30;
+
+  /**
+   * A previously logged food offered for reuse.
+   */
+  public static final class Suggestion {
+    private final String name;
+    private final long calorieHundredths;
+    private final double[] nutrients;
+    private final int timesLogged;
+
+    Suggestion(String name, long calorieHundredths, double[] nutrients, int timesLogged) {
+      this.name = name;
+      this.calorieHundredths = calorieHundredths;
+      this.nutrients = nutrients;
+      this.timesLogged = timesLogged;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public long getCalorieHundredths() {
+      return calorieHundredths;
+    }
+
+    public int getTimesLogged() {
+      return timesLogged;
+    }
+
+    /**
+     * Creates a new entry with this food's name, calories and nutrients.
+     *
+     * @return the entry, with a fresh id
+     */
+    public FoodEntry newEntry() {
+      return FoodEntry.ofHundredths(name, calorieHundredths, nutrients);
+    }
+  }
+
+  /**
+   * What is known about one name.
+   */
+  private static final class Usage {
+    String name;
+    int count;
+    long lastDay = Long.MIN_VALUE;
+    long calorieHundredths;
+    double[] nutrients;
+  }
+
+  // Guarded by this
+  private final NavigableMap<String, Usage> names = new TreeMap<>();
+
+  /**
+   * Finds the foods whose names start with a prefix, best first.
+   *
+   * @param prefix the text typed so far; case and surrounding whitespace are ignored
+   * @param today  the day recency is measured from
+   * @param limit  the maximum number of suggestions
+   * @return the suggestions, most frecent first
+   */
+  public synchronized List<Suggestion> suggest(String prefix, LocalDate today, int limit) {
+    String key = prefix == null ? "" : prefix.trim().toLowerCase();
+    if (key.isEmpty() || limit <= 0) return Collections.emptyList();
+    long now = today.toEpochDay();
+
+    // Min-heap of the best 'limit' names seen so far, so the worst is evicted first
+    Comparator<Scored> order = Comparator.<Scored>comparingDouble(s -> s.score)
+        .thenComparing(s -> s.usage.name, Comparator.reverseOrder());
+    PriorityQueue<Scored> best = new PriorityQueue<>(limit + 1, order);
+    for (Usage usage : names.subMap(key, true, key + Character.MAX_VALUE, false).values()) {
+      double age = Math.max(0, now - usage.lastDay);
+      double score = usage.count * Math.pow(0.5, age / HALF_LIFE_DAYS);
+      if (best.size() == limit && score <= best.peek().score) continue;
+      best.add(new Scored(usage, score));
+      if (best.size() > limit) best.poll();
+    }
+    Suggestion[] result = new Suggestion[best.size()];
+    for (int i = result.length - 1; i >= 0; i--) {
+      Scored s = best.poll();
+      result[i] = new Suggestion(s.usage.name, s.usage.calorieHundredths, s.usage.nutrients, s.usage.count);
+    }
+    return Arrays.asList(result);
+  }
+
+  /**
+   * Returns the number of distinct food names known.
+   *
+   * @return the dictionary size
+   */
+  public synchronized int size() {
+    return names.size();
+  }
+
+  @Override
+  public synchronized void entryAdded(UserProfile user, LocalDate date, Loggable entry) {
+    Usage usage = names.computeIfAbsent(entry.getName().toLowerCase(), n -> new Usage());
+    usage.count++;
+    long day = date.toEpochDay();
+    if (day >= usage.lastDay) {
+      usage.lastDay = day;
+      usage.name = entry.getName();
+      usage.calorieHundredths = entry.getCalorieHundredths();
+      usage.nutrients = nutrientsOf(entry);
+    }
+  }
+
+  @Override
+  public synchronized void entryRemoved(UserProfile user, LocalDate date, Loggable entry) {
+    // The last-logged day and values are kept; they only serve as a ranking hint and a default
+    String key = entry.getName().toLowerCase();
+    Usage usage = names.get(key);
+    if (usage != null && --usage.count <= 0) {
+      names.remove(key);
+    }
+  }
+
+  private static double[] nutrientsOf(Loggable entry) {
+    double[] amounts = new double[Nutrient.COUNT];
+    for (Nutrient n : Nutrient.values()) {
+      amounts[n.ordinal()] = entry.getNutrient(n);
+    }
+    return amounts;
+  }
+
+  private static final class Scored {
+    final Usage usage;
+    final double score;
+
+    Scored(Usage usage, double score) {
+      this.usage = usage;
+      this.score = score;
+    }
+  }
+}
@@ -0,0 +1,99 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The most frequently logged foods of each user and of all users together, for one-click
+ * quick-add.
+ *
+ * Counts are kept by streaming top-k counters ({TopKCounter}) of a fixed capacity, so memory
+ * is bounded by the number of users, not the length of their history. Counts are approximate
+ * only for foods near the bottom of the ranking; the foods worth a quick-add button are counted
+ * exactly or nearly so. Each food remembers the calories and nutrients it was last logged with,
+ * so a quick-add needs no nutrition lookup.
+ *
+ * The counts are fed by a {LogEntryWatcher}: existing entries when a profile is loaded, then
+ * every entry added or removed. All methods are thread-safe.
+ */
+public class FrequentFoods implements LogEntryListener {
+
+  /** The number of foods tracked per user and globally when no capacity is given. */
+  public static final int DEFAULT_CAPACITY = 64;
+
+  private final int capacity;
+
+  // Guarded by this
+  private final Map<UserProfile, TopKCounter> perUser = new IdentityHashMap<>();
+  private final TopKCounter global;
+
+  /**
+   * Creates counters that track {DEFAULT_CAPACITY} foods each.
+   */
+  public FrequentFoods() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates counters that track a given number of foods each.
+   *
+   * @param capacity foods tracked per user and globally; a few times the number shown is enough
+   */
+  public FrequentFoods(int capacity) {
+    this.capacity = capacity;
+    this.global = new TopKCounter(capacity);
+  }
+
+  /**
+   * Returns a user's most frequently logged foods.
+   *
+   * @param user the user
+   * @param k    the maximum number of foods
+   * @return up to {k} foods, most frequent first
+   */
+  public synchronized List<FoodSuggestions.Suggestion> top(UserProfile user, int k) {
+    TopKCounter counter = perUser.get(user);
+    return counter == null ? new ArrayList<>() : toSuggestions(counter.top(k));
+  }
+
+  /**
+   * Returns the most frequently logged foods across all users.
+   *
+   * @param k the maximum number of foods
+   * @return up to {k} foods, most frequent first
+   */
+  public synchronized List<FoodSuggestions.Suggestion> topOverall(int k) {
+    return toSuggestions(global.top(k));
+  }
+
+  @Override
+  public synchronized void entryAdded(UserProfile user, LocalDate date, Loggable entry) {
+    String key = entry.getName().toLowerCase();
+    double[] nutrients = new double[Nutrient.COUNT];
+    for (Nutrient n : Nutrient.values()) {
+      nutrients[n.ordinal()] = entry.getNutrient(n);
+    }
+    perUser.computeIfAbsent(user, u -> new TopKCounter(capacity))
+        .add(key, entry.getName(), entry.getCalorieHundredths(), nutrients);
+    global.add(key, entry.getName(), entry.getCalorieHundredths(), nutrients);
+  }
+
+  @Override
+  public synchronized void entryRemoved(UserProfile user, LocalDate date, Loggable entry) {
+    String key = entry.getName().toLowerCase();
+    TopKCounter counter = perUser.get(user);
+    if (counter != null) counter.remove(key);
+    global.remove(key);
+  }
+
+  private static List<FoodSuggestions.Suggestion> toSuggestions(List<TopKCounter.Counter> counters) {
+    List<FoodSuggestions.Suggestion> result = new ArrayList<>(counters.size());
+    for (TopKCounter.Counter c : counters) {
+      result.add(new FoodSuggestions.Suggestion(c.name, c.calorieHundredths, c.nutrients, (int) c.count));
+    }
+    return result;
+  }
+}
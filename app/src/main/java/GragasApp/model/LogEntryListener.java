@@ -0,0 +1,33 @@
+package GragasApp.model;
+
+import java.time.LocalDate;
+
+/**
+ * Receives every entry that appears in or disappears from the logs of the profiles watched by
+ * a {LogEntryWatcher}.
+ *
+ * An edit arrives as the removal of the old entry followed by the addition of the new one,
+ * which has the same id. Calls may come from any thread, but never concurrently from the
+ * same watcher.
+ */
+public interface LogEntryListener {
+
+  /**
+   * Called for an entry that is now in a log, including entries present when the profile
+   * started being watched.
+   *
+   * @param user  the owner of the log
+   * @param date  the day of the log
+   * @param entry the entry
+   */
+  void entryAdded(UserProfile user, LocalDate date, Loggable entry);
+
+  /**
+   * Called for an entry that is no longer in a log.
+   *
+   * @param user  the owner of the log
+   * @param date  the day of the log
+   * @param entry the entry
+   */
+  void entryRemoved(UserProfile user, LocalDate date, Loggable entry);
+}
@@ -0,0 +1,182 @@
+package GragasApp.model;
+
+import java.beans.PropertyChangeEvent;
+import java.beans.PropertyChangeListener;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Turns the change events of profiles and their logs into per-entry notifications, so that
+ * derived data such as search indexes can be kept up to date without rescanning.
+ *
+ * {#addProfile(UserProfile)} reports every existing entry of a profile and then listens for
+ * new days ({UserProfile#LOG_ADDED}) and entry changes ({DailyLog#ENTRIES}). For each log the
+ * watcher remembers the last snapshot it reported. An event is not trusted for its contents;
+ * it only triggers a comparison of that snapshot with the log's current one. Events that
+ * arrive late or out of order therefore never report an entry twice. Appends are reported in
+ * time proportional to the new entries; other edits compare the day's entries.
+ *
+ * When a profile's logs are evicted from memory ({UserProfile#LOGS_EVICTED}) the watcher lets
+ * go of them, so it never keeps evicted logs alive. Their entries are not reported as removed:
+ * they still exist, only on disk. When the logs are read back ({UserProfile#LOGS_RELOADED})
+ * the watcher picks up from the saved state, so only edits made since the reload are reported.
+ *
+ * All methods are thread-safe.
+ */
+public class LogEntryWatcher {
+
+  private final LogEntryListener[] listeners;
+
+  // Guarded by this
+  private final Map<UserProfile, Boolean> profiles = new IdentityHashMap<>();
+  private final Map<DailyLog, WatchedLog> logs = new IdentityHashMap<>();
+  private final Set<UserProfile> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+
+  private final PropertyChangeListener profileListener = this::profileChanged;
+  private final PropertyChangeListener logListener = this::logChanged;
+
+  /**
+   * The last reported state of one log.
+   */
+  private static final class WatchedLog {
+    final UserProfile owner;
+    DailyLog.Snapshot reported; // null until the first report
+
+    WatchedLog(UserProfile owner) {
+      this.owner = owner;
+    }
+  }
+
+  /**
+   * Creates a watcher that reports to the given listeners, in order.
+   *
+   * @param listeners the listeners to notify
+   */
+  public LogEntryWatcher(LogEntryListener... listeners) {
+    this.listeners = listeners.clone();
+  }
+
+  /**
+   * Reports every entry of a profile and keeps reporting its changes. Adding the same profile
+   * again has no effect.
+   *
+   * @param user the profile to watch
+   */
+  public void addProfile(UserProfile user) {
+    synchronized (this) {
+      if (profiles.put(user, Boolean.TRUE) != null) return;
+    }
+    // Listen before reading the logs so that no day created meanwhile is missed
+    user.addPropertyChangeListener(profileListener);
+    for (DailyLog log : user.getLogs()) {
+      watchLog(user, log);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void profileChanged(PropertyChangeEvent e) {
+    UserProfile user = (UserProfile) e.getSource();
+    if (UserProfile.LOG_ADDED.equals(e.getPropertyName())) {
+      watchLog(user, (DailyLog) e.getNewValue());
+    } else if (UserProfile.LOGS_EVICTED.equals(e.getPropertyName())) {
+      forgetLogs(user, (List<DailyLog>) e.getOldValue());
+    } else if (UserProfile.LOGS_RELOADED.equals(e.getPropertyName())) {
+      boolean wasEvicted;
+      synchronized (this) {
+        wasEvicted = evicted.remove(user);
+      }
+      for (DailyLog log : (List<DailyLog>) e.getNewValue()) {
+        // Entries of a reloaded log were reported before it was evicted
+        if (wasEvicted) {
+          adoptLog(user, log);
+        } else {
+          watchLog(user, log);
+        }
+      }
+    }
+  }
+
+  private void logChanged(PropertyChangeEvent e) {
+    report((DailyLog) e.getSource());
+  }
+
+  private void watchLog(UserProfile user, DailyLog log) {
+    synchronized (this) {
+      if (logs.containsKey(log)) return;
+      logs.put(log, new WatchedLog(user));
+    }
+    log.addPropertyChangeListener(logListener);
+    report(log);
+  }
+
+  /**
+   * Watches a log whose saved entries were already reported, under earlier log objects.
+   */
+  private void adoptLog(UserProfile user, DailyLog log) {
+    synchronized (this) {
+      if (logs.containsKey(log)) return;
+      WatchedLog watched = new WatchedLog(user);
+      watched.reported = log.savedSnapshot();
+      logs.put(log, watched);
+    }
+    log.addPropertyChangeListener(logListener);
+    report(log);
+  }
+
+  private void forgetLogs(UserProfile user, List<DailyLog> evictedLogs) {
+    synchronized (this) {
+      evicted.add(user);
+      for (DailyLog log : evictedLogs) {
+        logs.remove(log);
+      }
+    }
+    for (DailyLog log : evictedLogs) {
+      log.removePropertyChangeListener(logListener);
+    }
+  }
+
+  /**
+   * Reports the difference between the last reported snapshot of a log and its current one.
+   */
+  private synchronized void report(DailyLog log) {
+    WatchedLog watched = logs.get(log);
+    if (watched == null) return;
+    DailyLog.Snapshot before = watched.reported;
+    DailyLog.Snapshot after = log.snapshot();
+    if (before == after) return;
+    watched.reported = after;
+
+    if (before == null || after.isAppendOf(before)) {
+      for (int i = before == null ? 0 : before.size(); i < after.size(); i++) {
+        added(watched.owner, after, after.get(i));
+      }
+      return;
+    }
+    // Entries are immutable, so an edited entry is a different object with the same id
+    Set<Loggable> old = Collections.newSetFromMap(new IdentityHashMap<>());
+    old.addAll(before.getEntries());
+    Set<Loggable> current = Collections.newSetFromMap(new IdentityHashMap<>());
+    current.addAll(after.getEntries());
+    for (Loggable entry : before.getEntries()) {
+      if (!current.contains(entry)) removed(watched.owner, after, entry);
+    }
+    for (Loggable entry : after.getEntries()) {
+      if (!old.contains(entry)) added(watched.owner, after, entry);
+    }
+  }
+
+  private void added(UserProfile user, DailyLog.Snapshot day, Loggable entry) {
+    for (LogEntryListener listener : listeners) {
+      listener.entryAdded(user, day.getDate(), entry);
+    }
+  }
+
+  private void removed(UserProfile user, DailyLog.Snapshot day, Loggable entry) {
+    for (LogEntryListener listener : listeners) {
+      listener.entryRemoved(user, day.getDate(), entry);
+    }
+  }
+}
@@ -2,12 +2,26 @@ package GragasApp.model;
 
 
 /**
- * Interface for items that can be recorded in a {DailyLog} with a name
- * and a calorie value.
+ * Interface for items that can be recorded in a {DailyLog} with a name,
+ * a calorie value, and a fixed vector of {Nutrient} amounts.
  *
  */
 public interface Loggable {
 
+  /**
+   * Returns an id that identifies this item among all logged items, even when another
+   * item has the same name and calories.
+   *
+   * @return the item id
+   */
+  long getId();
+
+  /**
+   * Returns when this item was created, in epoch milliseconds.
+   *
+   * @return the creation time
+   */
+  long getCreatedAt();
 
   /**
    * Returns a name for this item (e.g., food name or activity label).
@@ -22,4 +36,24 @@ public interface Loggable {
    * @return the calorie amount
    */
   double getCalories();
+
+  /**
+   * Returns the calorie value in fixed point, as hundredths of a kcal. Implementations that
+   * store calories as {double} get this conversion for free; fixed-point implementations
+   * should override it to return their exact value.
+   *
+   * @return the calorie amount in hundredths
+   */
+  default long getCalorieHundredths() {
+    return FixedPoint.toHundredths(getCalories());
+  }
+
+  /**
+   * Returns the amount of a single nutrient for this item, in the unit reported by
+   * {Nutrient#getUnit()}.
+   *
+   * @param nutrient the nutrient to read
+   * @return the nutrient amount, or {0} if unknown
+   */
+  double getNutrient(Nutrient nutrient);
 }
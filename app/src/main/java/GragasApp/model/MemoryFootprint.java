@@ -0,0 +1,290 @@
+package GragasApp.model;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An estimate of the heap held by one loaded profile, or by several together.
+ *
+ * The estimate walks a profile's {DailyLog}s and adds up the shallow sizes of the objects
+ * they hold, as laid out by a 64-bit JVM with compressed references: 12-byte object headers,
+ * 4-byte references, 16-byte array headers and 8-byte alignment. It is split three ways:
+ * <ul>
+ *   <li>entries: the {FoodEntry} objects and their nutrient arrays;</li>
+ *   <li>strings: entry names and the profile name, each distinct instance counted once,
+ *       with the bytes of instances that repeat an earlier one's text reported separately,
+ *       as what sharing names would save;</li>
+ *   <li>overhead: the profile, the map of logs, each log with its snapshot chunks, totals and
+ *       id index.</li>
+ * </ul>
+ * Listeners, and entries only kept alive by a superseded snapshot, are not counted. Logs
+ * evicted from memory ({CacheBudget}) are not counted either, nor read back to be measured.
+ * The figures are for comparing profiles and planning capacity, not for exact accounting.
+ *
+ * Estimating reads only immutable snapshots, so it is safe while the profile is in use.
+ */
+public final class MemoryFootprint {
+
+  private static final int HEADER = 12;
+  private static final int REF = 4;
+  private static final int ARRAY_HEADER = 16;
+
+  private static final int STRING = align(HEADER + REF + 4 + 1 + 1);
+  private static final int LOCAL_DATE = align(HEADER + 4 + 2 + 2);
+  private static final int FOOD_ENTRY = align(HEADER + 8 + 8 + REF + 8 + REF);
+  private static final int NUTRIENTS = align(ARRAY_HEADER + 8 * Nutrient.COUNT);
+  /** The profile, plus the plain object guarding its logs. */
+  private static final int USER_PROFILE = align(HEADER + REF + 4 + 4 + REF + REF + 8 + 8 + REF + 8 + 8 + REF
+      + REF + REF + 8) + align(HEADER);
+  /** A PropertyChangeSupport and its empty listener map. */
+  private static final int CHANGE_SUPPORT = 48;
+  private static final int SKIP_LIST_MAP = 48;
+  /** A skip-list node plus, on average, a quarter of an index node. */
+  private static final int SKIP_LIST_ENTRY = align(HEADER + 3 * REF) + align(HEADER + 3 * REF) / 4;
+  private static final int DAILY_LOG = align(HEADER + 5 * REF);
+  private static final int SNAPSHOT = align(HEADER + REF + 8 + REF + 4 + 4 + 8 + REF + REF);
+  private static final int CHUNK = align(ARRAY_HEADER + REF * 32);
+  private static final int HASH_MAP = 48;
+  private static final int HASH_NODE = align(HEADER + 4 + 3 * REF);
+  private static final int BOXED_LONG = align(HEADER + 8);
+  private static final int BOXED_INTEGER = align(HEADER + 4);
+
+  private final String label;
+  private final int profiles;
+  private final int logs;
+  private final long entries;
+  private final long strings;
+  private final long entryBytes;
+  private final long stringBytes;
+  private final long duplicateStringBytes;
+  private final long overheadBytes;
+
+  private MemoryFootprint(String label, int profiles, int logs, long entries, long strings, long entryBytes,
+      long stringBytes, long duplicateStringBytes, long overheadBytes) {
+    this.label = label;
+    this.profiles = profiles;
+    this.logs = logs;
+    this.entries = entries;
+    this.strings = strings;
+    this.entryBytes = entryBytes;
+    this.stringBytes = stringBytes;
+    this.duplicateStringBytes = duplicateStringBytes;
+    this.overheadBytes = overheadBytes;
+  }
+
+  /**
+   * Estimates the heap held by one profile.
+   *
+   * @param user the profile
+   * @return the estimate, labelled with the profile's name
+   */
+  public static MemoryFootprint of(UserProfile user) {
+    Map<String, Boolean> seen = new IdentityHashMap<>();
+    Map<String, String> firstByText = new HashMap<>();
+    long[] stringFigures = new long[3]; // instances, bytes, duplicate bytes
+
+    String name = user.getName();
+    countString(name, seen, firstByText, stringFigures);
+    long overhead = USER_PROFILE + CHANGE_SUPPORT + SKIP_LIST_MAP;
+    long entryCount = 0;
+    long entryBytes = 0;
+    List<DailyLog> logs = user.residentLogs();
+    for (DailyLog log : logs) {
+      DailyLog.Snapshot snapshot = log.snapshot();
+      int size = snapshot.size();
+      int chunks = (snapshot.slots() + 31) / 32;
+      overhead += SKIP_LIST_ENTRY + LOCAL_DATE + DAILY_LOG + CHANGE_SUPPORT;
+      overhead += SNAPSHOT + align(ARRAY_HEADER + (long) REF * chunks) + (long) CHUNK * chunks + NUTRIENTS;
+      overhead += hashMapBytes(size);
+      for (int i = 0; i < size; i++) {
+        Loggable item = snapshot.get(i);
+        entryCount++;
+        entryBytes += FOOD_ENTRY + NUTRIENTS;
+        countString(item.getName(), seen, firstByText, stringFigures);
+      }
+    }
+    return new MemoryFootprint(name, 1, logs.size(), entryCount, stringFigures[0], entryBytes,
+        stringFigures[1], stringFigures[2], overhead);
+  }
+
+  /**
+   * Adds up several estimates.
+   *
+   * @param label      the label of the total
+   * @param footprints the estimates to add
+   * @return their sum
+   */
+  public static MemoryFootprint total(String label, Collection<MemoryFootprint> footprints) {
+    int profiles = 0;
+    int logs = 0;
+    long entries = 0;
+    long strings = 0;
+    long entryBytes = 0;
+    long stringBytes = 0;
+    long duplicateStringBytes = 0;
+    long overheadBytes = 0;
+    for (MemoryFootprint f : footprints) {
+      profiles += f.profiles;
+      logs += f.logs;
+      entries += f.entries;
+      strings += f.strings;
+      entryBytes += f.entryBytes;
+      stringBytes += f.stringBytes;
+      duplicateStringBytes += f.duplicateStringBytes;
+      overheadBytes += f.overheadBytes;
+    }
+    return new MemoryFootprint(label, profiles, logs, entries, strings, entryBytes, stringBytes,
+        duplicateStringBytes, overheadBytes);
+  }
+
+  /**
+   * Describes the footprint of every given profile: the total, the averages per profile and
+   * per entry, and the largest profiles.
+   *
+   * @param users the profiles
+   * @param top   how many of the largest profiles to list
+   * @return a multi-line report
+   */
+  public static String report(Collection<UserProfile> users, int top) {
+    List<MemoryFootprint> each = new ArrayList<>(users.size());
+    for (UserProfile user : users) {
+      each.add(of(user));
+    }
+    MemoryFootprint all = total("All profiles", each);
+    int evicted = 0;
+    for (UserProfile user : users) {
+      if (!user.areLogsLoaded()) evicted++;
+    }
+    each.sort(Comparator.comparingLong(MemoryFootprint::getTotalBytes).reversed());
+
+    StringBuilder sb = new StringBuilder();
+    sb.append("Estimated heap of loaded profiles (64-bit JVM, compressed references)\n");
+    sb.append(String.format("Profiles: %d, logs: %d, entries: %d, strings: %d%n",
+        all.profiles, all.logs, all.entries, all.strings));
+    if (evicted > 0) sb.append(String.format("Profiles with logs evicted: %d%n", evicted));
+    sb.append(String.format("Total: %s (entries %s, strings %s, overhead %s)%n", kb(all.getTotalBytes()),
+        kb(all.entryBytes), kb(all.stringBytes), kb(all.overheadBytes)));
+    sb.append(String.format("Duplicate name text: %s%n", kb(all.duplicateStringBytes)));
+    if (all.profiles > 0) {
+      sb.append(String.format("Average: %s per profile", kb(all.getTotalBytes() / all.profiles)));
+      if (all.entries > 0) sb.append(String.format(", %d bytes per entry", all.getTotalBytes() / all.entries));
+      sb.append('\n');
+    }
+    Runtime runtime = Runtime.getRuntime();
+    sb.append(String.format("JVM heap: %s used of %s max%n",
+        kb(runtime.totalMemory() - runtime.freeMemory()), kb(runtime.maxMemory())));
+    if (!each.isEmpty()) {
+      sb.append(String.format("%nLargest profiles:%n%-20s %6s %8s %10s %10s%n",
+          "Name", "Logs", "Entries", "Strings", "Total"));
+      for (MemoryFootprint f : each.subList(0, Math.min(top, each.size()))) {
+        sb.append(String.format("%-20s %6d %8d %10s %10s%n", f.label, f.logs, f.entries,
+            kb(f.stringBytes), kb(f.getTotalBytes())));
+      }
+    }
+    return sb.toString();
+  }
+
+  /** @return the profile name, or the label of a total */
+  public String getLabel() {
+    return label;
+  }
+
+  /** @return the number of profiles counted */
+  public int getProfiles() {
+    return profiles;
+  }
+
+  /** @return the number of daily logs */
+  public int getLogs() {
+    return logs;
+  }
+
+  /** @return the number of log entries */
+  public long getEntries() {
+    return entries;
+  }
+
+  /** @return the number of distinct string instances */
+  public long getStrings() {
+    return strings;
+  }
+
+  /** @return the bytes held by entries and their nutrient arrays */
+  public long getEntryBytes() {
+    return entryBytes;
+  }
+
+  /** @return the bytes held by strings */
+  public long getStringBytes() {
+    return stringBytes;
+  }
+
+  /** @return the part of {getStringBytes()} held by strings that repeat an earlier one's text */
+  public long getDuplicateStringBytes() {
+    return duplicateStringBytes;
+  }
+
+  /** @return the bytes held by the profile, its logs and their indexes */
+  public long getOverheadBytes() {
+    return overheadBytes;
+  }
+
+  /** @return the estimated total */
+  public long getTotalBytes() {
+    return entryBytes + stringBytes + overheadBytes;
+  }
+
+  @Override
+  public String toString() {
+    return label + ": " + getTotalBytes() + " bytes in " + entries + " entries";
+  }
+
+  private static void countString(String s, Map<String, Boolean> seen, Map<String, String> firstByText,
+      long[] figures) {
+    if (s == null || seen.put(s, Boolean.TRUE) != null) return;
+    long bytes = stringBytes(s);
+    figures[0]++;
+    figures[1] += bytes;
+    if (firstByText.putIfAbsent(s, s) != null) figures[2] += bytes;
+  }
+
+  /**
+   * A String and its byte array; Latin-1 text takes one byte per char, anything else two.
+   */
+  private static long stringBytes(String s) {
+    boolean latin1 = true;
+    for (int i = 0; i < s.length() && latin1; i++) {
+      latin1 = s.charAt(i) < 256;
+    }
+    return STRING + align(ARRAY_HEADER + (long) s.length() * (latin1 ? 1 : 2));
+  }
+
+  /**
+   * The id index of a log: the map, its table, and a node and boxed key per entry. Slot
+   * numbers below 128 come from the Integer cache.
+   */
+  private static long hashMapBytes(int size) {
+    if (size == 0) return HASH_MAP;
+    int capacity = 16;
+    while (size > capacity * 3 / 4) capacity <<= 1;
+    return HASH_MAP + align(ARRAY_HEADER + (long) REF * capacity)
+        + (long) (HASH_NODE + BOXED_LONG) * size + (long) BOXED_INTEGER * Math.max(0, size - 128);
+  }
+
+  private static int align(int bytes) {
+    return (bytes + 7) & ~7;
+  }
+
+  private static long align(long bytes) {
+    return (bytes + 7) & ~7L;
+  }
+
+  private static String kb(long bytes) {
+    return bytes < 10 * 1024 ? bytes + " B" : String.format("%.1f KB", bytes / 1024.0);
+  }
+}
@@ -0,0 +1,58 @@
+package GragasApp.model;
+
+/**
+ * The fixed set of macro-nutrients tracked for every {Loggable} alongside calories.
+ *
+ * Each constant maps to a field of the API Ninjas {"nutrition"} response and carries the
+ * unit it is reported in. Entries store their nutrient values as a primitive vector indexed by
+ * {#ordinal()}, so adding a constant here widens every entry, total, and CSV row by one column.
+ */
+public enum Nutrient {
+  PROTEIN("protein_g", "g"),
+  FAT("fat_total_g", "g"),
+  CARBOHYDRATES("carbohydrates_total_g", "g"),
+  SUGAR("sugar_g", "g"),
+  SODIUM("sodium_mg", "mg");
+
+  /**
+   * Number of tracked nutrients; the length of every nutrient vector.
+   */
+  public static final int COUNT = values().length;
+
+  /**
+   * Shared copy of {#values()} for hot loops in this package; never modified.
+   */
+  static final Nutrient[] ALL = values();
+
+  private final String apiField;
+  private final String unit;
+
+  /**
+   * Creates a nutrient bound to its API response field.
+   *
+   * @param apiField the JSON field name in the nutrition response
+   * @param unit     the unit the value is expressed in (e.g., "g", "mg")
+   */
+  Nutrient(String apiField, String unit) {
+    this.apiField = apiField;
+    this.unit = unit;
+  }
+
+  /**
+   * Returns the JSON field name used by the nutrition API for this nutrient.
+   *
+   * @return the API field name
+   */
+  public String getApiField() {
+    return apiField;
+  }
+
+  /**
+   * Returns the unit this nutrient is measured in.
+   *
+   * @return the unit label
+   */
+  public String getUnit() {
+    return unit;
+  }
+}
@@ -0,0 +1,22 @@
+package GragasApp.model;
+
+/**
+ * interface for following the progress of {CSVHandler#loadUserProfilesFromCsvs()}.
+ *
+ * Callbacks run on the thread that performs the load, which is normally a background thread;
+ * listeners that touch Swing components must hand off to the Event Dispatch Thread.
+ */
+@FunctionalInterface
+public interface ProfileLoadListener {
+
+  /**
+   * Called after each candidate file has been read.
+   *
+   * @param profile   the profile newly registered from that file, or {null} if the file was
+   *                  not a profile, could not be parsed, or named an already registered user
+   * @param filesRead number of files read so far, including this one
+   * @param fileCount total number of files that will be read
+   */
+  void fileRead(UserProfile profile, int filesRead, int fileCount);
+
+}
@@ -0,0 +1,291 @@
+package GragasApp.model;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Random;
+
+/**
+ * Generates deterministic synthetic profiles for scale testing: N users, each with M
+ * consecutive days of K food entries, written through {CSVHandler} so the files are exactly
+ * what the application writes and reads.
+ *
+ * Food names follow a Zipf distribution over each user's own ordering of a shared menu, so a
+ * few foods dominate every history while the tail stays long. About one entry in five gets a
+ * preparation or portion word ("grilled", "large", ...), which gives the dictionary of distinct
+ * names a realistic spread of a few thousand. Calories and nutrients come from the menu with
+ * per-portion noise.
+ *
+ * Everything is derived from the seed and the user's index: the same arguments always produce
+ * byte-identical files, and users can be generated in any order or in parallel. Entry ids and
+ * creation times are synthetic too, so generated data never depends on the clock.
+ *
+ * From the command line:
+ * {java GragasApp.model.SyntheticDataGenerator <directory> <users> <days> <entriesPerDay> [seed]},
+ * or {./gradlew :app:generateData -Pargs="data 10000 1825 5"}.
+ */
+public final class SyntheticDataGenerator {
+
+  /** Seed used when none is given. */
+  public static final long DEFAULT_SEED = 20250811L;
+
+  /** Day on which every generated history ends, unless another is given. */
+  public static final LocalDate DEFAULT_LAST_DAY = LocalDate.of(2025, 8, 11);
+
+  /** Zipf exponent of food popularity; around 1 for real food logs. */
+  private static final double ZIPF_EXPONENT = 1.1;
+
+  /** Share of entries whose name gets a preparation or portion word. */
+  private static final double MODIFIER_RATE = 0.2;
+
+  /**
+   * A menu item: name, typical kcal per portion, and grams of protein, fat and carbohydrates
+   * per 100 kcal.
+   */
+  private static final class Food {
+    final String name;
+    final double kcal;
+    final double protein;
+    final double fat;
+    final double carbs;
+
+    Food(String name, double kcal, double protein, double fat, double carbs) {
+      this.name = name;
+      this.kcal = kcal;
+      this.protein = protein;
+      this.fat = fat;
+      this.carbs = carbs;
+    }
+  }
+
+  private static final Food[] MENU = {
+      new Food("coffee with milk", 40, 2.0, 2.5, 7.5), new Food("banana", 105, 1.2, 0.4, 25.7),
+      new Food("oatmeal", 160, 3.4, 1.9, 17.0), new Food("scrambled eggs", 180, 7.0, 7.3, 0.8),
+      new Food("greek yogurt", 130, 8.5, 3.0, 6.0), new Food("apple", 95, 0.5, 0.3, 26.5),
+      new Food("chicken salad", 350, 7.5, 5.8, 3.0), new Food("turkey sandwich", 420, 6.0, 3.1, 10.5),
+      new Food("spaghetti bolognese", 650, 4.6, 3.2, 11.5), new Food("rice and beans", 480, 3.8, 0.8, 19.0),
+      new Food("salmon fillet", 410, 9.7, 6.1, 0.0), new Food("orange juice", 110, 1.5, 0.4, 23.0),
+      new Food("caesar salad", 380, 3.5, 8.0, 3.5), new Food("beef burrito", 720, 4.2, 4.1, 11.0),
+      new Food("vegetable soup", 160, 3.0, 2.4, 14.0), new Food("toast with butter", 190, 2.6, 4.3, 12.5),
+      new Food("protein bar", 220, 9.0, 3.4, 10.5), new Food("pepperoni pizza", 300, 4.2, 4.0, 11.2),
+      new Food("cheeseburger", 540, 5.4, 5.3, 7.0), new Food("french fries", 365, 1.1, 4.7, 13.1),
+      new Food("green salad", 60, 5.0, 1.0, 18.0), new Food("chicken breast", 280, 19.0, 2.3, 0.0),
+      new Food("brown rice", 215, 2.3, 0.8, 20.9), new Food("almonds", 165, 3.7, 8.6, 3.7),
+      new Food("peanut butter sandwich", 380, 3.7, 4.9, 10.2), new Food("chocolate chip cookie", 160, 1.2, 4.7, 13.3),
+      new Food("latte", 190, 5.1, 3.6, 9.5), new Food("blueberry muffin", 420, 1.4, 4.5, 13.8),
+      new Food("sushi roll", 300, 3.0, 1.5, 17.0), new Food("pad thai", 630, 4.0, 3.8, 13.0),
+      new Food("lentil curry", 430, 4.4, 2.6, 13.1), new Food("tuna salad", 330, 9.4, 5.8, 1.5),
+      new Food("cottage cheese", 180, 13.0, 2.6, 3.9), new Food("strawberries", 50, 2.0, 0.9, 24.0),
+      new Food("bagel with cream cheese", 430, 3.3, 3.1, 13.7), new Food("mac and cheese", 510, 3.9, 4.7, 11.2),
+      new Food("grilled cheese sandwich", 440, 3.9, 5.6, 8.8), new Food("chicken noodle soup", 180, 6.0, 2.8, 10.5),
+      new Food("smoothie", 250, 2.4, 0.8, 20.8), new Food("ice cream", 270, 1.7, 5.4, 11.7),
+      new Food("hummus and pita", 330, 3.3, 4.2, 11.5), new Food("steak", 610, 8.4, 7.1, 0.0),
+      new Food("baked potato", 280, 2.7, 0.1, 22.5), new Food("granola", 300, 2.4, 3.9, 12.6),
+      new Food("fried rice", 520, 2.3, 3.6, 13.8), new Food("ramen", 470, 2.1, 3.8, 13.6),
+      new Food("tacos", 500, 4.8, 5.1, 8.0), new Food("pancakes with syrup", 520, 1.7, 2.9, 16.7),
+      new Food("cereal with milk", 260, 3.4, 1.5, 17.3), new Food("dark chocolate", 170, 1.3, 7.1, 7.7),
+  };
+
+  private static final String[] MODIFIERS = {
+      "large", "small", "homemade", "grilled", "leftover", "double", "spicy", "vegan",
+      "low fat", "extra", "half", "restaurant"
+  };
+
+  private static final String[] FIRST_NAMES = {
+      "Avery", "Blake", "Casey", "Dakota", "Emery", "Finley", "Harper", "Jordan", "Kai", "Logan",
+      "Morgan", "Noa", "Parker", "Quinn", "Riley", "Rowan", "Sage", "Skyler", "Taylor", "Wren"
+  };
+
+  private final long seed;
+  private final int days;
+  private final int entriesPerDay;
+  private final LocalDate lastDay;
+  private final double[] zipfCumulative;
+
+  /**
+   * Creates a generator for histories of a given shape, ending on {#DEFAULT_LAST_DAY}.
+   *
+   * @param seed          the seed every value is derived from
+   * @param days          consecutive logged days per user
+   * @param entriesPerDay entries in each day's log
+   */
+  public SyntheticDataGenerator(long seed, int days, int entriesPerDay) {
+    this(seed, days, entriesPerDay, DEFAULT_LAST_DAY);
+  }
+
+  /**
+   * Creates a generator for histories of a given shape.
+   *
+   * @param seed          the seed every value is derived from
+   * @param days          consecutive logged days per user
+   * @param entriesPerDay entries in each day's log
+   * @param lastDay       the last logged day of every user
+   * @throws IllegalArgumentException if {days} or {entriesPerDay} is negative
+   */
+  public SyntheticDataGenerator(long seed, int days, int entriesPerDay, LocalDate lastDay) {
+    if (days < 0 || entriesPerDay < 0) {
+      throw new IllegalArgumentException("Days and entries per day cannot be negative");
+    }
+    this.seed = seed;
+    this.days = days;
+    this.entriesPerDay = entriesPerDay;
+    this.lastDay = lastDay;
+    this.zipfCumulative = new double[MENU.length];
+    double sum = 0;
+    for (int rank = 0; rank < MENU.length; rank++) {
+      sum += 1.0 / Math.pow(rank + 1, ZIPF_EXPONENT);
+      zipfCumulative[rank] = sum;
+    }
+    for (int rank = 0; rank < MENU.length; rank++) {
+      zipfCumulative[rank] /= sum;
+    }
+  }
+
+  /**
+   * Returns the name of the user with a given index, e.g. {"Harper00042"}.
+   *
+   * @param index the user's index, from 0
+   * @return the user name; unique per index
+   */
+  public static String userName(int index) {
+    return String.format("%s%05d", FIRST_NAMES[index % FIRST_NAMES.length], index);
+  }
+
+  /**
+   * Generates one user with a full history. The result depends only on the seed, the
+   * generator's shape, and {index}.
+   *
+   * @param index the user's index, from 0
+   * @return the profile, with {days} logs of {entriesPerDay} entries
+   */
+  public UserProfile generateUser(int index) {
+    Random random = new Random(seed * 1_000_003L + index);
+    Sex sex = random.nextBoolean() ? Sex.MALE : Sex.FEMALE;
+    int heightCm = (int) Math.round((sex == Sex.MALE ? 177 : 164) + random.nextGaussian() * 7);
+    double weightKg = Math.round((sex == Sex.MALE ? 84 : 70) + random.nextGaussian() * 12);
+    double targetKg = Math.round(weightKg * (0.85 + random.nextDouble() * 0.15));
+    ActivityLevel activity = ActivityLevel.values()[random.nextInt(ActivityLevel.values().length)];
+    UserProfile user = new UserProfile(userName(index), 18 + random.nextInt(58), heightCm,
+        activity, sex, weightKg, targetKg);
+
+    // Each user ranks the menu differently: their favourites are the head of their Zipf curve
+    int[] taste = new int[MENU.length];
+    for (int i = 0; i < taste.length; i++) taste[i] = i;
+    for (int i = taste.length - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int t = taste[i];
+      taste[i] = taste[j];
+      taste[j] = t;
+    }
+
+    long nextId = ((long) index + 1) << 32; // unique across users without coordination
+    for (int d = days - 1; d >= 0; d--) {
+      LocalDate date = lastDay.minusDays(d);
+      long morning = date.atTime(7, 0).toInstant(ZoneOffset.UTC).toEpochMilli();
+      DailyLog log = new DailyLog(date);
+      for (int e = 0; e < entriesPerDay; e++) {
+        long createdAt = morning + (long) e * 14 * 60 * 60 * 1000 / Math.max(entriesPerDay, 1);
+        log.addEntry(entry(random, MENU[taste[zipfRank(random)]], nextId++, createdAt));
+      }
+      user.addLog(log);
+    }
+    return user;
+  }
+
+  /**
+   * Writes users {0} to {users - 1} to {directory}, one CSV file each, and keeps none of them
+   * in memory afterwards.
+   *
+   * @param directory the directory to write into; created if missing
+   * @param users     the number of users
+   * @throws IOException if a file cannot be written
+   */
+  public void writeUsers(Path directory, int users) throws IOException {
+    Files.createDirectories(directory);
+    for (int i = 0; i < users; i++) {
+      // A handler per user, so the registry does not keep every generated profile reachable
+      new CSVHandler(directory).saveUserProfileToCsv(generateUser(i));
+    }
+  }
+
+  /**
+   * Returns a canned nutrition response shaped like the API's, for decoding tests and
+   * benchmarks. Item {i} is named {"food i"}; every nutrient field is filled, and the
+   * premium-only fields carry the text the free tier sends instead of a number.
+   *
+   * @param items the number of items in the response
+   * @return the JSON body
+   */
+  public static String nutritionResponse(int items) {
+    StringBuilder json = new StringBuilder("[");
+    for (int i = 0; i < items; i++) {
+      if (i > 0) json.append(", ");
+      json.append("{\"name\": \"food ").append(i).append("\", \"calories\": ").append(100 + i * 7.5)
+          .append(", \"serving_size_g\": 100.0");
+      for (Nutrient n : Nutrient.values()) {
+        json.append(", \"").append(n.getApiField()).append("\": ").append(1.5 + i);
+      }
+      json.append(", \"potassium_mg\": \"Only available for premium subscribers.\"}");
+    }
+    return json.append(']').toString();
+  }
+
+  private int zipfRank(Random random) {
+    double u = random.nextDouble();
+    int lo = 0;
+    int hi = zipfCumulative.length - 1;
+    while (lo < hi) {
+      int mid = (lo + hi) >>> 1;
+      if (zipfCumulative[mid] < u) lo = mid + 1;
+      else hi = mid;
+    }
+    return lo;
+  }
+
+  private static FoodEntry entry(Random random, Food food, long id, long createdAt) {
+    String name = food.name;
+    if (random.nextDouble() < MODIFIER_RATE) {
+      name = MODIFIERS[random.nextInt(MODIFIERS.length)] + " " + name;
+    }
+    double portion = Math.max(0.3, 1 + random.nextGaussian() * 0.15);
+    double kcal = food.kcal * portion;
+    double per100 = kcal / 100;
+    double[] nutrients = new double[Nutrient.COUNT];
+    nutrients[Nutrient.PROTEIN.ordinal()] = round2(food.protein * per100);
+    nutrients[Nutrient.FAT.ordinal()] = round2(food.fat * per100);
+    nutrients[Nutrient.CARBOHYDRATES.ordinal()] = round2(food.carbs * per100);
+    nutrients[Nutrient.SUGAR.ordinal()] = round2(food.carbs * per100 * 0.3);
+    nutrients[Nutrient.SODIUM.ordinal()] = round2(kcal * (0.5 + random.nextDouble() * 2));
+    return FoodEntry.restore(id, createdAt, name, FixedPoint.toHundredths(kcal), nutrients);
+  }
+
+  private static double round2(double value) {
+    return Math.round(value * 100) / 100.0;
+  }
+
+  /**
+   * Writes a synthetic dataset.
+   *
+   * @param args {<directory> <users> <days> <entriesPerDay> [seed]}
+   * @throws IOException if a file cannot be written
+   */
+  public static void main(String[] args) throws IOException {
+    if (args.length < 4 || args.length > 5) {
+      System.err.println("Usage: SyntheticDataGenerator <directory> <users> <days> <entriesPerDay> [seed]");
+      System.exit(2);
+    }
+    Path directory = Paths.get(args[0]);
+    int users = Integer.parseInt(args[1]);
+    int days = Integer.parseInt(args[2]);
+    int entriesPerDay = Integer.parseInt(args[3]);
+    long seed = args.length == 5 ? Long.parseLong(args[4]) : DEFAULT_SEED;
+
+    long start = System.nanoTime();
+    new SyntheticDataGenerator(seed, days, entriesPerDay).writeUsers(directory, users);
+    System.out.printf("Wrote %d users x %d days x %d entries to %s in %d ms%n",
+        users, days, entriesPerDay, directory.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+  }
+}
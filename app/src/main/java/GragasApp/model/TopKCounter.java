@@ -0,0 +1,106 @@
+package GragasApp.model;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate counts of the most frequent foods in a stream, using the Space-Saving algorithm.
+ *
+ * At most {capacity} names are tracked. A name that is not tracked when the counter is full
+ * replaces the name with the smallest count and inherits that count, remembered as its
+ * possible overcount. Any name logged more than {total / capacity} times is guaranteed to be
+ * tracked, so memory stays fixed however long the history grows.
+ *
+ * The capacity is small, so the smallest count is found by a linear scan. Not thread-safe;
+ * {FrequentFoods} guards each instance.
+ */
+final class TopKCounter {
+
+  /**
+   * One tracked name, with the values it was last logged with.
+   */
+  static final class Counter {
+    String name;
+    long count;
+    long overcount;
+    long calorieHundredths;
+    double[] nutrients;
+  }
+
+  private final int capacity;
+  private final Map<String, Counter> counters;
+
+  /**
+   * @param capacity the maximum number of names tracked
+   */
+  TopKCounter(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("Capacity must be positive");
+    this.capacity = capacity;
+    this.counters = new HashMap<>(capacity * 2);
+  }
+
+  /**
+   * Counts one occurrence of a food.
+   *
+   * @param key               the name, lowercased
+   * @param name              the name as logged
+   * @param calorieHundredths the calories it was logged with
+   * @param nutrients         the nutrient amounts it was logged with; not copied
+   */
+  void add(String key, String name, long calorieHundredths, double[] nutrients) {
+    Counter counter = counters.get(key);
+    if (counter == null) {
+      if (counters.size() < capacity) {
+        counter = new Counter();
+      } else {
+        // Evict the smallest count; the newcomer may have occurred that often unseen
+        Counter smallest = null;
+        String smallestKey = null;
+        for (Map.Entry<String, Counter> e : counters.entrySet()) {
+          if (smallest == null || e.getValue().count < smallest.count) {
+            smallest = e.getValue();
+            smallestKey = e.getKey();
+          }
+        }
+        counters.remove(smallestKey);
+        counter = smallest;
+        counter.overcount = counter.count;
+      }
+      counters.put(key, counter);
+    }
+    counter.count++;
+    counter.name = name;
+    counter.calorieHundredths = calorieHundredths;
+    counter.nutrients = nutrients;
+  }
+
+  /**
+   * Uncounts one occurrence of a food, if it is tracked.
+   *
+   * @param key the name, lowercased
+   */
+  void remove(String key) {
+    Counter counter = counters.get(key);
+    if (counter == null) return;
+    counter.count--;
+    if (counter.count <= 0) {
+      counters.remove(key);
+    } else if (counter.overcount > counter.count) {
+      counter.overcount = counter.count;
+    }
+  }
+
+  /**
+   * Returns the tracked names with the highest counts.
+   *
+   * @param k the maximum number of names
+   * @return up to {k} counters, highest count first
+   */
+  List<Counter> top(int k) {
+    List<Counter> sorted = new ArrayList<>(counters.values());
+    sorted.sort((a, b) -> a.count != b.count ? Long.compare(b.count, a.count) : a.name.compareTo(b.name));
+    return sorted.size() > k ? new ArrayList<>(sorted.subList(0, k)) : sorted;
+  }
+}
@@ -1,7 +1,16 @@
 package GragasApp.model;
 
+import java.beans.PropertyChangeListener;
+import java.beans.PropertyChangeSupport;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListMap;
 /**
  * Domain model representing a user's profile and daily logs.
  *
@@ -10,9 +19,58 @@ import java.util.List;
  * are handled by {Units}. This object is typically used as input to
  * calorie calculators such as {MifflinStJeorCalculator}. Also used by CSV handler for persistence
  *
+ * A profile may be shared between the EDT and background threads. Scalar fields are guarded
+ * by the profile's own monitor; hold it to read several of them consistently. Daily logs are
+ * kept in a concurrent map ordered by date, so they can be looked up, added, and iterated
+ * from any thread.
+ *
+ * Edits to the scalar fields bump a version counter so persistence can tell whether the
+ * profile row changed since it was last written ({#isDirty()}); each {DailyLog} tracks its
+ * own entries the same way.
+ *
+ * Changes are also published as {PropertyChangeEvent}s, named by the constants below, so
+ * views can update only what changed. Events are fired on the thread that made the change,
+ * after the monitor is released.
+ *
+ * To bound memory, {CSVHandler} may evict the logs of a profile that has not been used for a
+ * while, once they are saved ({CacheBudget}). The profile fields stay in memory; the first
+ * access to the logs afterwards reads them back from storage on the calling thread, so
+ * callers see the same days as before. Every log accessor counts as a use. Because such an
+ * access may read a file, UI code should bring an evicted profile back on a worker thread
+ * (e.g. by pinning it with {CSVHandler#pin(UserProfile)}); a failed read surfaces as an
+ * {UncheckedIOException} from the accessor.
+ *
  */
 public class UserProfile {
 
+  /** Property fired when the name changes. */
+  public static final String NAME = "name";
+  /** Property fired when the age changes. */
+  public static final String AGE = "age";
+  /** Property fired when the height changes; values are in centimeters. */
+  public static final String HEIGHT_CM = "heightCm";
+  /** Property fired when the activity level changes. */
+  public static final String ACTIVITY_LEVEL = "activityLevel";
+  /** Property fired when the sex changes. */
+  public static final String SEX = "sex";
+  /** Property fired when the weight changes; values are in kilograms. */
+  public static final String WEIGHT_KG = "weightKg";
+  /** Property fired when the target weight changes; values are in kilograms. */
+  public static final String TARGET_WEIGHT_KG = "targetWeightKg";
+  /** Property fired when a log for a new date is added; the new value is the {DailyLog}. */
+  public static final String LOG_ADDED = "logAdded";
+  /** Property fired after the logs were evicted from memory; the old value is the list of evicted {DailyLog}s. */
+  public static final String LOGS_EVICTED = "logsEvicted";
+  /** Property fired after evicted logs were read back; the new value is the list of reloaded {DailyLog}s. */
+  public static final String LOGS_RELOADED = "logsReloaded";
+
+  /**
+   * Reads the logs of a profile back from storage after they were evicted.
+   */
+  interface LogReloader {
+    List<DailyLog> reload(UserProfile user) throws IOException;
+  }
+
   private String name;
   private int age;                 // years
   private int heightCm;            // canonical: centimeters
@@ -20,7 +78,15 @@ public class UserProfile {
   private Sex sex;
   private double weightKg;         // canonical: kilograms
   private double targetWeightKg;   // canonical: kilograms
-  private List<DailyLog> logs = new ArrayList<>();
+  private final NavigableMap<LocalDate, DailyLog> logs = new ConcurrentSkipListMap<>();
+  private long version;            // bumped by every setter and by setLogs
+  private long savedVersion;       // version last written to storage
+  private final PropertyChangeSupport changes = new PropertyChangeSupport(this);
+
+  // Guards eviction and reloading of the logs, and the accessors that add logs
+  private final Object logsLock = new Object();
+  private volatile LogReloader reloader;   // set while the logs are evicted
+  private volatile long lastAccessNanos = System.nanoTime();
 
   /**
    * Creates an empty {UserProfile}. All fields are left at their defaults and should be set
@@ -70,96 +136,382 @@ public class UserProfile {
   }
 
   // Getters and setters (metric canonical)
-  public String getName() {
+  public synchronized String getName() {
     return name;
   }
 
   public void setName(String name) {
-    this.name = name;
+    String old;
+    synchronized (this) {
+      old = this.name;
+      this.name = name;
+      version++;
+    }
+    changes.firePropertyChange(NAME, old, name);
   }
 
-  public int getAge() {
+  public synchronized int getAge() {
     return age;
   }
 
   public void setAge(int age) {
-    this.age = age;
+    int old;
+    synchronized (this) {
+      old = this.age;
+      this.age = age;
+      version++;
+    }
+    changes.firePropertyChange(AGE, old, age);
   }
 
-  public int getHeightCm() {
+  public synchronized int getHeightCm() {
     return heightCm;
   }
 
   public void setHeightCm(int heightCm) {
-    this.heightCm = heightCm;
+    int old;
+    synchronized (this) {
+      old = this.heightCm;
+      this.heightCm = heightCm;
+      version++;
+    }
+    changes.firePropertyChange(HEIGHT_CM, old, heightCm);
   }
 
-  public ActivityLevel getActivityLevel() {
+  public synchronized ActivityLevel getActivityLevel() {
     return activityLevel;
   }
 
   public void setActivityLevel(ActivityLevel activityLevel) {
-    this.activityLevel = activityLevel;
+    ActivityLevel old;
+    synchronized (this) {
+      old = this.activityLevel;
+      this.activityLevel = activityLevel;
+      version++;
+    }
+    changes.firePropertyChange(ACTIVITY_LEVEL, old, activityLevel);
   }
 
-  public Sex getSex() {
+  public synchronized Sex getSex() {
     return sex;
   }
 
   public void setSex(Sex sex) {
-    this.sex = sex;
+    Sex old;
+    synchronized (this) {
+      old = this.sex;
+      this.sex = sex;
+      version++;
+    }
+    changes.firePropertyChange(SEX, old, sex);
   }
 
-  public double getWeightKg() {
+  public synchronized double getWeightKg() {
     return weightKg;
   }
 
   public void setWeightKg(double weightKg) {
-    this.weightKg = weightKg;
+    double old;
+    synchronized (this) {
+      old = this.weightKg;
+      this.weightKg = weightKg;
+      version++;
+    }
+    changes.firePropertyChange(WEIGHT_KG, old, weightKg);
   }
 
-  public double getTargetWeightKg() {
+  public synchronized double getTargetWeightKg() {
     return targetWeightKg;
   }
 
   public void setTargetWeightKg(double targetWeightKg) {
-    this.targetWeightKg = targetWeightKg;
+    double old;
+    synchronized (this) {
+      old = this.targetWeightKg;
+      this.targetWeightKg = targetWeightKg;
+      version++;
+    }
+    changes.firePropertyChange(TARGET_WEIGHT_KG, old, targetWeightKg);
   }
 
+  /**
+   * Returns the daily logs in date order as of this call. The list is a read-only copy, not
+   * the profile's own storage: the logs live in a concurrent map keyed by date, so that other
+   * threads can read them, and so that adding one is seen by listeners. Use
+   * {#addLog(DailyLog)} or {#getOrCreateLog(LocalDate)} to add logs, and
+   * {#setLogs(List)} to replace them.
+   *
+   * @return read-only list of logs, oldest first
+   * @throws UnsupportedOperationException from the list if it is modified
+   */
   public List<DailyLog> getLogs() {
-    return logs;
+    touchLogs();
+    List<DailyLog> copy = new ArrayList<>(logs.values());
+    if (reloader != null) {
+      // Evicted while copying; copy again once reloaded, with eviction held off
+      synchronized (logsLock) {
+        touchLogs();
+        copy = new ArrayList<>(logs.values());
+      }
+    }
+    return Collections.unmodifiableList(copy);
+  }
+
+  /**
+   * Returns the dates that have a log, as a live, read-only, ascending view. The set is kept
+   * sorted as logs are added, so callers never need to copy or sort it. It is empty while the
+   * logs are evicted; any log accessor, including this one, reads them back.
+   *
+   * @return read-only view of the log dates
+   */
+  public NavigableSet<LocalDate> getLogDates() {
+    touchLogs();
+    return Collections.unmodifiableNavigableSet(logs.navigableKeySet());
   }
 
+  /**
+   * Replaces all daily logs with the given ones. Evicted logs are not read back first.
+   *
+   * @param logs the new logs; at most one per date
+   * @throws IllegalArgumentException if two logs share a date
+   */
   public void setLogs(List<DailyLog> logs) {
-    this.logs = logs;
+    synchronized (logsLock) {
+      lastAccessNanos = System.nanoTime();
+      reloader = null;
+      this.logs.clear();
+    }
+    for (DailyLog log : logs) {
+      addLog(log);
+    }
+    synchronized (this) {
+      version++;
+    }
   }
 
+  /**
+   * Adds a daily log. A profile has at most one log per date, and the log of a date is never
+   * replaced: listeners, dirty tracking and saving hold on to it. To change a day, edit the
+   * entries of its existing log, which {#getOrCreateLog(LocalDate)} returns; to replace every
+   * day, use {#setLogs(List)}.
+   *
+   * @param log the log to add
+   * @throws IllegalArgumentException if a log for the same date already exists
+   */
   public void addLog(DailyLog log) {
-    this.logs.add(log);
+    synchronized (logsLock) {
+      touchLogs();
+      if (logs.putIfAbsent(log.getDate(), log) != null) {
+        throw new IllegalArgumentException("A log for " + log.getDate() + " already exists.");
+      }
+    }
+    changes.firePropertyChange(LOG_ADDED, null, log);
+  }
+
+  /**
+   * Returns the log for a date, or {null} if there is none.
+   *
+   * @param date the day to look up
+   * @return the log for that day, or {null}
+   */
+  public DailyLog getLog(LocalDate date) {
+    touchLogs();
+    DailyLog log = logs.get(date);
+    if (reloader != null) {
+      // Evicted while reading; read again once reloaded, with eviction held off
+      synchronized (logsLock) {
+        touchLogs();
+        log = logs.get(date);
+      }
+    }
+    return log;
+  }
+
+  /**
+   * Returns the log for a date, atomically creating and adding an empty one if needed.
+   *
+   * @param date the day to look up
+   * @return the existing or newly created log
+   */
+  public DailyLog getOrCreateLog(LocalDate date) {
+    DailyLog created;
+    synchronized (logsLock) {
+      touchLogs();
+      DailyLog existing = logs.get(date);
+      if (existing != null) return existing;
+      created = new DailyLog(date);
+      logs.put(date, created);
+    }
+    changes.firePropertyChange(LOG_ADDED, null, created);
+    return created;
+  }
+
+  /**
+   * Returns whether the logs are in memory, i.e. not evicted.
+   *
+   * @return {false} while the logs are evicted
+   */
+  public boolean areLogsLoaded() {
+    return reloader == null;
+  }
+
+  /**
+   * Returns when the logs were last accessed, on the {System#nanoTime()} clock.
+   */
+  long getLastAccessNanos() {
+    return lastAccessNanos;
+  }
+
+  /**
+   * Returns the logs in memory without counting as a use or reading evicted logs back.
+   *
+   * @return the resident logs, oldest first; empty while evicted
+   */
+  List<DailyLog> residentLogs() {
+    return new ArrayList<>(logs.values());
+  }
+
+  /**
+   * Returns every log, reading evicted logs back, without counting as a use. For writing the
+   * whole profile to storage.
+   *
+   * @return the logs, oldest first
+   */
+  List<DailyLog> loadedLogs() {
+    if (reloader != null) reloadLogs();
+    return new ArrayList<>(logs.values());
+  }
+
+  /**
+   * Drops the logs from memory, unless one has unsaved changes or the profile was used since
+   * {notUsedSince}. Each log is retired ({DailyLog#retireIfClean()}) so that an edit through a
+   * reference kept elsewhere fails instead of being lost.
+   *
+   * @param notUsedSince the last access time the caller saw when choosing this profile
+   * @param reloader     reads the logs back on next access
+   * @return {true} if the logs were evicted
+   */
+  boolean evictLogs(long notUsedSince, LogReloader reloader) {
+    List<DailyLog> evicted;
+    synchronized (logsLock) {
+      if (this.reloader != null || lastAccessNanos != notUsedSince) return false;
+      evicted = new ArrayList<>(logs.values());
+      int retired = 0;
+      while (retired < evicted.size() && evicted.get(retired).retireIfClean()) {
+        retired++;
+      }
+      if (retired < evicted.size()) {
+        for (int i = 0; i < retired; i++) {
+          evicted.get(i).unretire();
+        }
+        return false;
+      }
+      // Set before clearing, so a reader that saw the map emptied also sees the reloader
+      this.reloader = reloader;
+      logs.clear();
+    }
+    changes.firePropertyChange(LOGS_EVICTED, evicted, null);
+    return true;
+  }
+
+  /**
+   * Records a use of the logs, reading them back first if they were evicted.
+   */
+  private void touchLogs() {
+    lastAccessNanos = System.nanoTime();
+    if (reloader != null) reloadLogs();
+  }
+
+  private void reloadLogs() {
+    List<DailyLog> reloaded;
+    synchronized (logsLock) {
+      LogReloader r = reloader;
+      if (r == null) return;
+      try {
+        reloaded = r.reload(this);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Could not reload the logs of " + getName(), e);
+      }
+      for (DailyLog log : reloaded) {
+        logs.put(log.getDate(), log);
+      }
+      reloader = null;
+    }
+    changes.firePropertyChange(LOGS_RELOADED, null, reloaded);
+  }
+
+  /**
+   * Returns the current version of the profile fields. Pass it to {#markSaved(long)} once
+   * the fields read alongside it have been written.
+   *
+   * @return the current version
+   */
+  public synchronized long getVersion() {
+    return version;
+  }
+
+  /**
+   * Returns whether the profile fields or the set of logs changed since the last
+   * {#markSaved(long)}. Entries within a day are tracked by {DailyLog#isDirty()}.
+   *
+   * @return {true} if there are unsaved changes to the profile itself
+   */
+  public synchronized boolean isDirty() {
+    return version != savedVersion;
+  }
+
+  /**
+   * Records that the profile was written as of {savedAt}. Edits made after that version
+   * was read keep the profile dirty.
+   *
+   * @param savedAt the version returned by {#getVersion()} before writing
+   */
+  public synchronized void markSaved(long savedAt) {
+    if (savedAt > savedVersion) {
+      savedVersion = savedAt;
+    }
+  }
+
+  /**
+   * Registers a listener for changes to this profile.
+   *
+   * @param listener the listener to add
+   */
+  public void addPropertyChangeListener(PropertyChangeListener listener) {
+    changes.addPropertyChangeListener(listener);
+  }
+
+  /**
+   * Removes a listener added with {#addPropertyChangeListener(PropertyChangeListener)}.
+   *
+   * @param listener the listener to remove
+   */
+  public void removePropertyChangeListener(PropertyChangeListener listener) {
+    changes.removePropertyChangeListener(listener);
   }
 
   // Convenience accessors for imperial units
-  public double getWeightLbs() {
+  public synchronized double getWeightLbs() {
     return Units.kgToLbs(weightKg);
   }
 
   public void setWeightLbs(double weightLbs) {
-    this.weightKg = Units.lbsToKg(weightLbs);
+    setWeightKg(Units.lbsToKg(weightLbs));
   }
 
-  public double getTargetWeightLbs() {
+  public synchronized double getTargetWeightLbs() {
     return Units.kgToLbs(targetWeightKg);
   }
 
   public void setTargetWeightLbs(double targetWeightLbs) {
-    this.targetWeightKg = Units.lbsToKg(targetWeightLbs);
+    setTargetWeightKg(Units.lbsToKg(targetWeightLbs));
   }
 
-  public double getHeightInches() {
+  public synchronized double getHeightInches() {
     return Units.cmToInches(heightCm);
   }
 
   public void setHeightInches(double heightInches) {
-    this.heightCm = Units.inchesToCmInt(heightInches);
+    setHeightCm(Units.inchesToCmInt(heightInches));
   }
 }
\ No newline at end of file
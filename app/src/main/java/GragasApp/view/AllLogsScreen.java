@@ -0,0 +1,103 @@
+package GragasApp.view;
+
+import GragasApp.model.DailyLog;
+
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TreeSelectionListener;
+import java.awt.event.ActionListener;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.NavigableSet;
+
+/**
+ * The log history screen as the controller sees it.
+ * See {@link AllLogsView} for the Swing implementation.
+ */
+public interface AllLogsScreen {
+
+    /**
+     * Replaces the days that can be browsed.
+     * @param dates The days with a log.
+     */
+    void populateLogDates(NavigableSet<LocalDate> dates);
+
+    /**
+     * Adds one day that can be browsed.
+     * @param date The day.
+     */
+    void logDateAdded(LocalDate date);
+
+    /**
+     * Shows one day's entries.
+     * @param log The day's log, or null to show none.
+     */
+    void updateLogEntries(DailyLog log);
+
+    /**
+     * Gets the model of the entries table.
+     * @return The table model.
+     */
+    FoodLogTableModel getLogEntriesTableModel();
+
+    /**
+     * Gets the selected day.
+     * @return The day, or null if none or a month or year is selected.
+     */
+    LocalDate getSelectedDate();
+
+    /**
+     * Selects a day, which shows its entries through the date selection listener.
+     * @param date The day.
+     */
+    void selectDate(LocalDate date);
+
+    /**
+     * Selects a row of the entries table.
+     * @param row The row.
+     */
+    void selectEntryRow(int row);
+
+    /**
+     * Gets the selected row of the entries table.
+     * @return The row, or -1 if none is selected.
+     */
+    int getSelectedEntryRow();
+
+    /** @return The search text entered. */
+    String getSearchQuery();
+
+    /**
+     * Shows search results.
+     * @param results One line per result.
+     */
+    void showSearchResults(List<String> results);
+
+    /**
+     * Hides the search results.
+     */
+    void clearSearchResults();
+
+    /**
+     * Gets the selected search result.
+     * @return Its index, or -1 if none is selected.
+     */
+    int getSelectedSearchResult();
+
+    /** @param listener Listener for a change of the selected day. */
+    void addDateSelectionListener(TreeSelectionListener listener);
+
+    /** @param listener Listener for the "Search" command. */
+    void addSearchListener(ActionListener listener);
+
+    /** @param listener Listener for a change of the selected search result. */
+    void addSearchResultSelectionListener(ListSelectionListener listener);
+
+    /** @param listener Listener for the "Back to Dashboard" command. */
+    void addBackToDashboardListener(ActionListener listener);
+
+    /** @param listener Listener for the "Edit Entry" command. */
+    void addEditEntryListener(ActionListener listener);
+
+    /** @param listener Listener for the "Delete Entry" command. */
+    void addDeleteEntryListener(ActionListener listener);
+}
@@ -2,88 +2,130 @@ package GragasApp.view;
 
 import javax.swing.*;
 import javax.swing.event.ListSelectionListener;
-import javax.swing.table.DefaultTableModel;
+import javax.swing.event.TreeSelectionListener;
+import javax.swing.tree.DefaultTreeCellRenderer;
+import javax.swing.tree.TreePath;
+import javax.swing.tree.TreeSelectionModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
-import java.util.Comparator;
 import java.util.List;
+import java.util.NavigableSet;
 import GragasApp.model.DailyLog;
-import GragasApp.model.Loggable;
 
 /**
  * A view that displays all historical daily logs for a user.
- * This panel is composed of a list of selectable dates on the west and a table on the center
- * that shows the food entries for the selected date. It provides a way for users to review
- * their past caloric intake.
+ * This panel is composed of a tree of selectable dates on the west, grouped by year and month
+ * and expanded on demand, and a table on the center that shows the food entries for the
+ * selected date. A search box on the north finds past foods by name across all days.
+ * It provides a way for users to review their past caloric intake.
  */
-public class AllLogsView extends JPanel {
+public class AllLogsView extends JPanel implements AllLogsScreen {
 
-    private final JList<LocalDate> dateList;
-    private final DefaultListModel<LocalDate> dateListModel;
+    private final JTree dateTree;
+    private final LogDateTreeModel dateTreeModel;
     private final JTable logEntriesTable;
-    private final DefaultTableModel logEntriesTableModel;
+    private final FoodLogTableModel logEntriesTableModel;
     private final JButton backButton;
+    private final JButton editEntryButton;
+    private final JButton deleteEntryButton;
+    private final JTextField searchField;
+    private final JButton searchButton;
+    private final DefaultListModel<String> searchResultsModel;
+    private final JList<String> searchResultsList;
+    private final JScrollPane searchResultsScrollPane;
 
     /**
      * Constructs the AllLogsView panel and initializes all its UI components.
-     * It sets up the date list, the log entries table, and the navigation button.
+     * It sets up the date tree, the log entries table, and the navigation button.
      */
     public AllLogsView() {
         setLayout(new BorderLayout(10, 10));
         setBorder(BorderFactory.createTitledBorder("All Daily Logs"));
 
-        // --- West Panel (Date List) ---
-        dateListModel = new DefaultListModel<>();
-        dateList = new JList<>(dateListModel);
-        dateList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-        // Custom cell renderer to format the date nicely
-        dateList.setCellRenderer(new DefaultListCellRenderer() {
+        // --- North Panel (Food Search) ---
+        JPanel searchPanel = new JPanel(new BorderLayout(5, 5));
+        JPanel searchInputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        searchField = new JTextField(25);
+        searchButton = new JButton("Search");
+        searchInputPanel.add(new JLabel("Search foods:"));
+        searchInputPanel.add(searchField);
+        searchInputPanel.add(searchButton);
+        searchPanel.add(searchInputPanel, BorderLayout.NORTH);
+        searchResultsModel = new DefaultListModel<>();
+        searchResultsList = new JList<>(searchResultsModel);
+        searchResultsList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        searchResultsList.setVisibleRowCount(6);
+        searchResultsScrollPane = new JScrollPane(searchResultsList);
+        searchResultsScrollPane.setVisible(false); // shown once there is something to show
+        searchPanel.add(searchResultsScrollPane, BorderLayout.CENTER);
+        add(searchPanel, BorderLayout.NORTH);
+
+        // --- West Panel (Date Tree) ---
+        dateTreeModel = new LogDateTreeModel();
+        dateTree = new JTree(dateTreeModel);
+        dateTree.setRootVisible(false);
+        dateTree.setShowsRootHandles(true);
+        dateTree.getSelectionModel().setSelectionMode(TreeSelectionModel.SINGLE_TREE_SELECTION);
+        // Custom cell renderer to format the dates and months nicely
+        dateTree.setCellRenderer(new DefaultTreeCellRenderer() {
             @Override
-            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
-                Component renderer = super.getListCellRendererComponent(list, value, index, isSelected, cellHasFocus);
+            public Component getTreeCellRendererComponent(JTree tree, Object value, boolean selected, boolean expanded,
+                                                          boolean leaf, int row, boolean hasFocus) {
+                Component renderer = super.getTreeCellRendererComponent(tree, value, selected, expanded, leaf, row, hasFocus);
                 if (value instanceof LocalDate) {
                     setText(((LocalDate) value).format(DateTimeFormatter.ofPattern("EEEE, MMMM d, yyyy")));
+                } else if (value instanceof YearMonth) {
+                    setText(((YearMonth) value).format(DateTimeFormatter.ofPattern("MMMM yyyy")));
                 }
                 return renderer;
             }
         });
 
-        JScrollPane dateScrollPane = new JScrollPane(dateList);
+        JScrollPane dateScrollPane = new JScrollPane(dateTree);
         dateScrollPane.setPreferredSize(new Dimension(250, 0));
         add(dateScrollPane, BorderLayout.WEST);
 
         // --- Center Panel (Log Entries Table) ---
-        String[] columnNames = {"Food", "Calories"};
-        logEntriesTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        logEntriesTableModel = new FoodLogTableModel();
         logEntriesTable = new JTable(logEntriesTableModel);
+        logEntriesTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane tableScrollPane = new JScrollPane(logEntriesTable);
         add(tableScrollPane, BorderLayout.CENTER);
 
         // --- South Panel (Action Button) ---
         JPanel actionPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         backButton = new JButton("Back to Dashboard");
+        editEntryButton = new JButton("Edit Entry");
+        deleteEntryButton = new JButton("Delete Entry");
         actionPanel.add(backButton);
+        actionPanel.add(editEntryButton);
+        actionPanel.add(deleteEntryButton);
         add(actionPanel, BorderLayout.SOUTH);
     }
 
     /**
-     * Populates the list of dates from the user's collection of daily logs.
-     * The dates are sorted in reverse chronological order.
-     * @param logs The list of DailyLog objects from the user's profile.
+     * Shows the user's log dates, most recent first, grouped by year and month.
+     * The set is read directly rather than copied, and only the most recent month is
+     * expanded, so this costs no more than the rows that are actually shown.
+     * @param dates The user's log dates in ascending order, usually {@code UserProfile.getLogDates()}.
+     */
+    public void populateLogDates(NavigableSet<LocalDate> dates) {
+        dateTreeModel.setDates(dates);
+        TreePath latest = dateTreeModel.getLatestMonthPath();
+        if (latest != null) {
+            dateTree.expandPath(latest);
+        }
+    }
+
+    /**
+     * Adds a newly logged date to the tree without reloading it.
+     * @param date The date that now has a log.
      */
-    public void populateLogDates(List<DailyLog> logs) {
-        dateListModel.clear();
-        logs.stream()
-            .map(DailyLog::getDate)
-            .sorted(Comparator.reverseOrder()) // Show most recent dates first
-            .forEach(dateListModel::addElement);
+    public void logDateAdded(LocalDate date) {
+        dateTreeModel.dateAdded(date);
     }
 
     /**
@@ -92,28 +134,123 @@ public class AllLogsView extends JPanel {
      * @param log The DailyLog to display.
      */
     public void updateLogEntries(DailyLog log) {
-        logEntriesTableModel.setRowCount(0); // Clear previous entries
-        if (log != null) {
-            for (Loggable entry : log.getEntries()) {
-                logEntriesTableModel.addRow(new Object[]{entry.getName(), String.format("%.1f", entry.getCalories())});
-            }
-        }
+        logEntriesTableModel.setRows(log == null ? null : log.snapshot());
+    }
+
+    /**
+     * Gets the table model for the log entries table, which knows the entry shown in each row.
+     * @return The FoodLogTableModel for the log entries.
+     */
+    public FoodLogTableModel getLogEntriesTableModel() {
+        return logEntriesTableModel;
     }
 
     /**
-     * Gets the date currently selected in the date list.
-     * @return The selected LocalDate, or null if there is no selection.
+     * Gets the date currently selected in the date tree.
+     * @return The selected LocalDate, or null if no single day is selected.
      */
     public LocalDate getSelectedDate() {
-        return dateList.getSelectedValue();
+        TreePath path = dateTree.getSelectionPath();
+        if (path == null || !(path.getLastPathComponent() instanceof LocalDate)) return null;
+        return (LocalDate) path.getLastPathComponent();
+    }
+
+    /**
+     * Selects a day in the date tree, expanding its month and scrolling it into view.
+     * The date selection listeners are notified as if the user had clicked it.
+     * @param date The day to select.
+     */
+    public void selectDate(LocalDate date) {
+        TreePath path = dateTreeModel.getPathTo(date);
+        if (path == null) return;
+        dateTree.setSelectionPath(path);
+        dateTree.scrollPathToVisible(path);
+    }
+
+    /**
+     * Selects a row of the log entries table and scrolls it into view.
+     * @param row The row index.
+     */
+    public void selectEntryRow(int row) {
+        if (row < 0 || row >= logEntriesTable.getRowCount()) return;
+        logEntriesTable.setRowSelectionInterval(row, row);
+        logEntriesTable.scrollRectToVisible(logEntriesTable.getCellRect(row, 0, true));
+    }
+
+    /**
+     * Gets the text typed into the search box.
+     * @return The search query.
+     */
+    public String getSearchQuery() {
+        return searchField.getText();
+    }
+
+    /**
+     * Shows the results of a food search, replacing any previous results.
+     * @param results One line of text per result, in display order.
+     */
+    public void showSearchResults(List<String> results) {
+        searchResultsModel.clear();
+        if (results.isEmpty()) {
+            searchResultsModel.addElement("No matching foods.");
+            searchResultsList.setEnabled(false);
+        } else {
+            searchResultsModel.addAll(results);
+            searchResultsList.setEnabled(true);
+        }
+        searchResultsScrollPane.setVisible(true);
+        revalidate();
     }
 
     /**
-     * Adds an ActionListener to handle changes in the date list selection.
+     * Removes any search results and hides the results list.
+     */
+    public void clearSearchResults() {
+        searchResultsModel.clear();
+        searchResultsScrollPane.setVisible(false);
+        revalidate();
+    }
+
+    /**
+     * Gets the search result currently selected.
+     * @return The index of the selected result, or -1 if none is selected.
+     */
+    public int getSelectedSearchResult() {
+        return searchResultsList.isEnabled() ? searchResultsList.getSelectedIndex() : -1;
+    }
+
+    /**
+     * Gets the row currently selected in the log entries table.
+     * @return The selected row index, or -1 if no row is selected.
+     */
+    public int getSelectedEntryRow() {
+        return logEntriesTable.getSelectedRow();
+    }
+
+    /**
+     * Adds a listener to handle changes in the date tree selection.
+     * @param listener The TreeSelectionListener to be notified of selection changes.
+     */
+    public void addDateSelectionListener(TreeSelectionListener listener) {
+        dateTree.addTreeSelectionListener(listener);
+    }
+
+    /**
+     * Adds an ActionListener that is notified when a search is requested, either with the
+     * "Search" button or by pressing Enter in the search box.
+     * @param listener The ActionListener to be notified of searches.
+     */
+    public void addSearchListener(ActionListener listener) {
+        searchField.addActionListener(listener);
+        searchButton.addActionListener(listener);
+    }
+
+    /**
+     * Adds a listener to handle changes in the selected search result.
      * @param listener The ListSelectionListener to be notified of selection changes.
      */
-    public void addDateSelectionListener(ListSelectionListener listener) {
-        dateList.addListSelectionListener(listener);
+    public void addSearchResultSelectionListener(ListSelectionListener listener) {
+        searchResultsList.addListSelectionListener(listener);
     }
 
     /**
@@ -123,4 +260,20 @@ public class AllLogsView extends JPanel {
     public void addBackToDashboardListener(ActionListener listener) {
         backButton.addActionListener(listener);
     }
+
+    /**
+     * Adds an ActionListener to the "Edit Entry" button.
+     * @param listener The ActionListener to be notified of button clicks.
+     */
+    public void addEditEntryListener(ActionListener listener) {
+        editEntryButton.addActionListener(listener);
+    }
+
+    /**
+     * Adds an ActionListener to the "Delete Entry" button.
+     * @param listener The ActionListener to be notified of button clicks.
+     */
+    public void addDeleteEntryListener(ActionListener listener) {
+        deleteEntryButton.addActionListener(listener);
+    }
 }
@@ -0,0 +1,101 @@
+package GragasApp.view;
+
+import java.awt.event.ActionListener;
+
+/**
+ * The application window as the controller sees it: the three screens, navigation between
+ * them, and the dialogs the controller needs.
+ *
+ * {@link MainView} is the Swing window. Headless implementations, such as the one used by the
+ * load-test driver, let the controller's workflows run without a display. Every method is
+ * called on the Event Dispatch Thread.
+ */
+public interface AppView {
+
+    /**
+     * Gets the profile selection and creation screen.
+     * @return The screen.
+     */
+    UserSelectionScreen getUserSelectionView();
+
+    /**
+     * Gets the dashboard screen.
+     * @return The screen.
+     */
+    DashboardScreen getDashboardView();
+
+    /**
+     * Gets the log history screen.
+     * @return The screen.
+     */
+    AllLogsScreen getAllLogsView();
+
+    /**
+     * Switches to the user selection screen.
+     */
+    void showUserSelection();
+
+    /**
+     * Switches to the dashboard screen.
+     */
+    void showDashboard();
+
+    /**
+     * Switches to the log history screen.
+     */
+    void showAllLogs();
+
+    /**
+     * Reports an error to the user.
+     * @param message The error message.
+     */
+    void showError(String message);
+
+    /**
+     * Tells the user something.
+     * @param message The message.
+     */
+    void showMessage(String message);
+
+    /**
+     * Asks the user for one value.
+     * @param message The question.
+     * @param initialValue The value offered at first.
+     * @return The value entered, or null if the user cancelled.
+     */
+    String promptForInput(String message, String initialValue);
+
+    /**
+     * Asks the user to confirm an action.
+     * @param message The question.
+     * @param title The dialog title.
+     * @return true if the user confirmed.
+     */
+    boolean confirm(String message, String title);
+
+    /**
+     * Asks the user for a new name and calorie value of a log entry.
+     * @param name The current name.
+     * @param calories The current calories, formatted.
+     * @return The new name and calories, in that order, or null if the user cancelled.
+     */
+    String[] promptForEntryEdit(String name, String calories);
+
+    /**
+     * Adds a listener to the "Responsiveness Report" command.
+     * @param listener The ActionListener to add.
+     */
+    void addDiagnosticsReportListener(ActionListener listener);
+
+    /**
+     * Adds a listener to the "Memory Footprint" command.
+     * @param listener The ActionListener to add.
+     */
+    void addMemoryReportListener(ActionListener listener);
+
+    /**
+     * Shows a diagnostic report.
+     * @param report The report text.
+     */
+    void showDiagnosticReport(String report);
+}
@@ -0,0 +1,116 @@
+package GragasApp.view;
+
+import javax.swing.event.DocumentListener;
+import java.awt.event.ActionListener;
+import java.util.List;
+
+/**
+ * The dashboard screen as the controller sees it.
+ * See {@link DashboardView} for the Swing implementation.
+ */
+public interface DashboardScreen {
+
+    /**
+     * Shows or hides the screen's contents.
+     * @param visible Whether to show them.
+     */
+    void setVisible(boolean visible);
+
+    /**
+     * Shows the profile details.
+     * @param name The name.
+     * @param age The age.
+     * @param weight The weight, formatted.
+     * @param height The height, formatted.
+     * @param targetWeight The target weight, formatted.
+     */
+    void setProfileInfo(String name, String age, String weight, String height, String targetWeight);
+
+    /**
+     * Shows today's calorie summary.
+     * @param tdee The daily energy expenditure.
+     * @param consumed The calories eaten today.
+     * @param remaining The calories left.
+     */
+    void setCalorieSummary(String tdee, String consumed, String remaining);
+
+    /**
+     * Gets the food description to add and clears the input.
+     * @return The description entered.
+     */
+    String getFoodInput();
+
+    /**
+     * Gets the food description being typed, leaving the input as it is.
+     * @return The text typed so far.
+     */
+    String getFoodInputText();
+
+    /**
+     * Offers suggestions for the food being typed.
+     * @param suggestions The suggestions, best first.
+     */
+    void showFoodSuggestions(List<String> suggestions);
+
+    /**
+     * Withdraws the suggestions.
+     */
+    void hideFoodSuggestions();
+
+    /**
+     * Gets the suggestion the user chose.
+     * @return Its index in the last list shown, or -1.
+     */
+    int getChosenSuggestion();
+
+    /**
+     * Shows the quick-add foods; each command's action command is the food's index.
+     * @param foods The foods' labels.
+     */
+    void setQuickAddFoods(List<String> foods);
+
+    /**
+     * Gets the model of today's food table.
+     * @return The table model.
+     */
+    FoodLogTableModel getFoodLogTableModel();
+
+    /**
+     * Gets the selected row of today's food table.
+     * @return The row, or -1 if none is selected.
+     */
+    int getSelectedFoodRow();
+
+    /** @param listener Listener for the "Add Food" command. */
+    void addAddFoodListener(ActionListener listener);
+
+    /** @param listener Listener for edits of the food input. */
+    void addFoodInputListener(DocumentListener listener);
+
+    /** @param listener Listener for a chosen suggestion. */
+    void addSuggestionChosenListener(ActionListener listener);
+
+    /** @param listener Listener for the quick-add commands. */
+    void addQuickAddListener(ActionListener listener);
+
+    /** @param listener Listener for the "Edit Entry" command. */
+    void addEditEntryListener(ActionListener listener);
+
+    /** @param listener Listener for the "Delete Entry" command. */
+    void addDeleteEntryListener(ActionListener listener);
+
+    /** @param listener Listener for the "Edit Weight" command. */
+    void addEditWeightListener(ActionListener listener);
+
+    /** @param listener Listener for the "Edit Target Weight" command. */
+    void addEditTargetWeightListener(ActionListener listener);
+
+    /** @param listener Listener for the "Save Changes" command. */
+    void addSaveChangesListener(ActionListener listener);
+
+    /** @param listener Listener for the "View All Logs" command. */
+    void addViewAllLogsListener(ActionListener listener);
+
+    /** @param listener Listener for the "Switch User" command. */
+    void addSwitchUserListener(ActionListener listener);
+}
@@ -2,17 +2,23 @@ package GragasApp.view;
 
 import javax.swing.*;
 // import javax.swing.border.TitledBorder;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.DocumentListener;
 
 /**
  * The main dashboard view, which serves as the primary interface for an authenticated user.
  * This panel displays the user's profile information, a summary of their daily calorie intake,
  * and a table of food items logged for the current day. It also provides controls for
- * editing user data, adding food, and navigating to other views.
+ * editing user data, adding food, and navigating to other views. While a food is typed,
+ * previously logged foods are offered in a popup below the input field.
  */
-public class DashboardView extends JPanel {
+public class DashboardView extends JPanel implements DashboardScreen {
 
     // Profile Info
     private final JLabel nameLabel = new JLabel();
@@ -33,8 +39,20 @@ public class DashboardView extends JPanel {
     // Food Log
     private final JTextField foodInput;
     private final JButton addFoodButton;
+    private final JButton editEntryButton;
+    private final JButton deleteEntryButton;
     private final JTable foodLogTable;
-    private final DefaultTableModel foodLogTableModel;
+    private final FoodLogTableModel foodLogTableModel;
+
+    // Food suggestions shown below the input field
+    private final JPopupMenu suggestionPopup;
+    private final DefaultListModel<String> suggestionModel;
+    private final JList<String> suggestionList;
+    private final List<ActionListener> suggestionListeners = new ArrayList<>();
+
+    // One-click buttons for the user's most frequent foods
+    private final JPanel quickAddPanel;
+    private final List<ActionListener> quickAddListeners = new ArrayList<>();
 
     // Actions
     private final JButton saveChangesButton;
@@ -120,24 +138,45 @@ public class DashboardView extends JPanel {
         JPanel logPanel = new JPanel(new BorderLayout(5, 5));
         logPanel.setBorder(BorderFactory.createTitledBorder("Today's Food Log"));
 
-        String[] columnNames = {"Food", "Calories"};
-        foodLogTableModel = new DefaultTableModel(columnNames, 0) {
-            @Override
-            public boolean isCellEditable(int row, int column) {
-                return false;
-            }
-        };
+        foodLogTableModel = new FoodLogTableModel();
         foodLogTable = new JTable(foodLogTableModel);
+        foodLogTable.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         JScrollPane scrollPane = new JScrollPane(foodLogTable);
         logPanel.add(scrollPane, BorderLayout.CENTER);
 
         JPanel inputPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         foodInput = new JTextField(25);
+        suggestionModel = new DefaultListModel<>();
+        suggestionList = new JList<>(suggestionModel);
+        suggestionList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        suggestionList.setFocusable(false); // typing continues in the input field
+        suggestionList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                int index = suggestionList.locationToIndex(e.getPoint());
+                if (index >= 0) {
+                    suggestionList.setSelectedIndex(index);
+                    chooseSuggestion();
+                }
+            }
+        });
+        suggestionPopup = new JPopupMenu();
+        suggestionPopup.setFocusable(false);
+        suggestionPopup.add(new JScrollPane(suggestionList));
+        bindSuggestionKeys();
         addFoodButton = new JButton("Add Food");
+        editEntryButton = new JButton("Edit Entry");
+        deleteEntryButton = new JButton("Delete Entry");
         inputPanel.add(new JLabel("Add Food:"));
         inputPanel.add(foodInput);
         inputPanel.add(addFoodButton);
-        logPanel.add(inputPanel, BorderLayout.SOUTH);
+        inputPanel.add(editEntryButton);
+        inputPanel.add(deleteEntryButton);
+        quickAddPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(quickAddPanel, BorderLayout.NORTH);
+        southPanel.add(inputPanel, BorderLayout.SOUTH);
+        logPanel.add(southPanel, BorderLayout.SOUTH);
 
         add(logPanel, BorderLayout.CENTER);
         
@@ -198,15 +237,136 @@ public class DashboardView extends JPanel {
         return input;
     }
 
+    /**
+     * Gets the text in the food input field without clearing it.
+     * @return The text typed so far.
+     */
+    public String getFoodInputText() {
+        return foodInput.getText();
+    }
+
+    /**
+     * Shows previously logged foods below the input field, or hides the popup if there are none.
+     * @param suggestions One line of text per suggestion, best first.
+     */
+    public void showFoodSuggestions(List<String> suggestions) {
+        if (suggestions.isEmpty() || !foodInput.isShowing()) {
+            hideFoodSuggestions();
+            return;
+        }
+        suggestionModel.clear();
+        suggestionModel.addAll(suggestions);
+        suggestionList.clearSelection();
+        suggestionList.setVisibleRowCount(suggestions.size());
+        suggestionPopup.setPopupSize(foodInput.getWidth(), suggestionPopup.getPreferredSize().height);
+        suggestionPopup.show(foodInput, 0, foodInput.getHeight());
+    }
+
+    /**
+     * Hides the food suggestions popup.
+     */
+    public void hideFoodSuggestions() {
+        suggestionPopup.setVisible(false);
+        suggestionModel.clear();
+    }
+
+    /**
+     * Gets the suggestion the user chose.
+     * @return The index of the chosen suggestion, or -1 if none is selected.
+     */
+    public int getChosenSuggestion() {
+        return suggestionList.getSelectedIndex();
+    }
+
+    /**
+     * Lets the arrow keys move through the suggestions while the input field keeps the focus.
+     * Enter chooses the selected suggestion, or adds the typed food if none is selected.
+     */
+    private void bindSuggestionKeys() {
+        InputMap keys = foodInput.getInputMap(JComponent.WHEN_FOCUSED);
+        ActionMap actions = foodInput.getActionMap();
+        keys.put(KeyStroke.getKeyStroke("DOWN"), "nextSuggestion");
+        keys.put(KeyStroke.getKeyStroke("UP"), "previousSuggestion");
+        keys.put(KeyStroke.getKeyStroke("ESCAPE"), "hideSuggestions");
+        actions.put("nextSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveSuggestionSelection(1);
+            }
+        });
+        actions.put("previousSuggestion", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                moveSuggestionSelection(-1);
+            }
+        });
+        actions.put("hideSuggestions", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                hideFoodSuggestions();
+            }
+        });
+        foodInput.addActionListener(e -> {
+            if (suggestionPopup.isVisible() && suggestionList.getSelectedIndex() >= 0) {
+                chooseSuggestion();
+            } else {
+                addFoodButton.doClick();
+            }
+        });
+    }
+
+    private void moveSuggestionSelection(int step) {
+        if (!suggestionPopup.isVisible() || suggestionModel.isEmpty()) return;
+        int index = Math.floorMod(suggestionList.getSelectedIndex() + step, suggestionModel.size());
+        suggestionList.setSelectedIndex(index);
+        suggestionList.ensureIndexIsVisible(index);
+    }
+
+    private void chooseSuggestion() {
+        ActionEvent event = new ActionEvent(this, ActionEvent.ACTION_PERFORMED, "chooseSuggestion");
+        for (ActionListener listener : suggestionListeners) {
+            listener.actionPerformed(event);
+        }
+    }
+
+    /**
+     * Replaces the quick-add buttons. Each button's action command is its index in the list.
+     * @param foods One button label per food, most frequent first; empty to show none.
+     */
+    public void setQuickAddFoods(List<String> foods) {
+        quickAddPanel.removeAll();
+        if (!foods.isEmpty()) {
+            quickAddPanel.add(new JLabel("Quick add:"));
+        }
+        for (int i = 0; i < foods.size(); i++) {
+            JButton button = new JButton(foods.get(i));
+            button.setActionCommand(String.valueOf(i));
+            for (ActionListener listener : quickAddListeners) {
+                button.addActionListener(listener);
+            }
+            quickAddPanel.add(button);
+        }
+        quickAddPanel.revalidate();
+        quickAddPanel.repaint();
+    }
+
     /**
      * Gets the table model for the daily food log.
-     * This allows the controller to directly manipulate the table's data.
-     * @return The DefaultTableModel for the food log.
+     * This allows the controller to set the log snapshot the table shows.
+     * @return The FoodLogTableModel for the food log.
      */
-    public DefaultTableModel getFoodLogTableModel() {
+    public FoodLogTableModel getFoodLogTableModel() {
         return foodLogTableModel;
     }
     
+    /**
+     * Gets the row currently selected in the food log table.
+     * @return The selected row index, or -1 if no row is selected.
+     */
+    public int getSelectedFoodRow() {
+        return foodLogTable.getSelectedRow();
+    }
+
     /**
      * Adds an ActionListener to the "Add Food" button.
      * @param listener The ActionListener to be notified of button clicks.
@@ -215,6 +375,53 @@ public class DashboardView extends JPanel {
         addFoodButton.addActionListener(listener);
     }
     
+    /**
+     * Adds a listener that is notified whenever the text in the food input field changes.
+     * @param listener The DocumentListener to be notified of edits.
+     */
+    public void addFoodInputListener(DocumentListener listener) {
+        foodInput.getDocument().addDocumentListener(listener);
+    }
+
+    /**
+     * Adds an ActionListener that is notified when a food suggestion is chosen, by clicking it
+     * or by pressing Enter while it is selected. {@link #getChosenSuggestion()} tells which one.
+     * @param listener The ActionListener to be notified of choices.
+     */
+    public void addSuggestionChosenListener(ActionListener listener) {
+        suggestionListeners.add(listener);
+    }
+
+    /**
+     * Adds an ActionListener to the quick-add buttons, current and future. The event's action
+     * command is the index of the food in the list last passed to {@link #setQuickAddFoods(List)}.
+     * @param listener The ActionListener to be notified of button clicks.
+     */
+    public void addQuickAddListener(ActionListener listener) {
+        quickAddListeners.add(listener);
+        for (Component c : quickAddPanel.getComponents()) {
+            if (c instanceof JButton) {
+                ((JButton) c).addActionListener(listener);
+            }
+        }
+    }
+
+    /**
+     * Adds an ActionListener to the "Edit Entry" button.
+     * @param listener The ActionListener to be notified of button clicks.
+     */
+    public void addEditEntryListener(ActionListener listener) {
+        editEntryButton.addActionListener(listener);
+    }
+
+    /**
+     * Adds an ActionListener to the "Delete Entry" button.
+     * @param listener The ActionListener to be notified of button clicks.
+     */
+    public void addDeleteEntryListener(ActionListener listener) {
+        deleteEntryButton.addActionListener(listener);
+    }
+
     /**
      * Adds an ActionListener to the "Edit Weight" button.
      * @param listener The ActionListener to be notified of button clicks.
@@ -0,0 +1,128 @@
+package GragasApp.view;
+
+import javax.swing.table.AbstractTableModel;
+import java.util.List;
+import GragasApp.model.DailyLog;
+import GragasApp.model.Loggable;
+
+/**
+ * A read-only table model over a {@link DailyLog.Snapshot}, used by the dashboard and history tables.
+ *
+ * The model keeps a reference to the snapshot rather than copying its rows, and formats a cell
+ * only when the table asks for it, so only visible rows are ever formatted. When a new snapshot
+ * is set, the model fires the smallest event it can prove correct: appended entries become a
+ * single rows-inserted event and unchanged rows are left alone. Any other change falls back to
+ * a data-changed event. Either way the refresh itself is constant time.
+ *
+ * Optional placeholder rows (e.g., foods whose calories are still being looked up) are shown
+ * after the entries. Like all Swing models, this one must only be used on the Event Dispatch Thread.
+ */
+public class FoodLogTableModel extends AbstractTableModel {
+
+    private static final String[] COLUMN_NAMES = {"Food", "Calories"};
+    private static final String PENDING_TEXT = "resolving...";
+
+    private DailyLog.Snapshot rows;
+    private List<String> pending = List.of();
+
+    /**
+     * Shows the entries of a snapshot, with no placeholder rows.
+     * @param next The snapshot to show, or null to clear the table.
+     */
+    public void setRows(DailyLog.Snapshot next) {
+        setRows(next, List.of());
+    }
+
+    /**
+     * Shows the entries of a snapshot followed by one placeholder row per pending description.
+     * @param next The snapshot to show, or null to show no entries.
+     * @param nextPending Descriptions to show as placeholder rows after the entries.
+     */
+    public void setRows(DailyLog.Snapshot next, List<String> nextPending) {
+        DailyLog.Snapshot old = rows;
+        int oldCount = getRowCount();
+        int stable;
+        if (old == next) {
+            stable = entryCount();
+        } else if (next != null && next.isAppendOf(old)) {
+            stable = old.size();
+        } else {
+            stable = -1;
+        }
+        rows = next;
+        pending = List.copyOf(nextPending);
+        if (stable < 0) {
+            fireTableDataChanged();
+            return;
+        }
+
+        // Rows before 'stable' are unchanged; the rest were replaced, added, or removed
+        int newCount = getRowCount();
+        int common = Math.min(oldCount, newCount);
+        if (common > stable) {
+            fireTableRowsUpdated(stable, common - 1);
+        }
+        if (newCount > common) {
+            fireTableRowsInserted(common, newCount - 1);
+        } else if (oldCount > common) {
+            fireTableRowsDeleted(common, oldCount - 1);
+        }
+    }
+
+    /**
+     * Gets the snapshot currently shown.
+     * @return The snapshot, or null if the table shows no log.
+     */
+    public DailyLog.Snapshot getRows() {
+        return rows;
+    }
+
+    /**
+     * Gets the entry shown in a row.
+     * @param row The row index, as returned by the table's selection.
+     * @return The entry, or null for a placeholder row or an index out of range.
+     */
+    public Loggable getEntryAt(int row) {
+        if (row < 0 || row >= entryCount()) return null;
+        return rows.get(row);
+    }
+
+    private int entryCount() {
+        return rows == null ? 0 : rows.size();
+    }
+
+    @Override
+    public int getRowCount() {
+        return entryCount() + pending.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMN_NAMES.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMN_NAMES[column];
+    }
+
+    @Override
+    public Class<?> getColumnClass(int column) {
+        return String.class;
+    }
+
+    @Override
+    public boolean isCellEditable(int row, int column) {
+        return false;
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        int entries = entryCount();
+        if (row >= entries) {
+            return column == 0 ? pending.get(row - entries) : PENDING_TEXT;
+        }
+        Loggable entry = rows.get(row);
+        return column == 0 ? entry.getName() : String.format("%.1f", entry.getCalories());
+    }
+}
@@ -0,0 +1,774 @@
+package GragasApp.view;
+
+import GragasApp.model.ActivityLevel;
+import GragasApp.model.DailyLog;
+import GragasApp.model.Sex;
+import GragasApp.model.UserProfile;
+
+import javax.swing.event.DocumentListener;
+import javax.swing.event.ListSelectionEvent;
+import javax.swing.event.ListSelectionListener;
+import javax.swing.event.TreeSelectionEvent;
+import javax.swing.event.TreeSelectionListener;
+import java.awt.event.ActionEvent;
+import java.awt.event.ActionListener;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * An {@link AppView} without any components, for driving the controller without a display.
+ *
+ * Each screen keeps what the controller shows in plain fields, and offers methods that stand
+ * for what a user would do: filling in fields, selecting rows and clicking buttons, which fire
+ * the registered listeners just as the Swing views do. Dialogs are answered from values set
+ * beforehand; errors and messages are recorded instead of shown.
+ *
+ * Only the table models are Swing objects, and they need no display. Like the Swing views,
+ * this class and its screens must only be used on the Event Dispatch Thread.
+ */
+public class HeadlessView implements AppView {
+
+    /**
+     * The screens that can be shown.
+     */
+    public enum Screen { USER_SELECTION, DASHBOARD, ALL_LOGS }
+
+    private final UserSelection userSelection = new UserSelection();
+    private final Dashboard dashboard = new Dashboard();
+    private final AllLogs allLogs = new AllLogs();
+    private final List<ActionListener> diagnosticsReportListeners = new ArrayList<>();
+    private final List<ActionListener> memoryReportListeners = new ArrayList<>();
+
+    private Screen screen = Screen.USER_SELECTION;
+    private final Deque<String> inputAnswers = new ArrayDeque<>();
+    private boolean confirmAnswer = true;
+    private String[] entryEditAnswer;
+    private Consumer<String> errorListener = message -> { };
+    private int errorCount;
+    private String lastError;
+    private String lastMessage;
+    private String lastDiagnosticReport;
+
+    @Override
+    public UserSelection getUserSelectionView() {
+        return userSelection;
+    }
+
+    @Override
+    public Dashboard getDashboardView() {
+        return dashboard;
+    }
+
+    @Override
+    public AllLogs getAllLogsView() {
+        return allLogs;
+    }
+
+    /**
+     * Gets the screen shown last.
+     * @return The screen.
+     */
+    public Screen getScreen() {
+        return screen;
+    }
+
+    @Override
+    public void showUserSelection() {
+        screen = Screen.USER_SELECTION;
+    }
+
+    @Override
+    public void showDashboard() {
+        screen = Screen.DASHBOARD;
+    }
+
+    @Override
+    public void showAllLogs() {
+        screen = Screen.ALL_LOGS;
+    }
+
+    @Override
+    public void showError(String message) {
+        errorCount++;
+        lastError = message;
+        errorListener.accept(message);
+    }
+
+    @Override
+    public void showMessage(String message) {
+        lastMessage = message;
+    }
+
+    /**
+     * Answers the next input prompts, in order. A prompt with no answer queued is cancelled.
+     * @param answers The values to enter.
+     */
+    public void answerInputs(String... answers) {
+        for (String answer : answers) {
+            inputAnswers.add(answer);
+        }
+    }
+
+    @Override
+    public String promptForInput(String message, String initialValue) {
+        return inputAnswers.poll();
+    }
+
+    /**
+     * Sets the answer to every confirmation; true until changed.
+     * @param answer Whether to confirm.
+     */
+    public void setConfirmAnswer(boolean answer) {
+        confirmAnswer = answer;
+    }
+
+    @Override
+    public boolean confirm(String message, String title) {
+        return confirmAnswer;
+    }
+
+    /**
+     * Answers the next entry edit dialog; it is cancelled if no answer is set.
+     * @param name The new name.
+     * @param calories The new calories.
+     */
+    public void answerEntryEdit(String name, String calories) {
+        entryEditAnswer = new String[] {name, calories};
+    }
+
+    @Override
+    public String[] promptForEntryEdit(String name, String calories) {
+        String[] answer = entryEditAnswer;
+        entryEditAnswer = null;
+        return answer;
+    }
+
+    /**
+     * Sets a callback told about every error, e.g. to stop waiting for a lookup that failed.
+     * @param listener The callback.
+     */
+    public void setErrorListener(Consumer<String> listener) {
+        errorListener = listener;
+    }
+
+    /** @return The number of errors shown so far. */
+    public int getErrorCount() {
+        return errorCount;
+    }
+
+    /** @return The last error shown, or null. */
+    public String getLastError() {
+        return lastError;
+    }
+
+    /** @return The last message shown, or null. */
+    public String getLastMessage() {
+        return lastMessage;
+    }
+
+    @Override
+    public void addDiagnosticsReportListener(ActionListener listener) {
+        diagnosticsReportListeners.add(listener);
+    }
+
+    @Override
+    public void addMemoryReportListener(ActionListener listener) {
+        memoryReportListeners.add(listener);
+    }
+
+    @Override
+    public void showDiagnosticReport(String report) {
+        lastDiagnosticReport = report;
+    }
+
+    /**
+     * Asks for the diagnostics report, as the menu item does.
+     * @return The report shown.
+     */
+    public String requestDiagnosticReport() {
+        fire(diagnosticsReportListeners, this, null);
+        return lastDiagnosticReport;
+    }
+
+    /**
+     * Asks for the memory footprint report, as the menu item does. The report is prepared in
+     * the background and shown later; see {@link #getLastDiagnosticReport()}.
+     */
+    public void requestMemoryReport() {
+        fire(memoryReportListeners, this, null);
+    }
+
+    /** @return The last diagnostic report shown, or null. */
+    public String getLastDiagnosticReport() {
+        return lastDiagnosticReport;
+    }
+
+    private static void fire(List<ActionListener> listeners, Object source, String command) {
+        ActionEvent event = new ActionEvent(source, ActionEvent.ACTION_PERFORMED, command);
+        for (ActionListener listener : listeners) {
+            listener.actionPerformed(event);
+        }
+    }
+
+    /**
+     * The headless profile selection and creation screen.
+     */
+    public static class UserSelection implements UserSelectionScreen {
+        private final Set<String> userNames = new LinkedHashSet<>();
+        private final List<ActionListener> loadProfileListeners = new ArrayList<>();
+        private final List<ActionListener> createProfileListeners = new ArrayList<>();
+        private String selectedUser;
+        private boolean loading;
+        private String newUserName = "";
+        private String age = "";
+        private String height = "";
+        private String weight = "";
+        private String targetWeight = "";
+        private Sex sex = Sex.values()[0];
+        private ActivityLevel activityLevel = ActivityLevel.values()[0];
+        private boolean imperial;
+
+        @Override
+        public void populateUserList(List<UserProfile> profiles) {
+            userNames.clear();
+            for (UserProfile profile : profiles) {
+                userNames.add(profile.getName());
+            }
+        }
+
+        @Override
+        public void addUserToList(UserProfile profile) {
+            userNames.add(profile.getName());
+        }
+
+        /** @return The names that can be selected, in the order added. */
+        public List<String> getUserNames() {
+            return new ArrayList<>(userNames);
+        }
+
+        @Override
+        public void showLoadingStarted() {
+            loading = true;
+        }
+
+        @Override
+        public void showLoadingProgress(int filesRead, int fileCount) {
+            loading = true;
+        }
+
+        @Override
+        public void hideLoadingProgress() {
+            loading = false;
+        }
+
+        /** @return Whether profiles are still loading. */
+        public boolean isLoading() {
+            return loading;
+        }
+
+        /**
+         * Selects a profile by name.
+         * @param name The name, or null to select none.
+         */
+        public void selectUser(String name) {
+            selectedUser = name;
+        }
+
+        @Override
+        public String getSelectedUser() {
+            return selectedUser;
+        }
+
+        /**
+         * Clicks "Load Profile".
+         */
+        public void clickLoadProfile() {
+            fire(loadProfileListeners, this, null);
+        }
+
+        /**
+         * Fills in the new profile fields, in metric units.
+         * @param name The name.
+         * @param age The age.
+         * @param heightCm The height.
+         * @param weightKg The weight.
+         * @param targetWeightKg The target weight.
+         * @param sex The sex.
+         * @param activityLevel The activity level.
+         */
+        public void fillNewProfile(String name, int age, int heightCm, double weightKg, double targetWeightKg,
+                                   Sex sex, ActivityLevel activityLevel) {
+            this.newUserName = name;
+            this.age = String.valueOf(age);
+            this.height = String.valueOf(heightCm);
+            this.weight = String.valueOf(weightKg);
+            this.targetWeight = String.valueOf(targetWeightKg);
+            this.sex = sex;
+            this.activityLevel = activityLevel;
+            this.imperial = false;
+        }
+
+        /**
+         * Clicks "Create Profile".
+         */
+        public void clickCreateProfile() {
+            fire(createProfileListeners, this, null);
+        }
+
+        @Override
+        public void addLoadProfileListener(ActionListener listener) {
+            loadProfileListeners.add(listener);
+        }
+
+        @Override
+        public void addCreateProfileListener(ActionListener listener) {
+            createProfileListeners.add(listener);
+        }
+
+        @Override
+        public String getNewUserName() { return newUserName; }
+
+        @Override
+        public int getAge() { return Integer.parseInt(age); }
+
+        @Override
+        public double getUserHeight() { return Double.parseDouble(height); }
+
+        @Override
+        public double getWeight() { return Double.parseDouble(weight); }
+
+        @Override
+        public double getTargetWeight() { return Double.parseDouble(targetWeight); }
+
+        @Override
+        public Sex getSex() { return sex; }
+
+        @Override
+        public ActivityLevel getActivityLevel() { return activityLevel; }
+
+        @Override
+        public boolean isImperial() { return imperial; }
+
+        @Override
+        public void clearCreationFields() {
+            newUserName = "";
+            age = "";
+            height = "";
+            weight = "";
+            targetWeight = "";
+        }
+    }
+
+    /**
+     * The headless dashboard screen.
+     */
+    public static class Dashboard implements DashboardScreen {
+        private final FoodLogTableModel foodLogTableModel = new FoodLogTableModel();
+        private final List<ActionListener> addFoodListeners = new ArrayList<>();
+        private final List<DocumentListener> foodInputListeners = new ArrayList<>();
+        private final List<ActionListener> suggestionChosenListeners = new ArrayList<>();
+        private final List<ActionListener> quickAddListeners = new ArrayList<>();
+        private final List<ActionListener> editEntryListeners = new ArrayList<>();
+        private final List<ActionListener> deleteEntryListeners = new ArrayList<>();
+        private final List<ActionListener> editWeightListeners = new ArrayList<>();
+        private final List<ActionListener> editTargetWeightListeners = new ArrayList<>();
+        private final List<ActionListener> saveChangesListeners = new ArrayList<>();
+        private final List<ActionListener> viewAllLogsListeners = new ArrayList<>();
+        private final List<ActionListener> switchUserListeners = new ArrayList<>();
+        private boolean visible = true;
+        private String[] profileInfo = new String[5];
+        private String[] calorieSummary = new String[3];
+        private String foodInput = "";
+        private List<String> suggestions = new ArrayList<>();
+        private int chosenSuggestion = -1;
+        private List<String> quickAddFoods = new ArrayList<>();
+        private int selectedFoodRow = -1;
+
+        @Override
+        public void setVisible(boolean visible) {
+            this.visible = visible;
+        }
+
+        /** @return Whether the dashboard's contents are shown. */
+        public boolean isVisible() {
+            return visible;
+        }
+
+        @Override
+        public void setProfileInfo(String name, String age, String weight, String height, String targetWeight) {
+            profileInfo = new String[] {name, age, weight, height, targetWeight};
+        }
+
+        /** @return The name, age, weight, height and target weight shown. */
+        public String[] getProfileInfo() {
+            return profileInfo.clone();
+        }
+
+        @Override
+        public void setCalorieSummary(String tdee, String consumed, String remaining) {
+            calorieSummary = new String[] {tdee, consumed, remaining};
+        }
+
+        /** @return The TDEE, consumed and remaining calories shown. */
+        public String[] getCalorieSummary() {
+            return calorieSummary.clone();
+        }
+
+        /**
+         * Types into the food input, replacing its text. Input listeners are told with a null
+         * event, as there is no document.
+         * @param text The text.
+         */
+        public void typeFood(String text) {
+            foodInput = text;
+            for (DocumentListener listener : foodInputListeners) {
+                listener.insertUpdate(null);
+            }
+        }
+
+        @Override
+        public String getFoodInput() {
+            String input = foodInput;
+            foodInput = "";
+            return input;
+        }
+
+        @Override
+        public String getFoodInputText() {
+            return foodInput;
+        }
+
+        /**
+         * Clicks "Add Food".
+         */
+        public void clickAddFood() {
+            fire(addFoodListeners, this, null);
+        }
+
+        @Override
+        public void showFoodSuggestions(List<String> suggestions) {
+            this.suggestions = new ArrayList<>(suggestions);
+        }
+
+        @Override
+        public void hideFoodSuggestions() {
+            suggestions = new ArrayList<>();
+        }
+
+        /** @return The suggestions shown, best first. */
+        public List<String> getFoodSuggestions() {
+            return new ArrayList<>(suggestions);
+        }
+
+        /**
+         * Chooses a suggestion.
+         * @param index Its index in the suggestions shown.
+         */
+        public void chooseSuggestion(int index) {
+            chosenSuggestion = index;
+            fire(suggestionChosenListeners, this, null);
+        }
+
+        @Override
+        public int getChosenSuggestion() {
+            return chosenSuggestion;
+        }
+
+        @Override
+        public void setQuickAddFoods(List<String> foods) {
+            quickAddFoods = new ArrayList<>(foods);
+        }
+
+        /** @return The quick-add labels shown. */
+        public List<String> getQuickAddFoods() {
+            return new ArrayList<>(quickAddFoods);
+        }
+
+        /**
+         * Clicks a quick-add button.
+         * @param index Its index among the quick-add foods.
+         */
+        public void clickQuickAdd(int index) {
+            fire(quickAddListeners, this, String.valueOf(index));
+        }
+
+        @Override
+        public FoodLogTableModel getFoodLogTableModel() {
+            return foodLogTableModel;
+        }
+
+        /**
+         * Selects a row of today's food table.
+         * @param row The row, or -1 for none.
+         */
+        public void selectFoodRow(int row) {
+            selectedFoodRow = row;
+        }
+
+        @Override
+        public int getSelectedFoodRow() {
+            return selectedFoodRow;
+        }
+
+        /** Clicks "Edit Entry". */
+        public void clickEditEntry() {
+            fire(editEntryListeners, this, null);
+        }
+
+        /** Clicks "Delete Entry". */
+        public void clickDeleteEntry() {
+            fire(deleteEntryListeners, this, null);
+        }
+
+        /** Clicks "Edit Weight". */
+        public void clickEditWeight() {
+            fire(editWeightListeners, this, null);
+        }
+
+        /** Clicks "Edit Target Weight". */
+        public void clickEditTargetWeight() {
+            fire(editTargetWeightListeners, this, null);
+        }
+
+        /** Clicks "Save Changes". */
+        public void clickSaveChanges() {
+            fire(saveChangesListeners, this, null);
+        }
+
+        /** Clicks "View All Logs". */
+        public void clickViewAllLogs() {
+            fire(viewAllLogsListeners, this, null);
+        }
+
+        /** Clicks "Switch User". */
+        public void clickSwitchUser() {
+            fire(switchUserListeners, this, null);
+        }
+
+        @Override
+        public void addAddFoodListener(ActionListener listener) {
+            addFoodListeners.add(listener);
+        }
+
+        @Override
+        public void addFoodInputListener(DocumentListener listener) {
+            foodInputListeners.add(listener);
+        }
+
+        @Override
+        public void addSuggestionChosenListener(ActionListener listener) {
+            suggestionChosenListeners.add(listener);
+        }
+
+        @Override
+        public void addQuickAddListener(ActionListener listener) {
+            quickAddListeners.add(listener);
+        }
+
+        @Override
+        public void addEditEntryListener(ActionListener listener) {
+            editEntryListeners.add(listener);
+        }
+
+        @Override
+        public void addDeleteEntryListener(ActionListener listener) {
+            deleteEntryListeners.add(listener);
+        }
+
+        @Override
+        public void addEditWeightListener(ActionListener listener) {
+            editWeightListeners.add(listener);
+        }
+
+        @Override
+        public void addEditTargetWeightListener(ActionListener listener) {
+            editTargetWeightListeners.add(listener);
+        }
+
+        @Override
+        public void addSaveChangesListener(ActionListener listener) {
+            saveChangesListeners.add(listener);
+        }
+
+        @Override
+        public void addViewAllLogsListener(ActionListener listener) {
+            viewAllLogsListeners.add(listener);
+        }
+
+        @Override
+        public void addSwitchUserListener(ActionListener listener) {
+            switchUserListeners.add(listener);
+        }
+    }
+
+    /**
+     * The headless log history screen.
+     */
+    public static class AllLogs implements AllLogsScreen {
+        private final FoodLogTableModel logEntriesTableModel = new FoodLogTableModel();
+        private final List<TreeSelectionListener> dateSelectionListeners = new ArrayList<>();
+        private final List<ActionListener> searchListeners = new ArrayList<>();
+        private final List<ListSelectionListener> searchResultSelectionListeners = new ArrayList<>();
+        private final List<ActionListener> backToDashboardListeners = new ArrayList<>();
+        private final List<ActionListener> editEntryListeners = new ArrayList<>();
+        private final List<ActionListener> deleteEntryListeners = new ArrayList<>();
+        private final NavigableSet<LocalDate> dates = new TreeSet<>();
+        private LocalDate selectedDate;
+        private int selectedEntryRow = -1;
+        private String searchQuery = "";
+        private List<String> searchResults = new ArrayList<>();
+        private int selectedSearchResult = -1;
+
+        @Override
+        public void populateLogDates(NavigableSet<LocalDate> dates) {
+            this.dates.clear();
+            this.dates.addAll(dates);
+            selectedDate = null;
+        }
+
+        @Override
+        public void logDateAdded(LocalDate date) {
+            dates.add(date);
+        }
+
+        /** @return The days that can be browsed, oldest first. */
+        public NavigableSet<LocalDate> getLogDates() {
+            return new TreeSet<>(dates);
+        }
+
+        @Override
+        public void updateLogEntries(DailyLog log) {
+            logEntriesTableModel.setRows(log == null ? null : log.snapshot());
+        }
+
+        @Override
+        public FoodLogTableModel getLogEntriesTableModel() {
+            return logEntriesTableModel;
+        }
+
+        @Override
+        public LocalDate getSelectedDate() {
+            return selectedDate;
+        }
+
+        @Override
+        public void selectDate(LocalDate date) {
+            selectedDate = date;
+            TreeSelectionEvent event = new TreeSelectionEvent(this, null, false, null, null);
+            for (TreeSelectionListener listener : dateSelectionListeners) {
+                listener.valueChanged(event);
+            }
+        }
+
+        @Override
+        public void selectEntryRow(int row) {
+            selectedEntryRow = row;
+        }
+
+        @Override
+        public int getSelectedEntryRow() {
+            return selectedEntryRow;
+        }
+
+        /**
+         * Enters a query and clicks "Search".
+         * @param query The query.
+         */
+        public void search(String query) {
+            searchQuery = query;
+            fire(searchListeners, this, null);
+        }
+
+        @Override
+        public String getSearchQuery() {
+            return searchQuery;
+        }
+
+        @Override
+        public void showSearchResults(List<String> results) {
+            searchResults = new ArrayList<>(results);
+            selectedSearchResult = -1;
+        }
+
+        @Override
+        public void clearSearchResults() {
+            searchResults = new ArrayList<>();
+            selectedSearchResult = -1;
+        }
+
+        /** @return The search results shown. */
+        public List<String> getSearchResults() {
+            return new ArrayList<>(searchResults);
+        }
+
+        /**
+         * Selects a search result.
+         * @param index Its index among the results shown.
+         */
+        public void selectSearchResult(int index) {
+            selectedSearchResult = index;
+            ListSelectionEvent event = new ListSelectionEvent(this, index, index, false);
+            for (ListSelectionListener listener : searchResultSelectionListeners) {
+                listener.valueChanged(event);
+            }
+        }
+
+        @Override
+        public int getSelectedSearchResult() {
+            return selectedSearchResult;
+        }
+
+        /** Clicks "Back to Dashboard". */
+        public void clickBackToDashboard() {
+            fire(backToDashboardListeners, this, null);
+        }
+
+        /** Clicks "Edit Entry". */
+        public void clickEditEntry() {
+            fire(editEntryListeners, this, null);
+        }
+
+        /** Clicks "Delete Entry". */
+        public void clickDeleteEntry() {
+            fire(deleteEntryListeners, this, null);
+        }
+
+        @Override
+        public void addDateSelectionListener(TreeSelectionListener listener) {
+            dateSelectionListeners.add(listener);
+        }
+
+        @Override
+        public void addSearchListener(ActionListener listener) {
+            searchListeners.add(listener);
+        }
+
+        @Override
+        public void addSearchResultSelectionListener(ListSelectionListener listener) {
+            searchResultSelectionListeners.add(listener);
+        }
+
+        @Override
+        public void addBackToDashboardListener(ActionListener listener) {
+            backToDashboardListeners.add(listener);
+        }
+
+        @Override
+        public void addEditEntryListener(ActionListener listener) {
+            editEntryListeners.add(listener);
+        }
+
+        @Override
+        public void addDeleteEntryListener(ActionListener listener) {
+            deleteEntryListeners.add(listener);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package GragasApp.view;
+
+import javax.swing.event.EventListenerList;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import javax.swing.tree.TreeModel;
+import javax.swing.tree.TreePath;
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+
+/**
+ * A lazily expanded tree of log dates, grouped by year and then by month, most recent first.
+ *
+ * The model reads from a sorted date set (normally the live key set of a user's logs) and never
+ * copies or sorts it. The children of a node are worked out only when the tree first asks
+ * for them, which is when the node is expanded, and each lookup walks the set by range. Opening
+ * the history therefore costs one step per year plus the months and days actually shown. The
+ * nodes are {@link Year}, {@link YearMonth}, and {@link LocalDate} values under a string root.
+ *
+ * Like all Swing models, this one must only be used on the Event Dispatch Thread.
+ */
+public class LogDateTreeModel implements TreeModel {
+
+    private static final Object ROOT = "All Logs";
+
+    private final EventListenerList listeners = new EventListenerList();
+    private NavigableSet<LocalDate> dates = Collections.emptyNavigableSet();
+
+    // Children of the nodes the tree has asked about so far, most recent first
+    private final Map<Object, List<Object>> children = new HashMap<>();
+
+    /**
+     * Shows a new set of dates. The set is read directly, not copied.
+     * @param dates The dates to show, in ascending order.
+     */
+    public void setDates(NavigableSet<LocalDate> dates) {
+        this.dates = dates;
+        children.clear();
+        fireTreeStructureChanged();
+    }
+
+    /**
+     * Updates the tree after a date was added to the underlying set. Only groups the tree has
+     * already loaded are touched, and a single insertion event is fired for the topmost new node.
+     * @param date The date that was added.
+     */
+    public void dateAdded(LocalDate date) {
+        Year year = Year.of(date.getYear());
+        YearMonth month = YearMonth.from(date);
+        Object[] path = {ROOT, year, month};
+        Object[] nodes = {year, month, date};
+        for (int depth = 0; depth < nodes.length; depth++) {
+            List<Object> loaded = children.get(path[depth]);
+            if (loaded == null) return; // this group has not been expanded; it loads on demand
+            if (!loaded.contains(nodes[depth])) {
+                children.remove(path[depth]);
+                int index = childrenOf(path[depth]).indexOf(nodes[depth]);
+                if (index >= 0) {
+                    fireTreeNodesInserted(new TreePath(Arrays.copyOf(path, depth + 1)), index, nodes[depth]);
+                }
+                return;
+            }
+        }
+    }
+
+    /**
+     * Gets the path to the most recent month, so the view can expand it by default.
+     * @return The path, or null if there are no dates.
+     */
+    public TreePath getLatestMonthPath() {
+        if (dates.isEmpty()) return null;
+        LocalDate latest = dates.last();
+        return new TreePath(new Object[]{ROOT, Year.of(latest.getYear()), YearMonth.from(latest)});
+    }
+
+    /**
+     * Gets the path to a day, so the view can select it.
+     * @param date The day.
+     * @return The path, or null if the day has no log.
+     */
+    public TreePath getPathTo(LocalDate date) {
+        if (!dates.contains(date)) return null;
+        return new TreePath(new Object[]{ROOT, Year.of(date.getYear()), YearMonth.from(date), date});
+    }
+
+    /**
+     * Lists the children of a node, computing them from the date set on first use.
+     */
+    private List<Object> childrenOf(Object parent) {
+        List<Object> cached = children.get(parent);
+        if (cached != null) return cached;
+        List<Object> result = new ArrayList<>();
+        if (parent == ROOT) {
+            // Jump from the latest date of each year straight to the year before
+            LocalDate d = dates.isEmpty() ? null : dates.last();
+            while (d != null) {
+                result.add(Year.of(d.getYear()));
+                d = dates.lower(LocalDate.of(d.getYear(), 1, 1));
+            }
+        } else if (parent instanceof Year) {
+            int year = ((Year) parent).getValue();
+            LocalDate d = dates.lower(LocalDate.of(year + 1, 1, 1));
+            while (d != null && d.getYear() == year) {
+                YearMonth month = YearMonth.from(d);
+                result.add(month);
+                d = dates.lower(month.atDay(1));
+            }
+        } else if (parent instanceof YearMonth) {
+            YearMonth month = (YearMonth) parent;
+            result.addAll(dates.subSet(month.atDay(1), true, month.atEndOfMonth(), true).descendingSet());
+        }
+        children.put(parent, result);
+        return result;
+    }
+
+    @Override
+    public Object getRoot() {
+        return ROOT;
+    }
+
+    @Override
+    public Object getChild(Object parent, int index) {
+        return childrenOf(parent).get(index);
+    }
+
+    @Override
+    public int getChildCount(Object parent) {
+        return isLeaf(parent) ? 0 : childrenOf(parent).size();
+    }
+
+    @Override
+    public boolean isLeaf(Object node) {
+        return node instanceof LocalDate;
+    }
+
+    @Override
+    public int getIndexOfChild(Object parent, Object child) {
+        if (parent == null || child == null || isLeaf(parent)) return -1;
+        return childrenOf(parent).indexOf(child);
+    }
+
+    @Override
+    public void valueForPathChanged(TreePath path, Object newValue) {
+        // The tree is read-only
+    }
+
+    @Override
+    public void addTreeModelListener(TreeModelListener l) {
+        listeners.add(TreeModelListener.class, l);
+    }
+
+    @Override
+    public void removeTreeModelListener(TreeModelListener l) {
+        listeners.remove(TreeModelListener.class, l);
+    }
+
+    private void fireTreeStructureChanged() {
+        TreeModelEvent event = new TreeModelEvent(this, new Object[]{ROOT});
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeStructureChanged(event);
+        }
+    }
+
+    private void fireTreeNodesInserted(TreePath parent, int index, Object child) {
+        TreeModelEvent event = new TreeModelEvent(this, parent, new int[]{index}, new Object[]{child});
+        for (TreeModelListener l : listeners.getListeners(TreeModelListener.class)) {
+            l.treeNodesInserted(event);
+        }
+    }
+}
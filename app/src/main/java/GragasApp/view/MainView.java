@@ -2,6 +2,7 @@ package GragasApp.view;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.event.ActionListener;
 
 /**
  * The main window (JFrame) of the application.
@@ -9,13 +10,15 @@ import java.awt.*;
  * It uses a CardLayout to manage and switch between different views like
  * the user selection screen, the main dashboard, and the all logs view.
  */
-public class MainView extends JFrame {
+public class MainView extends JFrame implements AppView {
 
     private final CardLayout cardLayout;
     private final JPanel mainPanel;
     private final UserSelectionView userSelectionView;
     private final DashboardView dashboardView;
     private final AllLogsView allLogsView; 
+    private final JMenuItem diagnosticsReportItem;
+    private final JMenuItem memoryReportItem;
 
 
     // Panel names for CardLayout
@@ -48,6 +51,16 @@ public class MainView extends JFrame {
 
         // Add the main panel to the frame
         add(mainPanel);
+
+        // Diagnostics menu, for reporting UI freezes and other runtime figures
+        JMenuBar menuBar = new JMenuBar();
+        JMenu diagnosticsMenu = new JMenu("Diagnostics");
+        diagnosticsReportItem = new JMenuItem("Responsiveness Report...");
+        diagnosticsMenu.add(diagnosticsReportItem);
+        memoryReportItem = new JMenuItem("Memory Footprint...");
+        diagnosticsMenu.add(memoryReportItem);
+        menuBar.add(diagnosticsMenu);
+        setJMenuBar(menuBar);
     }
 
     /**
@@ -106,6 +119,34 @@ public class MainView extends JFrame {
         JOptionPane.showMessageDialog(this, message, "Error", JOptionPane.ERROR_MESSAGE);
     }
 
+    /**
+     * Adds a listener to the "Responsiveness Report" menu item.
+     * @param listener The ActionListener to add.
+     */
+    public void addDiagnosticsReportListener(ActionListener listener) {
+        diagnosticsReportItem.addActionListener(listener);
+    }
+
+    /**
+     * Adds a listener to the "Memory Footprint" menu item.
+     * @param listener The ActionListener to add.
+     */
+    public void addMemoryReportListener(ActionListener listener) {
+        memoryReportItem.addActionListener(listener);
+    }
+
+    /**
+     * Displays a diagnostic report in a scrollable, selectable text area so it can be copied.
+     * @param report The report text.
+     */
+    public void showDiagnosticReport(String report) {
+        JTextArea text = new JTextArea(report, 20, 80);
+        text.setEditable(false);
+        text.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 12));
+        text.setCaretPosition(0);
+        JOptionPane.showMessageDialog(this, new JScrollPane(text), "Diagnostics", JOptionPane.PLAIN_MESSAGE);
+    }
+
     /**
      * Displays a standardized informational message dialog.
      * @param message The information message to display.
@@ -113,4 +154,39 @@ public class MainView extends JFrame {
     public void showMessage(String message) {
         JOptionPane.showMessageDialog(this, message, "Information", JOptionPane.INFORMATION_MESSAGE);
     }
+
+    /**
+     * Displays an input dialog for one value.
+     * @param message The question.
+     * @param initialValue The value offered at first.
+     * @return The value entered, or null if the dialog was cancelled.
+     */
+    public String promptForInput(String message, String initialValue) {
+        return JOptionPane.showInputDialog(this, message, initialValue);
+    }
+
+    /**
+     * Displays a Yes/No confirmation dialog.
+     * @param message The question.
+     * @param title The dialog title.
+     * @return true if the user chose Yes.
+     */
+    public boolean confirm(String message, String title) {
+        return JOptionPane.showConfirmDialog(this, message, title, JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION;
+    }
+
+    /**
+     * Displays a dialog for editing a log entry's name and calories.
+     * @param name The current name.
+     * @param calories The current calories, formatted.
+     * @return The new name and calories, or null if the dialog was cancelled.
+     */
+    public String[] promptForEntryEdit(String name, String calories) {
+        JTextField nameField = new JTextField(name);
+        JTextField caloriesField = new JTextField(calories);
+        Object[] fields = {"Food:", nameField, "Calories (kcal):", caloriesField};
+        int choice = JOptionPane.showConfirmDialog(this, fields, "Edit Entry", JOptionPane.OK_CANCEL_OPTION);
+        if (choice != JOptionPane.OK_OPTION) return null;
+        return new String[] {nameField.getText(), caloriesField.getText()};
+    }
 }
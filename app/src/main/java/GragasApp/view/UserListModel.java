@@ -0,0 +1,254 @@
+package GragasApp.view;
+
+import javax.swing.AbstractListModel;
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * A sorted, filterable list of profile names for the user picker.
+ *
+ * Names are kept in an order-statistic tree (a treap whose nodes know the size of their
+ * subtree), ordered case-insensitively. Because the names starting with a prefix are a
+ * contiguous range of that order, filtering only finds the range's two ends, and the list
+ * shows the range in place without copying it. Adding a name, changing the filter, and fetching
+ * the name at a row each take O(log n), so a JList over this model stays responsive with
+ * hundreds of thousands of profiles; with a fixed cell height it only asks for the rows on
+ * screen.
+ *
+ * Like every Swing model, this class must only be used on the Event Dispatch Thread.
+ */
+public class UserListModel extends AbstractListModel<String> {
+
+    /**
+     * A tree node; {@code key} is the lowercased name, which orders the tree.
+     */
+    private static final class Node {
+        final String key;
+        final String name;
+        final int priority;
+        int size = 1;
+        Node left;
+        Node right;
+
+        Node(String name, int priority) {
+            this.key = name.toLowerCase();
+            this.name = name;
+            this.priority = priority;
+        }
+    }
+
+    // Fixed seed: the shape of the tree, not its contents, depends on it
+    private final Random priorities = new Random(0x5EED);
+    private Node root;
+
+    private String filter = "";
+    private int filterStart; // index of the first name matching the filter
+    private int filterEnd;   // index just past the last one
+
+    /**
+     * Replaces all names.
+     * @param names The names to show; duplicates are ignored.
+     */
+    public void setNames(Collection<String> names) {
+        int oldSize = getSize();
+        root = null;
+        for (String name : names) {
+            if (!contains(name)) {
+                root = insert(root, new Node(name, priorities.nextInt()));
+            }
+        }
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+        updateRange();
+        if (getSize() > 0) fireIntervalAdded(this, 0, getSize() - 1);
+    }
+
+    /**
+     * Adds one name in its sorted position, in O(log n).
+     * @param name The name to add; ignored if already present.
+     */
+    public void addName(String name) {
+        if (contains(name)) return;
+        Node node = new Node(name, priorities.nextInt());
+        root = insert(root, node);
+        if (matchesFilter(node.key)) {
+            filterEnd++;
+            int index = rankOf(node) - filterStart;
+            fireIntervalAdded(this, index, index);
+        } else if (node.key.compareTo(filter) < 0) {
+            // The matching range moved down by one
+            filterStart++;
+            filterEnd++;
+        }
+    }
+
+    /**
+     * Shows only names starting with a prefix, ignoring case.
+     * @param prefix The text typed so far; empty to show every name.
+     */
+    public void setFilter(String prefix) {
+        String next = prefix == null ? "" : prefix.trim().toLowerCase();
+        if (next.equals(filter)) return;
+        int oldSize = getSize();
+        filter = next;
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+        updateRange();
+        if (getSize() > 0) fireIntervalAdded(this, 0, getSize() - 1);
+    }
+
+    /**
+     * Gets the row of a name among the names shown.
+     * @param name The name.
+     * @return The row, or -1 if the name is absent or filtered out.
+     */
+    public int indexOf(String name) {
+        Node n = find(name);
+        if (n == null || !matchesFilter(n.key)) return -1;
+        return rankOf(n) - filterStart;
+    }
+
+    /**
+     * Gets the number of names, shown or not.
+     * @return The total number of names.
+     */
+    public int getTotalSize() {
+        return size(root);
+    }
+
+    @Override
+    public int getSize() {
+        return filterEnd - filterStart;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        if (index < 0 || index >= getSize()) {
+            throw new IndexOutOfBoundsException("Row " + index + " of " + getSize());
+        }
+        // Select the (filterStart + index)-th smallest name
+        int rank = filterStart + index;
+        Node n = root;
+        while (true) {
+            int leftSize = size(n.left);
+            if (rank < leftSize) {
+                n = n.left;
+            } else if (rank == leftSize) {
+                return n.name;
+            } else {
+                rank -= leftSize + 1;
+                n = n.right;
+            }
+        }
+    }
+
+    private boolean matchesFilter(String key) {
+        return key.startsWith(filter);
+    }
+
+    private void updateRange() {
+        filterStart = countKeysBelow(filter);
+        filterEnd = filter.isEmpty() ? size(root) : countKeysBelow(filter + Character.MAX_VALUE);
+    }
+
+    /**
+     * Counts the names whose key sorts before a bound.
+     */
+    private int countKeysBelow(String bound) {
+        int count = 0;
+        Node n = root;
+        while (n != null) {
+            if (n.key.compareTo(bound) < 0) {
+                count += size(n.left) + 1;
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts the names that sort before a node in the tree.
+     */
+    private int rankOf(Node target) {
+        int rank = 0;
+        Node n = root;
+        while (n != target) {
+            if (compare(target, n) < 0) {
+                n = n.left;
+            } else {
+                rank += size(n.left) + 1;
+                n = n.right;
+            }
+        }
+        return rank + size(target.left);
+    }
+
+    private boolean contains(String name) {
+        return find(name) != null;
+    }
+
+    private Node find(String name) {
+        Node probe = new Node(name, 0);
+        Node n = root;
+        while (n != null) {
+            int c = compare(probe, n);
+            if (c == 0) return n;
+            n = c < 0 ? n.left : n.right;
+        }
+        return null;
+    }
+
+    private static int compare(Node a, Node b) {
+        int c = a.key.compareTo(b.key);
+        return c != 0 ? c : a.name.compareTo(b.name);
+    }
+
+    private static int size(Node n) {
+        return n == null ? 0 : n.size;
+    }
+
+    private static void update(Node n) {
+        n.size = 1 + size(n.left) + size(n.right);
+    }
+
+    /**
+     * Inserts a node, rotating it up to where its priority belongs by splitting that subtree.
+     */
+    private static Node insert(Node n, Node x) {
+        if (n == null) return x;
+        if (x.priority > n.priority) {
+            Node[] parts = split(n, x);
+            x.left = parts[0];
+            x.right = parts[1];
+            update(x);
+            return x;
+        }
+        if (compare(x, n) < 0) {
+            n.left = insert(n.left, x);
+        } else {
+            n.right = insert(n.right, x);
+        }
+        update(n);
+        return n;
+    }
+
+    /**
+     * Splits a subtree into the nodes that sort before a pivot and the rest.
+     */
+    private static Node[] split(Node n, Node pivot) {
+        if (n == null) return new Node[2];
+        if (compare(n, pivot) < 0) {
+            Node[] parts = split(n.right, pivot);
+            n.right = parts[0];
+            update(n);
+            parts[0] = n;
+            return parts;
+        } else {
+            Node[] parts = split(n.left, pivot);
+            n.left = parts[1];
+            update(n);
+            parts[1] = n;
+            return parts;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package GragasApp.view;
+
+import GragasApp.model.ActivityLevel;
+import GragasApp.model.Sex;
+import GragasApp.model.UserProfile;
+
+import java.awt.event.ActionListener;
+import java.util.List;
+
+/**
+ * The profile selection and creation screen as the controller sees it.
+ * See {@link UserSelectionView} for the Swing implementation.
+ */
+public interface UserSelectionScreen {
+
+    /**
+     * Replaces the list of selectable profiles.
+     * @param profiles The profiles.
+     */
+    void populateUserList(List<UserProfile> profiles);
+
+    /**
+     * Adds one profile to the list.
+     * @param profile The profile.
+     */
+    void addUserToList(UserProfile profile);
+
+    /**
+     * Shows that profiles have started loading.
+     */
+    void showLoadingStarted();
+
+    /**
+     * Shows how far the profile load has got.
+     * @param filesRead The files read so far.
+     * @param fileCount The number of files.
+     */
+    void showLoadingProgress(int filesRead, int fileCount);
+
+    /**
+     * Hides the loading progress.
+     */
+    void hideLoadingProgress();
+
+    /**
+     * Gets the selected profile name.
+     * @return The name, or null if none is selected.
+     */
+    String getSelectedUser();
+
+    /**
+     * Adds a listener to the "Load Profile" command.
+     * @param listener The ActionListener to add.
+     */
+    void addLoadProfileListener(ActionListener listener);
+
+    /**
+     * Adds a listener to the "Create Profile" command.
+     * @param listener The ActionListener to add.
+     */
+    void addCreateProfileListener(ActionListener listener);
+
+    /** @return The name entered for a new profile. */
+    String getNewUserName();
+
+    /**
+     * @return The age entered for a new profile.
+     * @throws NumberFormatException If it is not a number.
+     */
+    int getAge();
+
+    /**
+     * @return The height entered for a new profile, in cm or inches.
+     * @throws NumberFormatException If it is not a number.
+     */
+    double getUserHeight();
+
+    /**
+     * @return The weight entered for a new profile, in kg or lbs.
+     * @throws NumberFormatException If it is not a number.
+     */
+    double getWeight();
+
+    /**
+     * @return The target weight entered for a new profile, in kg or lbs.
+     * @throws NumberFormatException If it is not a number.
+     */
+    double getTargetWeight();
+
+    /** @return The sex chosen for a new profile. */
+    Sex getSex();
+
+    /** @return The activity level chosen for a new profile. */
+    ActivityLevel getActivityLevel();
+
+    /** @return Whether the new profile's measurements are imperial. */
+    boolean isImperial();
+
+    /**
+     * Clears the new profile fields.
+     */
+    void clearCreationFields();
+}
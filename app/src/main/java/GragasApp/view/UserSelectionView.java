@@ -5,21 +5,29 @@ import GragasApp.model.Sex;
 import GragasApp.model.UserProfile;
 
 import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
 import java.awt.*;
 import java.awt.event.ActionListener;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
  * A panel that provides the initial user interface for the application.
- * It allows a user to either select and load an existing profile from a dropdown
+ * It allows a user to either select and load an existing profile from a filterable list
  * or create a new profile by filling out a form. It also handles unit selection
  * (metric/imperial) for new profile creation.
  */
-public class UserSelectionView extends JPanel {
+public class UserSelectionView extends JPanel implements UserSelectionScreen {
 
     // Components for selecting existing user
-    private final JComboBox<String> userComboBox;
+    private final JTextField userFilterField;
+    private final UserListModel userListModel;
+    private final JList<String> userList;
     private final JButton loadProfileButton;
+    private final JProgressBar loadingProgressBar;
 
     // Components for creating a new user
     private final JTextField nameField;
@@ -54,20 +62,55 @@ public class UserSelectionView extends JPanel {
         gbc.gridx = 0;
         gbc.gridy = 0;
         gbc.weightx = 0.1;
-        existingUserPanel.add(new JLabel("Select Profile:"), gbc);
+        existingUserPanel.add(new JLabel("Find Profile:"), gbc);
 
         gbc.gridx = 1;
         gbc.weightx = 0.9;
-        userComboBox = new JComboBox<>();
-        existingUserPanel.add(userComboBox, gbc);
+        userFilterField = new JTextField(20);
+        existingUserPanel.add(userFilterField, gbc);
 
+        // Sorted names, narrowed by the filter as it is typed; a fixed cell size lets the list
+        // render only the visible rows however many profiles there are
         gbc.gridx = 0;
         gbc.gridy = 1;
         gbc.gridwidth = 2;
+        userListModel = new UserListModel();
+        userList = new JList<>(userListModel);
+        userList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        userList.setPrototypeCellValue("A typical long profile name");
+        userList.setVisibleRowCount(6);
+        existingUserPanel.add(new JScrollPane(userList), gbc);
+        userFilterField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override public void insertUpdate(DocumentEvent e) { applyUserFilter(); }
+            @Override public void removeUpdate(DocumentEvent e) { applyUserFilter(); }
+            @Override public void changedUpdate(DocumentEvent e) { }
+        });
+
+        gbc.gridy = 2;
         gbc.anchor = GridBagConstraints.CENTER;
         loadProfileButton = new JButton("Load Profile");
         existingUserPanel.add(loadProfileButton, gbc);
 
+        // Enter in the filter or a double-click on a name loads that profile
+        userFilterField.addActionListener(_ -> loadProfileButton.doClick());
+        userList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && userList.getSelectedIndex() >= 0) {
+                    loadProfileButton.doClick();
+                }
+            }
+        });
+
+        // Shown while profiles are read in the background; names appear in the list as they load
+        gbc.gridy = 3;
+        loadingProgressBar = new JProgressBar();
+        loadingProgressBar.setStringPainted(true);
+        loadingProgressBar.setString("Loading profiles...");
+        loadingProgressBar.setIndeterminate(true);
+        loadingProgressBar.setVisible(false);
+        existingUserPanel.add(loadingProgressBar, gbc);
+
         // --- New User Panel ---
         JPanel newUserPanel = new JPanel(new GridBagLayout());
         newUserPanel.setBorder(BorderFactory.createTitledBorder("Create New Profile"));
@@ -186,30 +229,86 @@ public class UserSelectionView extends JPanel {
     }
     
     /**
-     * Populates the user selection dropdown with a list of user profiles.
+     * Populates the user selection list with a list of user profiles, sorted by name.
      * @param profiles A list of UserProfile objects to display.
      */
     public void populateUserList(List<UserProfile> profiles) {
-        userComboBox.removeAllItems();
+        List<String> names = new ArrayList<>(profiles.size());
         for (UserProfile profile : profiles) {
-            userComboBox.addItem(profile.getName());
+            names.add(profile.getName());
         }
+        userListModel.setNames(names);
+        selectFirstUserIfNone();
     }
     
     /**
-     * Adds a single user profile to the selection dropdown.
+     * Adds a single user profile to the selection list in its sorted position.
+     * This costs O(log n) in the number of profiles already listed.
      * @param profile The UserProfile to add.
      */
     public void addUserToList(UserProfile profile) {
-        userComboBox.addItem(profile.getName());
+        userListModel.addName(profile.getName());
+        selectFirstUserIfNone();
+    }
+
+    /**
+     * Narrows the list to the names starting with the filter text and selects the first one,
+     * so that Enter loads the best match.
+     */
+    private void applyUserFilter() {
+        String selected = userList.getSelectedValue();
+        userListModel.setFilter(userFilterField.getText());
+        int index = selected == null ? -1 : userListModel.indexOf(selected);
+        if (index >= 0) {
+            userList.setSelectedIndex(index);
+            userList.ensureIndexIsVisible(index);
+        } else {
+            userList.clearSelection();
+            selectFirstUserIfNone();
+        }
+    }
+
+    private void selectFirstUserIfNone() {
+        if (userList.getSelectedIndex() < 0 && userListModel.getSize() > 0) {
+            userList.setSelectedIndex(0);
+        }
+    }
+
+    /**
+     * Shows how far the background profile load has progressed.
+     * @param filesRead The number of profile files read so far.
+     * @param fileCount The total number of files to read.
+     */
+    public void showLoadingProgress(int filesRead, int fileCount) {
+        loadingProgressBar.setIndeterminate(false);
+        loadingProgressBar.setMaximum(Math.max(fileCount, 1));
+        loadingProgressBar.setValue(filesRead);
+        loadingProgressBar.setString("Loading profiles... " + filesRead + " of " + fileCount);
+        loadingProgressBar.setVisible(true);
+    }
+
+    /**
+     * Shows the loading indicator before the number of profiles is known.
+     */
+    public void showLoadingStarted() {
+        loadingProgressBar.setIndeterminate(true);
+        loadingProgressBar.setString("Loading profiles...");
+        loadingProgressBar.setVisible(true);
+    }
+
+    /**
+     * Hides the loading indicator once all profiles have been read.
+     */
+    public void hideLoadingProgress() {
+        loadingProgressBar.setVisible(false);
     }
 
     /**
-     * Gets the name of the user currently selected in the dropdown.
-     * @return The selected user's name as a String.
+     * Gets the name of the user currently selected in the list.
+     * @return The selected user's name as a String, or null if none is selected.
      */
     public String getSelectedUser() {
-        return (String) userComboBox.getSelectedItem();
+        return userList.getSelectedValue();
     }
 
     /**
@@ -1,8 +1,12 @@
 import GragasApp.controller.AppController;
+import GragasApp.diagnostics.EdtWatchdog;
+import GragasApp.diagnostics.StartupMetrics;
 import GragasApp.model.CSVHandler;
 import GragasApp.view.MainView;
 
 import javax.swing.SwingUtilities;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * Main entry point for the Gragas Calorie Counting App.
@@ -10,16 +14,27 @@ import javax.swing.SwingUtilities;
  */
 public class MainApp {
     public static void main(String[] args) {
+        // Record Event Dispatch Thread stalls from the start; see Diagnostics > Responsiveness Report
+        EdtWatchdog.install();
+
         // The Swing application should be run on the Event Dispatch Thread (EDT)
         SwingUtilities.invokeLater(() -> {
             // Initialize the main components
             MainView mainView = new MainView();
             CSVHandler csvHandler = new CSVHandler();
 
-            // The controller wires everything together
-            new AppController(mainView, csvHandler);
+            // The controller wires everything together; profiles load in the background
+            AppController controller = new AppController(mainView, csvHandler);
+            // Write anything still pending when the application exits
+            Runtime.getRuntime().addShutdownHook(new Thread(controller::close, "autosave-on-exit"));
 
-            // Make the main window visible
+            // Make the main window visible without waiting for the profiles
+            mainView.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowOpened(WindowEvent e) {
+                    StartupMetrics.markFirstFrame();
+                }
+            });
             mainView.setVisible(true);
         });
     }
@@ -0,0 +1,78 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures the bytes the current thread allocates per operation, using the HotSpot per-thread
+ * allocation counter of {@code com.sun.management.ThreadMXBean}.
+ *
+ * Each measurement runs a few warm-up rounds first, so the JIT has compiled (and escape-analysed)
+ * the code under test, then reports the smallest of several rounds, which filters out one-off
+ * allocations such as class loading or a map resizing.
+ */
+final class AllocationMeter {
+
+  /**
+   * An operation under measurement.
+   */
+  interface Operation {
+    void run() throws Exception;
+  }
+
+  private static final int WARMUP_ROUNDS = 20;
+  private static final int MEASURED_ROUNDS = 5;
+
+  private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+  private AllocationMeter() {}
+
+  private static com.sun.management.ThreadMXBean threadBean() {
+    if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean
+        && bean.isThreadAllocatedMemorySupported()) {
+      bean.setThreadAllocatedMemoryEnabled(true);
+      return bean;
+    }
+    return null;
+  }
+
+  /**
+   * @return whether this JVM can count allocated bytes per thread
+   */
+  static boolean isSupported() {
+    return THREADS != null;
+  }
+
+  /**
+   * Measures the bytes allocated per operation.
+   *
+   * @param opsPerRound how many operations one call of {round} performs
+   * @param round       performs {opsPerRound} operations
+   * @return the smallest bytes per operation over the measured rounds
+   */
+  static double bytesPerOp(int opsPerRound, Operation round) throws Exception {
+    for (int i = 0; i < WARMUP_ROUNDS; i++) {
+      round.run();
+    }
+    long best = Long.MAX_VALUE;
+    for (int i = 0; i < MEASURED_ROUNDS; i++) {
+      long before = THREADS.getCurrentThreadAllocatedBytes();
+      round.run();
+      best = Math.min(best, THREADS.getCurrentThreadAllocatedBytes() - before);
+    }
+    return (double) best / opsPerRound;
+  }
+
+  /**
+   * Fails if an operation allocates more than its budget.
+   *
+   * @param what        the operation, for the failure message
+   * @param budgetBytes the most bytes one operation may allocate
+   * @param opsPerRound how many operations one call of {round} performs
+   * @param round       performs {opsPerRound} operations
+   */
+  static void assertWithinBudget(String what, long budgetBytes, int opsPerRound, Operation round) throws Exception {
+    double bytes = bytesPerOp(opsPerRound, round);
+    if (bytes > budgetBytes) {
+      throw new AssertionError(String.format("%s allocated %.0f bytes per operation; budget is %d",
+          what, bytes, budgetBytes));
+    }
+  }
+}
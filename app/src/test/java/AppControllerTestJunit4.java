@@ -8,12 +8,15 @@ import GragasApp.view.MainView;
 import GragasApp.view.UserSelectionView;
 
 // JUnit 4 and standard Java imports
+import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.NavigableSet;
 import static org.junit.Assert.*;
 
 /**
@@ -47,6 +50,14 @@ public class AppControllerTestJunit4 {
         testUser = new UserProfile("TestUser", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
     }
 
+    /**
+     * Stops the controller's autosave so it does not outlive the test.
+     */
+    @After
+    public void tearDown() {
+        appController.close();
+    }
+
     /**
      * Tests the successful creation of a new user profile using metric units.
      */
@@ -122,6 +133,7 @@ public class AppControllerTestJunit4 {
         csvHandler.profiles.add(testUser);
         mainView.getUserSelectionView().setSelectedUser("TestUser");
         mainView.getUserSelectionView().clickLoadProfileButton();
+        testUser.setWeightKg(79);
 
         // Act: Now, simulate clicking the "Save Changes" button
         mainView.getDashboardView().clickSaveChangesButton();
@@ -133,6 +145,25 @@ public class AppControllerTestJunit4 {
         assertEquals("Success message was not the one expected", "Profile saved successfully!", mainView.infoMessage);
     }
 
+    /**
+     * Tests that "Save Changes" on a profile without unsaved changes does not write it again.
+     */
+    @Test
+    public void testHandleSaveChanges_CleanProfile_SkipsWrite() {
+        // Arrange: Load a user that has no unsaved changes
+        csvHandler.profiles.add(testUser);
+        mainView.getUserSelectionView().setSelectedUser("TestUser");
+        mainView.getUserSelectionView().clickLoadProfileButton();
+
+        // Act
+        mainView.getDashboardView().clickSaveChangesButton();
+
+        // Assert
+        assertFalse("A clean profile should not have been written", csvHandler.updateCalled);
+        assertTrue("A success message should have been shown", mainView.showMessageCalled);
+        assertEquals("Success message was not the one expected", "Profile saved successfully!", mainView.infoMessage);
+    }
+
     /**
      * Tests navigation to the "All Logs" view.
      */
@@ -179,6 +210,11 @@ public class AppControllerTestJunit4 {
         public List<UserProfile> getUserProfiles() {
             return profiles;
         }
+
+        @Override
+        public UserProfile getUserProfile(String name) {
+            return profiles.stream().filter(p -> p.getName().equals(name)).findFirst().orElse(null);
+        }
     }
 
     /**
@@ -270,7 +306,7 @@ public class AppControllerTestJunit4 {
      */
     private static class AllLogsViewStub extends AllLogsView {
         boolean populateLogDatesCalled;
-        @Override public void populateLogDates(List<DailyLog> logs) { this.populateLogDatesCalled = true; }
+        @Override public void populateLogDates(NavigableSet<LocalDate> dates) { this.populateLogDatesCalled = true; }
     }
 }
 
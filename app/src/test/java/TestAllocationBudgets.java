@@ -0,0 +1,112 @@
+import static org.junit.Assume.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Allocation budgets for the hot paths, in bytes per operation. A budget is a few times what
+ * the path allocates today; a test failing means a change made the path allocate much more,
+ * e.g. boxing, a per-row temporary, or a copy. Raise a budget only deliberately.
+ */
+public class TestAllocationBudgets {
+
+  private static final LocalDate LAST_DAY = LocalDate.of(2025, 8, 11);
+
+  // Parsing builds the split fields, the entry and its nutrient vector, and a log snapshot
+  private static final long CSV_READ_BYTES_PER_ROW = 6_144;
+  // Only the row string; the row buffer is reused
+  private static final long CSV_WRITE_BYTES_PER_ROW = 512;
+  // The new snapshot and its nutrient totals, plus the id index entry
+  private static final long DAILY_LOG_ADD_BYTES = 768;
+  // Totals are kept by the snapshot, so reading them allocates nothing
+  private static final long DAILY_LOG_TOTAL_BYTES = 16;
+  // Mostly org.json's parsed object: a map entry, key and boxed value per field
+  private static final long JSON_DECODE_BYTES_PER_ITEM = 12_288;
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    assumeTrue("Per-thread allocation counting is not supported", AllocationMeter.isSupported());
+    dir = Files.createTempDirectory("gragas-alloc");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    if (dir == null) return;
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  private static UserProfile userWithRows(int days, int entriesPerDay) {
+    return new SyntheticDataGenerator(1L, days, entriesPerDay, LAST_DAY).generateUser(0);
+  }
+
+  @Test
+  public void csvParsingPerRow() throws Exception {
+    UserProfile user = userWithRows(200, 10);
+    new CSVHandler(dir).saveUserProfileToCsv(user);
+    AllocationMeter.assertWithinBudget("CSV parsing", CSV_READ_BYTES_PER_ROW, 2_000,
+        () -> new CSVHandler(dir).loadUserProfilesFromCsvs());
+  }
+
+  @Test
+  public void csvWritingPerRow() throws Exception {
+    UserProfile user = userWithRows(200, 10);
+    CSVHandler handler = new CSVHandler(dir);
+    handler.saveUserProfileToCsv(user);
+    AllocationMeter.assertWithinBudget("CSV writing", CSV_WRITE_BYTES_PER_ROW, 2_000,
+        () -> handler.updateUserProfileToCsv(user));
+  }
+
+  @Test
+  public void dailyLogAdd() throws Exception {
+    List<FoodEntry> entries = new ArrayList<>();
+    for (int i = 0; i < 50; i++) {
+      entries.add(new FoodEntry("food " + i, 100 + i));
+    }
+    AllocationMeter.assertWithinBudget("DailyLog.addEntry", DAILY_LOG_ADD_BYTES, entries.size(), () -> {
+      DailyLog log = new DailyLog(LAST_DAY);
+      for (FoodEntry entry : entries) {
+        log.addEntry(entry);
+      }
+    });
+  }
+
+  @Test
+  public void dailyLogTotals() throws Exception {
+    DailyLog log = new DailyLog(LAST_DAY);
+    for (int i = 0; i < 50; i++) {
+      log.addEntry(new FoodEntry("food " + i, 100 + i));
+    }
+    long[] sink = new long[1];
+    AllocationMeter.assertWithinBudget("DailyLog totals", DAILY_LOG_TOTAL_BYTES, 1_000, () -> {
+      for (int i = 0; i < 1_000; i++) {
+        sink[0] += log.getTotalCalorieHundredths() + (long) log.getTotal(Nutrient.PROTEIN);
+      }
+    });
+  }
+
+  @Test
+  public void jsonDecodingPerItem() throws Exception {
+    int items = 4;
+    String body = SyntheticDataGenerator.nutritionResponse(items);
+    double[] nutrients = new double[Nutrient.COUNT];
+    AllocationMeter.assertWithinBudget("JSON decoding", JSON_DECODE_BYTES_PER_ITEM, items * 100, () -> {
+      for (int i = 0; i < 100; i++) {
+        APICaller.decodeNutrition(body, nutrients);
+      }
+    });
+  }
+}
@@ -0,0 +1,207 @@
+import static org.junit.Assert.*;
+
+import java.awt.EventQueue;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import GragasApp.controller.AppController;
+import GragasApp.diagnostics.NutritionLookupEvent;
+import GragasApp.model.*;
+import GragasApp.view.FoodLogTableModel;
+import GragasApp.view.HeadlessView;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestAsyncFoodLookup {
+
+  private Path dir;
+  private CSVHandler csv;
+  private HeadlessView view;
+  private AppController controller;
+
+  /** Lookups handed to the executor, run only when a test says so. */
+  private final List<Runnable> queued = new ArrayList<>();
+  /** Opened to let a lookup return; the lookup blocks until then. */
+  private CountDownLatch answer = new CountDownLatch(0);
+  private Exception failure;
+
+  @Before
+  public void setUp() throws Exception {
+    dir = Files.createTempDirectory("gragas-lookup");
+    csv = new CSVHandler(dir, CacheBudget.unlimited());
+    view = new HeadlessView();
+    FoodLookup lookup = description -> {
+      assertTrue(answer.await(5, TimeUnit.SECONDS));
+      if (failure != null) throw failure;
+      return new FoodEntry(description, 100);
+    };
+    onEdt(() -> controller = new AppController(view, csv, lookup, queued::add));
+    boolean[] loading = {true};
+    while (loading[0]) {
+      onEdt(() -> loading[0] = view.getUserSelectionView().isLoading());
+      Thread.sleep(5);
+    }
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    controller.close();
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  private static void onEdt(Runnable action) throws Exception {
+    EventQueue.invokeAndWait(action);
+    // Let the coalesced dashboard refresh queued by the action run
+    EventQueue.invokeAndWait(() -> { });
+  }
+
+  private void createProfile(String name) throws Exception {
+    onEdt(() -> {
+      view.getUserSelectionView().fillNewProfile(name, 30, 180, 80, 75, Sex.MALE, ActivityLevel.MODERATE);
+      view.getUserSelectionView().clickCreateProfile();
+    });
+  }
+
+  private void addFood(String text) throws Exception {
+    onEdt(() -> {
+      view.getDashboardView().typeFood(text);
+      view.getDashboardView().clickAddFood();
+    });
+  }
+
+  private void runQueuedLookups() throws Exception {
+    for (Runnable lookup : queued) {
+      lookup.run();
+    }
+    queued.clear();
+    onEdt(() -> { });
+  }
+
+  private FoodLogTableModel table() {
+    return view.getDashboardView().getFoodLogTableModel();
+  }
+
+  @Test
+  public void resolvingRowIsShownUntilTheLookupReturns() throws Exception {
+    createProfile("Gorpo");
+    answer = new CountDownLatch(1);
+    addFood("banana");
+    assertEquals(1, queued.size());
+    onEdt(() -> {
+      assertEquals(1, table().getRowCount());
+      assertEquals("banana", table().getValueAt(0, 0));
+      assertEquals("resolving...", table().getValueAt(0, 1));
+      assertNull(table().getEntryAt(0));
+    });
+
+    // The lookup blocks off the EDT; the placeholder stays meanwhile
+    Thread worker = new Thread(queued.remove(0));
+    worker.start();
+    onEdt(() -> assertEquals("resolving...", table().getValueAt(0, 1)));
+    answer.countDown();
+    worker.join();
+    // The result is handed to the EDT, which then queues the table refresh
+    onEdt(() -> { });
+    onEdt(() -> {
+      assertEquals(1, table().getRowCount());
+      assertEquals("banana", table().getEntryAt(0).getName());
+    });
+  }
+
+  @Test
+  public void repeatedClickForAFoodStillResolvingIsIgnored() throws Exception {
+    createProfile("Gorpo");
+    addFood("banana");
+    addFood(" Banana ");
+    assertEquals(1, queued.size());
+    onEdt(() -> assertEquals(1, table().getRowCount()));
+
+    runQueuedLookups();
+    assertEquals(1, csv.getUserProfiles().get(0).getLog(LocalDate.now()).size());
+    // Once resolved, the same food can be added again
+    addFood("banana");
+    assertEquals(1, queued.size());
+  }
+
+  @Test
+  public void failedLookupShowsAnErrorAndDropsThePlaceholder() throws Exception {
+    createProfile("Gorpo");
+    int errorsBefore = view.getErrorCount();
+    failure = new IOException("service down");
+    addFood("banana");
+    runQueuedLookups();
+
+    assertEquals(errorsBefore + 1, view.getErrorCount());
+    assertTrue(view.getLastError(), view.getLastError().contains("banana"));
+    assertTrue(view.getLastError(), view.getLastError().contains("service down"));
+    onEdt(() -> assertEquals(0, table().getRowCount()));
+    DailyLog today = csv.getUserProfiles().get(0).getLog(LocalDate.now());
+    assertTrue(today == null || today.size() == 0);
+  }
+
+  @Test
+  public void resultLandsInTheLogOfTheUserWhoAskedForIt() throws Exception {
+    createProfile("Asker");
+    addFood("banana");
+    onEdt(() -> view.getDashboardView().clickSwitchUser());
+    createProfile("Other");
+    runQueuedLookups();
+
+    UserProfile asker = csv.getUserProfiles().get(0);
+    UserProfile other = csv.getUserProfiles().get(1);
+    assertEquals("Asker", asker.getName());
+    assertEquals(1, asker.getLog(LocalDate.now()).size());
+    assertEquals("banana", asker.getLog(LocalDate.now()).getEntries().get(0).getName());
+    DailyLog othersDay = other.getLog(LocalDate.now());
+    assertTrue(othersDay == null || othersDay.size() == 0);
+    onEdt(() -> assertEquals(0, table().getRowCount()));
+  }
+
+  @Test
+  public void lookupEventsReportTheTierThatAnsweredThem() throws Exception {
+    createProfile("Gorpo");
+    List<String> tiers = new ArrayList<>();
+    try (Recording recording = new Recording()) {
+      recording.enable("GragasApp.NutritionLookup").withThreshold(Duration.ZERO);
+      recording.start();
+      addFood("banana");
+      runQueuedLookups();
+      onEdt(() -> view.getDashboardView().typeFood("ban"));
+      onEdt(() -> view.getDashboardView().chooseSuggestion(0));
+      onEdt(() -> view.getDashboardView().clickQuickAdd(0));
+      recording.stop();
+      Path dump = dir.resolve("events.jfr");
+      recording.dump(dump);
+      List<RecordedEvent> events = new ArrayList<>();
+      for (RecordedEvent e : RecordingFile.readAllEvents(dump)) {
+        if (e.getEventType().getName().equals("GragasApp.NutritionLookup")) events.add(e);
+      }
+      // Events from different threads are not dumped in commit order
+      events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+      for (RecordedEvent e : events) {
+        assertEquals("banana", e.getString("query"));
+        assertEquals(NutritionLookupEvent.STATUS_OK, e.getString("status"));
+        tiers.add(e.getString("cacheTier"));
+      }
+    }
+
+    assertEquals(List.of(NutritionLookupEvent.TIER_NONE, NutritionLookupEvent.TIER_SUGGESTIONS,
+        NutritionLookupEvent.TIER_FREQUENT), tiers);
+    assertEquals(3, csv.getUserProfiles().get(0).getLog(LocalDate.now()).size());
+  }
+}
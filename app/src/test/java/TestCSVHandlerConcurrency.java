@@ -0,0 +1,207 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Stress tests that hammer a shared CSVHandler and UserProfile from many threads.
+ * Each test works in its own temporary directory.
+ */
+public class TestCSVHandlerConcurrency {
+
+  private static final int THREADS = 8;
+
+  private Path dir;
+  private ExecutorService pool;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-csv");
+    pool = Executors.newFixedThreadPool(THREADS);
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    pool.shutdownNow();
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  private static UserProfile user(String name) {
+    return new UserProfile(name, 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+  }
+
+  /**
+   * Starts every task at once and rethrows the first failure.
+   */
+  private void runAll(List<Callable<Void>> tasks) throws Exception {
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Void>> futures = new ArrayList<>();
+    for (Callable<Void> task : tasks) {
+      futures.add(pool.submit(() -> {
+        start.await();
+        return task.call();
+      }));
+    }
+    start.countDown();
+    for (Future<Void> f : futures) {
+      f.get(30, TimeUnit.SECONDS);
+    }
+  }
+
+  @Test
+  public void concurrentSavesOfDistinctUsersAreAllRegisteredAndReadable() throws Exception {
+    CSVHandler handler = new CSVHandler(dir);
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      int thread = t;
+      tasks.add(() -> {
+        for (int i = 0; i < 25; i++) {
+          UserProfile u = user("user-" + thread + "-" + i);
+          u.getOrCreateLog(LocalDate.of(2025, 1, 1)).addEntry(new FoodEntry("apple", 52));
+          handler.saveUserProfileToCsv(u);
+        }
+        return null;
+      });
+    }
+    runAll(tasks);
+
+    assertEquals(THREADS * 25, handler.getUserProfiles().size());
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(THREADS * 25, reloaded.getUserProfiles().size());
+  }
+
+  @Test
+  public void racingSavesOfTheSameNameAdmitExactlyOne() throws Exception {
+    CSVHandler handler = new CSVHandler(dir);
+    AtomicInteger accepted = new AtomicInteger();
+    AtomicInteger rejected = new AtomicInteger();
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      tasks.add(() -> {
+        try {
+          handler.saveUserProfileToCsv(user("Gorpo"));
+          accepted.incrementAndGet();
+        } catch (IllegalArgumentException e) {
+          rejected.incrementAndGet();
+        }
+        return null;
+      });
+    }
+    runAll(tasks);
+
+    assertEquals(1, accepted.get());
+    assertEquals(THREADS - 1, rejected.get());
+    assertEquals(1, handler.getUserProfiles().size());
+  }
+
+  @Test
+  public void updatesAndLoadsInterleaveWithoutTornFiles() throws Exception {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile shared = user("Treevo");
+    handler.saveUserProfileToCsv(shared);
+    DailyLog log = shared.getOrCreateLog(LocalDate.of(2025, 8, 11));
+
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < THREADS / 2; t++) {
+      // Writers: mutate the shared profile and rewrite its file
+      tasks.add(() -> {
+        for (int i = 0; i < 50; i++) {
+          log.addEntry(new FoodEntry("coffee", 1));
+          shared.setWeightKg(70 + i);
+          handler.updateUserProfileToCsv(shared);
+        }
+        return null;
+      });
+      // Readers: load the directory from scratch and check the file parsed completely
+      tasks.add(() -> {
+        for (int i = 0; i < 50; i++) {
+          CSVHandler reader = new CSVHandler(dir);
+          reader.loadUserProfilesFromCsvs();
+          List<UserProfile> loaded = reader.getUserProfiles();
+          assertEquals("profile file must always parse", 1, loaded.size());
+          UserProfile copy = loaded.get(0);
+          DailyLog copyLog = copy.getLog(LocalDate.of(2025, 8, 11));
+          if (copyLog != null) {
+            assertEquals(copyLog.size(), copyLog.getTotalCalories());
+          }
+        }
+        return null;
+      });
+    }
+    runAll(tasks);
+
+    handler.updateUserProfileToCsv(shared);
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    UserProfile copy = reloaded.getUserProfiles().get(0);
+    assertEquals((THREADS / 2) * 50, copy.getLog(LocalDate.of(2025, 8, 11)).size());
+  }
+
+  @Test
+  public void profilesAreVisibleWhileTheLoadIsStillRunning() throws Exception {
+    CSVHandler writer = new CSVHandler(dir);
+    for (int i = 0; i < 20; i++) {
+      writer.saveUserProfileToCsv(user("user-" + i));
+    }
+    Files.writeString(dir.resolve("notes.csv"), "not,a,profile\n");
+
+    CSVHandler handler = new CSVHandler(dir);
+    List<Integer> visible = new ArrayList<>();
+    AtomicInteger registered = new AtomicInteger();
+    ProfileLoadListener listener = (profile, filesRead, fileCount) -> {
+      assertEquals(21, fileCount);
+      if (profile != null) registered.incrementAndGet();
+      visible.add(handler.getUserProfiles().size());
+    };
+    handler.addProfileLoadListener(listener);
+    handler.loadUserProfilesFromCsvs();
+
+    assertEquals(20, registered.get());
+    assertEquals(21, visible.size());
+    assertEquals(20, (int) visible.get(20));
+    assertTrue("profiles appear one file at a time", visible.contains(1));
+
+    handler.removeProfileLoadListener(listener);
+    handler.loadUserProfilesFromCsvs();
+    assertEquals(21, visible.size());
+  }
+
+  @Test
+  public void concurrentGetOrCreateLogYieldsOneLogPerDay() throws Exception {
+    UserProfile profile = user("Gorpo");
+    LocalDate day = LocalDate.of(2025, 8, 11);
+    List<Callable<Void>> tasks = new ArrayList<>();
+    for (int t = 0; t < THREADS; t++) {
+      tasks.add(() -> {
+        for (int i = 0; i < 100; i++) {
+          profile.getOrCreateLog(day).addEntry(new FoodEntry("apple", 1));
+        }
+        return null;
+      });
+    }
+    runAll(tasks);
+
+    assertEquals(1, profile.getLogs().size());
+    assertEquals(THREADS * 100, profile.getLog(day).size());
+  }
+}
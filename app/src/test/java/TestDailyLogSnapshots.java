@@ -0,0 +1,76 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import GragasApp.model.*;
+import org.junit.Test;
+
+
+public class TestDailyLogSnapshots {
+
+  @Test
+  public void snapshotIsUnaffectedByLaterWrites() {
+    DailyLog log = new DailyLog(LocalDate.of(2025, 8, 11));
+    FoodEntry coffee = new FoodEntry("coffee", 1);
+    log.addEntry(coffee);
+    DailyLog.Snapshot before = log.snapshot();
+
+    log.addEntry(new FoodEntry("cake", 393.6));
+    log.removeEntry(coffee);
+
+    assertEquals(1, before.size());
+    assertEquals("coffee", before.get(0).getName());
+    assertEquals(1, log.size());
+    assertEquals("cake", log.getEntries().get(0).getName());
+  }
+
+  @Test
+  public void appendsAcrossChunkBoundariesKeepOrder() {
+    DailyLog log = new DailyLog(LocalDate.of(2025, 8, 11));
+    DailyLog.Snapshot[] versions = new DailyLog.Snapshot[101];
+    versions[0] = log.snapshot();
+    for (int i = 1; i <= 100; i++) {
+      log.addEntry(new FoodEntry("food " + i, i));
+      versions[i] = log.snapshot();
+    }
+
+    for (int v = 0; v <= 100; v++) {
+      List<Loggable> entries = versions[v].getEntries();
+      assertEquals(v, entries.size());
+      for (int i = 0; i < v; i++) {
+        assertEquals("food " + (i + 1), entries.get(i).getName());
+      }
+    }
+  }
+
+  @Test
+  public void readersIterateWhileWriterAppends() throws Exception {
+    DailyLog log = new DailyLog(LocalDate.of(2025, 8, 11));
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    Thread reader = new Thread(() -> {
+      try {
+        int lastSize = 0;
+        while (lastSize < 5000) {
+          DailyLog.Snapshot snapshot = log.snapshot();
+          int i = 0;
+          for (Loggable entry : snapshot.getEntries()) {
+            if (!entry.getName().equals("food " + i++)) throw new AssertionError("torn read at " + i);
+          }
+          if (snapshot.size() < lastSize) throw new AssertionError("size went backwards");
+          lastSize = snapshot.size();
+        }
+      } catch (Throwable t) {
+        failure.set(t);
+      }
+    });
+    reader.start();
+    for (int i = 0; i < 5000; i++) {
+      log.addEntry(new FoodEntry("food " + i, 1));
+    }
+    reader.join(10_000);
+
+    assertNull(failure.get());
+    assertEquals(5000, log.getTotalCalories());
+  }
+}
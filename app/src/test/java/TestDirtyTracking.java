@@ -0,0 +1,263 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import GragasApp.controller.AutoSaver;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestDirtyTracking {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-dirty");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  private static UserProfile user(String name) {
+    return new UserProfile(name, 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+  }
+
+  @Test
+  public void savingCleansProfileAndLogs() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    DailyLog log = gorpo.getOrCreateLog(DAY);
+    assertFalse("an empty new day has nothing to save", log.isDirty());
+    log.addEntry(new FoodEntry("apple", 52));
+    gorpo.setWeightKg(79);
+    assertTrue(gorpo.isDirty());
+    assertTrue(log.isDirty());
+
+    handler.saveUserProfileToCsv(gorpo);
+    assertFalse(gorpo.isDirty());
+    assertFalse(log.isDirty());
+  }
+
+  @Test
+  public void cleanProfilesAreNotWritten() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    handler.saveUserProfileToCsv(user("Gorpo"));
+    UserProfile treevo = user("Treevo");
+    handler.saveUserProfileToCsv(treevo);
+    assertEquals(0, handler.saveDirtyProfiles());
+
+    long sizeBefore = Files.size(dir.resolve("Gorpo.csv"));
+    treevo.getOrCreateLog(DAY).addEntry(new FoodEntry("coffee", 2));
+    assertEquals(1, handler.saveDirtyProfiles());
+    assertEquals(sizeBefore, Files.size(dir.resolve("Gorpo.csv")));
+    assertFalse(treevo.getLog(DAY).isDirty());
+    assertEquals(0, handler.saveDirtyProfiles());
+  }
+
+  @Test
+  public void dirtyDaysAndFieldsSurviveReload() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    handler.saveUserProfileToCsv(gorpo);
+    gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("eggs", 155));
+    handler.saveDirtyProfiles();
+    gorpo.setTargetWeightKg(70);
+    gorpo.getOrCreateLog(DAY.plusDays(1)).addEntry(new FoodEntry("toast", 80));
+    handler.saveDirtyProfiles();
+
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    UserProfile copy = reloaded.getUserProfiles().get(0);
+    assertEquals(70, copy.getTargetWeightKg(), 0.001);
+    assertEquals(1, copy.getLog(DAY).size());
+    assertEquals(1, copy.getLog(DAY.plusDays(1)).size());
+    assertFalse("freshly loaded profiles are clean", copy.isDirty());
+    assertFalse(copy.getLog(DAY).isDirty());
+  }
+
+  @Test
+  public void appendedDaysAreCompactedOnceTheyOutgrowTheFile() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    handler.saveUserProfileToCsv(gorpo);
+    Path file = dir.resolve("Gorpo.csv");
+    int longest = 0;
+    for (int i = 0; i < 50; i++) {
+      gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("snack " + i, 100));
+      assertEquals(1, handler.saveDirtyProfiles());
+      longest = Math.max(longest, Files.readAllLines(file).size());
+    }
+    // A day saved food by food would otherwise hold 1 + 2 + ... + 50 rows
+    assertTrue("longest file: " + longest + " lines", longest <= 2 * (4 + 50) + 2);
+
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(50, reloaded.getUserProfiles().get(0).getLog(DAY).size());
+  }
+
+  @Test
+  public void loadingCompactsAppendedDays() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("eggs", 155));
+    handler.saveUserProfileToCsv(gorpo);
+    gorpo.getLog(DAY).addEntry(new FoodEntry("toast", 80));
+    handler.saveDirtyProfiles();
+    Path file = dir.resolve("Gorpo.csv");
+    assertTrue(Files.readString(file).contains("DailyLogReset"));
+
+    new CSVHandler(dir).loadUserProfilesFromCsvs();
+    assertFalse(Files.readString(file).contains("DailyLogReset"));
+    assertEquals(4 + 2, Files.readAllLines(file).size());
+  }
+
+  @Test
+  public void incompleteTrailingBlockIsIgnored() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("eggs", 155));
+    gorpo.getLog(DAY).addEntry(new FoodEntry("toast", 80));
+    handler.saveUserProfileToCsv(gorpo);
+    Path file = dir.resolve("Gorpo.csv");
+    String saved = Files.readString(file);
+    String fullRow = saved.substring(saved.indexOf("DailyLog," + DAY));
+    fullRow = fullRow.substring(0, fullRow.indexOf('\n') + 1);
+
+    // Fewer rows than announced, as left by a crash between two rows
+    Files.writeString(file, saved + "DailyLogReset," + DAY + ",3\n" + fullRow);
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(1, reloaded.getUserProfiles().size());
+    assertEquals(2, reloaded.getUserProfiles().get(0).getLog(DAY).size());
+
+    // A row cut off mid-line, as left by a full disk
+    Files.writeString(file, saved + "DailyLogReset," + DAY + ",1\n" + fullRow.substring(0, 24));
+    reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(1, reloaded.getUserProfiles().size());
+    assertEquals(2, reloaded.getUserProfiles().get(0).getLog(DAY).size());
+    assertEquals("the load rewrites the damaged file", saved.length(), Files.readString(file).length());
+  }
+
+  @Test
+  public void savingACleanProfileDoesNotWrite() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("eggs", 155));
+    handler.saveUserProfileToCsv(gorpo);
+    Path file = dir.resolve("Gorpo.csv");
+    Files.delete(file);
+
+    assertFalse(handler.saveIfDirty(gorpo));
+    assertFalse("a clean save wrote the file", Files.exists(file));
+    gorpo.setWeightKg(79);
+    assertTrue(handler.saveIfDirty(gorpo));
+    assertTrue(Files.exists(file));
+  }
+
+  @Test
+  public void lastPlainRowWithoutANewlineIsKept() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile gorpo = user("Gorpo");
+    gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("eggs", 155));
+    gorpo.getLog(DAY).addEntry(new FoodEntry("toast", 80));
+    handler.saveUserProfileToCsv(gorpo);
+    Path file = dir.resolve("Gorpo.csv");
+    // As saved by an editor that drops the final line break
+    String saved = Files.readString(file);
+    Files.writeString(file, saved.stripTrailing());
+
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(2, reloaded.getUserProfiles().get(0).getLog(DAY).size());
+    assertEquals("the load terminates the last row", saved, Files.readString(file));
+    reloaded.getUserProfiles().get(0).getLog(DAY).addEntry(new FoodEntry("jam", 50));
+    reloaded.updateDailyLogToCsv(reloaded.getUserProfiles().get(0), reloaded.getUserProfiles().get(0).getLog(DAY));
+
+    CSVHandler again = new CSVHandler(dir);
+    again.loadUserProfilesFromCsvs();
+    assertEquals(3, again.getUserProfiles().get(0).getLog(DAY).size());
+  }
+
+  @Test
+  public void requestDuringARunningSaveSchedulesAnother() throws Exception {
+    AtomicInteger writes = new AtomicInteger();
+    CountDownLatch firstStarted = new CountDownLatch(1);
+    CountDownLatch releaseFirst = new CountDownLatch(1);
+    CountDownLatch secondDone = new CountDownLatch(1);
+    CSVHandler handler = new CSVHandler(dir) {
+      @Override
+      public int saveDirtyProfiles() throws IOException {
+        if (writes.incrementAndGet() == 1) {
+          firstStarted.countDown();
+          try {
+            releaseFirst.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        } else {
+          secondDone.countDown();
+        }
+        return super.saveDirtyProfiles();
+      }
+    };
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      AutoSaver saver = new AutoSaver(handler, scheduler, 10, 10, e -> fail(e.getMessage()));
+      saver.requestSave();
+      assertTrue(firstStarted.await(5, TimeUnit.SECONDS));
+      // Past the maximum delay, while the first save may already have read the days
+      Thread.sleep(20);
+      saver.requestSave();
+      releaseFirst.countDown();
+      assertTrue("the edit behind the second request was never saved", secondDone.await(5, TimeUnit.SECONDS));
+      assertEquals(2, writes.get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
+  @Test
+  public void burstOfRequestsIsWrittenOnce() throws Exception {
+    AtomicInteger writes = new AtomicInteger();
+    CountDownLatch written = new CountDownLatch(1);
+    CSVHandler handler = new CSVHandler(dir) {
+      @Override
+      public int saveDirtyProfiles() throws IOException {
+        writes.incrementAndGet();
+        written.countDown();
+        return super.saveDirtyProfiles();
+      }
+    };
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      AutoSaver saver = new AutoSaver(handler, scheduler, 100, 10_000, e -> fail(e.getMessage()));
+      for (int i = 0; i < 10; i++) {
+        saver.requestSave();
+      }
+      assertTrue(written.await(5, TimeUnit.SECONDS));
+      Thread.sleep(300);
+      assertEquals(1, writes.get());
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+}
@@ -0,0 +1,52 @@
+import static org.junit.Assert.*;
+
+import java.awt.EventQueue;
+import java.util.Arrays;
+import GragasApp.diagnostics.EdtWatchdog;
+import org.junit.After;
+import org.junit.Test;
+
+
+public class TestEdtWatchdog {
+
+  private EdtWatchdog watchdog;
+
+  @After
+  public void tearDown() {
+    if (watchdog != null) watchdog.stop();
+  }
+
+  private static void waitFor(java.util.function.BooleanSupplier condition) throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 5000;
+    while (!condition.getAsBoolean()) {
+      assertTrue("Timed out", System.currentTimeMillis() < deadline);
+      Thread.sleep(10);
+    }
+  }
+
+  @Test
+  public void stallIsRecordedWithTheBlockingStack() throws Exception {
+    watchdog = new EdtWatchdog(10, 100);
+    watchdog.start();
+    waitFor(() -> watchdog.getLatencies().getCount() > 0);
+    assertEquals(0, watchdog.getStallCount());
+
+    EventQueue.invokeAndWait(TestEdtWatchdog::blockTheEdt);
+    waitFor(() -> watchdog.getStallCount() == 1);
+
+    EdtWatchdog.Stall stall = watchdog.getRecentStalls().get(0);
+    assertTrue(stall.getDurationMillis() >= 100);
+    assertTrue(Arrays.stream(stall.getStack()).anyMatch(f -> f.getMethodName().equals("blockTheEdt")));
+    String report = watchdog.report();
+    assertTrue(report, report.contains("Stalls: 1"));
+    assertTrue(report, report.contains("blockTheEdt"));
+  }
+
+  private static void blockTheEdt() {
+    try {
+      Thread.sleep(400);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,133 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestEntryIds {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-ids");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Test
+  public void equalEntriesHaveDistinctIds() {
+    FoodEntry first = new FoodEntry("coffee", 2);
+    FoodEntry second = new FoodEntry("coffee", 2);
+    assertEquals(first, second);
+    assertNotEquals(first.getId(), second.getId());
+  }
+
+  @Test
+  public void removeByIdTakesTheExactEntry() {
+    DailyLog log = new DailyLog(DAY);
+    FoodEntry morning = new FoodEntry("coffee", 2);
+    FoodEntry evening = new FoodEntry("coffee", 2);
+    log.addEntry(morning);
+    log.addEntry(evening);
+
+    assertSame(evening, log.removeEntryById(evening.getId()));
+    assertEquals(1, log.size());
+    assertSame(morning, log.getEntries().get(0));
+    assertNull(log.removeEntryById(evening.getId()));
+  }
+
+  @Test
+  public void replaceKeepsPositionAndUpdatesTotals() {
+    DailyLog log = new DailyLog(DAY);
+    FoodEntry toast = new FoodEntry("toast", 80);
+    log.addEntry(new FoodEntry("eggs", 155));
+    log.addEntry(toast);
+    log.addEntry(new FoodEntry("juice", 110));
+
+    FoodEntry edited = toast.withValues("Rye Toast", 95);
+    assertSame(toast, log.replaceEntry(toast.getId(), edited));
+    assertEquals(toast.getId(), edited.getId());
+    assertEquals("rye toast", log.getEntries().get(1).getName());
+    assertEquals(36000, log.getTotalCalorieHundredths());
+  }
+
+  @Test
+  public void addingTheSameEntryTwiceIsRejected() {
+    DailyLog log = new DailyLog(DAY);
+    FoodEntry apple = new FoodEntry("apple", 52);
+    log.addEntry(apple);
+    try {
+      log.addEntry(apple);
+      fail("duplicate id should be rejected");
+    } catch (IllegalArgumentException expected) {
+      assertEquals(1, log.size());
+    }
+  }
+
+  @Test
+  public void manyDeletesKeepOrderAndLookups() {
+    DailyLog log = new DailyLog(DAY);
+    FoodEntry[] entries = new FoodEntry[200];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = new FoodEntry("item" + i, 1);
+      log.addEntry(entries[i]);
+    }
+    for (int i = 0; i < entries.length; i += 2) {
+      log.removeEntryById(entries[i].getId());
+    }
+
+    assertEquals(100, log.size());
+    assertEquals(10000, log.getTotalCalorieHundredths());
+    for (int i = 1; i < entries.length; i += 2) {
+      assertSame(entries[i], log.getEntries().get(i / 2));
+      assertSame(entries[i], log.getEntry(entries[i].getId()));
+    }
+  }
+
+  @Test
+  public void idsAndDayUpdatesSurviveReload() throws IOException {
+    CSVHandler handler = new CSVHandler(dir);
+    UserProfile user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    DailyLog log = user.getOrCreateLog(DAY);
+    FoodEntry kept = new FoodEntry("coffee", 2);
+    FoodEntry dropped = new FoodEntry("coffee", 2);
+    log.addEntry(kept);
+    log.addEntry(dropped);
+    user.getOrCreateLog(DAY.plusDays(1)).addEntry(new FoodEntry("apple", 52));
+    handler.saveUserProfileToCsv(user);
+
+    log.removeEntryById(dropped.getId());
+    log.replaceEntry(kept.getId(), kept.withValues("latte", 120));
+    handler.updateDailyLogToCsv(user, log);
+
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    UserProfile copy = reloaded.getUserProfiles().get(0);
+    DailyLog copyLog = copy.getLog(DAY);
+    assertEquals(1, copyLog.size());
+    Loggable entry = copyLog.getEntries().get(0);
+    assertEquals(kept.getId(), entry.getId());
+    assertEquals(kept.getCreatedAt(), entry.getCreatedAt());
+    assertEquals("latte", entry.getName());
+    assertEquals(1, copy.getLog(DAY.plusDays(1)).size());
+
+    // Ids restored from disk are never handed out again
+    assertTrue(new FoodEntry("tea", 1).getId() > entry.getId());
+  }
+}
@@ -0,0 +1,42 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import GragasApp.model.*;
+import org.junit.Test;
+
+
+public class TestFixedPointCalories {
+
+  @Test
+  public void parsesAndFormatsWithoutFloatingPoint() {
+    assertEquals(6960, FixedPoint.parseHundredths("69.6"));
+    assertEquals(100, FixedPoint.parseHundredths("1"));
+    assertEquals(56260, FixedPoint.parseHundredths("562.60"));
+    assertEquals(101, FixedPoint.parseHundredths("1.005"));
+    assertEquals(-313, FixedPoint.parseHundredths("-3.125"));
+    assertEquals("69.60", FixedPoint.formatHundredths(6960));
+    assertEquals("0.05", FixedPoint.formatHundredths(5));
+  }
+
+  @Test(expected = NumberFormatException.class)
+  public void rejectsNonNumbers() {
+    FixedPoint.parseHundredths("abc");
+  }
+
+  @Test
+  public void dailyTotalsAreExact() {
+    DailyLog log = new DailyLog(LocalDate.of(2025, 8, 11));
+    for (int i = 0; i < 10; i++) {
+      log.addEntry(new FoodEntry("mint", 0.1));
+    }
+    assertEquals(100, log.getTotalCalorieHundredths());
+    assertEquals(1, log.getTotalCalories());
+  }
+
+  @Test
+  public void entriesCompareByFixedPointValue() {
+    assertEquals(FoodEntry.ofHundredths("Oatmeal", 25000, null), new FoodEntry("oatmeal", 250));
+    assertEquals(new FoodEntry("oatmeal", 0.1 + 0.2), new FoodEntry("oatmeal", 0.3));
+    assertEquals(new FoodEntry("oatmeal", 0.3).hashCode(), new FoodEntry("oatmeal", 0.1 + 0.2).hashCode());
+  }
+}
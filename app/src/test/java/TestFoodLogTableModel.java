@@ -0,0 +1,82 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TableModelEvent;
+import GragasApp.model.*;
+import GragasApp.view.FoodLogTableModel;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestFoodLogTableModel {
+
+  private DailyLog log;
+  private FoodLogTableModel model;
+  private List<TableModelEvent> events;
+
+  @Before
+  public void setUp() {
+    log = new DailyLog(LocalDate.of(2025, 8, 11));
+    model = new FoodLogTableModel();
+    events = new ArrayList<>();
+    model.addTableModelListener(events::add);
+  }
+
+  @Test
+  public void appendFiresOneInsertForTheNewRows() {
+    for (int i = 0; i < 1000; i++) {
+      log.addEntry(new FoodEntry("item" + i, 1));
+    }
+    model.setRows(log.snapshot());
+    events.clear();
+
+    log.addEntry(new FoodEntry("apple", 52));
+    log.addEntry(new FoodEntry("pear", 57));
+    model.setRows(log.snapshot());
+
+    assertEquals(1, events.size());
+    TableModelEvent e = events.get(0);
+    assertEquals(TableModelEvent.INSERT, e.getType());
+    assertEquals(1000, e.getFirstRow());
+    assertEquals(1001, e.getLastRow());
+    assertEquals("pear", model.getValueAt(1001, 0));
+    assertEquals("57.0", model.getValueAt(1001, 1));
+  }
+
+  @Test
+  public void removalFallsBackToDataChanged() {
+    FoodEntry apple = new FoodEntry("apple", 52);
+    log.addEntry(apple);
+    log.addEntry(new FoodEntry("pear", 57));
+    model.setRows(log.snapshot());
+    events.clear();
+
+    log.removeEntryById(apple.getId());
+    model.setRows(log.snapshot());
+
+    assertEquals(1, events.size());
+    assertEquals("whole table changed", Integer.MAX_VALUE, events.get(0).getLastRow());
+    assertEquals(1, model.getRowCount());
+    assertEquals("pear", model.getEntryAt(0).getName());
+  }
+
+  @Test
+  public void pendingRowsFollowEntriesAndResolveInPlace() {
+    log.addEntry(new FoodEntry("apple", 52));
+    model.setRows(log.snapshot(), List.of("2 eggs"));
+    assertEquals(2, model.getRowCount());
+    assertEquals("resolving...", model.getValueAt(1, 1));
+    assertNull("placeholder rows have no entry", model.getEntryAt(1));
+    events.clear();
+
+    log.addEntry(new FoodEntry("2 eggs", 155));
+    model.setRows(log.snapshot());
+
+    assertEquals(1, events.size());
+    assertEquals(TableModelEvent.UPDATE, events.get(0).getType());
+    assertEquals(1, events.get(0).getFirstRow());
+    assertEquals("155.0", model.getValueAt(1, 1));
+  }
+}
@@ -0,0 +1,73 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import GragasApp.model.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestFoodSearchIndex {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private UserProfile user;
+  private FoodSearchIndex index;
+  private LogEntryWatcher watcher;
+
+  @Before
+  public void setUp() {
+    user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    index = new FoodSearchIndex();
+    watcher = new LogEntryWatcher(index);
+  }
+
+  @Test
+  public void existingEntriesAreFoundByWordPrefix() {
+    FoodEntry lasagna = new FoodEntry("beef lasagna", 540);
+    user.getOrCreateLog(DAY).addEntry(lasagna);
+    user.getOrCreateLog(DAY.plusDays(1)).addEntry(new FoodEntry("chicken salad", 350));
+    watcher.addProfile(user);
+
+    List<FoodSearchIndex.Hit> hits = index.search("LASAG", null, 10);
+    assertEquals(1, hits.size());
+    assertSame(user, hits.get(0).getUser());
+    assertEquals(DAY, hits.get(0).getDate());
+    assertEquals(lasagna.getId(), hits.get(0).getEntryId());
+    assertTrue(index.search("salad beef", null, 10).isEmpty());
+    UserProfile other = new UserProfile("Yumi", 25, 160, ActivityLevel.LIGHT, Sex.FEMALE, 55, 52);
+    watcher.addProfile(other);
+    assertTrue(index.search("lasagna", other, 10).isEmpty());
+  }
+
+  @Test
+  public void followsAddsEditsAndRemovals() {
+    watcher.addProfile(user);
+    FoodEntry apple = new FoodEntry("apple pie", 300);
+    DailyLog log = user.getOrCreateLog(DAY); // a day created after indexing
+    log.addEntry(apple);
+    assertEquals(1, index.search("pie", user, 10).size());
+
+    log.replaceEntry(apple.getId(), apple.withValues("pear tart", 280));
+    assertTrue(index.search("apple", null, 10).isEmpty());
+    assertEquals(apple.getId(), index.search("tart pe", null, 10).get(0).getEntryId());
+
+    log.removeEntryById(apple.getId());
+    assertTrue(index.search("pear", null, 10).isEmpty());
+    assertEquals(0, index.size());
+  }
+
+  @Test
+  public void returnsTheMostRecentMatchesFirstUpToTheLimit() {
+    for (int d = 0; d < 100; d++) {
+      user.getOrCreateLog(DAY.plusDays(d)).addEntry(new FoodEntry("oatmeal", 150));
+      user.getOrCreateLog(DAY.plusDays(d)).addEntry(new FoodEntry("orange juice", 110));
+    }
+    watcher.addProfile(user);
+
+    List<FoodSearchIndex.Hit> hits = index.search("o", null, 5);
+    assertEquals(5, hits.size());
+    assertEquals(DAY.plusDays(99), hits.get(0).getDate());
+    assertEquals(DAY.plusDays(97), hits.get(4).getDate());
+  }
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import GragasApp.model.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestFoodSuggestions {
+
+  private static final LocalDate TODAY = LocalDate.of(2025, 8, 11);
+
+  private UserProfile user;
+  private FoodSuggestions suggestions;
+
+  @Before
+  public void setUp() {
+    user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    suggestions = new FoodSuggestions();
+    new LogEntryWatcher(suggestions).addProfile(user);
+  }
+
+  @Test
+  public void ranksByFrequencyDecayedByRecency() {
+    // Eaten daily long ago, twice recently, once today
+    for (int d = 200; d < 210; d++) {
+      user.getOrCreateLog(TODAY.minusDays(d)).addEntry(new FoodEntry("banana bread", 320));
+    }
+    user.getOrCreateLog(TODAY.minusDays(1)).addEntry(new FoodEntry("banana", 105));
+    user.getOrCreateLog(TODAY).addEntry(new FoodEntry("banana", 105));
+    user.getOrCreateLog(TODAY).addEntry(new FoodEntry("bagel", 250));
+    user.getOrCreateLog(TODAY).addEntry(new FoodEntry("apple", 52));
+
+    List<FoodSuggestions.Suggestion> found = suggestions.suggest(" BA", TODAY, 10);
+    assertEquals(3, found.size());
+    assertEquals("banana", found.get(0).getName());
+    assertEquals(2, found.get(0).getTimesLogged());
+    assertEquals("bagel", found.get(1).getName());
+    assertEquals("banana bread", found.get(2).getName());
+    assertEquals(1, suggestions.suggest("ba", TODAY, 1).size());
+    assertTrue(suggestions.suggest("", TODAY, 10).isEmpty());
+  }
+
+  @Test
+  public void chosenSuggestionReusesTheLatestValuesAsANewEntry() {
+    double[] nutrients = new double[Nutrient.COUNT];
+    nutrients[Nutrient.values()[0].ordinal()] = 12.5;
+    FoodEntry old = new FoodEntry("greek yogurt", 100);
+    user.getOrCreateLog(TODAY.minusDays(3)).addEntry(old);
+    user.getOrCreateLog(TODAY.minusDays(1)).addEntry(new FoodEntry("greek yogurt", 130, nutrients));
+
+    FoodEntry again = suggestions.suggest("greek", TODAY, 5).get(0).newEntry();
+    assertEquals(13000, again.getCalorieHundredths());
+    assertEquals(12.5, again.getNutrient(Nutrient.values()[0]), 1e-9);
+    assertNotEquals(old.getId(), again.getId());
+  }
+
+  @Test
+  public void removedFoodsAreNoLongerSuggested() {
+    FoodEntry once = new FoodEntry("quiche", 400);
+    user.getOrCreateLog(TODAY).addEntry(once);
+    assertEquals(1, suggestions.size());
+    user.getLog(TODAY).removeEntryById(once.getId());
+    assertTrue(suggestions.suggest("qu", TODAY, 5).isEmpty());
+    assertEquals(0, suggestions.size());
+  }
+}
@@ -0,0 +1,68 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import GragasApp.model.*;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestFrequentFoods {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private UserProfile gorpo;
+  private UserProfile yumi;
+  private FrequentFoods frequent;
+  private LogEntryWatcher watcher;
+
+  @Before
+  public void setUp() {
+    gorpo = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    yumi = new UserProfile("Yumi", 25, 160, ActivityLevel.LIGHT, Sex.FEMALE, 55, 52);
+    frequent = new FrequentFoods(8);
+    watcher = new LogEntryWatcher(frequent);
+  }
+
+  @Test
+  public void heavyHittersSurviveALongTailOfOneOffFoods() {
+    // Daily coffee and eggs every other day among 2000 foods eaten once each
+    for (int d = 0; d < 1000; d++) {
+      DailyLog log = gorpo.getOrCreateLog(DAY.minusDays(d));
+      log.addEntry(new FoodEntry("coffee", 5));
+      if (d % 2 == 0) log.addEntry(new FoodEntry("eggs", 140));
+      log.addEntry(new FoodEntry("dish " + (2 * d), 500));
+      log.addEntry(new FoodEntry("dish " + (2 * d + 1), 500));
+    }
+    watcher.addProfile(gorpo); // counted from the existing history, as at load
+
+    List<FoodSuggestions.Suggestion> top = frequent.top(gorpo, 2);
+    assertEquals("coffee", top.get(0).getName());
+    assertEquals(1000, top.get(0).getTimesLogged());
+    assertEquals("eggs", top.get(1).getName());
+    assertEquals(14000, top.get(1).getCalorieHundredths());
+  }
+
+  @Test
+  public void countsPerUserAndOverall() {
+    watcher.addProfile(gorpo);
+    watcher.addProfile(yumi);
+    for (int i = 0; i < 3; i++) gorpo.getOrCreateLog(DAY).addEntry(new FoodEntry("steak", 600));
+    for (int i = 0; i < 2; i++) yumi.getOrCreateLog(DAY).addEntry(new FoodEntry("salad", 200));
+    yumi.getOrCreateLog(DAY).addEntry(new FoodEntry("steak", 600));
+
+    assertEquals("salad", frequent.top(yumi, 1).get(0).getName());
+    assertEquals("steak", frequent.topOverall(1).get(0).getName());
+    assertEquals(4, frequent.topOverall(1).get(0).getTimesLogged());
+  }
+
+  @Test
+  public void removedEntriesAreUncounted() {
+    watcher.addProfile(gorpo);
+    FoodEntry toast = new FoodEntry("toast", 80);
+    gorpo.getOrCreateLog(DAY).addEntry(toast);
+    gorpo.getLog(DAY).removeEntryById(toast.getId());
+    assertTrue(frequent.top(gorpo, 5).isEmpty());
+    assertTrue(frequent.topOverall(5).isEmpty());
+  }
+}
@@ -0,0 +1,84 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestJfrEvents {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-jfr");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Test
+  public void csvReadsAndWritesAreRecordedWithRowsAndBytes() throws IOException {
+    UserProfile user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    user.getOrCreateLog(DAY).addEntry(new FoodEntry("apple", 52));
+    user.getOrCreateLog(DAY).addEntry(new FoodEntry("bagel", 250));
+    Path file = dir.resolve("Gorpo.csv");
+
+    List<RecordedEvent> events = new ArrayList<>();
+    try (Recording recording = new Recording()) {
+      recording.enable("GragasApp.CsvWrite").withThreshold(Duration.ZERO);
+      recording.enable("GragasApp.CsvRead").withThreshold(Duration.ZERO);
+      recording.start();
+      CSVHandler handler = new CSVHandler(dir);
+      handler.saveUserProfileToCsv(user);
+      user.getLog(DAY).addEntry(new FoodEntry("banana", 105));
+      handler.updateDailyLogToCsv(user, user.getLog(DAY));
+      new CSVHandler(dir).loadUserProfilesFromCsvs();
+      recording.stop();
+      Path dump = dir.resolve("events.jfr");
+      recording.dump(dump);
+      for (RecordedEvent e : RecordingFile.readAllEvents(dump)) {
+        if (e.getEventType().getName().startsWith("GragasApp.")) events.add(e);
+      }
+    }
+
+    // The load finds the appended day and compacts the file
+    assertEquals(4, events.size());
+    RecordedEvent save = events.get(0);
+    assertFalse(save.getBoolean("append"));
+    assertEquals(2, save.getInt("rows"));
+    RecordedEvent append = events.get(1);
+    assertTrue(append.getBoolean("append"));
+    assertEquals(3, append.getInt("rows"));
+    RecordedEvent read = events.get(2);
+    assertEquals("GragasApp.CsvRead", read.getEventType().getName());
+    assertEquals(file.toString(), read.getString("path"));
+    assertEquals(5, read.getInt("rows"));
+    assertEquals(save.getLong("bytes") + append.getLong("bytes"), read.getLong("bytes"));
+    assertTrue(read.getBoolean("succeeded"));
+    RecordedEvent compaction = events.get(3);
+    assertEquals("GragasApp.CsvWrite", compaction.getEventType().getName());
+    assertFalse(compaction.getBoolean("append"));
+    assertEquals(3, compaction.getInt("rows"));
+    assertEquals(Files.size(file), compaction.getLong("bytes"));
+  }
+}
@@ -0,0 +1,74 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import GragasApp.loadtest.LoadTestDriver;
+import GragasApp.loadtest.SessionScript;
+import GragasApp.loadtest.StubNutritionServer;
+import GragasApp.model.CSVHandler;
+import GragasApp.model.UserProfile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestLoadTestDriver {
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-load");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Test
+  public void scriptExpandsRepeatsAndKeepsSearchQueries() {
+    SessionScript script = SessionScript.parse("# warm up\ncreate\nadd-food x3\n\nsearch greek yogurt\n");
+    List<SessionScript.Step> steps = script.getSteps();
+    assertEquals(5, steps.size());
+    assertEquals(SessionScript.Action.ADD_FOOD, steps.get(3).getAction());
+    assertEquals("greek yogurt", steps.get(4).getArgument());
+    try {
+      SessionScript.parse("create\ndance");
+      fail("Unknown action accepted");
+    } catch (IllegalArgumentException expected) {
+      assertTrue(expected.getMessage().startsWith("Line 2"));
+    }
+  }
+
+  @Test
+  public void sessionsRunEndToEndAgainstTheStubServer() throws Exception {
+    SessionScript script = SessionScript.parse(String.join("\n",
+        "create", "add-food x3", "quick-add", "edit-weight", "view-logs", "search a", "back",
+        "save", "switch-user", "load", "switch-user"));
+    CSVHandler csv = new CSVHandler(dir);
+    LoadTestDriver.Report report;
+    try (StubNutritionServer server = new StubNutritionServer(0)) {
+      report = new LoadTestDriver(script, 6, 2, csv, server.getBaseUrl()).run();
+    }
+
+    assertEquals(report.toString(), 0, report.getFailedSessions());
+    assertEquals(18, report.getCount(SessionScript.Action.ADD_FOOD));
+    assertEquals(6, report.getCount(SessionScript.Action.QUICK_ADD));
+    assertTrue(report.percentileMillis(SessionScript.Action.ADD_FOOD, 0.99) > 0);
+    assertTrue(report.toString().contains("add-food"));
+
+    CSVHandler reloaded = new CSVHandler(dir);
+    reloaded.loadUserProfilesFromCsvs();
+    assertEquals(6, reloaded.getUserProfiles().size());
+    for (UserProfile user : reloaded.getUserProfiles()) {
+      assertEquals(4, user.getLogs().get(0).size());
+    }
+  }
+}
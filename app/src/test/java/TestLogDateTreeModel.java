@@ -0,0 +1,71 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import java.time.Year;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.event.TreeModelEvent;
+import javax.swing.event.TreeModelListener;
+import GragasApp.model.*;
+import GragasApp.view.LogDateTreeModel;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestLogDateTreeModel {
+
+  private UserProfile user;
+  private LogDateTreeModel model;
+
+  @Before
+  public void setUp() {
+    user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    // Three years of history, every day
+    for (LocalDate d = LocalDate.of(2023, 1, 1); d.getYear() < 2026; d = d.plusDays(1)) {
+      user.getOrCreateLog(d);
+    }
+    model = new LogDateTreeModel();
+    model.setDates(user.getLogDates());
+  }
+
+  @Test
+  public void groupsByYearAndMonthMostRecentFirst() {
+    Object root = model.getRoot();
+    assertEquals(3, model.getChildCount(root));
+    assertEquals(Year.of(2025), model.getChild(root, 0));
+    assertEquals(Year.of(2023), model.getChild(root, 2));
+
+    Object year = model.getChild(root, 1);
+    assertEquals(12, model.getChildCount(year));
+    assertEquals(YearMonth.of(2024, 12), model.getChild(year, 0));
+
+    Object february = model.getChild(year, 10);
+    assertEquals(29, model.getChildCount(february));
+    assertEquals(LocalDate.of(2024, 2, 29), model.getChild(february, 0));
+    assertTrue(model.isLeaf(model.getChild(february, 0)));
+  }
+
+  @Test
+  public void addedDateFiresOneInsertionUnderTheLoadedGroup() {
+    Object root = model.getRoot();
+    Object year = model.getChild(root, 0);
+    model.getChildCount(year);
+    List<TreeModelEvent> inserted = new ArrayList<>();
+    model.addTreeModelListener(new TreeModelListener() {
+      @Override public void treeNodesChanged(TreeModelEvent e) { fail("unexpected change"); }
+      @Override public void treeNodesInserted(TreeModelEvent e) { inserted.add(e); }
+      @Override public void treeNodesRemoved(TreeModelEvent e) { fail("unexpected removal"); }
+      @Override public void treeStructureChanged(TreeModelEvent e) { fail("unexpected reload"); }
+    });
+
+    LocalDate newYearsDay = LocalDate.of(2026, 1, 1);
+    user.getOrCreateLog(newYearsDay);
+    model.dateAdded(newYearsDay);
+
+    assertEquals(1, inserted.size());
+    assertEquals(Year.of(2026), inserted.get(0).getChildren()[0]);
+    assertEquals(0, inserted.get(0).getChildIndices()[0]);
+    assertEquals(4, model.getChildCount(root));
+  }
+}
@@ -0,0 +1,83 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+import GragasApp.model.ActivityLevel;
+import GragasApp.model.CSVHandler;
+import GragasApp.model.DailyLog;
+import GragasApp.model.FoodEntry;
+import GragasApp.model.MemoryFootprint;
+import GragasApp.model.Sex;
+import GragasApp.model.UserProfile;
+import org.junit.Test;
+
+
+public class TestMemoryFootprint {
+
+  private static UserProfile profile(String name, int days, int entriesPerDay) {
+    UserProfile user = new UserProfile(name, 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    LocalDate day = LocalDate.of(2025, 1, 1);
+    for (int d = 0; d < days; d++) {
+      DailyLog log = new DailyLog(day.plusDays(d));
+      for (int i = 0; i < entriesPerDay; i++) {
+        log.addEntry(new FoodEntry(i % 2 == 0 ? "Banana" : "Oatmeal", 100 + i));
+      }
+      user.addLog(log);
+    }
+    return user;
+  }
+
+  @Test
+  public void estimateCountsEntriesStringsAndOverhead() {
+    MemoryFootprint small = MemoryFootprint.of(profile("Alice", 2, 3));
+    assertEquals("Alice", small.getLabel());
+    assertEquals(2, small.getLogs());
+    assertEquals(6, small.getEntries());
+    // Every entry lowercases its own copy of the name: 6 names and the profile's
+    assertEquals(7, small.getStrings());
+    assertTrue(small.getDuplicateStringBytes() > 0);
+    assertTrue(small.getDuplicateStringBytes() < small.getStringBytes());
+    assertTrue(small.getOverheadBytes() > 0);
+    assertEquals(small.getEntryBytes() + small.getStringBytes() + small.getOverheadBytes(), small.getTotalBytes());
+
+    MemoryFootprint large = MemoryFootprint.of(profile("Bob", 20, 10));
+    long perEntry = (large.getTotalBytes() - small.getTotalBytes()) / (large.getEntries() - small.getEntries());
+    // An entry, its nutrients, its name and its index slot; tens of bytes would mean missing objects
+    assertTrue("bytes per entry: " + perEntry, perEntry > 150 && perEntry < 400);
+
+    MemoryFootprint total = MemoryFootprint.total("All", List.of(small, large));
+    assertEquals(2, total.getProfiles());
+    assertEquals(206, total.getEntries());
+    assertEquals(small.getTotalBytes() + large.getTotalBytes(), total.getTotalBytes());
+
+    String report = MemoryFootprint.report(List.of(profile("Alice", 2, 3), profile("Bob", 20, 10)), 1);
+    assertTrue(report, report.contains("Profiles: 2, logs: 22, entries: 206"));
+    assertTrue(report, report.contains("Bob"));
+    assertFalse("Only the largest profile is listed", report.contains("Alice"));
+  }
+
+  @Test
+  public void handlerEstimatesEveryLoadedProfile() throws IOException {
+    Path dir = Files.createTempDirectory("gragas-footprint");
+    try {
+      CSVHandler csv = new CSVHandler(dir);
+      csv.saveUserProfileToCsv(profile("Alice", 3, 4));
+      csv.saveUserProfileToCsv(profile("Bob", 1, 1));
+      CSVHandler reloaded = new CSVHandler(dir);
+      reloaded.loadUserProfilesFromCsvs();
+      MemoryFootprint footprint = reloaded.estimateFootprint();
+      assertEquals(2, footprint.getProfiles());
+      assertEquals(13, footprint.getEntries());
+      assertEquals(csv.estimateFootprint().getTotalBytes(), footprint.getTotalBytes());
+    } finally {
+      try (Stream<Path> files = Files.walk(dir)) {
+        files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+      }
+    }
+  }
+}
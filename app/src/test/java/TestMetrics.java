@@ -0,0 +1,74 @@
+import static org.junit.Assert.*;
+
+import GragasApp.diagnostics.Counter;
+import GragasApp.diagnostics.Histogram;
+import GragasApp.diagnostics.MetricsRegistry;
+import GragasApp.diagnostics.Timer;
+import javax.management.MBeanServer;
+import javax.management.MBeanServerFactory;
+import org.junit.Test;
+
+
+public class TestMetrics {
+
+  @Test
+  public void histogramPercentilesAreBoundedByTheirBucket() {
+    Histogram h = new MetricsRegistry().histogram("sizes");
+    for (int i = 1; i <= 100; i++) {
+      h.record(i);
+    }
+    assertEquals(100, h.getCount());
+    assertEquals(50.5, h.getMean(), 1e-9);
+    assertEquals(100, h.getMax());
+    // 50 falls in [32, 64), 99 in [64, 128) capped by the max
+    assertEquals(63, h.getP50());
+    assertEquals(100, h.getP99());
+    assertTrue(h.getP50() >= 50 && h.getP50() < 100);
+  }
+
+  @Test
+  public void registryReturnsOneMetricPerName() {
+    MetricsRegistry registry = new MetricsRegistry();
+    Counter errors = registry.counter("api.errors");
+    errors.increment();
+    errors.add(2);
+    assertSame(errors, registry.counter("api.errors"));
+    assertEquals(3, registry.counter("api.errors").getCount());
+    Timer timer = registry.timer("api.request");
+    timer.stop(timer.start());
+    assertEquals(1, timer.getCount());
+    assertTrue(registry.summary().contains("api.errors count=3"));
+    assertTrue(registry.summary().contains("api.request count=1"));
+    try {
+      registry.timer("api.errors");
+      fail("A counter's name was reused for a timer");
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void boundRegistryPublishesMetricsAsMBeans() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    registry.counter("csv.bytesRead").add(42);
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    registry.bindTo(server);
+    registry.timer("csv.read").record(2_000_000);
+
+    assertEquals(42L, server.getAttribute(MetricsRegistry.objectName("Counter", "csv.bytesRead"), "Count"));
+    assertEquals(2.0, (Double) server.getAttribute(MetricsRegistry.objectName("Timer", "csv.read"), "MaxMillis"), 1e-9);
+  }
+
+  @Test
+  public void gaugesReadTheirSupplierWhenReported() throws Exception {
+    MetricsRegistry registry = new MetricsRegistry();
+    long[] value = {7};
+    registry.gauge("memory.entries", () -> value[0]);
+    MBeanServer server = MBeanServerFactory.newMBeanServer();
+    registry.bindTo(server);
+    value[0] = 9;
+    assertEquals(9L, server.getAttribute(MetricsRegistry.objectName("Gauge", "memory.entries"), "Value"));
+    assertTrue(registry.summary().contains("memory.entries value=9"));
+    // The first supplier is kept
+    assertEquals(9, registry.gauge("memory.entries", () -> 0).getValue());
+  }
+}
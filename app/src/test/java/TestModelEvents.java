@@ -0,0 +1,85 @@
+import static org.junit.Assert.*;
+
+import java.beans.PropertyChangeEvent;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import GragasApp.model.*;
+import org.junit.Test;
+
+
+public class TestModelEvents {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  @Test
+  public void profileFiresOneEventPerFieldChange() {
+    UserProfile user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    List<PropertyChangeEvent> events = new ArrayList<>();
+    user.addPropertyChangeListener(events::add);
+
+    user.setWeightKg(79);
+    user.setWeightKg(79); // unchanged values are not reported
+    user.setTargetWeightLbs(150);
+
+    assertEquals(2, events.size());
+    assertEquals(UserProfile.WEIGHT_KG, events.get(0).getPropertyName());
+    assertEquals(80.0, events.get(0).getOldValue());
+    assertEquals(79.0, events.get(0).getNewValue());
+    assertEquals(UserProfile.TARGET_WEIGHT_KG, events.get(1).getPropertyName());
+  }
+
+  @Test
+  public void newDaysAreAnnouncedOnce() {
+    UserProfile user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    List<PropertyChangeEvent> events = new ArrayList<>();
+    user.addPropertyChangeListener(events::add);
+
+    DailyLog created = user.getOrCreateLog(DAY);
+    user.getOrCreateLog(DAY);
+    user.addLog(new DailyLog(DAY.plusDays(1)));
+
+    assertEquals(2, events.size());
+    assertEquals(UserProfile.LOG_ADDED, events.get(0).getPropertyName());
+    assertSame(created, events.get(0).getNewValue());
+  }
+
+  @Test
+  public void aDaysLogIsNeverReplacedBehindItsListeners() {
+    UserProfile user = new UserProfile("Gorpo", 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    DailyLog watched = user.getOrCreateLog(DAY);
+    try {
+      user.addLog(new DailyLog(DAY));
+      fail("Second log for a day accepted");
+    } catch (IllegalArgumentException expected) {
+      // Expected
+    }
+    try {
+      user.getLogs().clear();
+      fail("Logs changed through the copy");
+    } catch (UnsupportedOperationException expected) {
+      // Expected
+    }
+    assertSame(watched, user.getLog(DAY));
+  }
+
+  @Test
+  public void logReportsSnapshotsBeforeAndAfterEachChange() {
+    DailyLog log = new DailyLog(DAY);
+    List<PropertyChangeEvent> events = new ArrayList<>();
+    log.addPropertyChangeListener(events::add);
+
+    FoodEntry apple = new FoodEntry("apple", 52);
+    log.addEntry(apple);
+    log.replaceEntry(apple.getId(), apple.withValues("pear", 57));
+    log.removeEntryById(apple.getId());
+
+    assertEquals(3, events.size());
+    DailyLog.Snapshot afterAdd = (DailyLog.Snapshot) events.get(0).getNewValue();
+    assertTrue(afterAdd.isAppendOf((DailyLog.Snapshot) events.get(0).getOldValue()));
+    DailyLog.Snapshot afterReplace = (DailyLog.Snapshot) events.get(1).getNewValue();
+    assertFalse(afterReplace.isAppendOf(afterAdd));
+    assertSame(log.snapshot(), events.get(2).getNewValue());
+    assertTrue(log.isEmpty());
+  }
+}
@@ -0,0 +1,52 @@
+import static org.junit.Assert.*;
+
+import java.time.LocalDate;
+import GragasApp.model.*;
+import org.junit.Test;
+
+
+public class TestNutrientTotals {
+
+  private static final String RESPONSE = "[" +
+      "{\"name\": \"brisket\", \"calories\": 1312.3, \"protein_g\": 132.0, \"fat_total_g\": 82.9," +
+      " \"carbohydrates_total_g\": 0.0, \"sugar_g\": 0.0, \"sodium_mg\": 217}," +
+      "{\"name\": \"fries\", \"calories\": 317.7, \"protein_g\": 3.4, \"fat_total_g\": 14.8," +
+      " \"carbohydrates_total_g\": 41.1, \"sugar_g\": 0.3, \"sodium_mg\": 210}]";
+
+  @Test
+  public void decodeSumsCaloriesAndNutrientsAcrossItems() {
+    double[] nutrients = new double[Nutrient.COUNT];
+    double calories = APICaller.decodeNutrition(RESPONSE, nutrients);
+
+    assertEquals(1630.0, calories, 0.001);
+    assertEquals(135.4, nutrients[Nutrient.PROTEIN.ordinal()], 0.001);
+    assertEquals(41.1, nutrients[Nutrient.CARBOHYDRATES.ordinal()], 0.001);
+    assertEquals(427.0, nutrients[Nutrient.SODIUM.ordinal()], 0.001);
+  }
+
+  @Test
+  public void decodeTreatsNonNumericNutrientsAsZero() {
+    double[] nutrients = new double[Nutrient.COUNT];
+    APICaller.decodeNutrition(
+        "[{\"calories\": 100, \"protein_g\": \"Only available for premium subscribers.\"}]", nutrients);
+
+    assertEquals(0.0, nutrients[Nutrient.PROTEIN.ordinal()], 0.0);
+  }
+
+  @Test
+  public void dailyLogKeepsRunningNutrientTotals() {
+    DailyLog log = new DailyLog(LocalDate.of(2025, 8, 11));
+    FoodEntry eggs = new FoodEntry("eggs", 155, new double[] {13, 11, 1.1, 1.1, 124});
+    log.addEntry(eggs);
+    log.addEntry(new FoodEntry("toast", 80, new double[] {3, 1, 15, 1.5, 150}));
+
+    assertEquals(16.0, log.getTotal(Nutrient.PROTEIN), 0.001);
+    assertEquals(274.0, log.getTotal(Nutrient.SODIUM), 0.001);
+
+    assertTrue(log.removeEntry(eggs));
+    assertEquals(3.0, log.getTotal(Nutrient.PROTEIN), 0.001);
+
+    log.clear();
+    assertEquals(0.0, log.getTotal(Nutrient.FAT), 0.0);
+  }
+}
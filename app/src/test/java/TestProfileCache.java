@@ -0,0 +1,281 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestProfileCache {
+
+  private static final LocalDate DAY = LocalDate.of(2025, 8, 11);
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-cache");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  private static UserProfile user(String name, int entries) {
+    UserProfile user = new UserProfile(name, 30, 180, ActivityLevel.MODERATE, Sex.MALE, 80, 75);
+    for (int i = 0; i < entries; i++) {
+      user.getOrCreateLog(DAY.plusDays(i % 3)).addEntry(new FoodEntry(name + " snack " + i, 100 + i));
+    }
+    return user;
+  }
+
+  private static List<Long> ids(UserProfile user) {
+    List<Long> ids = new ArrayList<>();
+    for (DailyLog log : user.getLogs()) {
+      for (Loggable entry : log.getEntries()) {
+        ids.add(entry.getId());
+      }
+    }
+    return ids;
+  }
+
+  private static long residentEntries(CSVHandler handler) {
+    return handler.estimateFootprint().getEntries();
+  }
+
+  @Test
+  public void loadingMoreThanTheBudgetEvictsColdProfilesAndReloadsThemOnAccess() throws IOException {
+    CSVHandler writer = new CSVHandler(dir, CacheBudget.unlimited());
+    List<List<Long>> written = new ArrayList<>();
+    for (int i = 0; i < 5; i++) {
+      UserProfile user = user("User" + i, 10);
+      writer.saveUserProfileToCsv(user);
+      written.add(ids(user));
+    }
+
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(25));
+    handler.loadUserProfilesFromCsvs();
+    assertEquals(5, handler.getUserProfiles().size());
+    assertTrue("resident: " + residentEntries(handler), residentEntries(handler) <= 25);
+    int evicted = 0;
+    for (UserProfile user : handler.getUserProfiles()) {
+      if (!user.areLogsLoaded()) evicted++;
+    }
+    assertTrue(evicted >= 3);
+
+    assertNull(handler.getUserProfile("Nobody"));
+    for (int i = 0; i < 5; i++) {
+      UserProfile user = handler.getUserProfiles().get(i);
+      assertSame(user, handler.getUserProfile("User" + i));
+      assertEquals(written.get(i), ids(user));
+      assertTrue(user.areLogsLoaded());
+    }
+    assertEquals(50, residentEntries(handler));
+    handler.trimToBudget();
+    assertTrue(residentEntries(handler) <= 25);
+  }
+
+  @Test
+  public void dirtyColdProfileIsSavedBeforeItsLogsAreEvicted() throws IOException {
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(15));
+    UserProfile cold = user("Cold", 10);
+    handler.saveUserProfileToCsv(cold);
+    DailyLog day = cold.getLog(DAY);
+    day.addEntry(new FoodEntry("late dinner", 700));
+    handler.saveUserProfileToCsv(user("Hot", 10));
+
+    assertEquals(1, handler.trimToBudget());
+    assertFalse(cold.areLogsLoaded());
+    assertEquals(10, residentEntries(handler));
+
+    // The edit reached the file, and comes back with the logs
+    CSVHandler other = new CSVHandler(dir, CacheBudget.unlimited());
+    other.loadUserProfilesFromCsvs();
+    assertEquals(11, ids(other.getUserProfiles().get(0)).size());
+    assertEquals(11, ids(cold).size());
+    assertFalse(cold.getLog(DAY).isDirty());
+  }
+
+  @Test
+  public void pinnedProfilesAreNeverEvicted() throws IOException {
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(15));
+    UserProfile current = user("Current", 10);
+    handler.saveUserProfileToCsv(current);
+    handler.pin(current);
+    UserProfile other = user("Other", 10);
+    handler.saveUserProfileToCsv(other);
+    current.getLogs(); // the pinned profile is the least recently used one
+
+    assertEquals(1, handler.trimToBudget());
+    assertTrue(current.areLogsLoaded());
+    assertFalse(other.areLogsLoaded());
+
+    handler.unpin(current);
+    other.getLogs();
+    assertEquals(1, handler.trimToBudget());
+    assertFalse(current.areLogsLoaded());
+  }
+
+  @Test
+  public void editsThroughAnEvictedLogFailInsteadOfBeingLost() throws IOException {
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(5));
+    UserProfile user = user("Gorpo", 10);
+    handler.saveUserProfileToCsv(user);
+    DailyLog stale = user.getLog(DAY);
+    assertEquals(1, handler.trimToBudget());
+
+    try {
+      stale.addEntry(new FoodEntry("apple", 52));
+      fail("Edit to an evicted log accepted");
+    } catch (IllegalStateException expected) {
+      // Expected
+    }
+    DailyLog fresh = user.getLog(DAY);
+    assertNotSame(stale, fresh);
+    assertEquals(stale.getEntries().size(), fresh.getEntries().size());
+    fresh.addEntry(new FoodEntry("apple", 52));
+    assertTrue(fresh.isDirty());
+  }
+
+  @Test
+  public void readsRacingEvictionAlwaysSeeTheDay() throws Exception {
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(1));
+    UserProfile user = user("Gorpo", 10);
+    handler.saveUserProfileToCsv(user);
+    AtomicInteger evictions = new AtomicInteger();
+    AtomicBoolean done = new AtomicBoolean();
+    Thread evictor = new Thread(() -> {
+      try {
+        while (!done.get()) {
+          evictions.addAndGet(handler.trimToBudget());
+        }
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    });
+    evictor.start();
+    try {
+      long end = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(300);
+      while (System.nanoTime() < end) {
+        assertNotNull(user.getLog(DAY));
+        assertEquals(3, user.getLogs().size());
+        Thread.yield();
+      }
+    } finally {
+      done.set(true);
+      evictor.join();
+    }
+    assertTrue("no eviction raced the reads", evictions.get() > 0);
+  }
+
+  @Test
+  public void watcherDoesNotReportReloadedEntriesAgain() throws IOException {
+    AtomicInteger added = new AtomicInteger();
+    AtomicInteger removed = new AtomicInteger();
+    LogEntryWatcher watcher = new LogEntryWatcher(new LogEntryListener() {
+      @Override
+      public void entryAdded(UserProfile user, LocalDate date, Loggable entry) {
+        added.incrementAndGet();
+      }
+
+      @Override
+      public void entryRemoved(UserProfile user, LocalDate date, Loggable entry) {
+        removed.incrementAndGet();
+      }
+    });
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(5));
+    UserProfile user = user("Gorpo", 10);
+    handler.saveUserProfileToCsv(user);
+    watcher.addProfile(user);
+    assertEquals(10, added.get());
+
+    assertEquals(1, handler.trimToBudget());
+    assertEquals(10, user.getLogs().stream().mapToInt(log -> log.getEntries().size()).sum());
+    assertEquals(10, added.get());
+    assertEquals(0, removed.get());
+
+    user.getLog(DAY).addEntry(new FoodEntry("apple", 52));
+    assertEquals(11, added.get());
+  }
+
+  @Test
+  public void entriesReadWithoutIdsKeepTheirIdsAcrossEviction() throws IOException {
+    new CSVHandler(dir, CacheBudget.unlimited()).saveUserProfileToCsv(user("Gorpo", 10));
+    // Drop the id columns, as in files written before entries had ids
+    Path file = dir.resolve("Gorpo.csv");
+    StringBuilder legacy = new StringBuilder();
+    for (String line : Files.readAllLines(file)) {
+      if (line.startsWith("DailyLog,")) {
+        String[] parts = line.split(",");
+        line = String.join(",", Arrays.copyOf(parts, 4));
+      }
+      legacy.append(line).append('\n');
+    }
+    Files.writeString(file, legacy);
+
+    CSVHandler handler = new CSVHandler(dir, CacheBudget.entries(5));
+    handler.loadUserProfilesFromCsvs();
+    UserProfile user = handler.getUserProfiles().get(0);
+    List<Long> reported = new ArrayList<>();
+    LogEntryWatcher watcher = new LogEntryWatcher(new LogEntryListener() {
+      @Override
+      public void entryAdded(UserProfile user, LocalDate date, Loggable entry) {
+        reported.add(entry.getId());
+      }
+
+      @Override
+      public void entryRemoved(UserProfile user, LocalDate date, Loggable entry) {
+        reported.remove(Long.valueOf(entry.getId()));
+      }
+    });
+    watcher.addProfile(user);
+    assertEquals(10, reported.size());
+
+    assertEquals(1, handler.trimToBudget());
+    assertFalse(user.areLogsLoaded());
+    List<Long> reloaded = ids(user);
+    assertEquals(10, reloaded.size());
+    assertTrue(reloaded.containsAll(reported));
+    assertEquals(10, reported.size());
+  }
+
+  @Test
+  public void budgetsParseSizesAndSystemProperties() {
+    assertEquals(5000, CacheBudget.parseSize("5000"));
+    assertEquals(200 * 1024, CacheBudget.parseSize("200k"));
+    assertEquals(64L << 20, CacheBudget.parseSize("64M"));
+    assertTrue(CacheBudget.unlimited().isUnlimited());
+    assertEquals(CacheBudget.Unit.BYTES, CacheBudget.bytes(1).getUnit());
+
+    System.setProperty(CacheBudget.MAX_ENTRIES_PROPERTY, "2k");
+    try {
+      CacheBudget budget = CacheBudget.fromSystemProperties();
+      assertEquals(CacheBudget.Unit.ENTRIES, budget.getUnit());
+      assertEquals(2048, budget.getLimit());
+    } finally {
+      System.clearProperty(CacheBudget.MAX_ENTRIES_PROPERTY);
+    }
+    try {
+      CacheBudget.parseSize("lots");
+      fail("Bad size accepted");
+    } catch (IllegalArgumentException expected) {
+      // Expected
+    }
+  }
+}
@@ -0,0 +1,101 @@
+import static org.junit.Assert.*;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import GragasApp.loadtest.Latency;
+import GragasApp.loadtest.NutritionFixtures;
+import GragasApp.loadtest.StubNutritionServer;
+import GragasApp.model.APICaller;
+import GragasApp.model.FoodEntry;
+import GragasApp.model.Nutrient;
+import org.junit.Test;
+
+
+public class TestStubNutritionServer {
+
+  @Test
+  public void queriesAreSplitScaledAndMatchedAgainstFixtures() throws Exception {
+    NutritionFixtures fixtures = NutritionFixtures.defaults();
+    double[] nutrients = new double[Nutrient.COUNT];
+    double calories = APICaller.decodeNutrition(fixtures.respond("2 eggs and toast"), nutrients);
+    assertEquals(2 * 72 + 87, calories, 0.01);
+    assertEquals(2 * 6.3 + 2.7, nutrients[Nutrient.PROTEIN.ordinal()], 0.01);
+    assertEquals(412 * 0.5, APICaller.decodeNutrition(fixtures.respond("99g Salmon"), null), 0.01);
+    // Unknown items are left out, as the real service does
+    assertEquals("[]", fixtures.respond("unicorn steak"));
+    assertEquals(2 + 122, APICaller.decodeNutrition(fixtures.respond("coffee with milk, dragonfruit"), null), 0.01);
+
+    Path file = Files.createTempFile("fixtures", ".csv");
+    try {
+      Files.writeString(file, "# test table\nname,calories,serving_size_g,protein_g\nTofu,94,126,10.0\n");
+      NutritionFixtures custom = NutritionFixtures.load(file);
+      assertEquals(1, custom.size());
+      assertEquals(188, APICaller.decodeNutrition(custom.respond("2 tofu"), null), 0.01);
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void latencySpecsRoundTripAndStayInRange() {
+    assertEquals("uniform:5:10", Latency.parse("uniform:5:10").toString());
+    assertEquals("fixed:20", Latency.parse("20").toString());
+    assertEquals("none", Latency.parse("fixed:0").toString());
+    Random random = new Random(1);
+    Latency uniform = Latency.uniform(5, 10);
+    for (int i = 0; i < 1000; i++) {
+      long delay = uniform.sampleMillis(random);
+      assertTrue(delay >= 5 && delay <= 10);
+      assertTrue(Latency.logNormal(40, 0.5).sampleMillis(random) >= 0);
+    }
+    try {
+      Latency.parse("gaussian:5");
+      fail("Unknown distribution accepted");
+    } catch (IllegalArgumentException expected) {
+      // Expected
+    }
+  }
+
+  @Test
+  public void theRealClientSeesFixturesErrorsAndRateLimits() throws Exception {
+    try (StubNutritionServer server = new StubNutritionServer(0)) {
+      APICaller api = APICaller.forService(server.getBaseUrl(), "test-key");
+      FoodEntry entry = api.lookupFood("banana");
+      assertEquals("banana", entry.getName());
+      assertEquals(105, entry.getCalories(), 0.01);
+
+      server.setErrorRate(1);
+      try {
+        api.lookupFood("banana");
+        fail("Injected error not reported");
+      } catch (Exception expected) {
+        assertTrue(expected.getMessage(), expected.getMessage().contains("500"));
+      }
+      server.setErrorRate(0);
+
+      server.setRateLimit(2);
+      int limited = 0;
+      for (int i = 0; i < 5; i++) {
+        try {
+          api.lookupFood("apple");
+        } catch (Exception expected) {
+          assertTrue(expected.getMessage(), expected.getMessage().contains("429"));
+          limited++;
+        }
+      }
+      assertTrue("Expected requests beyond the limit to be refused", limited >= 2);
+      assertEquals(limited, server.getRateLimitedCount());
+      assertEquals(1, server.getInjectedErrorCount());
+      assertEquals(7, server.getRequestCount());
+
+      try {
+        APICaller.forService(server.getBaseUrl(), "").lookupFood("banana");
+        fail("Missing key accepted");
+      } catch (Exception expected) {
+        // A 400, or a 429 if still inside the window
+        assertTrue(expected.getMessage(), expected.getMessage().matches("Error: (400|429).*"));
+      }
+    }
+  }
+}
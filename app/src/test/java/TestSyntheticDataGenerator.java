@@ -0,0 +1,81 @@
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import GragasApp.model.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+public class TestSyntheticDataGenerator {
+
+  private Path dir;
+
+  @Before
+  public void setUp() throws IOException {
+    dir = Files.createTempDirectory("gragas-synthetic");
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      files.sorted(Comparator.reverseOrder()).forEach(p -> p.toFile().delete());
+    }
+  }
+
+  @Test
+  public void sameSeedWritesIdenticalFiles() throws IOException {
+    new SyntheticDataGenerator(7, 30, 4).writeUsers(dir.resolve("a"), 3);
+    new SyntheticDataGenerator(7, 30, 4).writeUsers(dir.resolve("b"), 3);
+    new SyntheticDataGenerator(8, 30, 4).writeUsers(dir.resolve("c"), 3);
+
+    String file = SyntheticDataGenerator.userName(2) + ".csv";
+    byte[] first = Files.readAllBytes(dir.resolve("a").resolve(file));
+    assertTrue(Arrays.equals(first, Files.readAllBytes(dir.resolve("b").resolve(file))));
+    assertFalse(Arrays.equals(first, Files.readAllBytes(dir.resolve("c").resolve(file))));
+  }
+
+  @Test
+  public void writtenFilesLoadWithTheRequestedShape() throws IOException {
+    SyntheticDataGenerator generator = new SyntheticDataGenerator(1, 60, 5);
+    generator.writeUsers(dir, 4);
+
+    CSVHandler handler = new CSVHandler(dir);
+    handler.loadUserProfilesFromCsvs();
+    List<UserProfile> users = handler.getUserProfiles();
+    assertEquals(4, users.size());
+    for (UserProfile user : users) {
+      assertEquals(60, user.getLogs().size());
+      assertEquals(SyntheticDataGenerator.DEFAULT_LAST_DAY, user.getLogDates().last());
+      for (DailyLog log : user.getLogs()) {
+        assertEquals(5, log.size());
+      }
+    }
+    UserProfile regenerated = generator.generateUser(0);
+    UserProfile loaded = users.stream().filter(u -> u.getName().equals(regenerated.getName())).findFirst().get();
+    assertEquals(regenerated.getLogs().get(10).getEntries(), loaded.getLogs().get(10).getEntries());
+  }
+
+  @Test
+  public void foodPopularityHasAHeadAndALongTail() {
+    UserProfile user = new SyntheticDataGenerator(3, 365, 5).generateUser(0);
+    Map<String, Integer> counts = new HashMap<>();
+    for (DailyLog log : user.getLogs()) {
+      for (Loggable entry : log.getEntries()) {
+        counts.merge(entry.getName(), 1, Integer::sum);
+      }
+    }
+    int top = counts.values().stream().max(Integer::compare).get();
+    long onceOnly = counts.values().stream().filter(c -> c == 1).count();
+    assertTrue("the favourite food should be common, was " + top, top > 365 * 5 / 10);
+    assertTrue("many names should be rare, was " + onceOnly, onceOnly > 20);
+  }
+}
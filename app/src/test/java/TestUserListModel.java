@@ -0,0 +1,78 @@
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import javax.swing.event.ListDataEvent;
+import javax.swing.event.ListDataListener;
+import GragasApp.view.UserListModel;
+import org.junit.Test;
+
+
+public class TestUserListModel {
+
+  @Test
+  public void keepsNamesSortedIgnoringCaseAsTheyArrive() {
+    UserListModel model = new UserListModel();
+    model.setNames(Arrays.asList("Treevo", "gorpo", "Alice"));
+    model.addName("bob");
+    model.addName("Gorpo");
+    model.addName("bob"); // already listed
+
+    assertEquals(5, model.getSize());
+    List<String> shown = new ArrayList<>();
+    for (int i = 0; i < model.getSize(); i++) shown.add(model.getElementAt(i));
+    assertEquals(Arrays.asList("Alice", "bob", "Gorpo", "gorpo", "Treevo"), shown);
+  }
+
+  @Test
+  public void filtersByPrefixAndReportsInsertionsInsideTheFilter() {
+    UserListModel model = new UserListModel();
+    model.setNames(Arrays.asList("Mara", "Marek", "Zed", "Amy"));
+    model.setFilter(" MAR");
+    assertEquals(2, model.getSize());
+    assertEquals("Mara", model.getElementAt(0));
+    assertEquals(-1, model.indexOf("Zed"));
+
+    List<ListDataEvent> added = new ArrayList<>();
+    ListDataListener listener = new ListDataListener() {
+      @Override public void intervalAdded(ListDataEvent e) { added.add(e); }
+      @Override public void intervalRemoved(ListDataEvent e) { fail("unexpected removal"); }
+      @Override public void contentsChanged(ListDataEvent e) { fail("unexpected change"); }
+    };
+    model.addListDataListener(listener);
+    model.addName("Abe");     // before the range, not shown
+    model.addName("Marbles"); // inside it
+    model.addName("Nia");     // after it
+
+    assertEquals(1, added.size());
+    assertEquals(1, added.get(0).getIndex0());
+    assertEquals(Arrays.asList("Mara", "Marbles", "Marek"),
+        Arrays.asList(model.getElementAt(0), model.getElementAt(1), model.getElementAt(2)));
+    model.removeListDataListener(listener);
+    model.setFilter("");
+    assertEquals(7, model.getSize());
+  }
+
+  @Test
+  public void matchesASortedSetUnderRandomInsertions() {
+    UserListModel model = new UserListModel();
+    TreeSet<String> expected = new TreeSet<>();
+    Random random = new Random(42);
+    model.setFilter("b");
+    for (int i = 0; i < 20000; i++) {
+      String name = (char) ('a' + random.nextInt(4)) + Integer.toString(random.nextInt(100000), 36);
+      model.addName(name);
+      expected.add(name);
+    }
+    List<String> matching = new ArrayList<>(expected.subSet("b", "c"));
+    assertEquals(expected.size(), model.getTotalSize());
+    assertEquals(matching.size(), model.getSize());
+    for (int i = 0; i < matching.size(); i += 97) {
+      assertEquals(matching.get(i), model.getElementAt(i));
+      assertEquals(i, model.indexOf(matching.get(i)));
+    }
+  }
+}